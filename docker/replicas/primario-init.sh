@@ -0,0 +1,5 @@
+#!/bin/bash
+# Executado na criação do primário: libera conexões de replicação (usadas pelo pg_basebackup e
+# pela réplica) com o mesmo método de autenticação das demais conexões.
+set -e
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -0,0 +1,16 @@
+#!/bin/bash
+# Na primeira execução, copia o primário com pg_basebackup (-R configura a réplica para seguir o
+# primário) e, a partir daí, inicia o PostgreSQL em modo standby.
+set -e
+export PGDATA=/var/lib/postgresql/replica
+
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+  until pg_basebackup -h postgres-primario -U root -D "$PGDATA" -R -X stream; do
+    echo "Aguardando o primário..."
+    sleep 2
+    rm -rf "$PGDATA"
+  done
+  chmod 0700 "$PGDATA"
+fi
+
+exec postgres -D "$PGDATA"
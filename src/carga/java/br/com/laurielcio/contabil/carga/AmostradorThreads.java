@@ -0,0 +1,69 @@
+package br.com.laurielcio.contabil.carga;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Consulta jvm.threads.live no actuator da aplicação a cada segundo e guarda o maior valor. A
+ * métrica conta apenas threads de plataforma, então mostra quantas threads a aplicação precisou
+ * para atender a carga, com ou sem threads virtuais. Com a aplicação iniciada pelo teste, os
+ * clientes simulados também contam, a menos que rodem em threads virtuais.
+ */
+public class AmostradorThreads {
+
+    private static final long INTERVALO_MS = 1000;
+
+    private final RestTemplate restTemplate;
+
+    private volatile boolean ativo;
+
+    private volatile long maximo = -1;
+
+    private Thread thread;
+
+    public AmostradorThreads(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    public void iniciar() {
+        ativo = true;
+        thread = new Thread(() -> {
+            while (ativo) {
+                amostrar();
+                try {
+                    TimeUnit.MILLISECONDS.sleep(INTERVALO_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "carga-amostrador-threads");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void parar() throws InterruptedException {
+        ativo = false;
+        thread.interrupt();
+        thread.join();
+        amostrar();
+    }
+
+    public long getMaximo() {
+        return maximo;
+    }
+
+    private void amostrar() {
+        try {
+            JsonNode metrica = restTemplate.getForObject("/actuator/metrics/jvm.threads.live", JsonNode.class);
+            if (metrica != null) {
+                maximo = Math.max(maximo, metrica.path("measurements").path(0).path("value").asLong(-1));
+            }
+        } catch (RestClientException e) {
+            // sem actuator ou aplicação sobrecarregada: a amostra é descartada
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.laurielcio.contabil.carga;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * Parâmetros do teste de carga, informados como argumentos chave=valor
+ * (mvn -Pcarga verify -Dcarga.args="concorrencia=32 duracao=60").
+ */
+@Getter
+public class ConfiguracaoCarga {
+
+    /**
+     * URL de uma aplicação já em execução; vazia, a aplicação é iniciada pelo próprio teste.
+     */
+    private final String url;
+
+    private final String jdbcUrl;
+
+    private final String usuario;
+
+    private final String senha;
+
+    /**
+     * Quantidade mínima de contas na base; a diferença é gerada antes das medições.
+     */
+    private final long linhas;
+
+    private final int concorrencia;
+
+    /**
+     * Limite do pool de conexões da aplicação iniciada pelo teste; com milhares de clientes, o
+     * banco não comporta uma conexão por cliente.
+     */
+    private final int poolConexoes;
+
+    /**
+     * Se a aplicação iniciada pelo teste atende as requisições em threads virtuais.
+     */
+    private final boolean threadsVirtuais;
+
+    /**
+     * Se cada cliente simulado roda em uma thread virtual (padrão quando o JDK suporta), para que
+     * milhares de clientes não exijam milhares de threads no próprio teste.
+     */
+    private final boolean clientesVirtuais;
+
+    private final int concorrenciaImportacao;
+
+    private final int aquecimentoSegundos;
+
+    private final int duracaoSegundos;
+
+    private final int linhasArquivo;
+
+    private final List<String> cenarios;
+
+    private final String resultado;
+
+    public ConfiguracaoCarga(String[] args) {
+        Map<String, String> valores = new HashMap<>();
+        for (String arg : args) {
+            int separador = arg.indexOf('=');
+            if (separador > 0) {
+                valores.put(arg.substring(0, separador).trim(), arg.substring(separador + 1).trim());
+            }
+        }
+
+        url = valores.getOrDefault("url", "");
+        jdbcUrl = valores.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5433/contabil?reWriteBatchedInserts=true");
+        usuario = valores.getOrDefault("usuario", "root");
+        senha = valores.getOrDefault("senha", "root");
+        linhas = Long.parseLong(valores.getOrDefault("linhas", "2000000"));
+        concorrencia = Integer.parseInt(valores.getOrDefault("concorrencia", "16"));
+        poolConexoes = Integer.parseInt(valores.getOrDefault("pool-conexoes", "64"));
+        threadsVirtuais = Boolean.parseBoolean(valores.getOrDefault("threads-virtuais", "false"));
+        clientesVirtuais = Boolean.parseBoolean(valores.getOrDefault("clientes-virtuais", "true"));
+        concorrenciaImportacao = Integer.parseInt(valores.getOrDefault("concorrencia-importacao", "2"));
+        aquecimentoSegundos = Integer.parseInt(valores.getOrDefault("aquecimento", "10"));
+        duracaoSegundos = Integer.parseInt(valores.getOrDefault("duracao", "30"));
+        linhasArquivo = Integer.parseInt(valores.getOrDefault("linhas-arquivo", "10000"));
+        cenarios = Arrays.asList(valores.getOrDefault("cenarios", "lista,conta,valor-total-pago,importar-csv").split(","));
+        resultado = valores.getOrDefault("resultado", "target/carga-result.json");
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.laurielcio.contabil.carga;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import br.com.laurielcio.contabil.config.ThreadsVirtuaisConfig;
+
+/**
+ * Executa um cenário com um número fixo de clientes, cada um enviando a próxima requisição
+ * assim que recebe a resposta da anterior: primeiro durante o aquecimento, sem medir, e
+ * depois durante o período de medição. Durante a medição, as threads da aplicação são amostradas.
+ */
+public class ExecutorCenario {
+
+    /**
+     * Uma requisição do cenário; respostas de erro lançam {@link RestClientException}.
+     */
+    public interface Requisicao {
+
+        void executar(RestTemplate restTemplate, ThreadLocalRandom random);
+    }
+
+    private final RestTemplate restTemplate;
+
+    private final boolean clientesVirtuais;
+
+    public ExecutorCenario(RestTemplate restTemplate, boolean clientesVirtuais) {
+        this.restTemplate = restTemplate;
+        this.clientesVirtuais = clientesVirtuais;
+    }
+
+    public ResultadoCenario executar(String cenario, Requisicao requisicao, int concorrencia, int aquecimentoSegundos,
+                                     int duracaoSegundos) throws Exception {
+        System.out.printf("Cenário %s: %d clientes, %d s de aquecimento e %d s de medição...%n", cenario, concorrencia,
+                aquecimentoSegundos, duracaoSegundos);
+
+        rodar(requisicao, concorrencia, aquecimentoSegundos, new AtomicLong());
+
+        AtomicLong erros = new AtomicLong();
+        AmostradorThreads amostrador = new AmostradorThreads(restTemplate);
+        amostrador.iniciar();
+        long inicio = System.nanoTime();
+        List<long[]> latencias;
+        try {
+            latencias = rodar(requisicao, concorrencia, duracaoSegundos, erros);
+        } finally {
+            amostrador.parar();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        return new ResultadoCenario(cenario, latencias, erros.get(), segundos, amostrador.getMaximo());
+    }
+
+    private List<long[]> rodar(Requisicao requisicao, int concorrencia, int segundos, AtomicLong erros) throws Exception {
+        ExecutorService executor = clientesVirtuais ? ThreadsVirtuaisConfig.criarExecutor() : null;
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(concorrencia);
+        }
+        long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+
+        try {
+            List<Future<long[]>> futuros = new ArrayList<>();
+            for (int i = 0; i < concorrencia; i++) {
+                futuros.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long[] latencias = new long[1024];
+                    int quantidade = 0;
+
+                    while (System.nanoTime() < fim) {
+                        long inicio = System.nanoTime();
+                        try {
+                            requisicao.executar(restTemplate, random);
+                        } catch (RestClientException e) {
+                            erros.incrementAndGet();
+                        }
+
+                        if (quantidade == latencias.length) {
+                            latencias = Arrays.copyOf(latencias, quantidade * 2);
+                        }
+                        latencias[quantidade++] = (System.nanoTime() - inicio) / 1000;
+                    }
+                    return Arrays.copyOf(latencias, quantidade);
+                }));
+            }
+
+            List<long[]> resultado = new ArrayList<>();
+            for (Future<long[]> futuro : futuros) {
+                resultado.add(futuro.get());
+            }
+            return resultado;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
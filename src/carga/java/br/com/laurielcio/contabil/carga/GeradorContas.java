@@ -0,0 +1,67 @@
+package br.com.laurielcio.contabil.carga;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Gera contas com distribuição próxima à de produção: vencimentos espalhados em cinco anos,
+ * valores entre 10 e 5.000 e cerca de um terço das contas pagas.
+ */
+public class GeradorContas {
+
+    static final LocalDate PRIMEIRO_VENCIMENTO = LocalDate.of(2021, 1, 1);
+
+    static final int DIAS_VENCIMENTO = 5 * 365;
+
+    private static final String[] DESCRICOES = {"Mercado", "Padaria", "Farmácia", "Gás", "Água", "Luz", "Internet",
+            "Telefone", "Aluguel", "Condomínio", "Academia", "TV a cabo", "Combustível", "Estacionamento", "Impostos",
+            "Seguro", "Assinatura", "Lazer", "Presentes", "Roupas", "Fornecedor", "Manutenção", "Frete"};
+
+    private final Random random;
+
+    public GeradorContas(long semente) {
+        this.random = new Random(semente);
+    }
+
+    /**
+     * Linha no formato do COPY de contas_a_pagar (data_vencimento, data_pagamento, valor, descricao, situacao).
+     */
+    public void escreverLinhaCopy(Writer destino) throws IOException {
+        LocalDate vencimento = vencimento();
+        boolean paga = random.nextInt(3) == 0;
+
+        destino.write(vencimento.toString());
+        destino.write('\t');
+        destino.write(paga ? vencimento.minusDays(random.nextInt(5)).toString() : "\\N");
+        destino.write('\t');
+        destino.write(valor());
+        destino.write('\t');
+        destino.write(descricao());
+        destino.write('\t');
+        destino.write(paga ? "PAGA" : "PENDENTE");
+        destino.write('\n');
+    }
+
+    /**
+     * Linha no formato do arquivo de importação (dataVencimento,valor,descricao).
+     */
+    public String linhaCsv() {
+        return vencimento() + "," + valor() + "," + descricao();
+    }
+
+    public LocalDate vencimento() {
+        return PRIMEIRO_VENCIMENTO.plusDays(random.nextInt(DIAS_VENCIMENTO));
+    }
+
+    private String valor() {
+        int centavos = 1000 + random.nextInt(499_000);
+        int fracao = centavos % 100;
+        return (centavos / 100) + (fracao < 10 ? ".0" : ".") + fracao;
+    }
+
+    private String descricao() {
+        return DESCRICOES[random.nextInt(DESCRICOES.length)] + " " + (1 + random.nextInt(999));
+    }
+}
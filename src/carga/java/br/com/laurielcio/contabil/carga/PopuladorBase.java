@@ -0,0 +1,86 @@
+package br.com.laurielcio.contabil.carga;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Completa contas_a_pagar até a quantidade de linhas do teste, via COPY em blocos (cada bloco
+ * em sua transação, para que uma carga interrompida aproveite o que já foi gravado).
+ */
+public class PopuladorBase {
+
+    private static final int LINHAS_POR_BLOCO = 100_000;
+
+    private final ConfiguracaoCarga configuracao;
+
+    public PopuladorBase(ConfiguracaoCarga configuracao) {
+        this.configuracao = configuracao;
+    }
+
+    public void popular() throws SQLException, IOException {
+        try (Connection conexao = DriverManager.getConnection(configuracao.getJdbcUrl(), configuracao.getUsuario(), configuracao.getSenha())) {
+            long existentes = contar(conexao);
+            long faltantes = configuracao.getLinhas() - existentes;
+
+            if (faltantes <= 0) {
+                System.out.printf("Base com %,d contas; nenhuma conta gerada%n", existentes);
+                return;
+            }
+
+            System.out.printf("Base com %,d contas; gerando %,d...%n", existentes, faltantes);
+
+            CopyManager copyManager = conexao.unwrap(PGConnection.class).getCopyAPI();
+            GeradorContas gerador = new GeradorContas(existentes);
+            long inicio = System.nanoTime();
+
+            for (long geradas = 0; geradas < faltantes; geradas += LINHAS_POR_BLOCO) {
+                int linhasBloco = (int) Math.min(LINHAS_POR_BLOCO, faltantes - geradas);
+
+                StringWriter bloco = new StringWriter(linhasBloco * 64);
+                escrever(gerador, bloco, linhasBloco);
+
+                copyManager.copyIn("COPY contas_a_pagar (data_vencimento, data_pagamento, valor, descricao, situacao) FROM STDIN",
+                        new StringReader(bloco.toString()));
+            }
+
+            try (Statement statement = conexao.createStatement()) {
+                statement.execute("ANALYZE contas_a_pagar");
+            }
+
+            System.out.printf("%,d contas geradas em %d s%n", faltantes, (System.nanoTime() - inicio) / 1_000_000_000L);
+        }
+    }
+
+    private void escrever(GeradorContas gerador, Writer destino, int linhas) throws IOException {
+        for (int i = 0; i < linhas; i++) {
+            gerador.escreverLinhaCopy(destino);
+        }
+    }
+
+    private long contar(Connection conexao) throws SQLException {
+        try (Statement statement = conexao.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM contas_a_pagar")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    public long[] intervaloIds() throws SQLException {
+        try (Connection conexao = DriverManager.getConnection(configuracao.getJdbcUrl(), configuracao.getUsuario(), configuracao.getSenha());
+             Statement statement = conexao.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT min(id), max(id) FROM contas_a_pagar")) {
+            resultSet.next();
+            return new long[] {resultSet.getLong(1), resultSet.getLong(2)};
+        }
+    }
+}
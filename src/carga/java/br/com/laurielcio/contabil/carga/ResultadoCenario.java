@@ -0,0 +1,65 @@
+package br.com.laurielcio.contabil.carga;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import lombok.Getter;
+
+/**
+ * Latências (em microssegundos) e vazão de um cenário, calculadas sobre todas as requisições
+ * do período de medição, e o maior número de threads de plataforma da aplicação no período.
+ */
+@Getter
+public class ResultadoCenario {
+
+    private final String cenario;
+
+    private final long requisicoes;
+
+    private final long erros;
+
+    private final double requisicoesPorSegundo;
+
+    private final long p50;
+
+    private final long p99;
+
+    private final long p999;
+
+    private final long maximo;
+
+    /**
+     * Maior valor de jvm.threads.live amostrado; -1 se a aplicação não expõe a métrica.
+     */
+    private final long threadsAplicacao;
+
+    public ResultadoCenario(String cenario, List<long[]> latenciasPorThread, long erros, double segundos, long threadsAplicacao) {
+        long[] latencias = latenciasPorThread.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+
+        this.cenario = cenario;
+        this.requisicoes = latencias.length;
+        this.erros = erros;
+        this.requisicoesPorSegundo = latencias.length / segundos;
+        this.p50 = percentil(latencias, 0.50);
+        this.p99 = percentil(latencias, 0.99);
+        this.p999 = percentil(latencias, 0.999);
+        this.maximo = latencias.length > 0 ? latencias[latencias.length - 1] : 0;
+        this.threadsAplicacao = threadsAplicacao;
+    }
+
+    private long percentil(long[] ordenadas, double percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int posicao = (int) Math.ceil(percentil * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, Math.min(posicao, ordenadas.length - 1))];
+    }
+
+    public String toJson() {
+        return String.format(Locale.ROOT,
+                "{\"cenario\":\"%s\",\"requisicoes\":%d,\"erros\":%d,\"requisicoesPorSegundo\":%.1f,"
+                        + "\"p50Us\":%d,\"p99Us\":%d,\"p999Us\":%d,\"maximoUs\":%d,\"threadsAplicacao\":%d}",
+                cenario, requisicoes, erros, requisicoesPorSegundo, p50, p99, p999, maximo, threadsAplicacao);
+    }
+}
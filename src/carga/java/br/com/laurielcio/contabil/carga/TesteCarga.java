@@ -0,0 +1,180 @@
+package br.com.laurielcio.contabil.carga;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import br.com.laurielcio.contabil.ContabilApplication;
+
+/**
+ * Teste de carga ponta a ponta: inicia a aplicação contra o PostgreSQL local (o do
+ * docker-compose, porta 5433, por padrão), completa a base com contas geradas e mede cada
+ * endpoint separadamente, reportando p50/p99/p999 e requisições por segundo.
+ */
+public class TesteCarga {
+
+    public static void main(String[] args) throws Exception {
+        ConfiguracaoCarga configuracao = new ConfiguracaoCarga(args);
+
+        // conexões reaproveitadas pelo HttpURLConnection usado pelo RestTemplate
+        System.setProperty("http.maxConnections", String.valueOf(Math.max(configuracao.getConcorrencia(), 5)));
+
+        ConfigurableApplicationContext contexto = null;
+        String url = configuracao.getUrl();
+
+        try {
+            if (url.isEmpty()) {
+                contexto = iniciarAplicacao(configuracao);
+                url = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+            }
+
+            PopuladorBase populador = new PopuladorBase(configuracao);
+            populador.popular();
+            long[] ids = populador.intervaloIds();
+
+            RestTemplate restTemplate = new RestTemplate();
+            restTemplate.setUriTemplateHandler(new DefaultUriBuilderFactory(url));
+            ExecutorCenario executor = new ExecutorCenario(restTemplate, configuracao.isClientesVirtuais());
+
+            List<ResultadoCenario> resultados = new ArrayList<>();
+            for (String cenario : configuracao.getCenarios()) {
+                resultados.add(executarCenario(cenario.trim(), executor, configuracao, ids));
+            }
+
+            imprimir(resultados);
+            gravar(resultados, Paths.get(configuracao.getResultado()));
+        } finally {
+            if (contexto != null) {
+                contexto.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext iniciarAplicacao(ConfiguracaoCarga configuracao) {
+        return new SpringApplicationBuilder(ContabilApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=" + configuracao.getJdbcUrl(),
+                        "spring.datasource.username=" + configuracao.getUsuario(),
+                        "spring.datasource.password=" + configuracao.getSenha(),
+                        "spring.datasource.hikari.maximum-pool-size="
+                                + Math.min(Math.max(10, configuracao.getConcorrencia()), configuracao.getPoolConexoes()),
+                        "contabil.threads-virtuais.habilitado=" + configuracao.isThreadsVirtuais(),
+                        "server.tomcat.max-connections=" + Math.max(8192, configuracao.getConcorrencia() * 2),
+                        "spring.jpa.show-sql=false",
+                        "spring.devtools.restart.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    private static ResultadoCenario executarCenario(String cenario, ExecutorCenario executor, ConfiguracaoCarga configuracao,
+                                                    long[] ids) throws Exception {
+        int aquecimento = configuracao.getAquecimentoSegundos();
+        int duracao = configuracao.getDuracaoSegundos();
+        int concorrencia = configuracao.getConcorrencia();
+
+        switch (cenario) {
+            case "lista":
+                return executor.executar(cenario, (restTemplate, random) -> {
+                    if (random.nextBoolean()) {
+                        restTemplate.getForObject("/contas/lista?page={page}&size=10", String.class, random.nextInt(100));
+                    } else {
+                        restTemplate.getForObject("/contas/lista?dataVencimento={data}&size=10", String.class,
+                                GeradorContas.PRIMEIRO_VENCIMENTO.plusDays(random.nextInt(GeradorContas.DIAS_VENCIMENTO)));
+                    }
+                }, concorrencia, aquecimento, duracao);
+            case "conta":
+                return executor.executar(cenario, (restTemplate, random) ->
+                        restTemplate.getForObject("/contas/{id}", String.class, random.nextLong(ids[0], ids[1] + 1)),
+                        concorrencia, aquecimento, duracao);
+            case "valor-total-pago":
+                return executor.executar(cenario, (restTemplate, random) -> {
+                    LocalDate inicio = GeradorContas.PRIMEIRO_VENCIMENTO.plusDays(random.nextInt(GeradorContas.DIAS_VENCIMENTO));
+                    restTemplate.getForObject("/contas/valor-total-pago?dataInicial={inicio}&dataFinal={fim}", String.class,
+                            inicio, inicio.plusDays(1 + random.nextInt(365)));
+                }, concorrencia, aquecimento, duracao);
+            case "importar-csv":
+                List<String> linhas = linhasImportacao(configuracao.getLinhasArquivo());
+                String execucao = Long.toString(System.currentTimeMillis(), 36);
+                AtomicLong arquivos = new AtomicLong();
+                return executor.executar(cenario, (restTemplate, random) ->
+                        restTemplate.postForObject("/contas/importar-csv",
+                                arquivoImportacao(linhas, "carga-" + execucao + "-" + arquivos.incrementAndGet()), String.class),
+                        configuracao.getConcorrenciaImportacao(), aquecimento, duracao);
+            default:
+                throw new IllegalArgumentException("Cenário desconhecido: " + cenario);
+        }
+    }
+
+    private static List<String> linhasImportacao(int quantidade) {
+        GeradorContas gerador = new GeradorContas(quantidade);
+        List<String> linhas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            linhas.add(gerador.linhaCsv());
+        }
+        return linhas;
+    }
+
+    /**
+     * Cada requisição envia as mesmas linhas com ids externos próprios ({@code prefixo}-linha): sem
+     * eles, a partir da segunda requisição o arquivo seria ignorado como já importado.
+     */
+    private static HttpEntity<MultiValueMap<String, Object>> arquivoImportacao(List<String> linhas, String prefixo) {
+        StringBuilder csv = new StringBuilder("dataVencimento,valor,descricao,idExterno\n");
+        for (int i = 0; i < linhas.size(); i++) {
+            csv.append(linhas.get(i)).append(',').append(prefixo).append('-').append(i).append('\n');
+        }
+
+        ByteArrayResource conteudo = new ByteArrayResource(csv.toString().getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return "carga.csv";
+            }
+        };
+
+        MultiValueMap<String, Object> corpo = new LinkedMultiValueMap<>();
+        corpo.add("file", conteudo);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        return new HttpEntity<>(corpo, headers);
+    }
+
+    private static void imprimir(List<ResultadoCenario> resultados) {
+        System.out.println();
+        System.out.printf("%-18s %10s %8s %10s %10s %10s %10s %10s %8s%n", "cenário", "requisições", "erros", "req/s",
+                "p50 (ms)", "p99 (ms)", "p999 (ms)", "máx (ms)", "threads");
+        for (ResultadoCenario resultado : resultados) {
+            System.out.printf("%-18s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f %8d%n", resultado.getCenario(),
+                    resultado.getRequisicoes(), resultado.getErros(), resultado.getRequisicoesPorSegundo(),
+                    resultado.getP50() / 1000.0, resultado.getP99() / 1000.0, resultado.getP999() / 1000.0,
+                    resultado.getMaximo() / 1000.0, resultado.getThreadsAplicacao());
+        }
+    }
+
+    private static void gravar(List<ResultadoCenario> resultados, Path destino) throws IOException {
+        if (destino.getParent() != null) {
+            Files.createDirectories(destino.getParent());
+        }
+        String json = resultados.stream().map(ResultadoCenario::toJson).collect(Collectors.joining(",\n  ", "[\n  ", "\n]\n"));
+        Files.write(destino, json.getBytes(StandardCharsets.UTF_8));
+        System.out.println("Resultado gravado em " + destino.toAbsolutePath());
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.laurielcio.contabil.controller;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+
+/**
+ * Custo do link self de cada conta, gerado pelo proxy de {@link WebMvcLinkBuilder#methodOn} como
+ * nos endpoints de {@link ContaController}. Sem requisição em andamento, a URI base é "/".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ContaLinkBenchmark {
+
+    private long id;
+
+    @Benchmark
+    public Link linkSelf() {
+        return WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ContaController.class).obterContaPorId(++id, null)).withSelfRel();
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.laurielcio.contabil.repository;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.laurielcio.contabil.ContabilApplication;
+import br.com.laurielcio.contabil.response.ContaResponse;
+
+/**
+ * Uma página de /contas/lista lida como entidades (findAll, como antes das projeções) e como
+ * {@link ContaProjecao}, ambas convertidas em {@link ContaResponse} dentro de uma transação
+ * somente leitura. Usa o PostgreSQL local (o do docker-compose, já populado pelo teste de carga);
+ * outra base pode ser informada com -Djdbc.url. Para a alocação por página, execute com -prof gc:
+ * mvn -Pjmh verify -Djmh.args="ContaListaBenchmark -prof gc".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContaListaBenchmark {
+
+    /**
+     * As páginas são sorteadas entre as primeiras, para medir a leitura e não o OFFSET.
+     */
+    private static final int PAGINAS = 100;
+
+    @Param({"10", "100", "1000"})
+    private int tamanhoPagina;
+
+    private ConfigurableApplicationContext contexto;
+
+    private ContaRepository contaRepository;
+
+    private TransactionTemplate somenteLeitura;
+
+    @Setup
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(ContabilApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=" + System.getProperty("jdbc.url", "jdbc:postgresql://localhost:5433/contabil"),
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        contaRepository = contexto.getBean(ContaRepository.class);
+        somenteLeitura = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        somenteLeitura.setReadOnly(true);
+
+        if (contaRepository.count() < (long) PAGINAS * tamanhoPagina) {
+            throw new IllegalStateException("A base precisa de ao menos " + PAGINAS * tamanhoPagina
+                    + " contas; popule-a com o teste de carga (mvn -Pcarga verify)");
+        }
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Page<ContaResponse> entidades() {
+        PageRequest pagina = PageRequest.of(ThreadLocalRandom.current().nextInt(PAGINAS), tamanhoPagina);
+        return somenteLeitura.execute(status -> contaRepository.findAll(pagina).map(ContaResponse::new));
+    }
+
+    @Benchmark
+    public Page<ContaResponse> projecoes() {
+        PageRequest pagina = PageRequest.of(ThreadLocalRandom.current().nextInt(PAGINAS), tamanhoPagina);
+        return somenteLeitura.execute(status -> contaRepository.listar(pagina).map(ContaResponse::new));
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.laurielcio.contabil.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.hateoas.Link;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import br.com.laurielcio.contabil.entity.ContaEntity;
+import br.com.laurielcio.contabil.entity.SituacaoEnum;
+
+/**
+ * Montagem da página de {@link ContaResponse} retornada por /contas/lista: conversão das entidades
+ * e serialização JSON com a configuração de datas do Spring Boot, nos tamanhos de página usuais.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ContaResponseBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int tamanhoPagina;
+
+    private ObjectMapper objectMapper;
+
+    private List<ContaEntity> contas;
+
+    private Page<ContaResponse> pagina;
+
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        contas = new ArrayList<>(tamanhoPagina);
+        for (int i = 0; i < tamanhoPagina; i++) {
+            ContaEntity conta = new ContaEntity();
+            conta.setId((long) i + 1);
+            conta.setDataVencimento(LocalDate.of(2024, 1, 1).plusDays(i % 365));
+            conta.setValor(BigDecimal.valueOf(10000 + i, 2));
+            conta.setDescricao("Conta de teste número " + i);
+            conta.setSituacao(i % 3 == 0 ? SituacaoEnum.PAGA : SituacaoEnum.PENDENTE);
+            if (conta.getSituacao() == SituacaoEnum.PAGA) {
+                conta.setDataPagamento(conta.getDataVencimento());
+            }
+            contas.add(conta);
+        }
+
+        pagina = mapear();
+        pagina.forEach(conta -> conta.add(Link.of("http://localhost:8090/contas/" + conta.getId())));
+    }
+
+    @Benchmark
+    public Page<ContaResponse> mapear() {
+        List<ContaResponse> content = contas.stream().map(ContaResponse::new).collect(Collectors.toList());
+        return new PageImpl<>(content, PageRequest.of(0, tamanhoPagina), 1_000_000);
+    }
+
+    @Benchmark
+    public byte[] serializar() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.laurielcio.contabil.service.importacao;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Conversão de linhas do CSV em contas, pelos dois caminhos da importação: a partir de String
+ * e direto dos bytes do arquivo mapeado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ContaCsvParserBenchmark {
+
+    private static final String[] DESCRICOES = {"Mercado", "Farmácia", "Aluguel, condomínio e \"extras\"",
+            "Internet fibra 500 mega", "Combustível"};
+
+    @Param({"1000"})
+    private int linhas;
+
+    private ContaCsvParser parser;
+
+    private String[] linhasTexto;
+
+    private ByteBuffer arquivo;
+
+    private int[] inicioLinhas;
+
+    private int[] fimLinhas;
+
+    @Setup
+    public void preparar() {
+        parser = new ContaCsvParser();
+        linhasTexto = new String[linhas];
+        inicioLinhas = new int[linhas];
+        fimLinhas = new int[linhas];
+
+        StringBuilder conteudo = new StringBuilder();
+        LocalDate vencimento = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < linhas; i++) {
+            String descricao = DESCRICOES[i % DESCRICOES.length];
+            if (descricao.indexOf(',') >= 0) {
+                descricao = "\"" + descricao.replace("\"", "\"\"") + "\"";
+            }
+            linhasTexto[i] = vencimento.plusDays(i % 365) + "," + (i % 5000) + "." + (i % 100) + "," + descricao;
+            conteudo.append(linhasTexto[i]).append('\n');
+        }
+
+        byte[] bytes = conteudo.toString().getBytes(StandardCharsets.UTF_8);
+        arquivo = ByteBuffer.allocateDirect(bytes.length);
+        arquivo.put(bytes);
+
+        int linha = 0;
+        int inicio = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                inicioLinhas[linha] = inicio;
+                fimLinhas[linha++] = i;
+                inicio = i + 1;
+            }
+        }
+    }
+
+    @Benchmark
+    public void parseTexto(Blackhole blackhole) {
+        for (String linha : linhasTexto) {
+            blackhole.consume(parser.parse(linha));
+        }
+    }
+
+    @Benchmark
+    public void parseBytes(Blackhole blackhole) {
+        for (int i = 0; i < linhas; i++) {
+            blackhole.consume(parser.parse(arquivo, inicioLinhas[i], fimLinhas[i]));
+        }
+    }
+
+    @Benchmark
+    public void dividirCampos(Blackhole blackhole) {
+        int[] limites = new int[9];
+        for (int i = 0; i < linhas; i++) {
+            blackhole.consume(CsvTokenizer.dividir(arquivo, inicioLinhas[i], fimLinhas[i], limites));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.laurielcio.contabil.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "contabil.alertas")
+public class AlertasProperties {
+
+    private boolean habilitado = false;
+
+    /**
+     * Intervalo entre as verificações: leitura dos eventos novos e avanço da roda até o dia atual.
+     */
+    private long intervaloMs = 60000;
+
+    /**
+     * Dias antes do vencimento em que a conta pendente gera o evento VENCENDO (0 desabilita).
+     */
+    private int antecedenciaDias = 3;
+
+    /**
+     * Dias à frente cujas contas pendentes são mantidas em memória; as demais são carregadas dia a
+     * dia, conforme entram no horizonte.
+     */
+    private int horizonteDias = 60;
+
+    /**
+     * Dias de vencimento já passados considerados na carga inicial: contas vencidas nesse período,
+     * ainda sem evento VENCIDA (aplicação parada na virada do dia), geram o evento.
+     */
+    private int recuperacaoDias = 1;
+
+    /**
+     * Quantidade de contas e de eventos lidos por consulta.
+     */
+    private int tamanhoLote = 10000;
+}
@@ -0,0 +1,13 @@
+package br.com.laurielcio.contabil.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * O provedor do cache é escolhido por {@code spring.cache.type}: {@code caffeine} (padrão, local a
+ * cada instância) ou {@code redis} (perfil {@code redis}, compartilhado entre as réplicas).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -0,0 +1,48 @@
+package br.com.laurielcio.contabil.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import br.com.laurielcio.contabil.entity.DestinoEventosEnum;
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "contabil.eventos")
+public class EventosProperties {
+
+    /**
+     * Intervalo entre as publicações dos eventos pendentes.
+     */
+    private long intervaloMs = 500;
+
+    /**
+     * Quantidade de eventos publicados por transação.
+     */
+    private int tamanhoLote = 500;
+
+    /**
+     * Para onde os eventos publicados são enviados, além do feed GET /contas/eventos.
+     */
+    private DestinoEventosEnum destino = DestinoEventosEnum.NENHUM;
+
+    /**
+     * Arquivo (JSON, um evento por linha) do destino ARQUIVO.
+     */
+    private String arquivo = System.getProperty("java.io.tmpdir") + "/contabil-eventos.ndjson";
+
+    /**
+     * Quantidade de eventos mantidos pelo destino MEMORIA; os mais antigos são descartados.
+     */
+    private int capacidadeMemoria = 10000;
+
+    /**
+     * Maior espera aceita no feed quando não há eventos novos.
+     */
+    private long esperaMaximaMs = 30000;
+
+    /**
+     * Dias em que os eventos publicados ficam disponíveis no feed.
+     */
+    private int retencaoDias = 7;
+}
@@ -0,0 +1,41 @@
+package br.com.laurielcio.contabil.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import br.com.laurielcio.contabil.shard.EmpresaContexto;
+
+/**
+ * Respostas assíncronas (exportação via StreamingResponseBody) são escritas em um pool
+ * próprio: com os executores de importação declarados, o Spring Boot não cria o executor
+ * padrão do MVC. O tempo limite padrão do servidor (30 s) não comporta exportações grandes.
+ */
+@Configuration
+public class ExportacaoConfig implements WebMvcConfigurer {
+
+    @Value("${contabil.exportacao.threads:4}")
+    private int threads;
+
+    @Value("${contabil.exportacao.timeout-ms:3600000}")
+    private long timeoutMs;
+
+    @Bean
+    public ThreadPoolTaskExecutor exportacaoExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("exportacao-");
+        executor.setTaskDecorator(EmpresaContexto::propagar);
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(exportacaoExecutor());
+        configurer.setDefaultTimeout(timeoutMs);
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.laurielcio.contabil.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "contabil.fluxo-caixa")
+public class FluxoCaixaProperties {
+
+    /**
+     * Intervalo entre as sincronizações do fluxo de caixa em memória com os eventos publicados.
+     */
+    private long intervaloMs = 1000;
+
+    /**
+     * Dias de vencimento já passados que podem ser consultados por dia; os anteriores entram apenas
+     * no total vencido.
+     */
+    private int diasPassados = 90;
+
+    /**
+     * Dias de vencimento à frente que podem ser consultados.
+     */
+    private int diasFuturos = 366;
+
+    /**
+     * Dias do período consultado quando a data final não é informada.
+     */
+    private int diasPadrao = 90;
+
+    /**
+     * Quantidade de eventos lidos por consulta na sincronização.
+     */
+    private int tamanhoLote = 10000;
+
+    /**
+     * Conferências com o banco antes de considerar uma divergência; alterações feitas durante a
+     * conferência, ou ainda não publicadas, divergem apenas até a próxima sincronização.
+     */
+    private int tentativasConferencia = 3;
+
+    /**
+     * Pausa entre as tentativas da conferência.
+     */
+    private long pausaConferenciaMs = 1000;
+}
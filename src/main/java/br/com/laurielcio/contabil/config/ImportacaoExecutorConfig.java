@@ -0,0 +1,29 @@
+package br.com.laurielcio.contabil.config;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import br.com.laurielcio.contabil.shard.EmpresaContexto;
+
+@Configuration
+public class ImportacaoExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor importacaoExecutor(ImportacaoProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getThreads());
+        executor.setMaxPoolSize(properties.getThreads());
+        executor.setQueueCapacity(properties.getCapacidadeFila());
+        executor.setThreadNamePrefix("importacao-");
+        executor.setTaskDecorator(EmpresaContexto::propagar);
+        return executor;
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ForkJoinPool importacaoParserPool(ImportacaoProperties properties) {
+        return new ForkJoinPool(properties.getParalelismo());
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.laurielcio.contabil.config;
+
+import br.com.laurielcio.contabil.entity.ModoImportacaoEnum;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "contabil.importacao")
+public class ImportacaoProperties {
+
+    /**
+     * Quantidade de linhas gravadas por transação (e por batch JDBC).
+     */
+    private int tamanhoLote = 500;
+
+    /**
+     * Quantidade máxima de linhas rejeitadas detalhadas por importação.
+     */
+    private int maxLinhasRejeitadas = 100;
+
+    /**
+     * Quantidade de importações executadas simultaneamente.
+     */
+    private int threads = 2;
+
+    /**
+     * Quantidade de importações aguardando execução; acima disso novas importações são recusadas.
+     */
+    private int capacidadeFila = 20;
+
+    /**
+     * Quantidade de workers do ForkJoinPool que convertem os blocos de linhas em contas.
+     */
+    private int paralelismo = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Quantidade máxima de lotes lidos e ainda não gravados; quando cheia, a leitura do arquivo
+     * aguarda a gravação (backpressure).
+     */
+    private int lotesEmMemoria = 8;
+
+    /**
+     * Diretório onde os arquivos recebidos ficam até o fim da importação.
+     */
+    private String diretorio = System.getProperty("java.io.tmpdir") + "/contabil-importacoes";
+
+    private Entrada entrada = new Entrada();
+
+    /**
+     * Diretório local (volume compartilhado com o ERP) de onde arquivos CSV são importados sem upload.
+     * Depois de importado, o arquivo é movido para os subdiretórios {@code processados} ou {@code erros}.
+     */
+    @Data
+    public static class Entrada {
+
+        private String diretorio;
+
+        /**
+         * Se habilitado, o diretório é verificado periodicamente e cada novo arquivo .csv é importado.
+         */
+        private boolean agendamentoHabilitado = false;
+
+        private long intervaloMs = 60000;
+
+        /**
+         * Tempo sem modificação para que um arquivo seja considerado completo (ainda não está sendo gravado).
+         */
+        private long tempoEstabilizacaoMs = 10000;
+
+        private ModoImportacaoEnum modo = ModoImportacaoEnum.LOTE;
+    }
+}
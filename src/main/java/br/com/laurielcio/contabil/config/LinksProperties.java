@@ -0,0 +1,29 @@
+package br.com.laurielcio.contabil.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import br.com.laurielcio.contabil.entity.ModoLinkEnum;
+import lombok.Data;
+
+/**
+ * Geração dos links self das contas: {@code contabil.links.padrao} vale para todos os endpoints,
+ * e {@code contabil.links.endpoints.<endpoint>} sobrepõe um endpoint específico
+ * (cadastrar, atualizar, alterar-situacao, obter, lista, lista-cursor).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "contabil.links")
+public class LinksProperties {
+
+    private ModoLinkEnum padrao = ModoLinkEnum.TEMPLATE;
+
+    private Map<String, ModoLinkEnum> endpoints = new HashMap<>();
+
+    public ModoLinkEnum modo(String endpoint) {
+        return endpoints.getOrDefault(endpoint, padrao);
+    }
+}
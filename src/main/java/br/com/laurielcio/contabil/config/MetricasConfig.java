@@ -0,0 +1,56 @@
+package br.com.laurielcio.contabil.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import br.com.laurielcio.contabil.metricas.JdbcMetricasDataSource;
+import br.com.laurielcio.contabil.metricas.RastreamentoInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Métricas da aplicação, expostas em /actuator/prometheus junto com as do Spring Boot
+ * (requisições HTTP, pool Hikari, Hibernate, cache e JVM).
+ */
+@Configuration
+@RequiredArgsConstructor
+public class MetricasConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private RastreamentoInterceptor rastreamentoInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rastreamentoInterceptor);
+    }
+
+    @Bean
+    public static BeanPostProcessor jdbcMetricasPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof JdbcMetricasDataSource)) {
+                    return new JdbcMetricasDataSource((DataSource) bean, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder importacaoExecutorMetrics(ThreadPoolTaskExecutor importacaoExecutor) {
+        return registry -> new ExecutorServiceMetrics(importacaoExecutor.getThreadPoolExecutor(), "importacao", Tags.empty())
+                .bindTo(registry);
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.laurielcio.contabil.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.TaskScheduler;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import br.com.laurielcio.contabil.replica.LeituraReplicaAspect;
+import br.com.laurielcio.contabil.replica.MonitorReplicas;
+import br.com.laurielcio.contabil.replica.RoteamentoDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Com {@code contabil.replicas.habilitado=true}, substitui o DataSource do Spring Boot por um que
+ * roteia as leituras {@code @LeituraReplica} para as réplicas de {@code contabil.replicas.instancias}.
+ * O primário continua configurado por {@code spring.datasource} (inclusive
+ * {@code spring.datasource.hikari}); escritas, Flyway e demais leituras usam apenas ele.
+ * <p>
+ * Os pools não são beans, para que a medição de comandos JDBC envolva só o DataSource roteado;
+ * as métricas de cada pool são registradas diretamente pelo Hikari.
+ */
+@Configuration
+@ConditionalOnProperty(name = "contabil.replicas.habilitado", havingValue = "true")
+public class ReplicasConfig implements DisposableBean {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    public MonitorReplicas monitorReplicas(ReplicasProperties properties, TaskScheduler taskScheduler, MeterRegistry meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+
+        for (ReplicasProperties.Instancia instancia : properties.getInstancias()) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("contabil-replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(instancia.getUrl());
+            replica.setUsername(instancia.getUsername());
+            replica.setPassword(instancia.getPassword());
+            replica.setMaximumPoolSize(properties.getTamanhoPool());
+            replica.setConnectionTimeout(properties.getTempoConexaoMs());
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+            pools.add(replica);
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        MonitorReplicas monitor = new MonitorReplicas(replicas, properties.getAtrasoMaximoMs(), taskScheduler, meterRegistry);
+        monitor.verificar();
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, Environment environment, MonitorReplicas monitorReplicas,
+                                 MeterRegistry meterRegistry) {
+        HikariDataSource primario = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primario));
+        if (primario.getPoolName() == null) {
+            primario.setPoolName("contabil-primario");
+        }
+        primario.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        pools.add(primario);
+
+        return new LazyConnectionDataSourceProxy(new RoteamentoDataSource(primario, monitorReplicas));
+    }
+
+    @Bean
+    public LeituraReplicaAspect leituraReplicaAspect() {
+        return new LeituraReplicaAspect();
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
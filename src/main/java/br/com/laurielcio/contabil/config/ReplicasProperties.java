@@ -0,0 +1,50 @@
+package br.com.laurielcio.contabil.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "contabil.replicas")
+public class ReplicasProperties {
+
+    /**
+     * Se habilitado, as leituras marcadas com {@code @LeituraReplica} são enviadas às réplicas;
+     * o restante continua no banco de {@code spring.datasource}.
+     */
+    private boolean habilitado = false;
+
+    private List<Instancia> instancias = new ArrayList<>();
+
+    /**
+     * Maior atraso de replicação aceito; réplicas mais atrasadas deixam de receber leituras até
+     * alcançarem o primário.
+     */
+    private long atrasoMaximoMs = 5000;
+
+    private long intervaloVerificacaoMs = 2000;
+
+    /**
+     * Quantidade máxima de conexões de cada réplica.
+     */
+    private int tamanhoPool = 10;
+
+    /**
+     * Tempo de espera por uma conexão da réplica; esgotado, a leitura segue para o primário.
+     */
+    private long tempoConexaoMs = 1000;
+
+    @Data
+    public static class Instancia {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
@@ -0,0 +1,144 @@
+package br.com.laurielcio.contabil.config;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import br.com.laurielcio.contabil.shard.CadastroEmpresas;
+import br.com.laurielcio.contabil.shard.DiretorioEmpresas;
+import br.com.laurielcio.contabil.shard.EmpresaFiltro;
+import br.com.laurielcio.contabil.shard.MigracaoShards;
+import br.com.laurielcio.contabil.shard.MovimentacaoEmpresas;
+import br.com.laurielcio.contabil.shard.ShardDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Com {@code contabil.shards.habilitado=true}, substitui o DataSource do Spring Boot por um que
+ * envia as conexões ao shard da empresa da requisição ({@link ShardDataSource}). O banco de
+ * {@code spring.datasource} guarda apenas o catálogo de empresas; cada shard de
+ * {@code contabil.shards.shards} tem seu pool (contabil-shard-&lt;nome&gt;) e as migrações das
+ * contas são aplicadas por empresa ({@link MigracaoShards}), não pelo Flyway do Spring Boot.
+ * <p>
+ * Não pode ser combinado com as réplicas de leitura ({@code contabil.replicas.habilitado}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "contabil.shards.habilitado", havingValue = "true")
+public class ShardsConfig implements DisposableBean {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    public MigracaoShards migracaoShards(ShardsProperties properties, ReplicasProperties replicasProperties, Environment environment) {
+        if (replicasProperties.isHabilitado()) {
+            throw new IllegalStateException("contabil.shards.habilitado e contabil.replicas.habilitado não podem ser combinados");
+        }
+
+        Binder binder = Binder.get(environment);
+        Map<String, String> placeholders = binder.bind("spring.flyway.placeholders", Bindable.mapOf(String.class, String.class))
+                .orElse(Collections.emptyMap());
+        boolean validarMigracoes = binder.bind("spring.flyway.validate-on-migrate", Boolean.class).orElse(true);
+
+        return new MigracaoShards(properties.getShards(), placeholders, validarMigracoes);
+    }
+
+    @Bean
+    public DiretorioEmpresas diretorioEmpresas(DataSourceProperties dataSourceProperties, Environment environment,
+                                               MigracaoShards migracaoShards, MeterRegistry meterRegistry) {
+        HikariDataSource catalogo = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(catalogo));
+        if (catalogo.getPoolName() == null) {
+            catalogo.setPoolName("contabil-catalogo");
+        }
+        catalogo.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        pools.add(catalogo);
+
+        migracaoShards.migrarCatalogo(catalogo);
+
+        DiretorioEmpresas diretorio = new DiretorioEmpresas(catalogo);
+        diretorio.atualizar();
+        return diretorio;
+    }
+
+    /**
+     * Migra as empresas do catálogo e cadastra as de {@code contabil.shards.empresas} que ainda não
+     * existem.
+     */
+    @Bean
+    public CadastroEmpresas cadastroEmpresas(DiretorioEmpresas diretorioEmpresas, MigracaoShards migracaoShards,
+                                             ShardsProperties properties) {
+        CadastroEmpresas cadastro = new CadastroEmpresas(diretorioEmpresas, migracaoShards);
+        cadastro.migrarTodas();
+
+        properties.getEmpresas().forEach((empresa, shard) -> {
+            if (!diretorioEmpresas.existe(empresa)) {
+                cadastro.cadastrar(empresa, shard);
+            }
+        });
+        return cadastro;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardsProperties properties, DiretorioEmpresas diretorioEmpresas, CadastroEmpresas cadastroEmpresas,
+                                 MeterRegistry meterRegistry) {
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+
+        properties.getShards().forEach((nome, configuracao) -> {
+            HikariDataSource shard = new HikariDataSource();
+            shard.setPoolName("contabil-shard-" + nome);
+            shard.setJdbcUrl(configuracao.getUrl());
+            shard.setUsername(configuracao.getUsername());
+            shard.setPassword(configuracao.getPassword());
+            shard.setMaximumPoolSize(configuracao.getTamanhoPool());
+            shard.setMinimumIdle(configuracao.getMinimoOcioso());
+            shard.setConnectionTimeout(configuracao.getTempoConexaoMs());
+            shard.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+            pools.add(shard);
+            shards.put(nome, shard);
+        });
+
+        return new LazyConnectionDataSourceProxy(new ShardDataSource(diretorioEmpresas.getCatalogo(), shards, diretorioEmpresas));
+    }
+
+    @Bean
+    public MovimentacaoEmpresas movimentacaoEmpresas(DataSource dataSource, DiretorioEmpresas diretorioEmpresas,
+                                                     CadastroEmpresas cadastroEmpresas, MigracaoShards migracaoShards,
+                                                     ShardsProperties properties) throws SQLException {
+        return new MovimentacaoEmpresas(diretorioEmpresas, cadastroEmpresas, migracaoShards,
+                dataSource.unwrap(ShardDataSource.class), properties.getMovimentacao());
+    }
+
+    @Bean
+    public FilterRegistrationBean<EmpresaFiltro> empresaFiltro(ShardsProperties properties, DiretorioEmpresas diretorioEmpresas) {
+        FilterRegistrationBean<EmpresaFiltro> registro =
+                new FilterRegistrationBean<>(new EmpresaFiltro(properties.getCabecalho(), diretorioEmpresas));
+        registro.addUrlPatterns("/contas/*");
+        return registro;
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
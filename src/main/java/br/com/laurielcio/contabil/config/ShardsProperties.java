@@ -0,0 +1,86 @@
+package br.com.laurielcio.contabil.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "contabil.shards")
+public class ShardsProperties {
+
+    /**
+     * Se habilitado, as requisições de /contas são enviadas ao shard da empresa informada no
+     * cabeçalho {@link #cabecalho}; o banco de {@code spring.datasource} guarda o catálogo de empresas.
+     */
+    private boolean habilitado = false;
+
+    private String cabecalho = "X-Empresa";
+
+    /**
+     * Intervalo de releitura do catálogo, que propaga às demais instâncias as empresas cadastradas
+     * e movidas.
+     */
+    private long intervaloAtualizacaoMs = 5000;
+
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+
+    /**
+     * Empresas cadastradas na inicialização, se ainda não estiverem no catálogo (empresa: shard).
+     */
+    private Map<String, String> empresas = new LinkedHashMap<>();
+
+    private Movimentacao movimentacao = new Movimentacao();
+
+    @Data
+    public static class Shard {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int tamanhoPool = 10;
+
+        private int minimoOcioso = 2;
+
+        private long tempoConexaoMs = 30000;
+
+        /**
+         * Com {@code true}, cada empresa do shard fica em seu próprio schema (empresa_&lt;empresa&gt;);
+         * com {@code false}, o banco é exclusivo de uma empresa, no schema public.
+         */
+        private boolean schemaPorEmpresa = true;
+    }
+
+    @Data
+    public static class Movimentacao {
+
+        /**
+         * Alterações da origem reaplicadas no destino por transação.
+         */
+        private int tamanhoLote = 5000;
+
+        /**
+         * Quantidade de alterações pendentes abaixo da qual as escritas na origem são bloqueadas
+         * para a troca; o bloqueio dura o tempo de reaplicá-las.
+         */
+        private int maxAlteracoesTroca = 1000;
+
+        /**
+         * Passagens de reaplicação antes da troca, mesmo que as alterações pendentes não diminuam.
+         */
+        private int maxPassagens = 20;
+
+        /**
+         * Espera máxima pelo bloqueio das tabelas da origem a cada tentativa de troca.
+         */
+        private long tempoBloqueioMs = 5000;
+
+        private int tentativasTroca = 5;
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.laurielcio.contabil.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Com {@code contabil.threads-virtuais.habilitado=true}, cada requisição HTTP é atendida em uma
+ * thread virtual em vez de uma thread do pool do Tomcat ({@code server.tomcat.threads.max}): a
+ * espera pelo banco deixa de ocupar uma thread de plataforma, e o limite de requisições
+ * simultâneas passa a ser {@code server.tomcat.max-connections} e, para o que usa o banco, o pool
+ * de conexões.
+ * <p>
+ * Threads virtuais exigem JDK 21; a API é obtida por reflexão para que a aplicação continue
+ * compilando e executando no JDK 17. Em um JDK sem suporte, o Tomcat mantém o pool padrão.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "contabil.threads-virtuais.habilitado", havingValue = "true")
+public class ThreadsVirtuaisConfig implements DisposableBean {
+
+    private ExecutorService executor;
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> threadsVirtuaisTomcatCustomizer() {
+        return protocolHandler -> {
+            executor = criarExecutor();
+            if (executor != null) {
+                protocolHandler.setExecutor(executor);
+                log.info("Requisições HTTP atendidas em threads virtuais");
+            } else {
+                log.warn("Threads virtuais não suportadas pelo JDK {}; mantido o pool de threads do Tomcat",
+                        System.getProperty("java.version"));
+            }
+        };
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Executor que cria uma thread virtual por tarefa, ou {@code null} se o JDK não tiver threads virtuais.
+     */
+    public static ExecutorService criarExecutor() {
+        try {
+            Method fabrica = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) fabrica.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
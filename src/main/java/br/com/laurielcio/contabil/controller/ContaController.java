@@ -1,5 +1,9 @@
 package br.com.laurielcio.contabil.controller;
 
+import br.com.laurielcio.contabil.entity.AgrupamentoFluxoCaixaEnum;
+import br.com.laurielcio.contabil.entity.FormatoExportacaoEnum;
+import br.com.laurielcio.contabil.entity.ModoBuscaEnum;
+import br.com.laurielcio.contabil.entity.ModoImportacaoEnum;
 import br.com.laurielcio.contabil.entity.SituacaoEnum;
 import br.com.laurielcio.contabil.request.ContaAtualizaRequest;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,19 +17,30 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import br.com.laurielcio.contabil.request.ContaRequest;
+import br.com.laurielcio.contabil.request.ContaSituacaoLoteRequest;
+import br.com.laurielcio.contabil.response.ContaCursorResponse;
+import br.com.laurielcio.contabil.response.ContaEventosResponse;
 import br.com.laurielcio.contabil.response.ContaResponse;
+import br.com.laurielcio.contabil.response.ContaSituacaoLoteResponse;
+import br.com.laurielcio.contabil.response.FluxoCaixaConferenciaResponse;
+import br.com.laurielcio.contabil.response.FluxoCaixaResponse;
+import br.com.laurielcio.contabil.response.ImportacaoResponse;
 import br.com.laurielcio.contabil.service.ContaService;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -37,41 +52,57 @@ public class ContaController {
     @Autowired
     private ContaService contaService;
 
+    @Autowired
+    private ContaLinkBuilder contaLinkBuilder;
+
     @PostMapping("/cadastrar")
     @Operation(summary = "Cadastra conta", description = "Cadastra uma nova conta a pagar.")
     public ResponseEntity<ContaResponse> cadastrarConta(@RequestBody ContaRequest request) {
         ContaResponse response = contaService.cadastrarConta(request);
 
-        response.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ContaController.class).obterContaPorId(response.getId())).withSelfRel());
+        contaLinkBuilder.adicionarLinkSelf(response, "cadastrar");
 
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @PutMapping("/atualizar/{id}")
-    @Operation(summary = "Atualizar um conta", description = "Atualiza todos atributos de um conta a pagar.")
-    public ResponseEntity<ContaResponse> atualizarConta(@PathVariable Long id, @RequestBody ContaAtualizaRequest request) {
+    @Operation(summary = "Atualizar um conta", description = "Atualiza todos atributos de um conta a pagar. Com o cabeçalho If-Match (ETag obtido de /contas/{id}, ou uma lista deles), a conta só é atualizada se a versão atual for uma das informadas; caso contrário, retorna 409.")
+    public ResponseEntity<ContaResponse> atualizarConta(@PathVariable Long id, @RequestBody ContaAtualizaRequest request,
+            @Parameter(description = "ETag da conta lida (versão esperada)")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        ContaResponse response = contaService.atualizarConta(id, request);
+        ContaResponse response = contaService.atualizarConta(id, request, ContaEtag.versoesEsperadas(ifMatch));
 
-        response.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ContaController.class).obterContaPorId(response.getId())).withSelfRel());
+        contaLinkBuilder.adicionarLinkSelf(response, "atualizar");
 
-        return ResponseEntity.status(HttpStatus.OK).body(response);
+        return ResponseEntity.status(HttpStatus.OK).eTag(ContaEtag.gerar(response.getVersao())).body(response);
     }
 
     @PatchMapping("/alterar-situacao/{id}")
-    @Operation(summary = "Alterar a situação de uma conta", description = "Altera a situação de uma conta entre PAGA e PENDENTE.")
-    public ResponseEntity<ContaResponse> alterarSituacaoConta(@PathVariable Long id, @RequestParam SituacaoEnum situacao) { // Implementação do método return
+    @Operation(summary = "Alterar a situação de uma conta", description = "Altera a situação de uma conta entre PAGA e PENDENTE. Aceita If-Match como em /contas/atualizar/{id}.")
+    public ResponseEntity<ContaResponse> alterarSituacaoConta(@PathVariable Long id, @RequestParam SituacaoEnum situacao,
+            @Parameter(description = "ETag da conta lida (versão esperada)")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) { // Implementação do método return
 
-        ContaResponse response = contaService.alterarSituacaoConta(id, situacao);
+        ContaResponse response = contaService.alterarSituacaoConta(id, situacao, ContaEtag.versoesEsperadas(ifMatch));
 
-        response.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ContaController.class).obterContaPorId(response.getId())).withSelfRel());
+        contaLinkBuilder.adicionarLinkSelf(response, "alterar-situacao");
+
+
+        return ResponseEntity.status(HttpStatus.OK).eTag(ContaEtag.gerar(response.getVersao())).body(response);
+    }
 
+    @PatchMapping("/alterar-situacao")
+    @Operation(summary = "Alterar a situação de contas em lote", description = "Altera a situação de várias contas, informadas pelos ids ou pelo período de vencimento (dataInicial e dataFinal, opcionalmente com descricao, busca parcial). Retorna apenas o resultado de cada id: ALTERADA, INALTERADA (já estava na situação) ou NAO_ENCONTRADA.")
+    public ResponseEntity<ContaSituacaoLoteResponse> alterarSituacaoContas(@RequestBody ContaSituacaoLoteRequest request) {
+
+        ContaSituacaoLoteResponse response = contaService.alterarSituacaoContas(request);
 
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
     @GetMapping("/lista")
-    @Operation(summary = "Obter lista de contas", description = "Obtém lista de contas a pagar. Obs.: dataVencimento e descricao são opcionais, neste caso, o retorno será todos os registros existentes no banco. Se dataVencimento ou descricao for informada, será filtrado pelo parâmetro informado ou pelos dois, caso ambos forem informados. O filtro por descricao ignora maiúsculas e minúsculas na comparação e verifica se a descrição contém a sequência de caracteres fornecida (busca parcial).  ")
+    @Operation(summary = "Obter lista de contas", description = "Obtém lista de contas a pagar. Obs.: dataVencimento e descricao são opcionais, neste caso, o retorno será todos os registros existentes no banco. Se dataVencimento ou descricao for informada, será filtrado pelo parâmetro informado ou pelos dois, caso ambos forem informados. O filtro por descricao ignora maiúsculas e minúsculas na comparação e verifica se a descrição contém a sequência de caracteres fornecida (busca parcial).  Com modoBusca=TEXTO, a descrição é tratada como uma busca por palavras (aceita \"frase entre aspas\", or e -palavra), considerando variações das palavras (como o plural), e os resultados vêm ordenados por relevância.")
     public ResponseEntity<Page<ContaResponse>> obterListaContas(
             @Parameter(description = "Data de vencimento")
             @RequestParam(required = false)
@@ -80,6 +111,9 @@ public class ContaController {
             @Parameter(description = "Descrição da conta")
             @RequestParam(required = false) String descricao,
 
+            @Parameter(description = "Modo de busca da descrição: PARCIAL (padrão) ou TEXTO")
+            @RequestParam(defaultValue = "PARCIAL") ModoBuscaEnum modoBusca,
+
             @Parameter(description = "Número da página")
             @RequestParam(defaultValue = "0") int page,
 
@@ -88,35 +122,129 @@ public class ContaController {
 
         Pageable pageable = PageRequest.of(page, size);
 
-        Page<ContaResponse> response = contaService.obterListaContas(dataVencimento, descricao, pageable);
+        Page<ContaResponse> response = contaService.obterListaContas(dataVencimento, descricao, modoBusca, pageable);
 
-        response.getContent().forEach(this::addLinkToConta);
+        contaLinkBuilder.adicionarLinksSelf(response.getContent(), "lista");
 
         return ResponseEntity.ok(response);
     }
 
-    private void addLinkToConta(ContaResponse contaResponse) {
-        Link selfLink = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ContaController.class)
-                        .obterContaPorId(contaResponse.getId()))
-                .withSelfRel();
-        contaResponse.add(selfLink);
+    @GetMapping("/lista/cursor")
+    @Operation(summary = "Obter lista de contas por cursor", description = "Obtém lista de contas a pagar ordenada por data de vencimento e id, navegando por cursor: a resposta traz nextCursor, que deve ser informado em after para obter a página seguinte. Não calcula o total de registros e o tempo de resposta não depende da posição na lista. Aceita os mesmos filtros de /contas/lista.")
+    public ResponseEntity<ContaCursorResponse> obterListaContasPorCursor(
+            @Parameter(description = "Data de vencimento")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataVencimento,
+
+            @Parameter(description = "Descrição da conta")
+            @RequestParam(required = false) String descricao,
+
+            @Parameter(description = "Cursor retornado em nextCursor pela página anterior")
+            @RequestParam(required = false) String after,
+
+            @Parameter(description = "Tamanho da página")
+            @RequestParam(defaultValue = "10") int size) {
+
+        ContaCursorResponse response = contaService.obterListaContasPorCursor(dataVencimento, descricao, after, size);
+
+        contaLinkBuilder.adicionarLinksSelf(response.getContent(), "lista-cursor");
+
+        if (response.getNextCursor() != null) {
+            response.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ContaController.class)
+                            .obterListaContasPorCursor(dataVencimento, descricao, response.getNextCursor(), size))
+                    .withRel("next"));
+        }
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/exportar")
+    @Operation(summary = "Exportar contas", description = "Exporta todas as contas a pagar, ordenadas por id, opcionalmente limitadas por período de vencimento. As contas são enviadas à medida que são lidas do banco, uma por linha, em NDJSON (padrão) ou CSV, sem paginação.")
+    public ResponseEntity<StreamingResponseBody> exportarContas(
+            @Parameter(description = "Formato: NDJSON (padrão) ou CSV")
+            @RequestParam(defaultValue = "NDJSON") FormatoExportacaoEnum formato,
+            @Parameter(description = "Data de vencimento inicial")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicial,
+            @Parameter(description = "Data de vencimento final")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFinal) {
+
+        StreamingResponseBody corpo = saida -> contaService.exportarContas(formato, dataInicial, dataFinal, saida);
+
+        boolean csv = formato == FormatoExportacaoEnum.CSV;
+        MediaType tipo = csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.parseMediaType("application/x-ndjson");
+
+        return ResponseEntity.ok()
+                .contentType(tipo)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"contas." + (csv ? "csv" : "ndjson") + "\"")
+                .body(corpo);
+    }
+
+    @GetMapping("/eventos")
+    @Operation(summary = "Obter eventos de contas", description = "Feed dos eventos de alteração das contas (CADASTRADA, ATUALIZADA, SITUACAO_ALTERADA e IMPORTADAS), em ordem de posição, a partir da posição seguinte a desde. Se não houver eventos novos, a requisição aguarda até espera-ms pela próxima publicação e, sem eventos, responde com a lista vazia. O valor de proximo deve ser informado em desde na consulta seguinte. Um evento pode ser entregue mais de uma vez; a posição identifica repetições.")
+    public DeferredResult<ContaEventosResponse> obterEventos(
+            @Parameter(description = "Última posição já recebida (0 para o início)")
+            @RequestParam(defaultValue = "0") long desde,
+
+            @Parameter(description = "Quantidade máxima de eventos")
+            @RequestParam(defaultValue = "100") int limite,
+
+            @Parameter(description = "Tempo máximo de espera por eventos novos, em milissegundos")
+            @RequestParam(name = "espera-ms", defaultValue = "0") long esperaMs) {
+
+        return contaService.obterEventos(desde, limite, esperaMs);
+    }
+
+    @GetMapping("/fluxo-caixa")
+    @Operation(summary = "Obter fluxo de caixa projetado", description = "Soma da quantidade e do valor das contas pendentes por dia, semana (segunda a domingo) ou mês de vencimento no período, com o total do período e o total vencido (vencimento anterior a hoje). Sem datas, considera os próximos 90 dias (contabil.fluxo-caixa.dias-padrao). Os valores vêm de uma estrutura em memória, carregada dos totais diários e mantida pelos eventos de GET /contas/eventos, sem consulta ao banco; posicao informa o último evento refletido, e alterações ainda não publicadas aparecem em até alguns segundos.")
+    public ResponseEntity<FluxoCaixaResponse> obterFluxoCaixa(
+            @Parameter(description = "Data inicial (padrão: hoje)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicial,
+            @Parameter(description = "Data final (padrão: 90 dias a partir da data inicial)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFinal,
+            @Parameter(description = "Agrupamento dos períodos: DIA (padrão), SEMANA ou MES")
+            @RequestParam(defaultValue = "DIA") AgrupamentoFluxoCaixaEnum agrupamento) {
+
+        return ResponseEntity.ok(contaService.obterFluxoCaixa(dataInicial, dataFinal, agrupamento));
+    }
+
+    @GetMapping("/fluxo-caixa/conferencia")
+    @Operation(summary = "Conferir fluxo de caixa com o banco", description = "Compara, dia a dia, a quantidade e o valor das contas pendentes do fluxo de caixa em memória com os calculados em contas a pagar no período, e o total vencido. Como a memória acompanha o banco com alguns segundos de atraso, a comparação é repetida algumas vezes antes de apontar divergências; se elas persistirem, o fluxo da empresa é recarregado no próximo uso. Consulta contas a pagar diretamente: para conferências, não para uso frequente.")
+    public ResponseEntity<FluxoCaixaConferenciaResponse> conferirFluxoCaixa(
+            @Parameter(description = "Data inicial (padrão: hoje)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicial,
+            @Parameter(description = "Data final (padrão: 90 dias a partir da data inicial)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFinal) {
+
+        return ResponseEntity.ok(contaService.conferirFluxoCaixa(dataInicial, dataFinal));
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Obter conta por ID", description = "Obtém conta a pagar por ID.")
-    public ResponseEntity<ContaResponse> obterContaPorId(@PathVariable Long id) {
+    @Operation(summary = "Obter conta por ID", description = "Obtém conta a pagar por ID. A resposta traz o ETag da conta, que pode ser usado em If-None-Match (304 se a conta não mudou) e em If-Match nas alterações.")
+    public ResponseEntity<ContaResponse> obterContaPorId(@PathVariable Long id,
+            @Parameter(description = "ETag da conta já obtida")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         ContaResponse response = contaService.obterContaPorId(id);
-        response.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ContaController.class).obterContaPorId(response.getId())).withSelfRel());
-        return ResponseEntity.ok(response);
+        String etag = ContaEtag.gerar(response.getVersao());
+        if (ContaEtag.corresponde(ifNoneMatch, response.getVersao())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        contaLinkBuilder.adicionarLinkSelf(response, "obter");
+        return ResponseEntity.ok().eTag(etag).body(response);
     }
 
     @GetMapping("/valor-total-pago")
-    @Operation(summary = "Obter valor total pago por período", description = "Obtém valor total das contas pagas por período.")
+    @Operation(summary = "Obter valor total pago por período", description = "Obtém valor total das contas pagas (situação PAGA) com vencimento no período, independentemente da data de pagamento.")
     public ResponseEntity<Map<String, Object>> obterValorTotalPagoPorPeriodo(
-            @Parameter(description = "Data inicial")
+            @Parameter(description = "Data inicial de vencimento")
             @RequestParam
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicial,
-            @Parameter(description = "Data final")
+            @Parameter(description = "Data final de vencimento")
             @RequestParam
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFinal) {
 
@@ -130,24 +258,61 @@ public class ContaController {
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
+    @PostMapping("/totais-diarios/reconstruir")
+    @Operation(summary = "Reconstruir totais diários", description = "Recalcula os totais por dia de vencimento e situação usados em /contas/valor-total-pago, no período informado ou, sem datas, em toda a base. Necessário apenas após cargas feitas diretamente no banco com os gatilhos desabilitados; as gravações em contas a pagar aguardam o fim da reconstrução.")
+    public ResponseEntity<Map<String, Object>> reconstruirTotaisDiarios(
+            @Parameter(description = "Data inicial")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicial,
+            @Parameter(description = "Data final")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFinal) {
+
+        Integer totais = contaService.reconstruirTotaisDiarios(dataInicial, dataFinal);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", 200L);
+        response.put("totaisReconstruidos", totais);
+
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+
     @PostMapping("/importar-csv")
-    @Operation(summary = "Importar contas via arquivo CSV", description = "Importa contas a pagar através de arquivo CSV.")
-    public ResponseEntity<?> importarContasViaCSV(
-            @Parameter(description = "Arquivo CSV contendo as contas a pagar") @RequestParam("file") MultipartFile file) {
-
-        try {
-            List<ContaResponse> response = contaService.importarContasViaCSV(file);
-
-            if (!response.isEmpty()) {
-                response.forEach(this::addLinkToConta);
-                return ResponseEntity.ok(response);
-            } else {
-                return ResponseEntity.ok("Nenhuma conta foi importada.");
-            }
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Erro ao importar contas: " + e.getMessage());
-        }
+    @Operation(summary = "Importar contas via arquivo CSV", description = "Registra a importação de contas a pagar através de arquivo CSV e retorna imediatamente (202) com o id da importação, que pode ser acompanhada em /contas/importacoes/{id}. No modo LOTE as linhas são gravadas em lotes e uma importação interrompida é retomada a partir do último lote gravado; no modo COPY o arquivo é carregado via COPY do PostgreSQL em uma única transação.")
+    public ResponseEntity<ImportacaoResponse> importarContasViaCSV(
+            @Parameter(description = "Arquivo CSV contendo as contas a pagar") @RequestParam("file") MultipartFile file,
+            @Parameter(description = "Modo de importação: LOTE (padrão) ou COPY")
+            @RequestParam(defaultValue = "LOTE") ModoImportacaoEnum modo) {
+
+        ImportacaoResponse response = contaService.importarContasViaCSV(file, modo);
+
+        Link selfLink = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ContaController.class).obterImportacao(response.getId())).withSelfRel();
+        response.add(selfLink);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).location(selfLink.toUri()).body(response);
+    }
+
+    @PostMapping("/importar-arquivo")
+    @Operation(summary = "Importar contas de arquivo do servidor", description = "Registra a importação de um arquivo CSV já presente no diretório de entrada do servidor (contabil.importacao.entrada.diretorio), sem upload, e retorna imediatamente (202) com o id da importação. Ao final o arquivo é movido para os subdiretórios processados ou erros.")
+    public ResponseEntity<ImportacaoResponse> importarContasDoDiretorio(
+            @Parameter(description = "Nome do arquivo CSV no diretório de entrada") @RequestParam String arquivo,
+            @Parameter(description = "Modo de importação: LOTE (padrão) ou COPY")
+            @RequestParam(defaultValue = "LOTE") ModoImportacaoEnum modo) {
+
+        ImportacaoResponse response = contaService.importarContasDoDiretorio(arquivo, modo);
+
+        Link selfLink = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ContaController.class).obterImportacao(response.getId())).withSelfRel();
+        response.add(selfLink);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).location(selfLink.toUri()).body(response);
+    }
+
+    @GetMapping("/importacoes/{id}")
+    @Operation(summary = "Obter importação por ID", description = "Obtém a situação de uma importação: status, linhas processadas, importadas e rejeitadas, e linhas por segundo.")
+    public ResponseEntity<ImportacaoResponse> obterImportacao(@PathVariable Long id) {
+        ImportacaoResponse response = contaService.obterImportacao(id);
+        response.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ContaController.class).obterImportacao(response.getId())).withSelfRel());
+        return ResponseEntity.ok(response);
     }
 
 
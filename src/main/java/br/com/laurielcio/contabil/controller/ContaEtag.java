@@ -0,0 +1,70 @@
+package br.com.laurielcio.contabil.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ETag das contas: a versão entre aspas ({@code "3"}). Como toda alteração incrementa a versão,
+ * o ETag muda sempre que a conta muda, sem calcular hash da resposta.
+ */
+final class ContaEtag {
+
+    private static final String QUALQUER = "*";
+
+    private ContaEtag() {
+    }
+
+    static String gerar(Long versao) {
+        return "\"" + versao + "\"";
+    }
+
+    /**
+     * Versões informadas em If-Match (a alteração é feita se a atual for qualquer uma delas);
+     * {@code null} se o cabeçalho estiver ausente ou contiver {@code *} (alteração sem verificação
+     * de versão). ETags que não são versões de conta nunca correspondem e são ignorados; se nenhum
+     * for, a lista fica vazia e a alteração é recusada como conflito.
+     */
+    static List<Long> versoesEsperadas(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().isEmpty()) {
+            return null;
+        }
+
+        List<Long> versoes = new ArrayList<>();
+        for (String etag : ifMatch.split(",")) {
+            String valor = etag.trim();
+            if (valor.equals(QUALQUER)) {
+                return null;
+            }
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.length() > 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+                valor = valor.substring(1, valor.length() - 1);
+            }
+
+            try {
+                versoes.add(Long.valueOf(valor));
+            } catch (NumberFormatException e) {
+                // ETag que não foi gerado aqui: não corresponde a nenhuma versão
+            }
+        }
+        return versoes;
+    }
+
+    /**
+     * Se a versão atual está entre os ETags de If-None-Match.
+     */
+    static boolean corresponde(String ifNoneMatch, Long versao) {
+        if (ifNoneMatch == null || versao == null) {
+            return false;
+        }
+
+        for (String etag : ifNoneMatch.split(",")) {
+            String valor = etag.trim();
+            if (valor.equals(QUALQUER) || valor.equals(gerar(versao)) || valor.equals("W/" + gerar(versao))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.laurielcio.contabil.controller;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import br.com.laurielcio.contabil.config.LinksProperties;
+import br.com.laurielcio.contabil.response.ContaResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Adiciona o link self às contas retornadas, conforme o modo configurado para o endpoint em
+ * {@link LinksProperties}. No modo TEMPLATE a URI de /contas (com host, porta e cabeçalhos
+ * X-Forwarded da requisição) é resolvida uma única vez por requisição, e cada link é apenas
+ * essa base concatenada ao id, sem o proxy de {@code methodOn}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContaLinkBuilder {
+
+    private static final String ATRIBUTO_BASE = ContaLinkBuilder.class.getName() + ".base";
+
+    private final LinksProperties properties;
+
+    public void adicionarLinkSelf(ContaResponse conta, String endpoint) {
+        switch (properties.modo(endpoint)) {
+            case METODO:
+                conta.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ContaController.class)
+                        .obterContaPorId(conta.getId(), null)).withSelfRel());
+                break;
+            case TEMPLATE:
+                conta.add(Link.of(base() + conta.getId()));
+                break;
+            default:
+                break;
+        }
+    }
+
+    public void adicionarLinksSelf(Iterable<ContaResponse> contas, String endpoint) {
+        for (ContaResponse conta : contas) {
+            adicionarLinkSelf(conta, endpoint);
+        }
+    }
+
+    private String base() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        Object base = atributos != null ? atributos.getAttribute(ATRIBUTO_BASE, RequestAttributes.SCOPE_REQUEST) : null;
+
+        if (base == null) {
+            base = WebMvcLinkBuilder.linkTo(ContaController.class).toUri().toString() + "/";
+            if (atributos != null) {
+                atributos.setAttribute(ATRIBUTO_BASE, base, RequestAttributes.SCOPE_REQUEST);
+            }
+        }
+        return (String) base;
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.laurielcio.contabil.controller;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.validation.Valid;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.laurielcio.contabil.request.EmpresaRequest;
+import br.com.laurielcio.contabil.response.EmpresaResponse;
+import br.com.laurielcio.contabil.response.MovimentacaoEmpresaResponse;
+import br.com.laurielcio.contabil.shard.CadastroEmpresas;
+import br.com.laurielcio.contabil.shard.DiretorioEmpresas;
+import br.com.laurielcio.contabil.shard.MovimentacaoEmpresas;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin/empresas")
+@ConditionalOnProperty(name = "contabil.shards.habilitado", havingValue = "true")
+@Tag(name = "Empresas", description = "Cadastro das empresas e movimentação entre shards")
+public class EmpresaController {
+
+    @Autowired
+    private DiretorioEmpresas diretorioEmpresas;
+
+    @Autowired
+    private CadastroEmpresas cadastroEmpresas;
+
+    @Autowired
+    private MovimentacaoEmpresas movimentacaoEmpresas;
+
+    @GetMapping
+    @Operation(summary = "Listar empresas", description = "Lista as empresas do catálogo, com o shard e o schema de cada uma.")
+    public ResponseEntity<List<EmpresaResponse>> listarEmpresas() {
+        return ResponseEntity.ok(diretorioEmpresas.listar().stream().map(EmpresaResponse::new).collect(Collectors.toList()));
+    }
+
+    @PostMapping
+    @Operation(summary = "Cadastrar empresa", description = "Cria e migra o schema da empresa no shard informado e a registra no catálogo. A partir daí, as requisições de /contas com o cabeçalho X-Empresa são atendidas por esse shard.")
+    public ResponseEntity<EmpresaResponse> cadastrarEmpresa(@Valid @RequestBody EmpresaRequest request) {
+        EmpresaResponse response = new EmpresaResponse(cadastroEmpresas.cadastrar(request.getEmpresa(), request.getShard()));
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @PostMapping("/{empresa}/movimentacoes")
+    @Operation(summary = "Mover empresa para outro shard", description = "Inicia a movimentação da empresa para o shard informado: cópia dos dados, reaplicação das alterações feitas durante a cópia e troca no catálogo. Leituras seguem normalmente; escritas ficam bloqueadas apenas durante a troca. O andamento é consultado em /admin/empresas/movimentacoes/{id}.")
+    public ResponseEntity<MovimentacaoEmpresaResponse> moverEmpresa(@PathVariable String empresa,
+            @Parameter(description = "Shard de destino")
+            @RequestParam String shard) {
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(movimentacaoEmpresas.iniciar(empresa, shard));
+    }
+
+    @GetMapping("/movimentacoes/{id}")
+    @Operation(summary = "Consultar movimentação", description = "Retorna a etapa e o andamento de uma movimentação de empresa.")
+    public ResponseEntity<MovimentacaoEmpresaResponse> obterMovimentacao(@PathVariable Long id) {
+        return ResponseEntity.ok(movimentacaoEmpresas.obter(id));
+    }
+}
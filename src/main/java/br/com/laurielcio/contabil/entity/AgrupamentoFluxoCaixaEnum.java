@@ -0,0 +1,8 @@
+package br.com.laurielcio.contabil.entity;
+
+public enum AgrupamentoFluxoCaixaEnum {
+
+    DIA,
+    SEMANA,
+    MES;
+}
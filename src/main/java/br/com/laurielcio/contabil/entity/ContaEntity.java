@@ -1,5 +1,6 @@
 package br.com.laurielcio.contabil.entity;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
@@ -13,7 +14,9 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Entity
 @Table(name = "contas_a_pagar")
-public class ContaEntity {
+public class ContaEntity implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	@Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -34,6 +37,20 @@ public class ContaEntity {
     @Enumerated(EnumType.STRING)
     @Column(name = "situacao", nullable = false)
     private SituacaoEnum situacao;
+
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
+    @Column(name = "id_externo")
+    private String idExterno;
+
+    /**
+     * SHA-256 da chave natural calculado na importação (ou na migração V12, para as contas que já
+     * existiam); não é recalculado quando a conta é alterada e é nulo nas contas cadastradas pela API.
+     */
+    @Column(name = "hash_natural", updatable = false)
+    private byte[] hashNatural;
     
     public ContaEntity(ContaRequest request) {
 		this.dataVencimento = request.getDataVencimento();
@@ -0,0 +1,48 @@
+package br.com.laurielcio.contabil.entity;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.*;
+
+import org.hibernate.annotations.Immutable;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Evento de alteração de contas (V14). Os eventos são gravados por SQL, na mesma instrução ou
+ * transação da alteração, e publicados pelo ContaEventoRepository; a entidade é apenas lida.
+ * {@code dados} é o JSON da conta gravada ou, em IMPORTADAS, do lote de contas importadas.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(name = "contas_eventos")
+public class ContaEventoEntity {
+
+    @Id
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false)
+    private TipoEventoContaEnum tipo;
+
+    @Column(name = "conta_id")
+    private Long contaId;
+
+    @Column(name = "importacao_id")
+    private Long importacaoId;
+
+    @Column(name = "dados", nullable = false, columnDefinition = "jsonb")
+    private String dados;
+
+    @Column(name = "data_evento", nullable = false)
+    private LocalDateTime dataEvento;
+
+    @Column(name = "posicao")
+    private Long posicao;
+
+    @Column(name = "data_publicacao")
+    private LocalDateTime dataPublicacao;
+}
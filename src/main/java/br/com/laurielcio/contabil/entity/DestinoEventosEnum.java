@@ -0,0 +1,8 @@
+package br.com.laurielcio.contabil.entity;
+
+public enum DestinoEventosEnum {
+
+    NENHUM,
+    ARQUIVO,
+    MEMORIA;
+}
@@ -0,0 +1,24 @@
+package br.com.laurielcio.contabil.entity;
+
+/**
+ * Etapas da movimentação de uma empresa entre shards, na ordem em que são executadas.
+ */
+public enum EtapaMovimentacaoEnum {
+
+    /**
+     * Migração do schema de destino e instalação dos gatilhos de registro na origem.
+     */
+    PREPARACAO,
+    /**
+     * Cópia das tabelas, a partir de um snapshot da origem.
+     */
+    COPIA,
+    /**
+     * Reaplicação no destino das linhas alteradas na origem depois do snapshot.
+     */
+    ALTERACOES,
+    /**
+     * Bloqueio das escritas na origem, últimas alterações, sequências e troca no catálogo.
+     */
+    TROCA;
+}
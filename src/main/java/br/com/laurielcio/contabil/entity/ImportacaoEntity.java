@@ -0,0 +1,79 @@
+package br.com.laurielcio.contabil.entity;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.*;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "importacoes")
+public class ImportacaoEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "nome_arquivo")
+    private String nomeArquivo;
+
+    @Column(name = "caminho_arquivo", nullable = false)
+    private String caminhoArquivo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "origem", nullable = false)
+    private OrigemImportacaoEnum origem;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "modo", nullable = false)
+    private ModoImportacaoEnum modo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private StatusImportacaoEnum status;
+
+    @Column(name = "linhas_processadas", nullable = false)
+    private long linhasProcessadas;
+
+    @Column(name = "linhas_importadas", nullable = false)
+    private long linhasImportadas;
+
+    @Column(name = "linhas_rejeitadas", nullable = false)
+    private long linhasRejeitadas;
+
+    /**
+     * Linhas válidas ignoradas por já existir uma conta com a mesma chave natural.
+     */
+    @Column(name = "linhas_duplicadas", nullable = false)
+    private long linhasDuplicadas;
+
+    /**
+     * Última linha do arquivo cujo lote já foi gravado; a retomada continua a partir da seguinte.
+     */
+    @Column(name = "ultima_linha_confirmada", nullable = false)
+    private long ultimaLinhaConfirmada;
+
+    @Column(name = "mensagem_erro")
+    private String mensagemErro;
+
+    @Column(name = "data_criacao", nullable = false)
+    private LocalDateTime dataCriacao;
+
+    @Column(name = "data_inicio")
+    private LocalDateTime dataInicio;
+
+    @Column(name = "data_fim")
+    private LocalDateTime dataFim;
+
+    public ImportacaoEntity(String nomeArquivo, String caminhoArquivo, OrigemImportacaoEnum origem, ModoImportacaoEnum modo) {
+        this.nomeArquivo = nomeArquivo;
+        this.caminhoArquivo = caminhoArquivo;
+        this.origem = origem;
+        this.modo = modo;
+        this.status = StatusImportacaoEnum.AGUARDANDO;
+        this.dataCriacao = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.laurielcio.contabil.entity;
+
+import javax.persistence.*;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "importacoes_rejeicoes")
+public class ImportacaoRejeicaoEntity {
+
+    private static final int TAMANHO_MAXIMO_MOTIVO = 500;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "importacao_id", nullable = false)
+    private Long importacaoId;
+
+    @Column(name = "linha", nullable = false)
+    private Long linha;
+
+    @Column(name = "motivo", nullable = false)
+    private String motivo;
+
+    public ImportacaoRejeicaoEntity(Long importacaoId, Long linha, String motivo) {
+        this.importacaoId = importacaoId;
+        this.linha = linha;
+        this.motivo = motivo.length() > TAMANHO_MAXIMO_MOTIVO ? motivo.substring(0, TAMANHO_MAXIMO_MOTIVO) : motivo;
+    }
+}
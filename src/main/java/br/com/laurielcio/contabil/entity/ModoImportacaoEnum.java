@@ -0,0 +1,7 @@
+package br.com.laurielcio.contabil.entity;
+
+public enum ModoImportacaoEnum {
+
+    LOTE,
+    COPY;
+}
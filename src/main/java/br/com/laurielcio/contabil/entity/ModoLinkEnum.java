@@ -0,0 +1,17 @@
+package br.com.laurielcio.contabil.entity;
+
+public enum ModoLinkEnum {
+
+    /**
+     * Link resolvido pelo WebMvcLinkBuilder a partir do método do controller, a cada conta.
+     */
+    METODO,
+    /**
+     * URI base resolvida uma vez por requisição; o link de cada conta é a base mais o id.
+     */
+    TEMPLATE,
+    /**
+     * Sem link por conta.
+     */
+    NENHUM;
+}
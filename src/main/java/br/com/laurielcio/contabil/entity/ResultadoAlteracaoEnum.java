@@ -0,0 +1,8 @@
+package br.com.laurielcio.contabil.entity;
+
+public enum ResultadoAlteracaoEnum {
+
+    ALTERADA,
+    INALTERADA,
+    NAO_ENCONTRADA;
+}
@@ -0,0 +1,13 @@
+package br.com.laurielcio.contabil.entity;
+
+public enum StatusImportacaoEnum {
+
+    AGUARDANDO,
+    PROCESSANDO,
+    CONCLUIDA,
+    FALHA,
+    /**
+     * Arquivo idêntico ao de uma importação já concluída; nenhuma linha é lida.
+     */
+    IGNORADA;
+}
@@ -0,0 +1,8 @@
+package br.com.laurielcio.contabil.entity;
+
+public enum StatusMovimentacaoEnum {
+
+    EM_ANDAMENTO,
+    CONCLUIDA,
+    FALHA;
+}
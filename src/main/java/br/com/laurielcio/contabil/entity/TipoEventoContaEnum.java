@@ -0,0 +1,11 @@
+package br.com.laurielcio.contabil.entity;
+
+public enum TipoEventoContaEnum {
+
+    CADASTRADA,
+    ATUALIZADA,
+    SITUACAO_ALTERADA,
+    IMPORTADAS,
+    VENCENDO,
+    VENCIDA;
+}
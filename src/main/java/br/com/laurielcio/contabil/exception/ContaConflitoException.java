@@ -0,0 +1,15 @@
+package br.com.laurielcio.contabil.exception;
+
+public class ContaConflitoException extends RuntimeException {
+
+	private static final long serialVersionUID = 4158230974462519837L;
+
+	public ContaConflitoException(String msg) {
+		super(msg);
+	}
+
+	public ContaConflitoException(String msg, Throwable cause) {
+		super(msg, cause);
+	}
+
+}
@@ -2,15 +2,24 @@ package br.com.laurielcio.contabil.exception;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import br.com.laurielcio.contabil.shard.DiretorioEmpresas;
+import br.com.laurielcio.contabil.shard.ShardDataSource;
+
 @ControllerAdvice
 public class ControllerExceptionHandler {
+
+	@Autowired(required = false)
+	private DiretorioEmpresas diretorioEmpresas;
 	
 	@ExceptionHandler(MethodArgumentNotValidException.class)
 	public ResponseEntity<StandardError> validation(MethodArgumentNotValidException e, HttpServletRequest request){
@@ -29,12 +38,62 @@ public class ControllerExceptionHandler {
 		return ResponseEntity.status(HttpStatus.NOT_FOUND).body(standardError);
 	}
 
+	@ExceptionHandler(ContaConflitoException.class)
+	public ResponseEntity<StandardError> contaConflitoException(ContaConflitoException e, HttpServletRequest request){
+		StandardError standardError = new StandardError(HttpStatus.CONFLICT.value(), e.getMessage(), System.currentTimeMillis());
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(standardError);
+	}
+
+	@ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+	public ResponseEntity<StandardError> optimisticLockingFailureException(ObjectOptimisticLockingFailureException e, HttpServletRequest request){
+		StandardError standardError = new StandardError(HttpStatus.CONFLICT.value(), "A conta foi alterada por outra requisição", System.currentTimeMillis());
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(standardError);
+	}
+
 	@ExceptionHandler(ImportacaoContaException.class)
 	public ResponseEntity<StandardError> importacaoContaException(ImportacaoContaException e, HttpServletRequest request){
 		StandardError standardError = new StandardError(HttpStatus.BAD_REQUEST.value(), e.getMessage(), System.currentTimeMillis());
 		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(standardError);
 	}
 
+	@ExceptionHandler(ImportacaoNotFoundException.class)
+	public ResponseEntity<StandardError> importacaoNotFoundException(ImportacaoNotFoundException e, HttpServletRequest request){
+		StandardError standardError = new StandardError(HttpStatus.NOT_FOUND.value(), e.getMessage(), System.currentTimeMillis());
+		return ResponseEntity.status(HttpStatus.NOT_FOUND).body(standardError);
+	}
+
+	@ExceptionHandler(ImportacaoRecusadaException.class)
+	public ResponseEntity<StandardError> importacaoRecusadaException(ImportacaoRecusadaException e, HttpServletRequest request){
+		StandardError standardError = new StandardError(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage(), System.currentTimeMillis());
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(standardError);
+	}
+
+	@ExceptionHandler(EmpresaNotFoundException.class)
+	public ResponseEntity<StandardError> empresaNotFoundException(EmpresaNotFoundException e, HttpServletRequest request){
+		StandardError standardError = new StandardError(HttpStatus.NOT_FOUND.value(), e.getMessage(), System.currentTimeMillis());
+		return ResponseEntity.status(HttpStatus.NOT_FOUND).body(standardError);
+	}
+
+	@ExceptionHandler(EmpresaConflitoException.class)
+	public ResponseEntity<StandardError> empresaConflitoException(EmpresaConflitoException e, HttpServletRequest request){
+		StandardError standardError = new StandardError(HttpStatus.CONFLICT.value(), e.getMessage(), System.currentTimeMillis());
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(standardError);
+	}
+
+	/**
+	 * Escrita recusada pela origem de uma empresa movida para outro shard: o catálogo é relido e a
+	 * requisição pode ser repetida.
+	 */
+	@ExceptionHandler(DataAccessException.class)
+	public ResponseEntity<StandardError> dataAccessException(DataAccessException e, HttpServletRequest request){
+		if (diretorioEmpresas != null && ShardDataSource.empresaMovida(e)) {
+			diretorioEmpresas.atualizar();
+			StandardError standardError = new StandardError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Empresa em movimentação entre shards, tente novamente", System.currentTimeMillis());
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(standardError);
+		}
+		return exception(e, request);
+	}
+
 	@ExceptionHandler(IllegalArgumentException.class)
 	public ResponseEntity<StandardError> illegalArgumentException(IllegalArgumentException e, HttpServletRequest request){
 		StandardError standardError = new StandardError(HttpStatus.BAD_REQUEST.value(), e.getMessage(), System.currentTimeMillis());
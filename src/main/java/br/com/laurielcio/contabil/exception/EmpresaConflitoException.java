@@ -0,0 +1,15 @@
+package br.com.laurielcio.contabil.exception;
+
+public class EmpresaConflitoException extends RuntimeException {
+
+	private static final long serialVersionUID = 4409173620598243517L;
+
+	public EmpresaConflitoException(String msg) {
+		super(msg);
+	}
+
+	public EmpresaConflitoException(String msg, Throwable cause) {
+		super(msg, cause);
+	}
+
+}
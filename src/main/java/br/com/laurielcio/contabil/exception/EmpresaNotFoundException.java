@@ -0,0 +1,15 @@
+package br.com.laurielcio.contabil.exception;
+
+public class EmpresaNotFoundException extends RuntimeException {
+
+	private static final long serialVersionUID = -6183204955186021834L;
+
+	public EmpresaNotFoundException(String msg) {
+		super(msg);
+	}
+
+	public EmpresaNotFoundException(String msg, Throwable cause) {
+		super(msg, cause);
+	}
+
+}
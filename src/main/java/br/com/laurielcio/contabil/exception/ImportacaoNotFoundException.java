@@ -0,0 +1,15 @@
+package br.com.laurielcio.contabil.exception;
+
+public class ImportacaoNotFoundException extends RuntimeException {
+
+	private static final long serialVersionUID = -2931829740637127510L;
+
+	public ImportacaoNotFoundException(String msg) {
+		super(msg);
+	}
+
+	public ImportacaoNotFoundException(String msg, Throwable cause) {
+		super(msg, cause);
+	}
+
+}
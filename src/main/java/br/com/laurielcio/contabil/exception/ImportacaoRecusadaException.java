@@ -0,0 +1,15 @@
+package br.com.laurielcio.contabil.exception;
+
+public class ImportacaoRecusadaException extends RuntimeException {
+
+	private static final long serialVersionUID = 6169843571046230183L;
+
+	public ImportacaoRecusadaException(String msg) {
+		super(msg);
+	}
+
+	public ImportacaoRecusadaException(String msg, Throwable cause) {
+		super(msg, cause);
+	}
+
+}
@@ -0,0 +1,9 @@
+package br.com.laurielcio.contabil.metricas;
+
+public enum CamadaEnum {
+
+    CONTROLLER,
+    SERVICO,
+    REPOSITORIO,
+    JDBC;
+}
@@ -0,0 +1,124 @@
+package br.com.laurielcio.contabil.metricas;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Mede o tempo de execução dos comandos JDBC (contabil.jdbc, por tipo de operação) e o
+ * contabiliza na camada JDBC da requisição. As conexões e comandos são envolvidos por proxies
+ * que apenas medem os métodos execute*; unwrap continua chegando ao driver (COPY da importação).
+ */
+public class JdbcMetricasDataSource extends DelegatingDataSource {
+
+    private final Timer consultas;
+
+    private final Timer atualizacoes;
+
+    private final Timer batches;
+
+    public JdbcMetricasDataSource(DataSource dataSource, MeterRegistry meterRegistry) {
+        super(dataSource);
+        this.consultas = timer(meterRegistry, "consulta");
+        this.atualizacoes = timer(meterRegistry, "atualizacao");
+        this.batches = timer(meterRegistry, "batch");
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operacao) {
+        return Timer.builder("contabil.jdbc")
+                .description("Tempo de execução dos comandos JDBC")
+                .tag("operacao", operacao)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return envolverConexao(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return envolverConexao(super.getConnection(username, password));
+    }
+
+    private Connection envolverConexao(Connection conexao) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    if (method.getName().equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+
+                    Object resultado = invocar(conexao, method, args);
+
+                    // createStatement, prepareStatement e prepareCall
+                    if (resultado instanceof Statement) {
+                        return envolverComando((Statement) resultado);
+                    }
+                    return resultado;
+                });
+    }
+
+    private Statement envolverComando(Statement comando) {
+        Class<?> tipo = comando instanceof CallableStatement ? CallableStatement.class
+                : comando instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+
+        InvocationHandler handler = (proxy, method, args) -> {
+            Timer timer = timerPara(method.getName());
+            if (timer == null) {
+                return invocar(comando, method, args);
+            }
+
+            long inicio = System.nanoTime();
+            long inicioCamada = RastreamentoCamadas.entrar(CamadaEnum.JDBC);
+            try {
+                return invocar(comando, method, args);
+            } finally {
+                RastreamentoCamadas.sair(CamadaEnum.JDBC, inicioCamada);
+                timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            }
+        };
+
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {tipo}, handler);
+    }
+
+    private Timer timerPara(String metodo) {
+        switch (metodo) {
+            case "executeQuery":
+                return consultas;
+            case "execute":
+            case "executeUpdate":
+            case "executeLargeUpdate":
+                return atualizacoes;
+            case "executeBatch":
+            case "executeLargeBatch":
+                return batches;
+            default:
+                return null;
+        }
+    }
+
+    private static Object invocar(Object alvo, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
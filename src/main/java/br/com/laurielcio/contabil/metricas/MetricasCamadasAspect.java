@@ -0,0 +1,61 @@
+package br.com.laurielcio.contabil.metricas;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Tempo e contagem de cada operação de {@link br.com.laurielcio.contabil.service.ContaService}
+ * (contabil.servico) e de cada método dos repositórios Spring Data (contabil.repositorio),
+ * incluindo os herdados de JpaRepository, com a exceção lançada como tag.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MetricasCamadasAspect {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("execution(* br.com.laurielcio.contabil.service.ContaService.*(..))")
+    public Object medirServico(ProceedingJoinPoint joinPoint) throws Throwable {
+        return medir(joinPoint, CamadaEnum.SERVICO, "contabil.servico", "ContaService");
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object medirRepositorio(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis());
+        return medir(joinPoint, CamadaEnum.REPOSITORIO, "contabil.repositorio", interfaces[0].getSimpleName());
+    }
+
+    private Object medir(ProceedingJoinPoint joinPoint, CamadaEnum camada, String metrica, String classe) throws Throwable {
+        long inicio = System.nanoTime();
+        long inicioCamada = RastreamentoCamadas.entrar(camada);
+        String excecao = "none";
+
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            excecao = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            RastreamentoCamadas.sair(camada, inicioCamada);
+
+            Timer.builder(metrica)
+                    .tag("classe", classe)
+                    .tag("metodo", joinPoint.getSignature().getName())
+                    .tag("excecao", excecao)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.laurielcio.contabil.metricas;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registra o tempo exclusivo de cada camada por rota (contabil.requisicao.camada) e loga a
+ * divisão das requisições mais lentas que {@code contabil.metricas.limiar-lenta-ms}. O tempo
+ * de Hibernate é o do repositório descontado o JDBC.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MetricasRastreamento implements OuvinteRastreamento {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${contabil.metricas.limiar-lenta-ms:500}")
+    private long limiarLentaMs;
+
+    @Override
+    public void requisicaoConcluida(String rota, long[] nanos) {
+        long controller = nanos[CamadaEnum.CONTROLLER.ordinal()];
+        long servico = nanos[CamadaEnum.SERVICO.ordinal()];
+        long repositorio = nanos[CamadaEnum.REPOSITORIO.ordinal()];
+        long jdbc = nanos[CamadaEnum.JDBC.ordinal()];
+
+        long hibernate = Math.max(0, repositorio - jdbc);
+        long exclusivoServico = Math.max(0, servico - repositorio);
+        long exclusivoController = Math.max(0, controller - Math.max(servico, jdbc));
+
+        registrar(rota, "controller", exclusivoController);
+        registrar(rota, "servico", exclusivoServico);
+        registrar(rota, "hibernate", hibernate);
+        registrar(rota, "jdbc", jdbc);
+
+        if (TimeUnit.NANOSECONDS.toMillis(controller) >= limiarLentaMs) {
+            log.warn("Requisição lenta {}: {} ms (controller {} ms, serviço {} ms, hibernate {} ms, jdbc {} ms)", rota,
+                    TimeUnit.NANOSECONDS.toMillis(controller), TimeUnit.NANOSECONDS.toMillis(exclusivoController),
+                    TimeUnit.NANOSECONDS.toMillis(exclusivoServico), TimeUnit.NANOSECONDS.toMillis(hibernate),
+                    TimeUnit.NANOSECONDS.toMillis(jdbc));
+        }
+    }
+
+    private void registrar(String rota, String camada, long nanos) {
+        Timer.builder("contabil.requisicao.camada")
+                .description("Tempo exclusivo de cada camada por requisição")
+                .tag("rota", rota)
+                .tag("camada", camada)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.laurielcio.contabil.metricas;
+
+/**
+ * Recebe, ao fim de cada requisição, o tempo gasto em cada camada. Todos os beans que
+ * implementam esta interface são chamados; é o ponto de integração para exportar a divisão
+ * da latência para um sistema de tracing.
+ */
+public interface OuvinteRastreamento {
+
+    /**
+     * @param rota   padrão da rota atendida (por exemplo /contas/{id})
+     * @param nanos  tempo inclusivo por camada, na ordem de {@link CamadaEnum}
+     */
+    void requisicaoConcluida(String rota, long[] nanos);
+}
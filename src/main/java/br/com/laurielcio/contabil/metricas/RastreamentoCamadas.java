@@ -0,0 +1,54 @@
+package br.com.laurielcio.contabil.metricas;
+
+/**
+ * Acumula, na thread da requisição, o tempo gasto em cada camada. Cada camada conta apenas a
+ * chamada mais externa (um repositório chamado dentro de outro não é somado duas vezes); os
+ * tempos são inclusivos, ou seja, o tempo do serviço contém o do repositório, que contém o JDBC.
+ * Fora de uma requisição (importações, tarefas agendadas) nada é acumulado.
+ */
+public final class RastreamentoCamadas {
+
+    private static final ThreadLocal<RastreamentoCamadas> ATUAL = new ThreadLocal<>();
+
+    private final long[] nanos = new long[CamadaEnum.values().length];
+
+    private final int[] profundidade = new int[CamadaEnum.values().length];
+
+    private RastreamentoCamadas() {
+    }
+
+    public static void iniciar() {
+        ATUAL.set(new RastreamentoCamadas());
+    }
+
+    /**
+     * Encerra o rastreamento da thread e retorna os nanossegundos por camada, na ordem de {@link CamadaEnum}.
+     */
+    public static long[] finalizar() {
+        RastreamentoCamadas rastreamento = ATUAL.get();
+        ATUAL.remove();
+        return rastreamento != null ? rastreamento.nanos : null;
+    }
+
+    /**
+     * @return momento de entrada na camada, a ser informado em {@link #sair}; 0 quando a chamada não é contabilizada
+     */
+    public static long entrar(CamadaEnum camada) {
+        RastreamentoCamadas rastreamento = ATUAL.get();
+        if (rastreamento == null || rastreamento.profundidade[camada.ordinal()]++ > 0) {
+            return 0;
+        }
+        return System.nanoTime();
+    }
+
+    public static void sair(CamadaEnum camada, long inicio) {
+        RastreamentoCamadas rastreamento = ATUAL.get();
+        if (rastreamento == null) {
+            return;
+        }
+        rastreamento.profundidade[camada.ordinal()]--;
+        if (inicio != 0) {
+            rastreamento.nanos[camada.ordinal()] += System.nanoTime() - inicio;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.laurielcio.contabil.metricas;
+
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Abre o rastreamento por camadas no início de cada requisição e o entrega aos
+ * {@link OuvinteRastreamento} ao final.
+ */
+@Component
+@RequiredArgsConstructor
+public class RastreamentoInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ATRIBUTO_INICIO = RastreamentoInterceptor.class.getName() + ".inicio";
+
+    @Autowired
+    private List<OuvinteRastreamento> ouvintes;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RastreamentoCamadas.iniciar();
+        request.setAttribute(ATRIBUTO_INICIO, RastreamentoCamadas.entrar(CamadaEnum.CONTROLLER));
+        return true;
+    }
+
+    /**
+     * Requisições assíncronas continuam em outra thread; a parcial desta é descartada.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.removeAttribute(ATRIBUTO_INICIO);
+        RastreamentoCamadas.finalizar();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object inicio = request.getAttribute(ATRIBUTO_INICIO);
+        if (inicio == null) {
+            return;
+        }
+
+        RastreamentoCamadas.sair(CamadaEnum.CONTROLLER, (Long) inicio);
+        long[] nanos = RastreamentoCamadas.finalizar();
+        if (nanos == null) {
+            return;
+        }
+
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String rota = padrao != null ? padrao.toString() : "desconhecida";
+
+        for (OuvinteRastreamento ouvinte : ouvintes) {
+            ouvinte.requisicaoConcluida(rota, nanos);
+        }
+    }
+}
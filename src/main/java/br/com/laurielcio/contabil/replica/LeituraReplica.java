@@ -0,0 +1,18 @@
+package br.com.laurielcio.contabil.replica;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Leitura que pode ser atendida por uma réplica, aceitando dados atrasados em até
+ * {@code contabil.replicas.atraso-maximo-ms}. Dentro de uma transação de escrita já iniciada, a
+ * conexão dela continua sendo usada.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LeituraReplica {
+}
@@ -0,0 +1,27 @@
+package br.com.laurielcio.contabil.replica;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Marca a thread como em leitura de réplica enquanto um método {@link LeituraReplica} executa;
+ * chamadas aninhadas usam a mesma réplica da chamada externa.
+ */
+@Aspect
+public class LeituraReplicaAspect {
+
+    @Around("@annotation(br.com.laurielcio.contabil.replica.LeituraReplica)")
+    public Object rotear(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (RoteamentoDataSource.emLeituraReplica()) {
+            return joinPoint.proceed();
+        }
+
+        RoteamentoDataSource.iniciarLeituraReplica();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RoteamentoDataSource.encerrarLeituraReplica();
+        }
+    }
+}
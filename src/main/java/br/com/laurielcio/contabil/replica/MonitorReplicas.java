@@ -0,0 +1,164 @@
+package br.com.laurielcio.contabil.replica;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Verifica periodicamente cada réplica e mantém a lista das que podem receber leituras: as que
+ * respondem e cujo atraso de replicação não passa de {@code contabil.replicas.atraso-maximo-ms}.
+ * As leituras são distribuídas entre elas em rodízio.
+ * <p>
+ * O atraso é o tempo desde a última transação aplicada, considerado zero quando a réplica já
+ * aplicou tudo o que recebeu (primário sem escritas). Isso só vale enquanto ela recebe o WAL: sem
+ * conexão com o primário, ela também já aplicou tudo o que recebeu e pareceria em dia; por isso a
+ * réplica cujo WAL receiver não está em {@code streaming} fica indisponível (o usuário precisa do
+ * papel {@code pg_monitor} ou {@code pg_read_all_stats} para ler o estado em pg_stat_wal_receiver).
+ * Uma instância que não está em recuperação (um banco independente, em testes locais) é tratada
+ * como sem atraso.
+ */
+@Slf4j
+public class MonitorReplicas {
+
+    private static final String CONSULTA_ATRASO = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final long atrasoMaximoMs;
+
+    private final TaskScheduler taskScheduler;
+
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    private volatile List<Replica> disponiveis = new ArrayList<>();
+
+    public MonitorReplicas(Map<String, DataSource> replicas, long atrasoMaximoMs, TaskScheduler taskScheduler,
+                           MeterRegistry meterRegistry) {
+        this.atrasoMaximoMs = atrasoMaximoMs;
+        this.taskScheduler = taskScheduler;
+
+        replicas.forEach((nome, dataSource) -> {
+            Replica replica = new Replica(nome, dataSource);
+            this.replicas.add(replica);
+
+            Gauge.builder("contabil.replica.atraso", replica, r -> r.atrasoMs)
+                    .description("Atraso de replicação medido na última verificação (ms); -1 se a réplica não respondeu ou não está recebendo o WAL do primário")
+                    .baseUnit("milliseconds")
+                    .tag("replica", nome)
+                    .register(meterRegistry);
+            Gauge.builder("contabil.replica.disponivel", replica, r -> r.disponivel ? 1 : 0)
+                    .description("1 se a réplica está recebendo leituras")
+                    .tag("replica", nome)
+                    .register(meterRegistry);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${contabil.replicas.intervalo-verificacao-ms:2000}")
+    public void verificar() {
+        List<Replica> atualizadas = new ArrayList<>();
+
+        for (Replica replica : replicas) {
+            boolean disponivelAntes = replica.disponivel;
+            replica.atrasoMs = medirAtraso(replica);
+            replica.disponivel = replica.atrasoMs >= 0 && replica.atrasoMs <= atrasoMaximoMs;
+
+            if (replica.disponivel != disponivelAntes) {
+                log.info("Réplica {} {} (atraso: {} ms)", replica.nome,
+                        replica.disponivel ? "disponível para leituras" : "indisponível", replica.atrasoMs);
+            }
+            if (replica.disponivel) {
+                atualizadas.add(replica);
+            }
+        }
+
+        disponiveis = atualizadas;
+    }
+
+    /**
+     * Próxima réplica disponível, ou {@code null} se nenhuma estiver.
+     */
+    public DataSource selecionar() {
+        List<Replica> candidatas = disponiveis;
+        if (candidatas.isEmpty()) {
+            return null;
+        }
+        return candidatas.get(Math.floorMod(proxima.getAndIncrement(), candidatas.size())).dataSource;
+    }
+
+    /**
+     * Retira a réplica do rodízio até a próxima verificação.
+     */
+    public void marcarIndisponivel(DataSource dataSource) {
+        List<Replica> atualizadas = new ArrayList<>(disponiveis);
+        atualizadas.removeIf(replica -> replica.dataSource == dataSource);
+        disponiveis = atualizadas;
+
+        replicas.stream().filter(replica -> replica.dataSource == dataSource).forEach(replica -> replica.disponivel = false);
+    }
+
+    public String nome(DataSource dataSource) {
+        return replicas.stream().filter(replica -> replica.dataSource == dataSource).map(replica -> replica.nome)
+                .findFirst().orElse("?");
+    }
+
+    /**
+     * Executa a tarefa de novo depois do atraso máximo de replicação: usado para remover do cache
+     * uma conta alterada que uma leitura na réplica, ainda sem a alteração, possa ter guardado.
+     */
+    public void repetirAposReplicacao(Runnable tarefa) {
+        taskScheduler.schedule(tarefa, Instant.now().plusMillis(atrasoMaximoMs));
+    }
+
+    private long medirAtraso(Replica replica) {
+        try (Connection conexao = replica.dataSource.getConnection();
+             Statement comando = conexao.createStatement()) {
+            comando.setQueryTimeout(Math.max(1, (int) (atrasoMaximoMs / 1000)));
+            try (ResultSet resultado = comando.executeQuery(CONSULTA_ATRASO)) {
+                resultado.next();
+                long atrasoMs = resultado.getLong(1);
+                if (resultado.wasNull()) {
+                    log.debug("Réplica {} sem receber o WAL do primário", replica.nome);
+                    return -1;
+                }
+                return atrasoMs;
+            }
+        } catch (SQLException e) {
+            log.debug("Falha ao verificar a réplica {}: {}", replica.nome, e.getMessage());
+            return -1;
+        }
+    }
+
+    private static class Replica {
+
+        private final String nome;
+
+        private final DataSource dataSource;
+
+        private volatile long atrasoMs = -1;
+
+        private volatile boolean disponivel;
+
+        Replica(String nome, DataSource dataSource) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+        }
+    }
+}
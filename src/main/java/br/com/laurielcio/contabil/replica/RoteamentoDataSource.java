@@ -0,0 +1,89 @@
+package br.com.laurielcio.contabil.replica;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Entrega conexões do primário ou, em leituras {@link LeituraReplica} fora de transações de
+ * escrita, de uma réplica disponível escolhida pelo {@link MonitorReplicas}. A réplica escolhida é
+ * mantida até o fim da leitura, para que todas as consultas dela vejam o mesmo estado. Sem réplica
+ * disponível, ou se a réplica falhar ao entregar a conexão, a leitura segue para o primário.
+ * <p>
+ * Deve ser usado atrás de um {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * o gerenciador de transações obtém a conexão antes de marcar a transação como somente leitura,
+ * e o proxy adia a escolha até o primeiro comando.
+ */
+@Slf4j
+public class RoteamentoDataSource extends AbstractDataSource {
+
+    private static final ThreadLocal<Leitura> LEITURA = new ThreadLocal<>();
+
+    private final DataSource primario;
+
+    private final MonitorReplicas monitor;
+
+    public RoteamentoDataSource(DataSource primario, MonitorReplicas monitor) {
+        this.primario = primario;
+        this.monitor = monitor;
+    }
+
+    static boolean emLeituraReplica() {
+        return LEITURA.get() != null;
+    }
+
+    static void iniciarLeituraReplica() {
+        LEITURA.set(new Leitura());
+    }
+
+    static void encerrarLeituraReplica() {
+        LEITURA.remove();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Leitura leitura = LEITURA.get();
+
+        if (leitura != null && !leitura.primario && podeUsarReplica()) {
+            if (leitura.replica == null) {
+                leitura.replica = monitor.selecionar();
+            }
+
+            if (leitura.replica != null) {
+                try {
+                    return leitura.replica.getConnection();
+                } catch (SQLException e) {
+                    log.warn("Falha ao obter conexão da réplica {}; leitura enviada ao primário: {}",
+                            monitor.nome(leitura.replica), e.getMessage());
+                    monitor.marcarIndisponivel(leitura.replica);
+                }
+            }
+            leitura.primario = true;
+        }
+
+        return primario.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primario.getConnection(username, password);
+    }
+
+    private boolean podeUsarReplica() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static class Leitura {
+
+        private DataSource replica;
+
+        private boolean primario;
+    }
+}
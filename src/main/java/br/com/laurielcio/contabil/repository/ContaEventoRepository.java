@@ -0,0 +1,101 @@
+package br.com.laurielcio.contabil.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.laurielcio.contabil.entity.ContaEventoEntity;
+
+/**
+ * Eventos de contas_eventos (V14). A publicação atribui as posições em ordem crescente, sob um
+ * advisory lock de transação por schema (um publicador por empresa), para que uma posição nunca
+ * seja atribuída depois de uma maior já lida pelo feed.
+ */
+public interface ContaEventoRepository extends JpaRepository<ContaEventoEntity, Long> {
+
+    String SEM_ALERTA = "SELECT 1 FROM contas_eventos e WHERE e.conta_id = c.id "
+            + "AND CAST(e.dados ->> 'dataVencimento' AS date) = c.data_vencimento AND e.tipo = ";
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO contas_eventos (tipo, conta_id, dados, data_evento) "
+            + "SELECT :tipo, c.id, " + ContaEventoSql.DADOS_CONTA + ", now() FROM contas_a_pagar c WHERE c.id = :contaId",
+            nativeQuery = true)
+    int registrar(Long contaId, String tipo);
+
+    /**
+     * Deve ser chamado dentro da transação da publicação; o lock é liberado no fim dela.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('contas_eventos.' || current_schema()))", nativeQuery = true)
+    boolean bloquearPublicacao();
+
+    @Query(value = "SELECT COALESCE(max(posicao), 0) FROM contas_eventos", nativeQuery = true)
+    long findUltimaPosicao();
+
+    /**
+     * Atribui posições, seguindo a última publicada, aos {@code limite} eventos pendentes (já
+     * confirmados) mais antigos. Retorna a quantidade de eventos publicados.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "WITH ultima AS (SELECT COALESCE(max(posicao), 0) AS posicao FROM contas_eventos), "
+            + "pendentes AS (SELECT p.id, row_number() OVER (ORDER BY p.id) AS ordem FROM ("
+            + "SELECT e.id FROM contas_eventos e WHERE e.posicao IS NULL ORDER BY e.id LIMIT :limite) p) "
+            + "UPDATE contas_eventos e SET posicao = u.posicao + p.ordem, data_publicacao = :data "
+            + "FROM pendentes p, ultima u WHERE e.id = p.id", nativeQuery = true)
+    int publicar(int limite, LocalDateTime data);
+
+    /**
+     * Ids dos eventos já confirmados e ainda não publicados.
+     */
+    @Query("SELECT e.id FROM ContaEventoEntity e WHERE e.posicao IS NULL")
+    List<Long> findIdsPendentes();
+
+    @Query(value = "SELECT * FROM contas_eventos WHERE posicao > :desde ORDER BY posicao LIMIT :limite", nativeQuery = true)
+    List<ContaEventoEntity> findPublicadosApos(long desde, int limite);
+
+    /**
+     * Serializa a gravação dos alertas de vencimento da empresa entre as instâncias, até o fim da transação.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext('contas_alertas.' || current_schema()))", nativeQuery = true)
+    int bloquearAlertas();
+
+    /**
+     * Evento VENCENDO das contas informadas que continuam pendentes, com vencimento entre
+     * {@code dataInicial} e {@code dataFinal}, e que ainda não o receberam para esse vencimento.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO contas_eventos (tipo, conta_id, dados, data_evento) "
+            + "SELECT 'VENCENDO', c.id, " + ContaEventoSql.DADOS_CONTA + ", now() FROM contas_a_pagar c "
+            + "WHERE c.id IN (:ids) AND c.situacao = 'PENDENTE' AND c.data_vencimento BETWEEN :dataInicial AND :dataFinal "
+            + "AND NOT EXISTS (" + SEM_ALERTA + "'VENCENDO')", nativeQuery = true)
+    int registrarVencendo(List<Long> ids, LocalDate dataInicial, LocalDate dataFinal);
+
+    /**
+     * Evento VENCIDA das contas informadas que continuam pendentes, com vencimento anterior a
+     * {@code data}, e que ainda não o receberam para esse vencimento.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO contas_eventos (tipo, conta_id, dados, data_evento) "
+            + "SELECT 'VENCIDA', c.id, " + ContaEventoSql.DADOS_CONTA + ", now() FROM contas_a_pagar c "
+            + "WHERE c.id IN (:ids) AND c.situacao = 'PENDENTE' AND c.data_vencimento < :data "
+            + "AND NOT EXISTS (" + SEM_ALERTA + "'VENCIDA')", nativeQuery = true)
+    int registrarVencidas(List<Long> ids, LocalDate data);
+
+    /**
+     * Remove os eventos publicados antes de {@code data}, mantendo sempre o último, do qual segue a
+     * numeração das próximas posições.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM contas_eventos WHERE data_publicacao < :data "
+            + "AND posicao < (SELECT max(posicao) FROM contas_eventos)", nativeQuery = true)
+    int removerPublicados(LocalDateTime data);
+}
@@ -0,0 +1,53 @@
+package br.com.laurielcio.contabil.repository;
+
+import br.com.laurielcio.contabil.entity.TipoEventoContaEnum;
+
+/**
+ * Trechos SQL que gravam os eventos de contas_eventos (V14) junto com a alteração, como CTE da
+ * própria instrução (UPDATE/INSERT ... RETURNING) ou na mesma transação. Os dados de cada conta
+ * são montados no banco, a partir da linha gravada, com os campos de ContaResponse.
+ */
+public final class ContaEventoSql {
+
+    public static final String DADOS_CONTA = "jsonb_build_object('id', c.id, 'dataVencimento', c.data_vencimento, "
+            + "'dataPagamento', c.data_pagamento, 'valor', c.valor, 'descricao', c.descricao, "
+            + "'situacao', c.situacao, 'versao', c.versao)";
+
+    /**
+     * Estado anterior da conta (a), nos eventos de alteração: quem mantém totais aplica a diferença.
+     */
+    public static final String DADOS_ANTERIOR = "jsonb_build_object('anterior', jsonb_build_object("
+            + "'dataVencimento', a.data_vencimento, 'valor', a.valor, 'situacao', a.situacao))";
+
+    /**
+     * Colunas de contas_a_pagar lidas como estado anterior ({@code anterior}).
+     */
+    public static final String COLUNAS_ANTERIOR = "c.id, c.data_vencimento, c.valor, c.situacao";
+
+    private ContaEventoSql() {
+    }
+
+    /**
+     * Um evento por conta alterada de {@code origem} (CTE com as colunas de contas_a_pagar), com o estado anterior lido de {@code anterior}
+     * (CTE com {@link #COLUNAS_ANTERIOR}, bloqueada com FOR UPDATE e referenciada pelo UPDATE, para
+     * que seja lida antes da alteração).
+     */
+    public static String registrar(TipoEventoContaEnum tipo, String origem, String anterior) {
+        return "INSERT INTO contas_eventos (tipo, conta_id, dados, data_evento) "
+                + "SELECT '" + tipo.name() + "', c.id, " + DADOS_CONTA + " || " + DADOS_ANTERIOR + ", now() "
+                + "FROM " + origem + " c JOIN " + anterior + " a ON a.id = c.id";
+    }
+
+    /**
+     * Um evento IMPORTADAS para cada {@code contasPorEvento} contas de {@code origem}, em ordem de id.
+     * O id da importação é o único parâmetro (?) do trecho.
+     */
+    public static String registrarImportadas(String origem, int contasPorEvento) {
+        return "INSERT INTO contas_eventos (tipo, importacao_id, dados, data_evento) "
+                + "SELECT '" + TipoEventoContaEnum.IMPORTADAS.name() + "', l.importacao_id, "
+                + "jsonb_build_object('importacaoId', l.importacao_id, 'contas', jsonb_agg(l.conta ORDER BY l.id)), now() "
+                + "FROM (SELECT CAST(? AS bigint) AS importacao_id, c.id, " + DADOS_CONTA + " AS conta, "
+                + "(row_number() OVER (ORDER BY c.id) - 1) / " + contasPorEvento + " AS grupo FROM " + origem + " c) l "
+                + "GROUP BY l.importacao_id, l.grupo";
+    }
+}
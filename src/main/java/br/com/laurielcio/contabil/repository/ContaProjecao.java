@@ -0,0 +1,30 @@
+package br.com.laurielcio.contabil.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import br.com.laurielcio.contabil.entity.SituacaoEnum;
+import lombok.Value;
+
+/**
+ * Dados de uma conta lidos por projeção (constructor expression em JPQL, colunas explícitas em
+ * SQL), sem entidade: nada entra no contexto de persistência, e não há hidratação de entidade
+ * nem cópia de estado para dirty checking. Usada nas listagens e na exportação.
+ */
+@Value
+public class ContaProjecao {
+
+    Long id;
+
+    LocalDate dataVencimento;
+
+    LocalDate dataPagamento;
+
+    BigDecimal valor;
+
+    String descricao;
+
+    SituacaoEnum situacao;
+
+    Long versao;
+}
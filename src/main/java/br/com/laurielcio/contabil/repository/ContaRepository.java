@@ -6,19 +6,90 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import br.com.laurielcio.contabil.entity.ContaEntity;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
 
-public interface ContaRepository extends JpaRepository<ContaEntity, Long> {
+import javax.persistence.QueryHint;
 
-    Page<ContaEntity> findByDataVencimentoAndDescricaoContainingIgnoreCase(LocalDate dataVencimento, String descricao, Pageable pageable);
+public interface ContaRepository extends JpaRepository<ContaEntity, Long>, ContaRepositoryCustom {
 
-    Page<ContaEntity> findByDataVencimento(LocalDate dataVencimento, Pageable pageable);
+    String PROJECAO = "SELECT new br.com.laurielcio.contabil.repository.ContaProjecao(c.id, c.dataVencimento, "
+            + "c.dataPagamento, c.valor, c.descricao, c.situacao, c.versao) FROM ContaEntity c";
 
-    Page<ContaEntity> findByDescricaoContainingIgnoreCase(String descricao, Pageable pageable);
+    /**
+     * Busca parcial sem diferenciar maiúsculas, como nas consultas derivadas (Containing e IgnoreCase):
+     * % e _ da descrição são escapados.
+     */
+    String FILTRO_DESCRICAO = "UPPER(c.descricao) LIKE UPPER(CONCAT('%', :#{escape(#descricao)}, '%')) ESCAPE :#{escapeCharacter()}";
 
-    @Query("SELECT SUM(c.valor) FROM ContaEntity c WHERE c.dataVencimento BETWEEN :dataInicial AND :dataFinal")
-    BigDecimal findValorTotalPorPeriodo(LocalDate dataInicial, LocalDate dataFinal);
+    @Query(value = PROJECAO + " WHERE c.dataVencimento = :dataVencimento AND " + FILTRO_DESCRICAO,
+            countQuery = "SELECT count(c) FROM ContaEntity c WHERE c.dataVencimento = :dataVencimento AND " + FILTRO_DESCRICAO)
+    Page<ContaProjecao> listarPorDataVencimentoEDescricao(LocalDate dataVencimento, String descricao, Pageable pageable);
+
+    @Query(value = PROJECAO + " WHERE c.dataVencimento = :dataVencimento",
+            countQuery = "SELECT count(c) FROM ContaEntity c WHERE c.dataVencimento = :dataVencimento")
+    Page<ContaProjecao> listarPorDataVencimento(LocalDate dataVencimento, Pageable pageable);
+
+    @Query(value = PROJECAO + " WHERE " + FILTRO_DESCRICAO,
+            countQuery = "SELECT count(c) FROM ContaEntity c WHERE " + FILTRO_DESCRICAO)
+    Page<ContaProjecao> listarPorDescricao(String descricao, Pageable pageable);
+
+    @Query(value = PROJECAO, countQuery = "SELECT count(c) FROM ContaEntity c")
+    Page<ContaProjecao> listar(Pageable pageable);
+
+    /**
+     * Todas as contas do período de vencimento (limites opcionais), lidas por cursor do servidor em
+     * blocos de 1000 linhas. Deve ser consumida dentro de uma transação, e o stream fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(PROJECAO + " WHERE (:dataInicial IS NULL OR c.dataVencimento >= :dataInicial) "
+            + "AND (:dataFinal IS NULL OR c.dataVencimento <= :dataFinal) ORDER BY c.id")
+    Stream<ContaProjecao> streamPorPeriodo(LocalDate dataInicial, LocalDate dataFinal);
+
+    /**
+     * Soma das contas pagas com vencimento no período, lida dos totais diários (V10). O período é o de
+     * vencimento, como na soma anterior de todas as contas, e não o de pagamento.
+     */
+    @Query(value = "SELECT COALESCE(SUM(t.valor_total), 0) FROM contas_a_pagar_totais_diarios t "
+            + "WHERE t.situacao = 'PAGA' AND t.data_vencimento BETWEEN :dataInicial AND :dataFinal", nativeQuery = true)
+    BigDecimal findValorTotalPagoPorPeriodo(LocalDate dataInicial, LocalDate dataFinal);
+
+    /**
+     * Data de vencimento, quantidade e valor das contas pendentes por dia, lidos dos totais diários (V10).
+     */
+    @Query(value = "SELECT t.data_vencimento, t.quantidade, t.valor_total FROM contas_a_pagar_totais_diarios t "
+            + "WHERE t.situacao = 'PENDENTE' AND t.quantidade <> 0", nativeQuery = true)
+    List<Object[]> findTotaisPendentes();
+
+    /**
+     * Data de vencimento, quantidade e valor das contas pendentes por dia do período, calculados sobre
+     * contas_a_pagar, e, com data nula, os das vencidas antes de {@code hoje}, em uma única leitura.
+     */
+    @Query(value = "SELECT c.data_vencimento, count(*), sum(c.valor) FROM contas_a_pagar c "
+            + "WHERE c.situacao = 'PENDENTE' AND c.data_vencimento BETWEEN :dataInicial AND :dataFinal "
+            + "GROUP BY c.data_vencimento "
+            + "UNION ALL SELECT NULL, count(*), COALESCE(sum(c.valor), 0) FROM contas_a_pagar c "
+            + "WHERE c.situacao = 'PENDENTE' AND c.data_vencimento < :hoje", nativeQuery = true)
+    List<Object[]> findPendentesPorDia(LocalDate dataInicial, LocalDate dataFinal, LocalDate hoje);
+
+    @Transactional
+    @Query(value = "SELECT contas_a_pagar_totais_reconstruir()", nativeQuery = true)
+    Integer reconstruirTotaisDiarios();
+
+    @Transactional
+    @Query(value = "SELECT contas_a_pagar_totais_reconstruir(:dataInicial, :dataFinal)", nativeQuery = true)
+    Integer reconstruirTotaisDiarios(LocalDate dataInicial, LocalDate dataFinal);
+
+    /**
+     * Cria as partições mensais de contas_a_pagar até {@code meses} à frente; sem particionamento, retorna 0.
+     */
+    @Transactional
+    @Query(value = "SELECT contas_a_pagar_criar_particoes(:meses)", nativeQuery = true)
+    Integer criarParticoes(int meses);
 }
 
@@ -0,0 +1,63 @@
+package br.com.laurielcio.contabil.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import br.com.laurielcio.contabil.entity.ContaEntity;
+import br.com.laurielcio.contabil.entity.SituacaoEnum;
+import br.com.laurielcio.contabil.request.ContaCursor;
+
+public interface ContaRepositoryCustom {
+
+    /**
+     * Contas ordenadas por (data_vencimento, id) posteriores ao cursor, sem consulta de contagem.
+     * Sem cursor, retorna o início da lista.
+     */
+    Slice<ContaProjecao> findAposCursor(LocalDate dataVencimento, String descricao, ContaCursor cursor, int tamanho);
+
+    /**
+     * Busca por palavras na descrição (websearch_to_tsquery sobre descricao_busca, V7), ordenada por
+     * relevância; a data de vencimento é opcional.
+     */
+    Page<ContaProjecao> listarPorTextoDescricao(LocalDate dataVencimento, String descricao, Pageable pageable);
+
+    /**
+     * Altera, em uma única instrução, a situação das contas informadas que ainda não estão nela.
+     * Retorna os ids encontrados, indicando se cada um foi alterado.
+     */
+    Map<Long, Boolean> alterarSituacao(List<Long> ids, SituacaoEnum situacao, LocalDate dataPagamento);
+
+    /**
+     * Altera a situação de até {@code limite} contas do período de vencimento (e da descrição, se
+     * informada) com id maior que {@code aposId} e que ainda não estão na situação. Retorna os ids
+     * selecionados, indicando se cada um foi alterado (uma conta alterada por outra transação enquanto
+     * aguardava o bloqueio pode não ser).
+     */
+    Map<Long, Boolean> alterarSituacaoPorPeriodo(LocalDate dataInicial, LocalDate dataFinal, String descricao,
+                                                 SituacaoEnum situacao, LocalDate dataPagamento, long aposId, int limite);
+
+    /**
+     * Grava os dados da conta (pelo id) e incrementa a versão em uma única instrução, retornando a
+     * conta gravada. Com {@code versoesEsperadas}, só grava se a versão atual for uma delas (com a
+     * lista vazia, nunca grava); se nada for gravado, retorna vazio (conta inexistente ou alterada
+     * por outra requisição).
+     */
+    Optional<ContaEntity> atualizarConta(ContaEntity conta, List<Long> versoesEsperadas);
+
+    /**
+     * Como {@link #atualizarConta}, alterando apenas a situação e a data de pagamento.
+     */
+    Optional<ContaEntity> alterarSituacaoConta(Long id, SituacaoEnum situacao, LocalDate dataPagamento, List<Long> versoesEsperadas);
+
+    /**
+     * Vencimento e id das contas pendentes com vencimento no período, ordenadas por (data_vencimento, id),
+     * posteriores a {@code apos} (opcional).
+     */
+    List<ContaCursor> findPendentesPorVencimento(LocalDate dataInicial, LocalDate dataFinal, ContaCursor apos, int limite);
+}
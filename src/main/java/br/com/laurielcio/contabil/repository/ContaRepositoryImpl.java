@@ -0,0 +1,308 @@
+package br.com.laurielcio.contabil.repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.LocalDateType;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.laurielcio.contabil.entity.ContaEntity;
+import br.com.laurielcio.contabil.entity.SituacaoEnum;
+import br.com.laurielcio.contabil.entity.TipoEventoContaEnum;
+import br.com.laurielcio.contabil.request.ContaCursor;
+
+/**
+ * A comparação de linha (data_vencimento, id) > (?, ?) é resolvida pelo índice
+ * idx_contas_a_pagar_vencimento_id como um ponto de partida na varredura, então o custo de
+ * uma página não depende de quantas já foram lidas. É buscada uma conta a mais que o tamanho
+ * da página apenas para saber se existe a próxima.
+ * <p>
+ * Contas sem data de vencimento ficam no fim da lista, ordenadas por id, como no próprio índice;
+ * a comparação de linha não as alcança, por isso são buscadas em uma segunda parte da consulta.
+ * <p>
+ * As consultas de listagem selecionam apenas as colunas de {@link ContaProjecao}, convertidas
+ * sem passar por entidades.
+ * <p>
+ * As alterações de situação em lote são instruções UPDATE únicas, sem carregar as contas: os
+ * gatilhos de totais diários (V10) executam uma vez por instrução, não por conta.
+ * <p>
+ * As alterações de uma conta são um UPDATE ... RETURNING condicionado à versão, sem SELECT
+ * anterior: a verificação e a gravação acontecem na mesma instrução, então não há atualização perdida.
+ * <p>
+ * Toda alteração grava, na mesma instrução, um evento por conta alterada em contas_eventos
+ * ({@link ContaEventoSql}), com o estado anterior da conta.
+ */
+public class ContaRepositoryImpl implements ContaRepositoryCustom {
+
+    private static final String ORDENACAO = " ORDER BY c.data_vencimento, c.id LIMIT :limite";
+
+    private static final String COLUNAS_PROJECAO = "c.id, c.data_vencimento, c.data_pagamento, c.valor, c.descricao, c.situacao, c.versao";
+
+    private static final String BUSCA_TEXTO = "c.descricao_busca @@ websearch_to_tsquery('portuguese', :descricao)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Slice<ContaProjecao> findAposCursor(LocalDate dataVencimento, String descricao, ContaCursor cursor, int tamanho) {
+        String filtros = filtros(dataVencimento, descricao);
+        String selecao = "SELECT " + COLUNAS_PROJECAO + " FROM contas_a_pagar c WHERE ";
+        String sql;
+
+        if (cursor == null) {
+            sql = selecao + filtros + ORDENACAO;
+        } else if (cursor.getDataVencimento() != null) {
+            sql = "SELECT * FROM ("
+                    + "(" + selecao + filtros
+                    + " AND (c.data_vencimento, c.id) > (:cursorDataVencimento, :cursorId)" + ORDENACAO + ")"
+                    + " UNION ALL "
+                    + "(" + selecao + filtros
+                    + " AND c.data_vencimento IS NULL" + ORDENACAO + ")"
+                    + ") c" + ORDENACAO;
+        } else {
+            sql = selecao + filtros
+                    + " AND c.data_vencimento IS NULL AND c.id > :cursorId" + ORDENACAO;
+        }
+
+        Query query = entityManager.createNativeQuery(sql);
+
+        if (dataVencimento != null) {
+            query.setParameter("dataVencimento", dataVencimento);
+        }
+        if (descricao != null) {
+            query.setParameter("descricao", "%" + escaparLike(descricao) + "%");
+        }
+        if (cursor != null) {
+            if (cursor.getDataVencimento() != null) {
+                query.setParameter("cursorDataVencimento", cursor.getDataVencimento());
+            }
+            query.setParameter("cursorId", cursor.getId());
+        }
+        query.setParameter("limite", tamanho + 1);
+
+        List<ContaProjecao> contas = projetar(query.getResultList());
+
+        boolean existeProxima = contas.size() > tamanho;
+        if (existeProxima) {
+            contas = contas.subList(0, tamanho);
+        }
+
+        return new SliceImpl<>(contas, PageRequest.of(0, tamanho), existeProxima);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Page<ContaProjecao> listarPorTextoDescricao(LocalDate dataVencimento, String descricao, Pageable pageable) {
+        String filtros = (dataVencimento != null ? "c.data_vencimento = :dataVencimento AND " : "") + BUSCA_TEXTO;
+
+        Query query = entityManager.createNativeQuery("SELECT " + COLUNAS_PROJECAO + " FROM contas_a_pagar c WHERE " + filtros
+                + " ORDER BY ts_rank(c.descricao_busca, websearch_to_tsquery('portuguese', :descricao)) DESC, c.id"
+                + " LIMIT :limite OFFSET :inicio");
+        Query contagem = entityManager.createNativeQuery("SELECT count(*) FROM contas_a_pagar c WHERE " + filtros);
+
+        for (Query consulta : new Query[] {query, contagem}) {
+            if (dataVencimento != null) {
+                consulta.setParameter("dataVencimento", dataVencimento);
+            }
+            consulta.setParameter("descricao", descricao);
+        }
+        query.setParameter("limite", pageable.getPageSize());
+        query.setParameter("inicio", pageable.getOffset());
+
+        List<ContaProjecao> contas = projetar(query.getResultList());
+
+        return PageableExecutionUtils.getPage(contas, pageable, () -> ((Number) contagem.getSingleResult()).longValue());
+    }
+
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public Map<Long, Boolean> alterarSituacao(List<Long> ids, SituacaoEnum situacao, LocalDate dataPagamento) {
+        String sql = "WITH alvo AS ("
+                + "SELECT " + ContaEventoSql.COLUNAS_ANTERIOR + ", c.situacao <> :situacao AS alterar "
+                + "FROM contas_a_pagar c WHERE c.id IN (:ids) FOR UPDATE), "
+                + "alteradas AS ("
+                + "UPDATE contas_a_pagar c SET situacao = :situacao, data_pagamento = :dataPagamento, versao = c.versao + 1 "
+                + "FROM alvo a WHERE c.id = a.id AND a.alterar RETURNING c.*), "
+                + "eventos AS (" + ContaEventoSql.registrar(TipoEventoContaEnum.SITUACAO_ALTERADA, "alteradas", "alvo") + ") "
+                + "SELECT id, alterar FROM alvo";
+
+        Query query = entityManager.createNativeQuery(sql)
+                .setParameter("ids", ids)
+                .setParameter("situacao", situacao.name());
+        query.unwrap(NativeQuery.class).setParameter("dataPagamento", dataPagamento, LocalDateType.INSTANCE);
+
+        Map<Long, Boolean> encontradas = new HashMap<>();
+        for (Object[] linha : (List<Object[]>) query.getResultList()) {
+            encontradas.put(((Number) linha[0]).longValue(), (Boolean) linha[1]);
+        }
+        return encontradas;
+    }
+
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public Map<Long, Boolean> alterarSituacaoPorPeriodo(LocalDate dataInicial, LocalDate dataFinal, String descricao,
+                                                        SituacaoEnum situacao, LocalDate dataPagamento, long aposId, int limite) {
+        String sql = "WITH alvo AS ("
+                + "SELECT " + ContaEventoSql.COLUNAS_ANTERIOR + " FROM contas_a_pagar c WHERE c.data_vencimento BETWEEN :dataInicial AND :dataFinal"
+                + (descricao != null ? " AND UPPER(c.descricao) LIKE UPPER(:descricao)" : "")
+                + " AND c.situacao <> :situacao AND c.id > :aposId ORDER BY c.id LIMIT :limite FOR UPDATE), "
+                + "alteradas AS ("
+                + "UPDATE contas_a_pagar c SET situacao = :situacao, data_pagamento = :dataPagamento, versao = c.versao + 1 "
+                + "FROM alvo a WHERE c.id = a.id AND c.situacao <> :situacao RETURNING c.*), "
+                + "eventos AS (" + ContaEventoSql.registrar(TipoEventoContaEnum.SITUACAO_ALTERADA, "alteradas", "alvo") + ") "
+                + "SELECT a.id, al.id IS NOT NULL FROM alvo a LEFT JOIN alteradas al ON al.id = a.id ORDER BY a.id";
+
+        Query query = entityManager.createNativeQuery(sql)
+                .setParameter("dataInicial", dataInicial)
+                .setParameter("dataFinal", dataFinal)
+                .setParameter("situacao", situacao.name())
+                .setParameter("aposId", aposId)
+                .setParameter("limite", limite);
+        if (descricao != null) {
+            query.setParameter("descricao", "%" + escaparLike(descricao) + "%");
+        }
+        query.unwrap(NativeQuery.class).setParameter("dataPagamento", dataPagamento, LocalDateType.INSTANCE);
+
+        Map<Long, Boolean> encontradas = new LinkedHashMap<>();
+        for (Object[] linha : (List<Object[]>) query.getResultList()) {
+            encontradas.put(((Number) linha[0]).longValue(), (Boolean) linha[1]);
+        }
+        return encontradas;
+    }
+
+    @Override
+    @Transactional
+    public Optional<ContaEntity> atualizarConta(ContaEntity conta, List<Long> versoesEsperadas) {
+        String sql = anterior(versoesEsperadas) + "gravada AS ("
+                + "UPDATE contas_a_pagar c SET data_vencimento = :dataVencimento, valor = :valor, descricao = :descricao, "
+                + "situacao = :situacao, data_pagamento = :dataPagamento, versao = c.versao + 1 "
+                + "FROM anterior a WHERE c.id = a.id RETURNING c.*), "
+                + "evento AS (" + ContaEventoSql.registrar(TipoEventoContaEnum.ATUALIZADA, "gravada", "anterior") + ") "
+                + "SELECT * FROM gravada";
+
+        Query query = entityManager.createNativeQuery(sql, ContaEntity.class)
+                .setParameter("id", conta.getId())
+                .setParameter("valor", conta.getValor())
+                .setParameter("descricao", conta.getDescricao())
+                .setParameter("situacao", conta.getSituacao().name());
+        query.unwrap(NativeQuery.class)
+                .setParameter("dataVencimento", conta.getDataVencimento(), LocalDateType.INSTANCE)
+                .setParameter("dataPagamento", conta.getDataPagamento(), LocalDateType.INSTANCE);
+
+        return gravarConta(query, versoesEsperadas);
+    }
+
+    @Override
+    @Transactional
+    public Optional<ContaEntity> alterarSituacaoConta(Long id, SituacaoEnum situacao, LocalDate dataPagamento, List<Long> versoesEsperadas) {
+        String sql = anterior(versoesEsperadas) + "gravada AS ("
+                + "UPDATE contas_a_pagar c SET situacao = :situacao, data_pagamento = :dataPagamento, versao = c.versao + 1 "
+                + "FROM anterior a WHERE c.id = a.id RETURNING c.*), "
+                + "evento AS (" + ContaEventoSql.registrar(TipoEventoContaEnum.SITUACAO_ALTERADA, "gravada", "anterior") + ") "
+                + "SELECT * FROM gravada";
+
+        Query query = entityManager.createNativeQuery(sql, ContaEntity.class)
+                .setParameter("id", id)
+                .setParameter("situacao", situacao.name());
+        query.unwrap(NativeQuery.class).setParameter("dataPagamento", dataPagamento, LocalDateType.INSTANCE);
+
+        return gravarConta(query, versoesEsperadas);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ContaCursor> findPendentesPorVencimento(LocalDate dataInicial, LocalDate dataFinal, ContaCursor apos, int limite) {
+        String sql = "SELECT c.data_vencimento, c.id FROM contas_a_pagar c "
+                + "WHERE c.data_vencimento BETWEEN :dataInicial AND :dataFinal AND c.situacao = 'PENDENTE'"
+                + (apos != null ? " AND (c.data_vencimento, c.id) > (:cursorDataVencimento, :cursorId)" : "")
+                + ORDENACAO;
+
+        Query query = entityManager.createNativeQuery(sql)
+                .setParameter("dataInicial", dataInicial)
+                .setParameter("dataFinal", dataFinal)
+                .setParameter("limite", limite);
+        if (apos != null) {
+            query.setParameter("cursorDataVencimento", apos.getDataVencimento());
+            query.setParameter("cursorId", apos.getId());
+        }
+
+        List<ContaCursor> contas = new ArrayList<>();
+        for (Object[] linha : (List<Object[]>) query.getResultList()) {
+            contas.add(new ContaCursor(data(linha[0]), ((Number) linha[1]).longValue()));
+        }
+        return contas;
+    }
+
+    /**
+     * Conta a alterar, condicionada à versão; o bloqueio garante que o estado anterior registrado no
+     * evento é o que a alteração substitui.
+     */
+    private String anterior(List<Long> versoesEsperadas) {
+        return "WITH anterior AS (SELECT " + ContaEventoSql.COLUNAS_ANTERIOR + " FROM contas_a_pagar c WHERE c.id = :id"
+                + (versoesEsperadas != null ? " AND c.versao IN (:versoes)" : "") + " FOR UPDATE), ";
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<ContaEntity> gravarConta(Query query, List<Long> versoesEsperadas) {
+        if (versoesEsperadas != null) {
+            if (versoesEsperadas.isEmpty()) {
+                return Optional.empty();
+            }
+            query.setParameter("versoes", versoesEsperadas);
+        }
+
+        List<ContaEntity> gravadas = query.getResultList();
+        return gravadas.stream().findFirst();
+    }
+
+    private List<ContaProjecao> projetar(List<Object[]> linhas) {
+        List<ContaProjecao> contas = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            contas.add(new ContaProjecao(((Number) linha[0]).longValue(), data(linha[1]), data(linha[2]), (BigDecimal) linha[3],
+                    (String) linha[4], SituacaoEnum.valueOf((String) linha[5]), ((Number) linha[6]).longValue()));
+        }
+        return contas;
+    }
+
+    private LocalDate data(Object valor) {
+        return valor != null ? ((Date) valor).toLocalDate() : null;
+    }
+
+    private String filtros(LocalDate dataVencimento, String descricao) {
+        StringBuilder filtros = new StringBuilder("1 = 1");
+
+        if (dataVencimento != null) {
+            filtros.append(" AND c.data_vencimento = :dataVencimento");
+        }
+        if (descricao != null) {
+            filtros.append(" AND UPPER(c.descricao) LIKE UPPER(:descricao)");
+        }
+        return filtros.toString();
+    }
+
+    private String escaparLike(String valor) {
+        return valor.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.laurielcio.contabil.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import br.com.laurielcio.contabil.entity.ImportacaoRejeicaoEntity;
+
+public interface ImportacaoRejeicaoRepository extends JpaRepository<ImportacaoRejeicaoEntity, Long> {
+
+    List<ImportacaoRejeicaoEntity> findByImportacaoIdOrderByLinha(Long importacaoId);
+}
@@ -0,0 +1,51 @@
+package br.com.laurielcio.contabil.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.laurielcio.contabil.entity.ImportacaoEntity;
+import br.com.laurielcio.contabil.entity.StatusImportacaoEnum;
+
+public interface ImportacaoRepository extends JpaRepository<ImportacaoEntity, Long> {
+
+    List<ImportacaoEntity> findByStatusInOrderById(Collection<StatusImportacaoEnum> status);
+
+    boolean existsByCaminhoArquivoAndStatusIn(String caminhoArquivo, Collection<StatusImportacaoEnum> status);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportacaoEntity i SET i.linhasProcessadas = i.linhasProcessadas + :processadas, "
+            + "i.linhasImportadas = i.linhasImportadas + :importadas, "
+            + "i.linhasRejeitadas = i.linhasRejeitadas + :rejeitadas, "
+            + "i.linhasDuplicadas = i.linhasDuplicadas + :duplicadas, "
+            + "i.ultimaLinhaConfirmada = :ultimaLinha WHERE i.id = :id")
+    int registrarProgresso(Long id, long processadas, long importadas, long rejeitadas, long duplicadas, long ultimaLinha);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportacaoEntity i SET i.status = :status, i.dataInicio = COALESCE(i.dataInicio, :data) WHERE i.id = :id")
+    int iniciar(Long id, StatusImportacaoEnum status, LocalDateTime data);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportacaoEntity i SET i.status = :status, i.mensagemErro = :mensagemErro, i.dataFim = :data WHERE i.id = :id")
+    int finalizar(Long id, StatusImportacaoEnum status, String mensagemErro, LocalDateTime data);
+
+    /**
+     * Importação concluída de um arquivo com o mesmo conteúdo (SHA-256), ou null.
+     */
+    @Query(value = "SELECT importacao_id FROM importacoes_arquivos WHERE hash_arquivo = :hashArquivo", nativeQuery = true)
+    Long findImportacaoIdByHashArquivo(byte[] hashArquivo);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO importacoes_arquivos (hash_arquivo, importacao_id, data_registro) "
+            + "VALUES (:hashArquivo, :importacaoId, :data) ON CONFLICT (hash_arquivo) DO NOTHING", nativeQuery = true)
+    int registrarArquivo(byte[] hashArquivo, Long importacaoId, LocalDateTime data);
+}
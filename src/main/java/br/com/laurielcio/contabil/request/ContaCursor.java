@@ -0,0 +1,42 @@
+package br.com.laurielcio.contabil.request;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import br.com.laurielcio.contabil.exception.ValidationException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Posição na lista de contas ordenada por (data_vencimento, id): a última conta da página
+ * anterior. Trafega como texto opaco (Base64 de "dataVencimento:id", com a data vazia para
+ * contas sem vencimento).
+ */
+@Getter
+@AllArgsConstructor
+public class ContaCursor {
+
+    private final LocalDate dataVencimento;
+
+    private final Long id;
+
+    public String codificar() {
+        String valor = (dataVencimento != null ? dataVencimento.toString() : "") + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ContaCursor decodificar(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.indexOf(':');
+
+            String data = valor.substring(0, separador);
+
+            return new ContaCursor(data.isEmpty() ? null : LocalDate.parse(data), Long.valueOf(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("Cursor inválido: " + cursor, e);
+        }
+    }
+}
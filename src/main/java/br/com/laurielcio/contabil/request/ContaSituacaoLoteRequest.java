@@ -0,0 +1,28 @@
+package br.com.laurielcio.contabil.request;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import javax.validation.constraints.NotNull;
+
+import br.com.laurielcio.contabil.entity.SituacaoEnum;
+import lombok.Data;
+
+/**
+ * Contas a alterar: pelos ids ou pelo período de vencimento (dataInicial e dataFinal), opcionalmente
+ * filtrado pela descrição (busca parcial); não é possível combinar os dois.
+ */
+@Data
+public class ContaSituacaoLoteRequest {
+
+	@NotNull(message = "A situação não pode ser nula")
+	private SituacaoEnum situacao;
+
+	private List<Long> ids;
+
+	private LocalDate dataInicial;
+
+	private LocalDate dataFinal;
+
+	private String descricao;
+}
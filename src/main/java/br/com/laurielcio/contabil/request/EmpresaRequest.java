@@ -0,0 +1,17 @@
+package br.com.laurielcio.contabil.request;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Pattern;
+
+import lombok.Data;
+
+@Data
+public class EmpresaRequest {
+
+	@NotBlank(message = "A empresa não pode ser vazia")
+	@Pattern(regexp = "[A-Za-z0-9_]{1,50}", message = "A empresa deve ter até 50 letras, números ou _")
+	private String empresa;
+
+	@NotBlank(message = "O shard não pode ser vazio")
+	private String shard;
+}
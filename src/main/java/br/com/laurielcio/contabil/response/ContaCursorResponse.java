@@ -0,0 +1,28 @@
+package br.com.laurielcio.contabil.response;
+
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.hateoas.RepresentationModel;
+
+import lombok.Getter;
+
+@Getter
+public class ContaCursorResponse extends RepresentationModel<ContaCursorResponse> {
+
+	private List<ContaResponse> content;
+
+	private int size;
+
+	private boolean hasNext;
+
+	private String nextCursor;
+
+	public ContaCursorResponse(Slice<ContaResponse> slice, String nextCursor) {
+		this.content = slice.getContent();
+		this.size = slice.getSize();
+		this.hasNext = slice.hasNext();
+		this.nextCursor = nextCursor;
+	}
+
+}
@@ -0,0 +1,44 @@
+package br.com.laurielcio.contabil.response;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import br.com.laurielcio.contabil.entity.ContaEventoEntity;
+import br.com.laurielcio.contabil.entity.TipoEventoContaEnum;
+import lombok.Getter;
+
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ContaEventoResponse {
+
+	private String empresa;
+
+	private Long posicao;
+
+	private TipoEventoContaEnum tipo;
+
+	private Long contaId;
+
+	private Long importacaoId;
+
+	private LocalDateTime dataEvento;
+
+	@JsonRawValue
+	private String dados;
+
+	public ContaEventoResponse(ContaEventoEntity evento) {
+		this(null, evento);
+	}
+
+	public ContaEventoResponse(String empresa, ContaEventoEntity evento) {
+		this.empresa = empresa;
+		this.posicao = evento.getPosicao();
+		this.tipo = evento.getTipo();
+		this.contaId = evento.getContaId();
+		this.importacaoId = evento.getImportacaoId();
+		this.dataEvento = evento.getDataEvento();
+		this.dados = evento.getDados();
+	}
+}
@@ -0,0 +1,19 @@
+package br.com.laurielcio.contabil.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ContaEventosResponse {
+
+	private List<ContaEventoResponse> eventos;
+
+	/**
+	 * Valor de {@code desde} da próxima consulta: a posição do último evento retornado, ou o próprio
+	 * {@code desde} se não houver eventos novos.
+	 */
+	private long proximo;
+}
@@ -7,6 +7,7 @@ import br.com.laurielcio.contabil.entity.SituacaoEnum;
 import org.springframework.hateoas.RepresentationModel;
 
 import br.com.laurielcio.contabil.entity.ContaEntity;
+import br.com.laurielcio.contabil.repository.ContaProjecao;
 import lombok.Getter;
 
 @Getter
@@ -23,6 +24,8 @@ public class ContaResponse extends RepresentationModel<ContaResponse>{
 	private String descricao;
 
 	private SituacaoEnum situacao;
+
+	private Long versao;
 	
 	public ContaResponse(ContaEntity entity) {
         this.id = entity.getId();
@@ -31,6 +34,17 @@ public class ContaResponse extends RepresentationModel<ContaResponse>{
         this.valor = entity.getValor();
         this.descricao = entity.getDescricao();
         this.situacao = entity.getSituacao();
+        this.versao = entity.getVersao();
+    }
+
+	public ContaResponse(ContaProjecao projecao) {
+        this.id = projecao.getId();
+        this.dataVencimento = projecao.getDataVencimento();
+        this.dataPagamento = projecao.getDataPagamento();
+        this.valor = projecao.getValor();
+        this.descricao = projecao.getDescricao();
+        this.situacao = projecao.getSituacao();
+        this.versao = projecao.getVersao();
     }
 
 }
@@ -0,0 +1,41 @@
+package br.com.laurielcio.contabil.response;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import br.com.laurielcio.contabil.entity.ResultadoAlteracaoEnum;
+import br.com.laurielcio.contabil.entity.SituacaoEnum;
+import lombok.Getter;
+
+@Getter
+public class ContaSituacaoLoteResponse {
+
+	private SituacaoEnum situacao;
+
+	private long alteradas;
+
+	private long inalteradas;
+
+	private long naoEncontradas;
+
+	private Map<Long, ResultadoAlteracaoEnum> resultados = new LinkedHashMap<>();
+
+	public ContaSituacaoLoteResponse(SituacaoEnum situacao) {
+		this.situacao = situacao;
+	}
+
+	public void registrar(Long id, ResultadoAlteracaoEnum resultado) {
+		resultados.put(id, resultado);
+
+		switch (resultado) {
+			case ALTERADA:
+				alteradas++;
+				break;
+			case INALTERADA:
+				inalteradas++;
+				break;
+			default:
+				naoEncontradas++;
+		}
+	}
+}
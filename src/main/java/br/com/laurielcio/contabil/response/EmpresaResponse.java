@@ -0,0 +1,20 @@
+package br.com.laurielcio.contabil.response;
+
+import br.com.laurielcio.contabil.shard.LocalizacaoEmpresa;
+import lombok.Getter;
+
+@Getter
+public class EmpresaResponse {
+
+	private String empresa;
+
+	private String shard;
+
+	private String schema;
+
+	public EmpresaResponse(LocalizacaoEmpresa localizacao) {
+		this.empresa = localizacao.getEmpresa();
+		this.shard = localizacao.getShard();
+		this.schema = localizacao.getSchema();
+	}
+}
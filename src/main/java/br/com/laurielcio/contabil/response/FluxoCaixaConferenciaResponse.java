@@ -0,0 +1,28 @@
+package br.com.laurielcio.contabil.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FluxoCaixaConferenciaResponse {
+
+	private LocalDate dataInicial;
+
+	private LocalDate dataFinal;
+
+	private int tentativas;
+
+	/**
+	 * Divergências da última tentativa; vazia quando a memória confere com o banco.
+	 */
+	private List<FluxoCaixaDivergenciaResponse> divergencias;
+
+	/**
+	 * Se, por divergência, o fluxo da empresa foi descartado para ser recarregado.
+	 */
+	private boolean recarregado;
+}
@@ -0,0 +1,25 @@
+package br.com.laurielcio.contabil.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FluxoCaixaDivergenciaResponse {
+
+	/**
+	 * Dia de vencimento, ou nula para o total vencido.
+	 */
+	private LocalDate dataVencimento;
+
+	private long quantidadeMemoria;
+
+	private BigDecimal valorMemoria;
+
+	private long quantidadeBanco;
+
+	private BigDecimal valorBanco;
+}
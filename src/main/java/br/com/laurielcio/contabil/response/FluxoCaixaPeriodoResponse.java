@@ -0,0 +1,26 @@
+package br.com.laurielcio.contabil.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FluxoCaixaPeriodoResponse {
+
+	/**
+	 * Nula no total vencido, que inclui todos os vencimentos anteriores a {@code dataFinal}.
+	 */
+	private LocalDate dataInicial;
+
+	private LocalDate dataFinal;
+
+	private long quantidade;
+
+	private BigDecimal valor;
+}
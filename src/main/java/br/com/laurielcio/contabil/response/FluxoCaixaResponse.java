@@ -0,0 +1,33 @@
+package br.com.laurielcio.contabil.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import br.com.laurielcio.contabil.entity.AgrupamentoFluxoCaixaEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FluxoCaixaResponse {
+
+	private LocalDate dataInicial;
+
+	private LocalDate dataFinal;
+
+	private AgrupamentoFluxoCaixaEnum agrupamento;
+
+	/**
+	 * Contas pendentes com vencimento anterior a hoje.
+	 */
+	private FluxoCaixaPeriodoResponse vencido;
+
+	private List<FluxoCaixaPeriodoResponse> periodos;
+
+	private FluxoCaixaPeriodoResponse total;
+
+	/**
+	 * Posição do último evento de GET /contas/eventos refletido nos valores.
+	 */
+	private long posicao;
+}
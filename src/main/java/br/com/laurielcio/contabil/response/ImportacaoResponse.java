@@ -0,0 +1,76 @@
+package br.com.laurielcio.contabil.response;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.hateoas.RepresentationModel;
+
+import br.com.laurielcio.contabil.entity.ImportacaoEntity;
+import br.com.laurielcio.contabil.entity.ImportacaoRejeicaoEntity;
+import br.com.laurielcio.contabil.entity.ModoImportacaoEnum;
+import br.com.laurielcio.contabil.entity.OrigemImportacaoEnum;
+import br.com.laurielcio.contabil.entity.StatusImportacaoEnum;
+import lombok.Getter;
+
+@Getter
+public class ImportacaoResponse extends RepresentationModel<ImportacaoResponse> {
+
+	private Long id;
+
+	private String nomeArquivo;
+
+	private OrigemImportacaoEnum origem;
+
+	private ModoImportacaoEnum modo;
+
+	private StatusImportacaoEnum status;
+
+	private long linhasProcessadas;
+
+	private long linhasImportadas;
+
+	private long linhasRejeitadas;
+
+	private long linhasDuplicadas;
+
+	private long linhasPorSegundo;
+
+	private String mensagemErro;
+
+	private LocalDateTime dataCriacao;
+
+	private LocalDateTime dataInicio;
+
+	private LocalDateTime dataFim;
+
+	private List<LinhaRejeitadaResponse> rejeicoes = new ArrayList<>();
+
+	public ImportacaoResponse(ImportacaoEntity entity) {
+		this.id = entity.getId();
+		this.nomeArquivo = entity.getNomeArquivo();
+		this.origem = entity.getOrigem();
+		this.modo = entity.getModo();
+		this.status = entity.getStatus();
+		this.linhasProcessadas = entity.getLinhasProcessadas();
+		this.linhasImportadas = entity.getLinhasImportadas();
+		this.linhasRejeitadas = entity.getLinhasRejeitadas();
+		this.linhasDuplicadas = entity.getLinhasDuplicadas();
+		this.mensagemErro = entity.getMensagemErro();
+		this.dataCriacao = entity.getDataCriacao();
+		this.dataInicio = entity.getDataInicio();
+		this.dataFim = entity.getDataFim();
+
+		if (dataInicio != null) {
+			long millis = Duration.between(dataInicio, dataFim != null ? dataFim : LocalDateTime.now()).toMillis();
+			this.linhasPorSegundo = millis > 0 ? linhasProcessadas * 1000 / millis : linhasProcessadas;
+		}
+	}
+
+	public ImportacaoResponse(ImportacaoEntity entity, List<ImportacaoRejeicaoEntity> rejeicoes) {
+		this(entity);
+		rejeicoes.forEach(rejeicao -> this.rejeicoes.add(new LinhaRejeitadaResponse(rejeicao.getLinha(), rejeicao.getMotivo())));
+	}
+
+}
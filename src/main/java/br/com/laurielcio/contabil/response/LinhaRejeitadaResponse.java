@@ -0,0 +1,14 @@
+package br.com.laurielcio.contabil.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class LinhaRejeitadaResponse {
+
+	private Long linha;
+
+	private String motivo;
+
+}
@@ -0,0 +1,35 @@
+package br.com.laurielcio.contabil.response;
+
+import java.time.LocalDateTime;
+
+import br.com.laurielcio.contabil.entity.EtapaMovimentacaoEnum;
+import br.com.laurielcio.contabil.entity.StatusMovimentacaoEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class MovimentacaoEmpresaResponse {
+
+	private Long id;
+
+	private String empresa;
+
+	private String shardOrigem;
+
+	private String shardDestino;
+
+	private StatusMovimentacaoEnum status;
+
+	private EtapaMovimentacaoEnum etapa;
+
+	private long linhasCopiadas;
+
+	private long alteracoesAplicadas;
+
+	private String mensagemErro;
+
+	private LocalDateTime dataInicio;
+
+	private LocalDateTime dataFim;
+}
@@ -1,13 +1,27 @@
 package br.com.laurielcio.contabil.service;
 
+import br.com.laurielcio.contabil.entity.AgrupamentoFluxoCaixaEnum;
+import br.com.laurielcio.contabil.entity.FormatoExportacaoEnum;
+import br.com.laurielcio.contabil.entity.ModoBuscaEnum;
+import br.com.laurielcio.contabil.entity.ModoImportacaoEnum;
 import br.com.laurielcio.contabil.entity.SituacaoEnum;
 import br.com.laurielcio.contabil.request.ContaAtualizaRequest;
 import br.com.laurielcio.contabil.request.ContaRequest;
+import br.com.laurielcio.contabil.request.ContaSituacaoLoteRequest;
+import br.com.laurielcio.contabil.response.ContaCursorResponse;
+import br.com.laurielcio.contabil.response.ContaEventosResponse;
 import br.com.laurielcio.contabil.response.ContaResponse;
+import br.com.laurielcio.contabil.response.ContaSituacaoLoteResponse;
+import br.com.laurielcio.contabil.response.FluxoCaixaConferenciaResponse;
+import br.com.laurielcio.contabil.response.FluxoCaixaResponse;
+import br.com.laurielcio.contabil.response.ImportacaoResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
@@ -18,14 +32,32 @@ public interface ContaService {
 
 	ContaResponse obterContaPorId(Long id);
 
-	Page<ContaResponse> obterListaContas(LocalDate dataVencimento, String descricao, Pageable pageable);
+	Page<ContaResponse> obterListaContas(LocalDate dataVencimento, String descricao, ModoBuscaEnum modoBusca, Pageable pageable);
 
-	List<ContaResponse> importarContasViaCSV(MultipartFile file);
+	ContaCursorResponse obterListaContasPorCursor(LocalDate dataVencimento, String descricao, String after, int size);
+
+	long exportarContas(FormatoExportacaoEnum formato, LocalDate dataInicial, LocalDate dataFinal, OutputStream saida) throws IOException;
+
+	ImportacaoResponse importarContasViaCSV(MultipartFile file, ModoImportacaoEnum modo);
+
+	ImportacaoResponse importarContasDoDiretorio(String arquivo, ModoImportacaoEnum modo);
+
+	ImportacaoResponse obterImportacao(Long id);
 
 	BigDecimal obterValorTotalPagoPorPeriodo(LocalDate dataInicial, LocalDate dataFinal);
 
-	ContaResponse alterarSituacaoConta(Long id, SituacaoEnum situacao);
+	Integer reconstruirTotaisDiarios(LocalDate dataInicial, LocalDate dataFinal);
+
+	ContaResponse alterarSituacaoConta(Long id, SituacaoEnum situacao, List<Long> versoesEsperadas);
+
+	ContaSituacaoLoteResponse alterarSituacaoContas(ContaSituacaoLoteRequest request);
+
+	ContaResponse atualizarConta(Long id, ContaAtualizaRequest request, List<Long> versoesEsperadas);
+
+	DeferredResult<ContaEventosResponse> obterEventos(long desde, int limite, long esperaMs);
+
+	FluxoCaixaResponse obterFluxoCaixa(LocalDate dataInicial, LocalDate dataFinal, AgrupamentoFluxoCaixaEnum agrupamento);
 
-	ContaResponse atualizarConta(Long id, ContaAtualizaRequest request);
+	FluxoCaixaConferenciaResponse conferirFluxoCaixa(LocalDate dataInicial, LocalDate dataFinal);
 }
 
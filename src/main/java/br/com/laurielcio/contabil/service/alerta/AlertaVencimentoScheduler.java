@@ -0,0 +1,190 @@
+package br.com.laurielcio.contabil.service.alerta;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.laurielcio.contabil.config.AlertasProperties;
+import br.com.laurielcio.contabil.entity.ContaEventoEntity;
+import br.com.laurielcio.contabil.entity.SituacaoEnum;
+import br.com.laurielcio.contabil.entity.TipoEventoContaEnum;
+import br.com.laurielcio.contabil.repository.ContaEventoRepository;
+import br.com.laurielcio.contabil.repository.ContaRepository;
+import br.com.laurielcio.contabil.request.ContaCursor;
+import br.com.laurielcio.contabil.shard.DiretorioEmpresas;
+import br.com.laurielcio.contabil.shard.EmpresaContexto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Alertas de vencimento das contas pendentes (eventos VENCENDO e VENCIDA). As contas com
+ * vencimento nos próximos {@code contabil.alertas.horizonte-dias} ficam em uma {@link RodaDeTempo}
+ * por empresa, que a cada verificação só percorre os alertas do dia. Nenhuma verificação relê
+ * contas_a_pagar: as alterações chegam pelos eventos publicados após a última posição aplicada, e a
+ * cada dia apenas as contas do dia que entrou no horizonte são carregadas. A carga completa da
+ * janela acontece uma vez, na primeira verificação da empresa.
+ * <p>
+ * Todas as instâncias mantêm a roda; o alerta de uma conta é gravado uma vez por vencimento.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "contabil.alertas.habilitado", havingValue = "true")
+public class AlertaVencimentoScheduler {
+
+    private final Map<String, AlertasEmpresa> empresas = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private ContaEventoRepository contaEventoRepository;
+
+    @Autowired
+    private RegistroAlertas registroAlertas;
+
+    @Autowired
+    private AlertasProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired(required = false)
+    private DiretorioEmpresas diretorioEmpresas;
+
+    @Scheduled(fixedDelayString = "${contabil.alertas.intervalo-ms:60000}")
+    public void verificar() {
+        if (diretorioEmpresas != null) {
+            diretorioEmpresas.executarEmCada(this::verificarEmpresa);
+        } else {
+            verificarEmpresa();
+        }
+    }
+
+    private void verificarEmpresa() {
+        LocalDate hoje = LocalDate.now();
+        String empresa = EmpresaContexto.atual() == null ? "" : EmpresaContexto.atual();
+
+        AlertasEmpresa alertas = empresas.get(empresa);
+        if (alertas == null) {
+            // a posição é lida antes da carga: alterações feitas durante ela são reaplicadas pelo feed
+            alertas = new AlertasEmpresa(hoje, contaEventoRepository.findUltimaPosicao(), properties.getAntecedenciaDias(),
+                    properties.getRecuperacaoDias());
+            carregar(alertas, hoje);
+            empresas.put(empresa, alertas);
+            log.info("{} contas pendentes carregadas para os alertas de vencimento", alertas.getTamanho());
+        } else {
+            sincronizar(alertas, hoje);
+            carregar(alertas, hoje);
+        }
+
+        disparar(alertas, hoje);
+    }
+
+    /**
+     * Carrega as contas dos dias que entraram no horizonte desde a última carga.
+     */
+    private void carregar(AlertasEmpresa alertas, LocalDate hoje) {
+        LocalDate dataFinal = hoje.plusDays(properties.getHorizonteDias());
+        if (!alertas.getCarregadoAte().isBefore(dataFinal)) {
+            return;
+        }
+
+        LocalDate dataInicial = alertas.getCarregadoAte().plusDays(1);
+        alertas.setCarregadoAte(dataFinal);
+
+        ContaCursor apos = null;
+        List<ContaCursor> contas;
+        do {
+            contas = contaRepository.findPendentesPorVencimento(dataInicial, dataFinal, apos, properties.getTamanhoLote());
+            for (ContaCursor conta : contas) {
+                alertas.aplicar(conta.getId(), conta.getDataVencimento(), SituacaoEnum.PENDENTE, hoje);
+            }
+            if (!contas.isEmpty()) {
+                apos = contas.get(contas.size() - 1);
+            }
+        } while (contas.size() == properties.getTamanhoLote());
+    }
+
+    private void sincronizar(AlertasEmpresa alertas, LocalDate hoje) {
+        List<ContaEventoEntity> eventos;
+        do {
+            eventos = contaEventoRepository.findPublicadosApos(alertas.getUltimaPosicao(), properties.getTamanhoLote());
+            for (ContaEventoEntity evento : eventos) {
+                aplicar(alertas, evento, hoje);
+                alertas.setUltimaPosicao(evento.getPosicao());
+            }
+        } while (eventos.size() == properties.getTamanhoLote());
+    }
+
+    private void aplicar(AlertasEmpresa alertas, ContaEventoEntity evento, LocalDate hoje) {
+        if (evento.getTipo() == TipoEventoContaEnum.VENCENDO || evento.getTipo() == TipoEventoContaEnum.VENCIDA) {
+            return;
+        }
+
+        try {
+            JsonNode dados = objectMapper.readTree(evento.getDados());
+            if (evento.getTipo() == TipoEventoContaEnum.IMPORTADAS) {
+                for (JsonNode conta : dados.path("contas")) {
+                    aplicarConta(alertas, conta, hoje);
+                }
+            } else {
+                aplicarConta(alertas, dados, hoje);
+            }
+        } catch (IOException e) {
+            log.error("Evento {} com dados inválidos ignorado nos alertas de vencimento: {}", evento.getPosicao(), e.getMessage());
+        }
+    }
+
+    private void aplicarConta(AlertasEmpresa alertas, JsonNode conta, LocalDate hoje) {
+        JsonNode dataVencimento = conta.path("dataVencimento");
+
+        alertas.aplicar(conta.path("id").asLong(),
+                dataVencimento.isTextual() ? LocalDate.parse(dataVencimento.asText()) : null,
+                SituacaoEnum.valueOf(conta.path("situacao").asText()), hoje);
+    }
+
+    private void disparar(AlertasEmpresa alertas, LocalDate hoje) {
+        List<AlertasEmpresa.Alerta> alcancados = alertas.avancar(hoje);
+        if (alcancados.isEmpty()) {
+            return;
+        }
+
+        List<Long> vencendo = new ArrayList<>();
+        List<Long> vencidas = new ArrayList<>();
+        for (AlertasEmpresa.Alerta alerta : alcancados) {
+            (alerta.tipo == TipoEventoContaEnum.VENCENDO ? vencendo : vencidas).add(alerta.id);
+        }
+
+        int registrados = 0;
+        int lote = properties.getTamanhoLote();
+        try {
+            for (int inicio = 0; inicio < Math.max(vencendo.size(), vencidas.size()); inicio += lote) {
+                registrados += registroAlertas.registrar(bloco(vencendo, inicio, lote), bloco(vencidas, inicio, lote), hoje,
+                        properties.getAntecedenciaDias());
+            }
+        } catch (RuntimeException e) {
+            // os blocos já gravados são ignorados na nova tentativa (um alerta por vencimento)
+            alertas.devolver(alcancados);
+            throw e;
+        }
+
+        log.info("{} alertas de vencimento registrados ({} contas vencendo, {} vencidas)", registrados, vencendo.size(),
+                vencidas.size());
+    }
+
+    private List<Long> bloco(List<Long> ids, int inicio, int tamanho) {
+        return inicio >= ids.size() ? new ArrayList<>() : ids.subList(inicio, Math.min(inicio + tamanho, ids.size()));
+    }
+}
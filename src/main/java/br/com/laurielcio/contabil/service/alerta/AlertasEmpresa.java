@@ -0,0 +1,139 @@
+package br.com.laurielcio.contabil.service.alerta;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.com.laurielcio.contabil.entity.SituacaoEnum;
+import br.com.laurielcio.contabil.entity.TipoEventoContaEnum;
+
+/**
+ * Contas pendentes de uma empresa com vencimento entre {@code hoje - recuperacao-dias} e
+ * {@link #getCarregadoAte()}, cada uma agendada na roda para o próximo alerta: VENCENDO em
+ * {@code vencimento - antecedencia-dias}, e VENCIDA no dia seguinte ao vencimento. Acessado apenas
+ * pela thread do agendamento.
+ */
+class AlertasEmpresa {
+
+    private final RodaDeTempo<Alerta> roda;
+
+    private final Map<Long, RodaDeTempo.Entrada<Alerta>> contas = new HashMap<>();
+
+    private final int antecedenciaDias;
+
+    private final int recuperacaoDias;
+
+    /**
+     * Posição do último evento do feed aplicado.
+     */
+    private long ultimaPosicao;
+
+    private LocalDate carregadoAte;
+
+    AlertasEmpresa(LocalDate hoje, long ultimaPosicao, int antecedenciaDias, int recuperacaoDias) {
+        this.roda = new RodaDeTempo<>(hoje.toEpochDay());
+        this.ultimaPosicao = ultimaPosicao;
+        this.antecedenciaDias = antecedenciaDias;
+        this.recuperacaoDias = recuperacaoDias;
+        this.carregadoAte = hoje.minusDays(recuperacaoDias + 1L);
+    }
+
+    long getUltimaPosicao() {
+        return ultimaPosicao;
+    }
+
+    void setUltimaPosicao(long ultimaPosicao) {
+        this.ultimaPosicao = ultimaPosicao;
+    }
+
+    LocalDate getCarregadoAte() {
+        return carregadoAte;
+    }
+
+    void setCarregadoAte(LocalDate carregadoAte) {
+        this.carregadoAte = carregadoAte;
+    }
+
+    int getTamanho() {
+        return contas.size();
+    }
+
+    /**
+     * Aplica o estado atual de uma conta (carga ou evento do feed). Uma conta já agendada com o mesmo
+     * vencimento mantém o alerta em que está.
+     */
+    void aplicar(Long id, LocalDate dataVencimento, SituacaoEnum situacao, LocalDate hoje) {
+        RodaDeTempo.Entrada<Alerta> atual = contas.get(id);
+        boolean pendente = situacao == SituacaoEnum.PENDENTE && dataVencimento != null
+                && !dataVencimento.isBefore(hoje.minusDays(recuperacaoDias)) && !dataVencimento.isAfter(carregadoAte);
+
+        if (atual != null) {
+            if (pendente && atual.getValor().dataVencimento.equals(dataVencimento)) {
+                return;
+            }
+            roda.cancelar(atual);
+            contas.remove(id);
+        }
+
+        if (pendente) {
+            boolean vencendo = antecedenciaDias > 0 && !hoje.isAfter(dataVencimento);
+            agendar(new Alerta(id, dataVencimento, vencendo ? TipoEventoContaEnum.VENCENDO : TipoEventoContaEnum.VENCIDA));
+        }
+    }
+
+    /**
+     * Avança a roda até hoje e retorna os alertas alcançados; as contas que receberam VENCENDO
+     * ficam agendadas para VENCIDA, as demais deixam a roda.
+     */
+    List<Alerta> avancar(LocalDate hoje) {
+        List<Alerta> alertas = new ArrayList<>();
+
+        for (RodaDeTempo.Entrada<Alerta> entrada : roda.avancar(hoje.toEpochDay())) {
+            Alerta alerta = entrada.getValor();
+            alertas.add(alerta);
+
+            contas.remove(alerta.id);
+            if (alerta.tipo == TipoEventoContaEnum.VENCENDO) {
+                agendar(new Alerta(alerta.id, alerta.dataVencimento, TipoEventoContaEnum.VENCIDA));
+            }
+        }
+        return alertas;
+    }
+
+    /**
+     * Devolve à roda alertas retornados por {@link #avancar} que não puderam ser gravados; são
+     * alcançados de novo no próximo avanço.
+     */
+    void devolver(List<Alerta> alertas) {
+        for (Alerta alerta : alertas) {
+            RodaDeTempo.Entrada<Alerta> agendada = contas.get(alerta.id);
+            if (agendada != null) {
+                roda.cancelar(agendada);
+            }
+            agendar(alerta);
+        }
+    }
+
+    private void agendar(Alerta alerta) {
+        long diaVencimento = alerta.dataVencimento.toEpochDay();
+        long prazo = alerta.tipo == TipoEventoContaEnum.VENCENDO ? diaVencimento - antecedenciaDias : diaVencimento + 1;
+        contas.put(alerta.id, roda.agendar(alerta, prazo));
+    }
+
+    static final class Alerta {
+
+        final Long id;
+
+        final LocalDate dataVencimento;
+
+        final TipoEventoContaEnum tipo;
+
+        Alerta(Long id, LocalDate dataVencimento, TipoEventoContaEnum tipo) {
+            this.id = id;
+            this.dataVencimento = dataVencimento;
+            this.tipo = tipo;
+        }
+    }
+}
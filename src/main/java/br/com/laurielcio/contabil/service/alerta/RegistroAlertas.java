@@ -0,0 +1,41 @@
+package br.com.laurielcio.contabil.service.alerta;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.laurielcio.contabil.repository.ContaEventoRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Grava os alertas disparados pela roda como eventos VENCENDO e VENCIDA em contas_eventos, de onde
+ * seguem pelo feed e pelo destino de eventos. A situação e o vencimento são conferidos no banco,
+ * então um alerta de uma conta paga ou alterada depois da última sincronização não é gravado.
+ */
+@Component
+@RequiredArgsConstructor
+public class RegistroAlertas {
+
+    @Autowired
+    private ContaEventoRepository contaEventoRepository;
+
+    /**
+     * @return quantidade de alertas gravados
+     */
+    @Transactional
+    public int registrar(List<Long> vencendo, List<Long> vencidas, LocalDate hoje, int antecedenciaDias) {
+        contaEventoRepository.bloquearAlertas();
+
+        int registrados = 0;
+        if (!vencendo.isEmpty()) {
+            registrados += contaEventoRepository.registrarVencendo(vencendo, hoje, hoje.plusDays(antecedenciaDias));
+        }
+        if (!vencidas.isEmpty()) {
+            registrados += contaEventoRepository.registrarVencidas(vencidas, hoje);
+        }
+        return registrados;
+    }
+}
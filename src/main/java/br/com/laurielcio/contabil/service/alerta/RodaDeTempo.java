@@ -0,0 +1,220 @@
+package br.com.laurielcio.contabil.service.alerta;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Roda de tempo hierárquica: {@value #NIVEIS} níveis de {@value #POSICOES} posições, em que cada
+ * posição do nível n cobre 64^n unidades de tempo. Agendar e cancelar custam O(1), e avançar uma
+ * unidade custa apenas o esvaziamento da posição atual do nível 0; a cada 64^n unidades, uma posição
+ * do nível n é redistribuída nos níveis inferiores. As entradas de cada posição formam uma lista
+ * duplamente encadeada, sem coleção auxiliar.
+ * <p>
+ * A unidade de tempo é definida por quem usa a roda (aqui, dias desde a época). Não é thread-safe.
+ */
+public class RodaDeTempo<T> {
+
+    private static final int BITS = 6;
+
+    private static final int POSICOES = 1 << BITS;
+
+    private static final int MASCARA = POSICOES - 1;
+
+    private static final int NIVEIS = 4;
+
+    /**
+     * Maior distância entre o prazo e o tempo atual que a roda comporta.
+     */
+    public static final long ALCANCE = 1L << (BITS * NIVEIS);
+
+    private final Lista<T>[][] niveis;
+
+    /**
+     * Entradas com prazo já alcançado no agendamento, entregues no próximo {@link #avancar}.
+     */
+    private final Lista<T> vencidas = new Lista<>();
+
+    private long atual;
+
+    private int tamanho;
+
+    @SuppressWarnings("unchecked")
+    public RodaDeTempo(long inicio) {
+        this.atual = inicio;
+        this.niveis = new Lista[NIVEIS][POSICOES];
+        for (int nivel = 0; nivel < NIVEIS; nivel++) {
+            for (int posicao = 0; posicao < POSICOES; posicao++) {
+                niveis[nivel][posicao] = new Lista<>();
+            }
+        }
+    }
+
+    public long getAtual() {
+        return atual;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public Entrada<T> agendar(T valor, long prazo) {
+        Entrada<T> entrada = new Entrada<>(valor);
+        inserir(entrada, prazo);
+        tamanho++;
+        return entrada;
+    }
+
+    /**
+     * Move a entrada, ainda agendada, para o novo prazo.
+     */
+    public void reagendar(Entrada<T> entrada, long prazo) {
+        if (entrada.lista == null) {
+            throw new IllegalStateException("Entrada não está agendada");
+        }
+        entrada.lista.remover(entrada);
+        inserir(entrada, prazo);
+    }
+
+    public void cancelar(Entrada<T> entrada) {
+        if (entrada.lista != null) {
+            entrada.lista.remover(entrada);
+            tamanho--;
+        }
+    }
+
+    /**
+     * Avança até {@code ate}, retornando as entradas cujo prazo foi alcançado. As entradas retornadas
+     * deixam a roda e podem ser agendadas de novo.
+     */
+    public List<Entrada<T>> avancar(long ate) {
+        List<Entrada<T>> alcancadas = new ArrayList<>();
+        esvaziar(vencidas, alcancadas);
+
+        while (atual < ate) {
+            atual++;
+
+            // de cima para baixo: as entradas redistribuídas podem cair na posição atual do nível 0
+            for (int nivel = NIVEIS - 1; nivel > 0; nivel--) {
+                if ((atual & ((1L << (BITS * nivel)) - 1)) == 0) {
+                    redistribuir(niveis[nivel][posicao(atual, nivel)]);
+                }
+            }
+
+            esvaziar(vencidas, alcancadas);
+            esvaziar(niveis[0][posicao(atual, 0)], alcancadas);
+        }
+
+        tamanho -= alcancadas.size();
+        return alcancadas;
+    }
+
+    private void inserir(Entrada<T> entrada, long prazo) {
+        long distancia = prazo - atual;
+        if (distancia >= ALCANCE) {
+            throw new IllegalArgumentException("Prazo " + prazo + " além do alcance da roda a partir de " + atual);
+        }
+
+        entrada.prazo = prazo;
+
+        if (distancia <= 0) {
+            vencidas.adicionar(entrada);
+            return;
+        }
+
+        int nivel = 0;
+        while (distancia >= 1L << (BITS * (nivel + 1))) {
+            nivel++;
+        }
+        niveis[nivel][posicao(prazo, nivel)].adicionar(entrada);
+    }
+
+    private void redistribuir(Lista<T> lista) {
+        Entrada<T> entrada = lista.primeira;
+        lista.primeira = null;
+
+        while (entrada != null) {
+            Entrada<T> proxima = entrada.proxima;
+            entrada.lista = null;
+            entrada.anterior = null;
+            entrada.proxima = null;
+            inserir(entrada, entrada.prazo);
+            entrada = proxima;
+        }
+    }
+
+    private void esvaziar(Lista<T> lista, List<Entrada<T>> destino) {
+        Entrada<T> entrada = lista.primeira;
+        lista.primeira = null;
+
+        while (entrada != null) {
+            Entrada<T> proxima = entrada.proxima;
+            entrada.lista = null;
+            entrada.anterior = null;
+            entrada.proxima = null;
+            destino.add(entrada);
+            entrada = proxima;
+        }
+    }
+
+    private static int posicao(long tempo, int nivel) {
+        return (int) ((tempo >>> (BITS * nivel)) & MASCARA);
+    }
+
+    public static final class Entrada<T> {
+
+        private final T valor;
+
+        private long prazo;
+
+        private Lista<T> lista;
+
+        private Entrada<T> anterior;
+
+        private Entrada<T> proxima;
+
+        private Entrada(T valor) {
+            this.valor = valor;
+        }
+
+        public T getValor() {
+            return valor;
+        }
+
+        public long getPrazo() {
+            return prazo;
+        }
+
+        public boolean isAgendada() {
+            return lista != null;
+        }
+    }
+
+    private static final class Lista<T> {
+
+        private Entrada<T> primeira;
+
+        void adicionar(Entrada<T> entrada) {
+            entrada.lista = this;
+            entrada.anterior = null;
+            entrada.proxima = primeira;
+            if (primeira != null) {
+                primeira.anterior = entrada;
+            }
+            primeira = entrada;
+        }
+
+        void remover(Entrada<T> entrada) {
+            if (entrada.anterior != null) {
+                entrada.anterior.proxima = entrada.proxima;
+            } else {
+                primeira = entrada.proxima;
+            }
+            if (entrada.proxima != null) {
+                entrada.proxima.anterior = entrada.anterior;
+            }
+            entrada.lista = null;
+            entrada.anterior = null;
+            entrada.proxima = null;
+        }
+    }
+}
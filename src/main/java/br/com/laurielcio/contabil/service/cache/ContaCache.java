@@ -0,0 +1,52 @@
+package br.com.laurielcio.contabil.service.cache;
+
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import br.com.laurielcio.contabil.entity.ContaEntity;
+import br.com.laurielcio.contabil.repository.ContaRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Leitura de contas por id com cache. A entidade guardada fica destacada do contexto de
+ * persistência e não deve ser alterada por quem a recebe; alterações passam pelo repositório
+ * e, depois de gravadas, removem a conta do cache com {@link #remover(Long)}.
+ * <p>
+ * Ids inexistentes não são guardados, então contas novas (cadastro e importação) aparecem
+ * na primeira consulta. {@link #limpar()} remove as contas de todas as empresas.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContaCache {
+
+    public static final String CACHE_CONTAS = "contas";
+
+    /**
+     * Com shards, o id é prefixado pela empresa da requisição ({@link br.com.laurielcio.contabil.shard.EmpresaContexto}).
+     */
+    private static final String CHAVE = "T(br.com.laurielcio.contabil.shard.EmpresaContexto).chave(#id)";
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    /**
+     * O Spring desembrulha o {@link Optional}: sem o {@code unless}, o vazio seria guardado como
+     * {@code null} (os gerenciadores do Caffeine e do Redis aceitam nulos por padrão).
+     */
+    @Cacheable(cacheNames = CACHE_CONTAS, key = CHAVE, unless = "#result == null")
+    public Optional<ContaEntity> buscar(Long id) {
+        return contaRepository.findById(id);
+    }
+
+    @CacheEvict(cacheNames = CACHE_CONTAS, key = CHAVE)
+    public void remover(Long id) {
+    }
+
+    @CacheEvict(cacheNames = CACHE_CONTAS, allEntries = true)
+    public void limpar() {
+    }
+}
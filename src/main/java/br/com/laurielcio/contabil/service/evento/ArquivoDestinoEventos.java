@@ -0,0 +1,65 @@
+package br.com.laurielcio.contabil.service.evento;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.laurielcio.contabil.config.EventosProperties;
+import br.com.laurielcio.contabil.response.ContaEventoResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Acrescenta os eventos ao arquivo {@code contabil.eventos.arquivo}, um JSON por linha. Cada lote é
+ * gravado em disco (force) antes de a publicação ser confirmada.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "contabil.eventos.destino", havingValue = "ARQUIVO")
+public class ArquivoDestinoEventos implements DestinoEventos {
+
+    @Autowired
+    private EventosProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public synchronized void enviar(List<ContaEventoResponse> eventos) {
+        Path arquivo = Paths.get(properties.getArquivo());
+
+        try {
+            if (arquivo.getParent() != null) {
+                Files.createDirectories(arquivo.getParent());
+            }
+
+            StringBuilder linhas = new StringBuilder();
+            for (ContaEventoResponse evento : eventos) {
+                linhas.append(objectMapper.writeValueAsString(evento)).append('\n');
+            }
+
+            try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(linhas.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    canal.write(buffer);
+                }
+                canal.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gravar os eventos em " + arquivo, e);
+        }
+    }
+}
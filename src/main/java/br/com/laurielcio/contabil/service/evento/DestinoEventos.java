@@ -0,0 +1,15 @@
+package br.com.laurielcio.contabil.service.evento;
+
+import java.util.List;
+
+import br.com.laurielcio.contabil.response.ContaEventoResponse;
+
+/**
+ * Destino dos eventos publicados ({@code contabil.eventos.destino}). É chamado dentro da transação
+ * da publicação: se lançar exceção, as posições do lote não são gravadas e o lote é reenviado na
+ * próxima publicação. A entrega é, portanto, pelo menos uma vez; a posição identifica repetições.
+ */
+public interface DestinoEventos {
+
+    void enviar(List<ContaEventoResponse> eventos);
+}
@@ -0,0 +1,119 @@
+package br.com.laurielcio.contabil.service.evento;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import br.com.laurielcio.contabil.repository.ContaEventoRepository;
+import br.com.laurielcio.contabil.response.ContaEventoResponse;
+import br.com.laurielcio.contabil.response.ContaEventosResponse;
+import br.com.laurielcio.contabil.shard.EmpresaContexto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Feed de eventos publicados (long polling): a consulta responde na hora se há eventos após
+ * {@code desde}; senão, fica registrada, sem ocupar thread, até a próxima publicação da empresa
+ * ({@link #notificar}) ou até o tempo de espera, quando responde sem eventos.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FeedEventos {
+
+    /**
+     * Consultas em espera por empresa; sem shards, a empresa é vazia.
+     */
+    private final ConcurrentMap<String, Set<Espera>> esperas = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ContaEventoRepository contaEventoRepository;
+
+    public DeferredResult<ContaEventosResponse> consultar(long desde, int limite, long esperaMs) {
+        if (esperaMs <= 0) {
+            DeferredResult<ContaEventosResponse> resultado = new DeferredResult<>();
+            resultado.setResult(buscar(desde, limite));
+            return resultado;
+        }
+
+        DeferredResult<ContaEventosResponse> resultado = new DeferredResult<>(esperaMs,
+                () -> new ContaEventosResponse(Collections.emptyList(), desde));
+
+        // registrada antes da busca: uma publicação entre as duas encontra a espera
+        Set<Espera> daEmpresa = esperas.computeIfAbsent(chave(EmpresaContexto.atual()), empresa -> ConcurrentHashMap.newKeySet());
+        Espera espera = new Espera(desde, limite, resultado);
+        daEmpresa.add(espera);
+        resultado.onCompletion(() -> daEmpresa.remove(espera));
+
+        ContaEventosResponse eventos;
+        try {
+            eventos = buscar(desde, limite);
+        } catch (RuntimeException e) {
+            daEmpresa.remove(espera);
+            throw e;
+        }
+
+        if (!eventos.getEventos().isEmpty() && daEmpresa.remove(espera)) {
+            resultado.setResult(eventos);
+        }
+        return resultado;
+    }
+
+    /**
+     * Responde às consultas da empresa que aguardam posições já publicadas. Deve ser chamado no
+     * contexto da empresa.
+     */
+    public void notificar(String empresa) {
+        Set<Espera> daEmpresa = esperas.get(chave(empresa));
+        if (daEmpresa == null || daEmpresa.isEmpty()) {
+            return;
+        }
+
+        long ultimaPosicao = contaEventoRepository.findUltimaPosicao();
+        for (Espera espera : daEmpresa) {
+            if (espera.desde < ultimaPosicao && daEmpresa.remove(espera)) {
+                try {
+                    espera.resultado.setResult(buscar(espera.desde, espera.limite));
+                } catch (RuntimeException e) {
+                    log.error("Erro ao responder à consulta de eventos: {}", e.getMessage(), e);
+                    espera.resultado.setErrorResult(e);
+                }
+            }
+        }
+    }
+
+    private ContaEventosResponse buscar(long desde, int limite) {
+        List<ContaEventoResponse> eventos = contaEventoRepository.findPublicadosApos(desde, limite).stream()
+                .map(ContaEventoResponse::new)
+                .collect(Collectors.toList());
+
+        long proximo = eventos.isEmpty() ? desde : eventos.get(eventos.size() - 1).getPosicao();
+        return new ContaEventosResponse(eventos, proximo);
+    }
+
+    private String chave(String empresa) {
+        return empresa == null ? "" : empresa;
+    }
+
+    private static class Espera {
+
+        private final long desde;
+
+        private final int limite;
+
+        private final DeferredResult<ContaEventosResponse> resultado;
+
+        Espera(long desde, int limite, DeferredResult<ContaEventosResponse> resultado) {
+            this.desde = desde;
+            this.limite = limite;
+            this.resultado = resultado;
+        }
+    }
+}
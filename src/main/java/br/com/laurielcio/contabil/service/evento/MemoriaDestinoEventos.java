@@ -0,0 +1,47 @@
+package br.com.laurielcio.contabil.service.evento;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import br.com.laurielcio.contabil.config.EventosProperties;
+import br.com.laurielcio.contabil.response.ContaEventoResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Mantém em memória os últimos {@code contabil.eventos.capacidade-memoria} eventos publicados; usado
+ * em testes e em ambiente local.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "contabil.eventos.destino", havingValue = "MEMORIA")
+public class MemoriaDestinoEventos implements DestinoEventos {
+
+    private final Deque<ContaEventoResponse> eventos = new ArrayDeque<>();
+
+    @Autowired
+    private EventosProperties properties;
+
+    @Override
+    public synchronized void enviar(List<ContaEventoResponse> lote) {
+        for (ContaEventoResponse evento : lote) {
+            if (eventos.size() >= properties.getCapacidadeMemoria()) {
+                eventos.removeFirst();
+            }
+            eventos.addLast(evento);
+        }
+    }
+
+    public synchronized List<ContaEventoResponse> listar() {
+        return new ArrayList<>(eventos);
+    }
+
+    public synchronized void limpar() {
+        eventos.clear();
+    }
+}
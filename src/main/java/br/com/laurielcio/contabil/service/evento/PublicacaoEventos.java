@@ -0,0 +1,70 @@
+package br.com.laurielcio.contabil.service.evento;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.laurielcio.contabil.config.EventosProperties;
+import br.com.laurielcio.contabil.entity.ContaEventoEntity;
+import br.com.laurielcio.contabil.repository.ContaEventoRepository;
+import br.com.laurielcio.contabil.response.ContaEventoResponse;
+import br.com.laurielcio.contabil.shard.EmpresaContexto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publica os eventos pendentes da empresa atual: atribui as posições, envia o lote ao
+ * {@link DestinoEventos} (se configurado) e confirma, tudo na mesma transação. Com várias
+ * instâncias, apenas uma publica cada empresa por vez; as demais encontram o lock ocupado e
+ * retornam sem publicar.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PublicacaoEventos {
+
+    @Autowired
+    private ContaEventoRepository contaEventoRepository;
+
+    @Autowired
+    private EventosProperties properties;
+
+    @Autowired(required = false)
+    private DestinoEventos destinoEventos;
+
+    /**
+     * @return quantidade de eventos publicados; menor que {@code contabil.eventos.tamanho-lote} se
+     * não restam eventos pendentes
+     */
+    @Transactional
+    public int publicarLote() {
+        if (!contaEventoRepository.bloquearPublicacao()) {
+            return 0;
+        }
+
+        long ultimaPosicao = contaEventoRepository.findUltimaPosicao();
+        int publicados = contaEventoRepository.publicar(properties.getTamanhoLote(), LocalDateTime.now());
+
+        if (publicados > 0 && destinoEventos != null) {
+            List<ContaEventoEntity> eventos = contaEventoRepository.findPublicadosApos(ultimaPosicao, publicados);
+            String empresa = EmpresaContexto.atual();
+            destinoEventos.enviar(eventos.stream()
+                    .map(evento -> new ContaEventoResponse(empresa, evento))
+                    .collect(Collectors.toList()));
+        }
+
+        if (publicados > 0) {
+            log.debug("{} eventos de contas publicados a partir da posição {}", publicados, ultimaPosicao + 1);
+        }
+        return publicados;
+    }
+
+    @Transactional
+    public int removerPublicados() {
+        return contaEventoRepository.removerPublicados(LocalDateTime.now().minusDays(properties.getRetencaoDias()));
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.laurielcio.contabil.service.evento;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.laurielcio.contabil.config.EventosProperties;
+import br.com.laurielcio.contabil.shard.DiretorioEmpresas;
+import br.com.laurielcio.contabil.shard.EmpresaContexto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publica periodicamente os eventos pendentes (com shards, de cada empresa), em lotes até esvaziar a
+ * fila, e responde às consultas do feed que aguardam eventos da empresa. Diariamente, remove os
+ * eventos publicados há mais de {@code contabil.eventos.retencao-dias}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PublicacaoEventosScheduler {
+
+    @Autowired
+    private PublicacaoEventos publicacaoEventos;
+
+    @Autowired
+    private FeedEventos feedEventos;
+
+    @Autowired
+    private EventosProperties properties;
+
+    @Autowired(required = false)
+    private DiretorioEmpresas diretorioEmpresas;
+
+    @Scheduled(fixedDelayString = "${contabil.eventos.intervalo-ms:500}")
+    public void publicar() {
+        if (diretorioEmpresas != null) {
+            diretorioEmpresas.executarEmCada(this::publicarDaEmpresa);
+        } else {
+            publicarDaEmpresa();
+        }
+    }
+
+    @Scheduled(cron = "${contabil.eventos.limpeza-cron:0 30 3 * * *}")
+    public void removerPublicados() {
+        if (diretorioEmpresas != null) {
+            diretorioEmpresas.executarEmCada(this::removerPublicadosDaEmpresa);
+        } else {
+            removerPublicadosDaEmpresa();
+        }
+    }
+
+    /**
+     * O feed é verificado mesmo sem eventos publicados aqui: com várias instâncias, a publicação
+     * pode ter sido feita por outra.
+     */
+    private void publicarDaEmpresa() {
+        int publicados;
+        do {
+            publicados = publicacaoEventos.publicarLote();
+        } while (publicados >= properties.getTamanhoLote());
+
+        feedEventos.notificar(EmpresaContexto.atual());
+    }
+
+    private void removerPublicadosDaEmpresa() {
+        int removidos = publicacaoEventos.removerPublicados();
+
+        if (removidos > 0) {
+            log.info("{} eventos de contas publicados removidos", removidos);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package br.com.laurielcio.contabil.service.exportacao;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import br.com.laurielcio.contabil.entity.FormatoExportacaoEnum;
+import br.com.laurielcio.contabil.repository.ContaProjecao;
+
+/**
+ * Escreve as contas na saída à medida que são lidas, uma por linha (NDJSON ou CSV), com os
+ * mesmos campos de ContaResponse, sem links. A saída é descarregada a cada
+ * {@link #CONTAS_POR_ENVIO} contas, para que o cliente receba os dados durante a leitura.
+ */
+@Component
+public class ContaExportador {
+
+    static final int CONTAS_POR_ENVIO = 1000;
+
+    private static final String CABECALHO_CSV = "id,dataVencimento,dataPagamento,valor,descricao,situacao";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * @return quantidade de contas exportadas
+     */
+    public long exportar(Stream<ContaProjecao> contas, FormatoExportacaoEnum formato, OutputStream saida) throws IOException {
+        if (formato == FormatoExportacaoEnum.CSV) {
+            return exportarCsv(contas.iterator(), saida);
+        }
+        return exportarNdjson(contas.iterator(), saida);
+    }
+
+    private long exportarNdjson(Iterator<ContaProjecao> contas, OutputStream saida) throws IOException {
+        long quantidade = 0;
+
+        try (JsonGenerator json = jsonFactory.createGenerator(saida, JsonEncoding.UTF8)) {
+            json.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            json.setRootValueSeparator(null);
+
+            while (contas.hasNext()) {
+                ContaProjecao conta = contas.next();
+
+                json.writeStartObject();
+                json.writeNumberField("id", conta.getId());
+                escreverCampo(json, "dataVencimento", conta.getDataVencimento());
+                escreverCampo(json, "dataPagamento", conta.getDataPagamento());
+                if (conta.getValor() != null) {
+                    json.writeNumberField("valor", conta.getValor());
+                } else {
+                    json.writeNullField("valor");
+                }
+                json.writeStringField("descricao", conta.getDescricao());
+                escreverCampo(json, "situacao", conta.getSituacao());
+                json.writeEndObject();
+                json.writeRaw('\n');
+
+                if (++quantidade % CONTAS_POR_ENVIO == 0) {
+                    json.flush();
+                }
+            }
+        }
+        return quantidade;
+    }
+
+    private void escreverCampo(JsonGenerator json, String campo, Object valor) throws IOException {
+        if (valor != null) {
+            json.writeStringField(campo, valor.toString());
+        } else {
+            json.writeNullField(campo);
+        }
+    }
+
+    private long exportarCsv(Iterator<ContaProjecao> contas, OutputStream saida) throws IOException {
+        long quantidade = 0;
+        Writer csv = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), 64 * 1024);
+
+        csv.write(CABECALHO_CSV);
+        csv.write('\n');
+
+        while (contas.hasNext()) {
+            ContaProjecao conta = contas.next();
+
+            csv.write(String.valueOf(conta.getId()));
+            csv.write(',');
+            escreverCampo(csv, conta.getDataVencimento());
+            csv.write(',');
+            escreverCampo(csv, conta.getDataPagamento());
+            csv.write(',');
+            escreverCampo(csv, conta.getValor() != null ? conta.getValor().toPlainString() : null);
+            csv.write(',');
+            escreverDescricao(csv, conta.getDescricao());
+            csv.write(',');
+            escreverCampo(csv, conta.getSituacao());
+            csv.write('\n');
+
+            if (++quantidade % CONTAS_POR_ENVIO == 0) {
+                csv.flush();
+            }
+        }
+
+        csv.flush();
+        return quantidade;
+    }
+
+    private void escreverCampo(Writer csv, Object valor) throws IOException {
+        if (valor != null) {
+            csv.write(valor.toString());
+        }
+    }
+
+    private void escreverDescricao(Writer csv, String descricao) throws IOException {
+        if (descricao == null) {
+            return;
+        }
+        if (descricao.indexOf(',') < 0 && descricao.indexOf('"') < 0 && descricao.indexOf('\n') < 0 && descricao.indexOf('\r') < 0) {
+            csv.write(descricao);
+            return;
+        }
+        csv.write('"');
+        csv.write(descricao.replace("\"", "\"\""));
+        csv.write('"');
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.laurielcio.contabil.service.fluxo;
+
+/**
+ * Árvore de Fenwick (binary indexed tree) de somas sobre as posições [0, tamanho): somar um valor a
+ * uma posição e obter a soma de um intervalo custam O(log n), sem percorrer as posições do
+ * intervalo. Não é thread-safe.
+ */
+public class ArvoreFenwick {
+
+    /**
+     * Indexada a partir de 1: arvore[i] guarda a soma das posições (i - menorBit(i), i].
+     */
+    private final long[] arvore;
+
+    public ArvoreFenwick(int tamanho) {
+        this.arvore = new long[tamanho + 1];
+    }
+
+    public int getTamanho() {
+        return arvore.length - 1;
+    }
+
+    public void adicionar(int posicao, long valor) {
+        if (posicao < 0 || posicao >= getTamanho()) {
+            throw new IndexOutOfBoundsException("Posição " + posicao + " fora da árvore de tamanho " + getTamanho());
+        }
+
+        for (int i = posicao + 1; i < arvore.length; i += i & -i) {
+            arvore[i] += valor;
+        }
+    }
+
+    /**
+     * Soma das posições [0, fim).
+     */
+    public long somar(int fim) {
+        if (fim < 0 || fim > getTamanho()) {
+            throw new IndexOutOfBoundsException("Fim " + fim + " fora da árvore de tamanho " + getTamanho());
+        }
+
+        long soma = 0;
+        for (int i = fim; i > 0; i -= i & -i) {
+            soma += arvore[i];
+        }
+        return soma;
+    }
+
+    /**
+     * Soma das posições [inicio, fim).
+     */
+    public long somar(int inicio, int fim) {
+        return inicio >= fim ? 0 : somar(fim) - somar(inicio);
+    }
+}
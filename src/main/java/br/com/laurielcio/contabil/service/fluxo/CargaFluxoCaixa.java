@@ -0,0 +1,43 @@
+package br.com.laurielcio.contabil.service.fluxo;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.laurielcio.contabil.repository.ContaEventoRepository;
+import br.com.laurielcio.contabil.repository.ContaRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Carrega o fluxo de caixa de uma empresa dos totais diários (V10), sem percorrer contas_a_pagar. A
+ * última posição do feed, os eventos pendentes e os totais são lidos no mesmo snapshot: os eventos
+ * publicados depois da posição são aplicados pela sincronização, exceto os que já estavam
+ * confirmados na leitura, cujas alterações já fazem parte dos totais.
+ */
+@Component
+@RequiredArgsConstructor
+public class CargaFluxoCaixa {
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private ContaEventoRepository contaEventoRepository;
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public FluxoCaixaEmpresa carregar(LocalDate inicio, int dias) {
+        FluxoCaixaEmpresa fluxo = new FluxoCaixaEmpresa(inicio, dias, contaEventoRepository.findUltimaPosicao(),
+                contaEventoRepository.findIdsPendentes());
+
+        for (Object[] total : contaRepository.findTotaisPendentes()) {
+            fluxo.adicionar(((Date) total[0]).toLocalDate(), ((Number) total[1]).longValue(),
+                    FluxoCaixa.centavos((BigDecimal) total[2]));
+        }
+        return fluxo;
+    }
+}
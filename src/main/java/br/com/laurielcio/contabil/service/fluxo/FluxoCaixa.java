@@ -0,0 +1,290 @@
+package br.com.laurielcio.contabil.service.fluxo;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.laurielcio.contabil.config.FluxoCaixaProperties;
+import br.com.laurielcio.contabil.entity.AgrupamentoFluxoCaixaEnum;
+import br.com.laurielcio.contabil.entity.ContaEventoEntity;
+import br.com.laurielcio.contabil.entity.SituacaoEnum;
+import br.com.laurielcio.contabil.entity.TipoEventoContaEnum;
+import br.com.laurielcio.contabil.repository.ContaEventoRepository;
+import br.com.laurielcio.contabil.repository.ContaRepository;
+import br.com.laurielcio.contabil.response.FluxoCaixaConferenciaResponse;
+import br.com.laurielcio.contabil.response.FluxoCaixaDivergenciaResponse;
+import br.com.laurielcio.contabil.response.FluxoCaixaPeriodoResponse;
+import br.com.laurielcio.contabil.response.FluxoCaixaResponse;
+import br.com.laurielcio.contabil.shard.EmpresaContexto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fluxo de caixa projetado (contas pendentes por dia de vencimento) de cada empresa, mantido em
+ * memória ({@link FluxoCaixaEmpresa}): qualquer período da janela é somado em O(log n), sem consulta
+ * ao banco. Carregado dos totais diários e mantido pelos eventos publicados em contas_eventos, que
+ * trazem o estado anterior das contas alteradas; a cada mês a janela avança e o fluxo é recarregado.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FluxoCaixa {
+
+    /**
+     * Dias além de {@code dias-futuros} carregados na janela, para que ela avance uma vez por mês.
+     */
+    private static final int MARGEM_DIAS = 31;
+
+    private final Map<String, FluxoCaixaEmpresa> empresas = new ConcurrentHashMap<>();
+
+    @Autowired
+    private CargaFluxoCaixa cargaFluxoCaixa;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private ContaEventoRepository contaEventoRepository;
+
+    @Autowired
+    private FluxoCaixaProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Aplica ao fluxo da empresa os eventos publicados desde a última sincronização. Um evento que não
+     * pode ser aplicado (alteração gravada sem o estado anterior da conta) faz o fluxo ser recarregado.
+     */
+    public synchronized void sincronizar(LocalDate hoje) {
+        FluxoCaixaEmpresa fluxo = obter(hoje);
+
+        List<ContaEventoEntity> eventos;
+        do {
+            eventos = contaEventoRepository.findPublicadosApos(fluxo.getUltimaPosicao(), properties.getTamanhoLote());
+            for (ContaEventoEntity evento : eventos) {
+                if (fluxo.aceitar(evento.getId()) && !aplicar(fluxo, evento)) {
+                    log.warn("Evento {} sem o estado anterior da conta; recarregando o fluxo de caixa", evento.getPosicao());
+                    empresas.put(chave(), carregar(hoje));
+                    return;
+                }
+                fluxo.setUltimaPosicao(evento.getPosicao());
+            }
+        } while (eventos.size() == properties.getTamanhoLote());
+    }
+
+    /**
+     * Períodos entre {@code dataInicial} e {@code dataFinal}, que devem estar entre
+     * {@code hoje - dias-passados} e {@code hoje + dias-futuros}, somados com um único estado do fluxo.
+     */
+    public FluxoCaixaResponse consultar(LocalDate dataInicial, LocalDate dataFinal, AgrupamentoFluxoCaixaEnum agrupamento,
+            LocalDate hoje) {
+        FluxoCaixaEmpresa fluxo = obter(hoje);
+        List<FluxoCaixaPeriodoResponse> periodos = new ArrayList<>();
+
+        synchronized (fluxo) {
+            LocalDate inicio = dataInicial;
+            while (!inicio.isAfter(dataFinal)) {
+                LocalDate fim = fimDoPeriodo(inicio, agrupamento);
+                if (fim.isAfter(dataFinal)) {
+                    fim = dataFinal;
+                }
+                periodos.add(periodo(inicio, fim, fluxo.somar(inicio, fim)));
+                inicio = fim.plusDays(1);
+            }
+
+            return new FluxoCaixaResponse(dataInicial, dataFinal, agrupamento,
+                    periodo(null, hoje.minusDays(1), fluxo.somarAntes(hoje)), periodos,
+                    periodo(dataInicial, dataFinal, fluxo.somar(dataInicial, dataFinal)), fluxo.getUltimaPosicao());
+        }
+    }
+
+    /**
+     * Compara, dia a dia, o fluxo em memória com as contas pendentes de contas_a_pagar no período, e
+     * o total vencido. Como a memória segue o banco com o atraso da publicação dos eventos, a
+     * comparação é repetida até {@code tentativas-conferencia} vezes; se a divergência persistir, o
+     * fluxo da empresa é descartado e recarregado no próximo uso.
+     */
+    public FluxoCaixaConferenciaResponse conferir(LocalDate dataInicial, LocalDate dataFinal, LocalDate hoje) {
+        List<FluxoCaixaDivergenciaResponse> divergencias;
+        int tentativa = 0;
+        do {
+            if (tentativa > 0) {
+                pausar();
+            }
+            tentativa++;
+
+            List<Object[]> banco = contaRepository.findPendentesPorDia(dataInicial, dataFinal, hoje);
+            sincronizar(hoje);
+            divergencias = comparar(obter(hoje), banco, dataInicial, dataFinal, hoje);
+        } while (!divergencias.isEmpty() && tentativa < properties.getTentativasConferencia());
+
+        if (!divergencias.isEmpty()) {
+            log.warn("Fluxo de caixa diverge do banco em {} dias após {} tentativas; será recarregado", divergencias.size(),
+                    tentativa);
+            empresas.remove(chave());
+        }
+
+        return new FluxoCaixaConferenciaResponse(dataInicial, dataFinal, tentativa, divergencias, !divergencias.isEmpty());
+    }
+
+    static long centavos(BigDecimal valor) {
+        return valor.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Fluxo da empresa atual, carregado no primeiro uso e quando a janela não cobre mais os dias
+     * futuros consultáveis.
+     */
+    private FluxoCaixaEmpresa obter(LocalDate hoje) {
+        FluxoCaixaEmpresa fluxo = empresas.get(chave());
+        if (cobre(fluxo, hoje)) {
+            return fluxo;
+        }
+
+        synchronized (empresas) {
+            fluxo = empresas.get(chave());
+            if (!cobre(fluxo, hoje)) {
+                fluxo = carregar(hoje);
+                empresas.put(chave(), fluxo);
+            }
+            return fluxo;
+        }
+    }
+
+    private boolean cobre(FluxoCaixaEmpresa fluxo, LocalDate hoje) {
+        return fluxo != null && !hoje.minusDays(properties.getDiasPassados()).isBefore(fluxo.getInicio())
+                && !hoje.plusDays(properties.getDiasFuturos()).isAfter(fluxo.getFim());
+    }
+
+    private FluxoCaixaEmpresa carregar(LocalDate hoje) {
+        FluxoCaixaEmpresa fluxo = cargaFluxoCaixa.carregar(hoje.minusDays(properties.getDiasPassados()),
+                properties.getDiasPassados() + properties.getDiasFuturos() + MARGEM_DIAS + 1);
+
+        log.info("Fluxo de caixa carregado de {} a {} (posição {})", fluxo.getInicio(), fluxo.getFim(), fluxo.getUltimaPosicao());
+        return fluxo;
+    }
+
+    /**
+     * @return se o evento foi aplicado; falso se não traz o estado anterior da conta alterada
+     */
+    private boolean aplicar(FluxoCaixaEmpresa fluxo, ContaEventoEntity evento) {
+        if (evento.getTipo() == TipoEventoContaEnum.VENCENDO || evento.getTipo() == TipoEventoContaEnum.VENCIDA) {
+            return true;
+        }
+
+        JsonNode dados;
+        try {
+            dados = objectMapper.reader(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS).readTree(evento.getDados());
+        } catch (IOException e) {
+            log.error("Evento {} com dados inválidos no fluxo de caixa: {}", evento.getPosicao(), e.getMessage());
+            return false;
+        }
+
+        if (evento.getTipo() == TipoEventoContaEnum.IMPORTADAS) {
+            for (JsonNode conta : dados.path("contas")) {
+                aplicarConta(fluxo, conta, 1);
+            }
+            return true;
+        }
+        if (evento.getTipo() == TipoEventoContaEnum.CADASTRADA) {
+            aplicarConta(fluxo, dados, 1);
+            return true;
+        }
+
+        JsonNode anterior = dados.get("anterior");
+        if (anterior == null) {
+            return false;
+        }
+        synchronized (fluxo) {
+            aplicarConta(fluxo, anterior, -1);
+            aplicarConta(fluxo, dados, 1);
+        }
+        return true;
+    }
+
+    private void aplicarConta(FluxoCaixaEmpresa fluxo, JsonNode conta, int sinal) {
+        JsonNode dataVencimento = conta.path("dataVencimento");
+        if (!dataVencimento.isTextual() || !SituacaoEnum.PENDENTE.name().equals(conta.path("situacao").asText())) {
+            return;
+        }
+
+        fluxo.adicionar(LocalDate.parse(dataVencimento.asText()), sinal, sinal * centavos(conta.path("valor").decimalValue()));
+    }
+
+    private List<FluxoCaixaDivergenciaResponse> comparar(FluxoCaixaEmpresa fluxo, List<Object[]> banco, LocalDate dataInicial,
+            LocalDate dataFinal, LocalDate hoje) {
+        Map<LocalDate, FluxoCaixaEmpresa.Total> porDia = new HashMap<>();
+        FluxoCaixaEmpresa.Total vencidoBanco = null;
+        for (Object[] linha : banco) {
+            FluxoCaixaEmpresa.Total total = new FluxoCaixaEmpresa.Total(((Number) linha[1]).longValue(),
+                    centavos((BigDecimal) linha[2]));
+            if (linha[0] == null) {
+                vencidoBanco = total;
+            } else {
+                porDia.put(((Date) linha[0]).toLocalDate(), total);
+            }
+        }
+
+        FluxoCaixaEmpresa.Total zero = new FluxoCaixaEmpresa.Total(0, 0);
+        List<FluxoCaixaDivergenciaResponse> divergencias = new ArrayList<>();
+        synchronized (fluxo) {
+            comparar(null, fluxo.somarAntes(hoje), vencidoBanco != null ? vencidoBanco : zero, divergencias);
+            for (LocalDate dia = dataInicial; !dia.isAfter(dataFinal); dia = dia.plusDays(1)) {
+                comparar(dia, fluxo.somar(dia, dia), porDia.getOrDefault(dia, zero), divergencias);
+            }
+        }
+        return divergencias;
+    }
+
+    private void comparar(LocalDate dia, FluxoCaixaEmpresa.Total memoria, FluxoCaixaEmpresa.Total banco,
+            List<FluxoCaixaDivergenciaResponse> divergencias) {
+        if (memoria.quantidade != banco.quantidade || memoria.centavos != banco.centavos) {
+            divergencias.add(new FluxoCaixaDivergenciaResponse(dia, memoria.quantidade, memoria.getValor(), banco.quantidade,
+                    banco.getValor()));
+        }
+    }
+
+    private LocalDate fimDoPeriodo(LocalDate inicio, AgrupamentoFluxoCaixaEnum agrupamento) {
+        switch (agrupamento) {
+            case SEMANA:
+                return inicio.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+            case MES:
+                return inicio.with(TemporalAdjusters.lastDayOfMonth());
+            default:
+                return inicio;
+        }
+    }
+
+    private FluxoCaixaPeriodoResponse periodo(LocalDate inicio, LocalDate fim, FluxoCaixaEmpresa.Total total) {
+        return new FluxoCaixaPeriodoResponse(inicio, fim, total.quantidade, total.getValor());
+    }
+
+    private void pausar() {
+        try {
+            Thread.sleep(properties.getPausaConferenciaMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String chave() {
+        return EmpresaContexto.atual() == null ? "" : EmpresaContexto.atual();
+    }
+}
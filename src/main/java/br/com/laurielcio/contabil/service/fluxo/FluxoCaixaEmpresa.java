@@ -0,0 +1,127 @@
+package br.com.laurielcio.contabil.service.fluxo;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Quantidade e valor (em centavos) das contas pendentes de uma empresa por dia de vencimento, em duas
+ * {@link ArvoreFenwick} sobre os dias da janela [inicio, fim]. Os vencimentos anteriores à janela
+ * ficam em um acumulado, de modo que o total vencido até qualquer dia dela também é exato; os
+ * posteriores são ignorados e entram na próxima carga, quando a janela avança. Valores em centavos
+ * (long) evitam arredondamento nas somas.
+ * <p>
+ * Alterado pela thread do agendamento e consultado pelas requisições: os métodos sincronizam na
+ * instância, e quem monta uma resposta com várias somas sincroniza nela para obter um único estado.
+ */
+public class FluxoCaixaEmpresa {
+
+    private final LocalDate inicio;
+
+    private final ArvoreFenwick quantidades;
+
+    private final ArvoreFenwick valores;
+
+    private long quantidadeAntes;
+
+    private long valorAntes;
+
+    /**
+     * Posição do último evento do feed aplicado.
+     */
+    private long ultimaPosicao;
+
+    /**
+     * Eventos já confirmados, mas ainda não publicados, na carga: suas alterações já estão nos totais
+     * carregados, então são ignorados quando chegam pelo feed.
+     */
+    private final Set<Long> eventosIgnorados;
+
+    FluxoCaixaEmpresa(LocalDate inicio, int dias, long ultimaPosicao, List<Long> eventosPendentes) {
+        this.inicio = inicio;
+        this.quantidades = new ArvoreFenwick(dias);
+        this.valores = new ArvoreFenwick(dias);
+        this.ultimaPosicao = ultimaPosicao;
+        this.eventosIgnorados = new HashSet<>(eventosPendentes);
+    }
+
+    LocalDate getInicio() {
+        return inicio;
+    }
+
+    LocalDate getFim() {
+        return inicio.plusDays(quantidades.getTamanho() - 1L);
+    }
+
+    synchronized long getUltimaPosicao() {
+        return ultimaPosicao;
+    }
+
+    synchronized void setUltimaPosicao(long ultimaPosicao) {
+        this.ultimaPosicao = ultimaPosicao;
+    }
+
+    /**
+     * @return se o evento deve ser aplicado (não estava pendente na carga)
+     */
+    synchronized boolean aceitar(Long idEvento) {
+        return eventosIgnorados.isEmpty() || !eventosIgnorados.remove(idEvento);
+    }
+
+    synchronized void adicionar(LocalDate dataVencimento, long quantidade, long centavos) {
+        long dia = dataVencimento.toEpochDay() - inicio.toEpochDay();
+
+        if (dia < 0) {
+            quantidadeAntes += quantidade;
+            valorAntes += centavos;
+        } else if (dia < quantidades.getTamanho()) {
+            quantidades.adicionar((int) dia, quantidade);
+            valores.adicionar((int) dia, centavos);
+        }
+    }
+
+    /**
+     * Contas com vencimento entre {@code dataInicial} e {@code dataFinal}, ambas dentro da janela.
+     */
+    synchronized Total somar(LocalDate dataInicial, LocalDate dataFinal) {
+        int primeiro = dia(dataInicial);
+        int ultimo = dia(dataFinal);
+
+        return new Total(quantidades.somar(primeiro, ultimo + 1), valores.somar(primeiro, ultimo + 1));
+    }
+
+    /**
+     * Contas com vencimento anterior a {@code data}, dentro da janela ou no dia seguinte ao fim dela.
+     */
+    synchronized Total somarAntes(LocalDate data) {
+        int fim = data.equals(getFim().plusDays(1)) ? quantidades.getTamanho() : dia(data);
+
+        return new Total(quantidadeAntes + quantidades.somar(fim), valorAntes + valores.somar(fim));
+    }
+
+    private int dia(LocalDate data) {
+        long dia = data.toEpochDay() - inicio.toEpochDay();
+        if (dia < 0 || dia >= quantidades.getTamanho()) {
+            throw new IllegalArgumentException("Data " + data + " fora da janela " + inicio + " a " + getFim());
+        }
+        return (int) dia;
+    }
+
+    static final class Total {
+
+        final long quantidade;
+
+        final long centavos;
+
+        Total(long quantidade, long centavos) {
+            this.quantidade = quantidade;
+            this.centavos = centavos;
+        }
+
+        BigDecimal getValor() {
+            return BigDecimal.valueOf(centavos, 2);
+        }
+    }
+}
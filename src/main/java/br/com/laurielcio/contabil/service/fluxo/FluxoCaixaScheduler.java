@@ -0,0 +1,38 @@
+package br.com.laurielcio.contabil.service.fluxo;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.laurielcio.contabil.shard.DiretorioEmpresas;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Mantém o fluxo de caixa em memória (com shards, de cada empresa) em dia com os eventos publicados,
+ * para que as consultas de GET /contas/fluxo-caixa não esperem pela carga nem pela sincronização.
+ */
+@Component
+@RequiredArgsConstructor
+public class FluxoCaixaScheduler {
+
+    @Autowired
+    private FluxoCaixa fluxoCaixa;
+
+    @Autowired(required = false)
+    private DiretorioEmpresas diretorioEmpresas;
+
+    @Scheduled(fixedDelayString = "${contabil.fluxo-caixa.intervalo-ms:1000}")
+    public void sincronizar() {
+        if (diretorioEmpresas != null) {
+            diretorioEmpresas.executarEmCada(this::sincronizarEmpresa);
+        } else {
+            sincronizarEmpresa();
+        }
+    }
+
+    private void sincronizarEmpresa() {
+        fluxoCaixa.sincronizar(LocalDate.now());
+    }
+}
@@ -1,31 +1,62 @@
 package br.com.laurielcio.contabil.service.impl;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import br.com.laurielcio.contabil.entity.AgrupamentoFluxoCaixaEnum;
+import br.com.laurielcio.contabil.entity.FormatoExportacaoEnum;
+import br.com.laurielcio.contabil.entity.ModoBuscaEnum;
+import br.com.laurielcio.contabil.entity.ModoImportacaoEnum;
+import br.com.laurielcio.contabil.entity.ResultadoAlteracaoEnum;
 import br.com.laurielcio.contabil.entity.SituacaoEnum;
-import br.com.laurielcio.contabil.exception.ImportacaoContaException;
+import br.com.laurielcio.contabil.entity.TipoEventoContaEnum;
+import br.com.laurielcio.contabil.config.EventosProperties;
+import br.com.laurielcio.contabil.config.FluxoCaixaProperties;
 import br.com.laurielcio.contabil.request.ContaAtualizaRequest;
+import br.com.laurielcio.contabil.request.ContaCursor;
+import br.com.laurielcio.contabil.request.ContaSituacaoLoteRequest;
+import br.com.laurielcio.contabil.response.ContaCursorResponse;
+import br.com.laurielcio.contabil.response.ContaEventosResponse;
+import br.com.laurielcio.contabil.response.ContaSituacaoLoteResponse;
+import br.com.laurielcio.contabil.response.FluxoCaixaConferenciaResponse;
+import br.com.laurielcio.contabil.response.FluxoCaixaResponse;
+import br.com.laurielcio.contabil.response.ImportacaoResponse;
+import br.com.laurielcio.contabil.replica.LeituraReplica;
+import br.com.laurielcio.contabil.replica.MonitorReplicas;
+import br.com.laurielcio.contabil.service.cache.ContaCache;
+import br.com.laurielcio.contabil.service.evento.FeedEventos;
+import br.com.laurielcio.contabil.service.exportacao.ContaExportador;
+import br.com.laurielcio.contabil.service.fluxo.FluxoCaixa;
+import br.com.laurielcio.contabil.service.importacao.ImportacaoJobManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.laurielcio.contabil.request.ContaRequest;
 import br.com.laurielcio.contabil.response.ContaResponse;
 import br.com.laurielcio.contabil.entity.ContaEntity;
+import br.com.laurielcio.contabil.exception.ContaConflitoException;
 import br.com.laurielcio.contabil.exception.ContaNotFoundException;
+import br.com.laurielcio.contabil.exception.ValidationException;
+import br.com.laurielcio.contabil.repository.ContaEventoRepository;
+import br.com.laurielcio.contabil.repository.ContaProjecao;
 import br.com.laurielcio.contabil.repository.ContaRepository;
 import br.com.laurielcio.contabil.service.ContaService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
 
 @Slf4j
@@ -36,22 +67,59 @@ public class ContaServiceImpl implements ContaService {
     @Autowired
 	private ContaRepository contaRepository;
 
+    @Autowired
+    private ContaEventoRepository contaEventoRepository;
+
+    @Autowired
+    private ImportacaoJobManager importacaoJobManager;
+
+    @Autowired
+    private ContaCache contaCache;
+
+    @Autowired
+    private ContaExportador contaExportador;
+
+    @Autowired
+    private FeedEventos feedEventos;
+
+    @Autowired
+    private EventosProperties eventosProperties;
+
+    @Autowired
+    private FluxoCaixa fluxoCaixa;
+
+    @Autowired
+    private FluxoCaixaProperties fluxoCaixaProperties;
+
+    @Autowired(required = false)
+    private MonitorReplicas monitorReplicas;
+
+    @Value("${contabil.alteracao-situacao.tamanho-lote:1000}")
+    private int tamanhoLoteAlteracaoSituacao;
+
+	/**
+	 * O id vem da sequência no INSERT (IDENTITY), então o evento CADASTRADA é gravado logo em seguida,
+	 * na mesma transação.
+	 */
 	@Override
+	@Transactional
 	public ContaResponse cadastrarConta(ContaRequest request) {
 		log.info("Iniciando o cadastro de conta a pagar...");
 		
 		ContaEntity conta = new ContaEntity(request);
 		
 		contaRepository.save(conta);
+		contaEventoRepository.registrar(conta.getId(), TipoEventoContaEnum.CADASTRADA.name());
 		
 		return new ContaResponse(conta);
 	}
 
 	@Override
+    @LeituraReplica
     public ContaResponse obterContaPorId(Long id) {
         log.info("Obtendo conta por id...");
 
-        Optional<ContaEntity> optionalConta = contaRepository.findById(id);
+        Optional<ContaEntity> optionalConta = contaCache.buscar(id);
 
         if (optionalConta.isPresent()) {
             ContaEntity conta = optionalConta.get();
@@ -61,20 +129,28 @@ public class ContaServiceImpl implements ContaService {
         }
     }
 
+    /**
+     * As contas são lidas como {@link ContaProjecao}, sem entidades gerenciadas; a transação somente
+     * leitura faz o Hibernate usar flush MANUAL, sem verificar alterações ao final.
+     */
     @Override
-    public Page<ContaResponse> obterListaContas(LocalDate dataVencimento, String descricao, Pageable pageable) {
+    @LeituraReplica
+    @Transactional(readOnly = true)
+    public Page<ContaResponse> obterListaContas(LocalDate dataVencimento, String descricao, ModoBuscaEnum modoBusca, Pageable pageable) {
         log.info("Obtendo lista de contas a pagar por data de vencimento e descrição...");
 
-        Page<ContaEntity> contas;
+        Page<ContaProjecao> contas;
 
-        if (dataVencimento != null && descricao != null) {
-            contas = contaRepository.findByDataVencimentoAndDescricaoContainingIgnoreCase(dataVencimento, descricao, pageable);
+        if (descricao != null && modoBusca == ModoBuscaEnum.TEXTO) {
+            contas = contaRepository.listarPorTextoDescricao(dataVencimento, descricao, pageable);
+        } else if (dataVencimento != null && descricao != null) {
+            contas = contaRepository.listarPorDataVencimentoEDescricao(dataVencimento, descricao, pageable);
         } else if (dataVencimento != null) {
-            contas = contaRepository.findByDataVencimento(dataVencimento, pageable);
+            contas = contaRepository.listarPorDataVencimento(dataVencimento, pageable);
         } else if (descricao != null) {
-            contas = contaRepository.findByDescricaoContainingIgnoreCase(descricao, pageable);
+            contas = contaRepository.listarPorDescricao(descricao, pageable);
         } else {
-            contas = contaRepository.findAll(pageable);
+            contas = contaRepository.listar(pageable);
         }
 
         if (contas.isEmpty()) {
@@ -87,108 +163,286 @@ public class ContaServiceImpl implements ContaService {
     }
 
     @Override
-    public List<ContaResponse> importarContasViaCSV(MultipartFile file) {
-        log.info("Importando contas a pagar via arquivo csv...");
+    @LeituraReplica
+    @Transactional(readOnly = true)
+    public ContaCursorResponse obterListaContasPorCursor(LocalDate dataVencimento, String descricao, String after, int size) {
+        log.info("Obtendo lista de contas a pagar a partir do cursor...");
 
-        List<ContaResponse> response = new ArrayList<>();
+        if (size < 1) {
+            throw new ValidationException("O tamanho da página deve ser maior que zero");
+        }
 
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            String headerLine = br.readLine();
+        ContaCursor cursor = after != null ? ContaCursor.decodificar(after) : null;
 
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] data = line.split(",");
+        Slice<ContaProjecao> contas = contaRepository.findAposCursor(dataVencimento, descricao, cursor, size);
 
-                ContaEntity conta = criarContaEntity(data);
-                contaRepository.save(conta);
+        if (contas.isEmpty() && cursor == null) {
+            throw new ContaNotFoundException("Nenhuma conta a pagar encontrada com os parâmetros fornecidos.");
+        }
 
-                response.add(new ContaResponse(conta));
-            }
-        } catch (IOException e) {
-            log.error("Erro ao importar contas via arquivo CSV: {}", e.getMessage());
-            throw new ImportacaoContaException("Erro ao importar contas via arquivo CSV", e);
+        String nextCursor = null;
+        if (contas.hasNext()) {
+            ContaProjecao ultima = contas.getContent().get(contas.getNumberOfElements() - 1);
+            nextCursor = new ContaCursor(ultima.getDataVencimento(), ultima.getId()).codificar();
         }
-        return response;
+
+        return new ContaCursorResponse(contas.map(ContaResponse::new), nextCursor);
     }
 
+    /**
+     * Executado na thread que escreve a resposta; a transação mantém aberto o cursor do stream.
+     */
     @Override
+    @LeituraReplica
+    @Transactional(readOnly = true)
+    public long exportarContas(FormatoExportacaoEnum formato, LocalDate dataInicial, LocalDate dataFinal, OutputStream saida) throws IOException {
+        log.info("Exportando contas a pagar...");
+
+        try (Stream<ContaProjecao> contas = contaRepository.streamPorPeriodo(dataInicial, dataFinal)) {
+            long quantidade = contaExportador.exportar(contas, formato, saida);
+
+            log.info("{} contas a pagar exportadas", quantidade);
+            return quantidade;
+        }
+    }
+
+    @Override
+    public ImportacaoResponse importarContasViaCSV(MultipartFile file, ModoImportacaoEnum modo) {
+        log.info("Registrando importação de contas a pagar via arquivo csv...");
+
+        return importacaoJobManager.iniciar(file, modo);
+    }
+
+    @Override
+    public ImportacaoResponse importarContasDoDiretorio(String arquivo, ModoImportacaoEnum modo) {
+        log.info("Registrando importação de contas a pagar do diretório de entrada...");
+
+        return importacaoJobManager.iniciarDoDiretorio(arquivo, modo);
+    }
+
+    @Override
+    public ImportacaoResponse obterImportacao(Long id) {
+        log.info("Obtendo importação por id...");
+
+        return importacaoJobManager.obter(id);
+    }
+
+    @Override
+    @LeituraReplica
+    @Transactional(readOnly = true)
     public BigDecimal obterValorTotalPagoPorPeriodo(LocalDate dataInicial, LocalDate dataFinal) {
         log.info("Obtendo o valot total pago por período...");
 
-        BigDecimal response = contaRepository.findValorTotalPorPeriodo(dataInicial, dataFinal);
+        BigDecimal response = contaRepository.findValorTotalPagoPorPeriodo(dataInicial, dataFinal);
 
         return response;
     }
 
     @Override
-    public ContaResponse alterarSituacaoConta(Long id, SituacaoEnum situacao) {
+    public Integer reconstruirTotaisDiarios(LocalDate dataInicial, LocalDate dataFinal) {
+        log.info("Reconstruindo os totais diários de contas a pagar...");
+
+        if (dataInicial == null && dataFinal == null) {
+            return contaRepository.reconstruirTotaisDiarios();
+        }
+        if (dataInicial == null || dataFinal == null) {
+            throw new ValidationException("Informe a data inicial e a data final, ou nenhuma delas para reconstruir todo o período");
+        }
+
+        return contaRepository.reconstruirTotaisDiarios(dataInicial, dataFinal);
+    }
+
+    @Override
+    public ContaResponse alterarSituacaoConta(Long id, SituacaoEnum situacao, List<Long> versoesEsperadas) {
         log.info("Alterando a situação de um conta...");
 
-        Optional<ContaEntity> optionalConta = contaRepository.findById(id);
+        LocalDate dataPagamento = situacao.equals(SituacaoEnum.PAGA) ? LocalDate.now() : null;
 
-        if (optionalConta.isPresent()) {
-            ContaEntity conta = optionalConta.get();
-            conta.setSituacao(situacao);
+        ContaEntity conta = contaRepository.alterarSituacaoConta(id, situacao, dataPagamento, versoesEsperadas)
+                .orElseThrow(() -> falhaAlteracao(id, versoesEsperadas));
+        removerDoCache(id);
 
-            if (situacao.equals(SituacaoEnum.PAGA)) {
+        return new ContaResponse(conta);
+    }
 
-                conta.setDataPagamento(LocalDate.now());
-            } else {
-                conta.setDataPagamento(null);
-            }
+    /**
+     * Cada bloco de {@code contabil.alteracao-situacao.tamanho-lote} contas é alterado em uma
+     * instrução e transação próprias; contas que já estão na situação não são alteradas (nem a data
+     * de pagamento). Se um bloco falhar, os anteriores permanecem gravados e a requisição pode ser repetida.
+     */
+    @Override
+    public ContaSituacaoLoteResponse alterarSituacaoContas(ContaSituacaoLoteRequest request) {
+        log.info("Alterando a situação de contas em lote...");
+
+        SituacaoEnum situacao = request.getSituacao();
+        if (situacao == null) {
+            throw new ValidationException("A situação não pode ser nula");
+        }
 
-            contaRepository.save(conta);
+        boolean porIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean porPeriodo = request.getDataInicial() != null || request.getDataFinal() != null || request.getDescricao() != null;
 
-            return new ContaResponse(conta);
+        if (porIds == porPeriodo) {
+            throw new ValidationException("Informe os ids das contas ou o período de vencimento, mas não ambos");
+        }
+        if (porPeriodo && (request.getDataInicial() == null || request.getDataFinal() == null)) {
+            throw new ValidationException("Informe a data inicial e a data final do período de vencimento");
+        }
+
+        LocalDate dataPagamento = situacao.equals(SituacaoEnum.PAGA) ? LocalDate.now() : null;
+        ContaSituacaoLoteResponse response = new ContaSituacaoLoteResponse(situacao);
+
+        if (porIds) {
+            alterarSituacaoPorIds(new ArrayList<>(new LinkedHashSet<>(request.getIds())), situacao, dataPagamento, response);
         } else {
-            throw new ContaNotFoundException("Nenhuma conta a pagar localizada com o id: " + id);
+            alterarSituacaoPorPeriodo(request, dataPagamento, response);
         }
+
+        if (response.getAlteradas() > 0) {
+            contaCache.limpar();
+            if (monitorReplicas != null) {
+                monitorReplicas.repetirAposReplicacao(contaCache::limpar);
+            }
+        }
+
+        log.info("{} contas alteradas para {}", response.getAlteradas(), situacao);
+        return response;
     }
 
-    @Override
-    public ContaResponse atualizarConta(Long id, ContaAtualizaRequest request) {
-        log.info("Atualizando um conta...");
+    private void alterarSituacaoPorIds(List<Long> ids, SituacaoEnum situacao, LocalDate dataPagamento,
+                                       ContaSituacaoLoteResponse response) {
+        for (int inicio = 0; inicio < ids.size(); inicio += tamanhoLoteAlteracaoSituacao) {
+            List<Long> bloco = ids.subList(inicio, Math.min(inicio + tamanhoLoteAlteracaoSituacao, ids.size()));
 
-        Optional<ContaEntity> optionalConta = contaRepository.findById(id);
+            Map<Long, Boolean> encontradas = contaRepository.alterarSituacao(bloco, situacao, dataPagamento);
 
-        if (optionalConta.isPresent()) {
-            ContaEntity conta = optionalConta.get();
-            conta.setDataVencimento(request.getDataVencimento());
-            conta.setValor(request.getValor());
-            conta.setSituacao(request.getSituacao());
-
-            if (request.getSituacao().equals(SituacaoEnum.PAGA)) {
-                conta.setDataPagamento(LocalDate.now());
-            } else {
-                conta.setDataPagamento(null);
+            for (Long id : bloco) {
+                Boolean alterada = encontradas.get(id);
+                if (alterada == null) {
+                    response.registrar(id, ResultadoAlteracaoEnum.NAO_ENCONTRADA);
+                } else {
+                    response.registrar(id, alterada ? ResultadoAlteracaoEnum.ALTERADA : ResultadoAlteracaoEnum.INALTERADA);
+                }
             }
+        }
+    }
 
-            contaRepository.save(conta);
+    private void alterarSituacaoPorPeriodo(ContaSituacaoLoteRequest request, LocalDate dataPagamento,
+                                           ContaSituacaoLoteResponse response) {
+        long aposId = 0;
+        Map<Long, Boolean> encontradas;
 
-            return new ContaResponse(conta);
+        do {
+            encontradas = contaRepository.alterarSituacaoPorPeriodo(request.getDataInicial(), request.getDataFinal(),
+                    request.getDescricao(), request.getSituacao(), dataPagamento, aposId, tamanhoLoteAlteracaoSituacao);
+
+            for (Map.Entry<Long, Boolean> encontrada : encontradas.entrySet()) {
+                response.registrar(encontrada.getKey(),
+                        encontrada.getValue() ? ResultadoAlteracaoEnum.ALTERADA : ResultadoAlteracaoEnum.INALTERADA);
+                aposId = Math.max(aposId, encontrada.getKey());
+            }
+        } while (encontradas.size() == tamanhoLoteAlteracaoSituacao);
+    }
+
+    @Override
+    public ContaResponse atualizarConta(Long id, ContaAtualizaRequest request, List<Long> versoesEsperadas) {
+        log.info("Atualizando um conta...");
+
+        ContaEntity conta = new ContaEntity();
+        conta.setId(id);
+        conta.setDataVencimento(request.getDataVencimento());
+        conta.setValor(request.getValor());
+        conta.setDescricao(request.getDescricao());
+        conta.setSituacao(request.getSituacao());
+
+        if (request.getSituacao().equals(SituacaoEnum.PAGA)) {
+            conta.setDataPagamento(LocalDate.now());
         } else {
-            throw new ContaNotFoundException("Nenhuma conta a pagar localizada com o id: " + id);
+            conta.setDataPagamento(null);
         }
+
+        ContaEntity atualizada = contaRepository.atualizarConta(conta, versoesEsperadas)
+                .orElseThrow(() -> falhaAlteracao(id, versoesEsperadas));
+        removerDoCache(id);
+
+        return new ContaResponse(atualizada);
     }
 
+    @Override
+    public DeferredResult<ContaEventosResponse> obterEventos(long desde, int limite, long esperaMs) {
+        log.info("Obtendo eventos de contas a pagar...");
 
-    private ContaEntity criarContaEntity(String[] data) {
-        if (data.length != 3) {
-            throw new IllegalArgumentException("Número incorreto de colunas: " + data.length);
+        if (desde < 0) {
+            throw new ValidationException("A posição inicial não pode ser negativa");
+        }
+        if (limite < 1 || limite > eventosProperties.getTamanhoLote()) {
+            throw new ValidationException("O limite deve estar entre 1 e " + eventosProperties.getTamanhoLote());
         }
+        if (esperaMs < 0 || esperaMs > eventosProperties.getEsperaMaximaMs()) {
+            throw new ValidationException("A espera deve estar entre 0 e " + eventosProperties.getEsperaMaximaMs() + " ms");
+        }
+
+        return feedEventos.consultar(desde, limite, esperaMs);
+    }
+
+    @Override
+    public FluxoCaixaResponse obterFluxoCaixa(LocalDate dataInicial, LocalDate dataFinal, AgrupamentoFluxoCaixaEnum agrupamento) {
+        log.info("Obtendo o fluxo de caixa projetado...");
+
+        LocalDate hoje = LocalDate.now();
+        LocalDate inicio = dataInicial != null ? dataInicial : hoje;
+        LocalDate fim = dataFinal != null ? dataFinal : inicio.plusDays(fluxoCaixaProperties.getDiasPadrao() - 1L);
+        validarPeriodoFluxoCaixa(inicio, fim, hoje);
 
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        return fluxoCaixa.consultar(inicio, fim, agrupamento, hoje);
+    }
+
+    @Override
+    public FluxoCaixaConferenciaResponse conferirFluxoCaixa(LocalDate dataInicial, LocalDate dataFinal) {
+        log.info("Conferindo o fluxo de caixa projetado com o banco...");
 
-        ContaRequest request = new ContaRequest();
-        request.setDataVencimento(LocalDate.parse(data[0], dateFormatter));
-        request.setValor(new BigDecimal(data[1]));
-        request.setDescricao(data[2]);
+        LocalDate hoje = LocalDate.now();
+        LocalDate inicio = dataInicial != null ? dataInicial : hoje;
+        LocalDate fim = dataFinal != null ? dataFinal : inicio.plusDays(fluxoCaixaProperties.getDiasPadrao() - 1L);
+        validarPeriodoFluxoCaixa(inicio, fim, hoje);
 
-        return new ContaEntity(request);
+        return fluxoCaixa.conferir(inicio, fim, hoje);
     }
 
+    private void validarPeriodoFluxoCaixa(LocalDate dataInicial, LocalDate dataFinal, LocalDate hoje) {
+        if (dataFinal.isBefore(dataInicial)) {
+            throw new ValidationException("A data final não pode ser anterior à data inicial");
+        }
 
+        LocalDate primeiro = hoje.minusDays(fluxoCaixaProperties.getDiasPassados());
+        LocalDate ultimo = hoje.plusDays(fluxoCaixaProperties.getDiasFuturos());
+        if (dataInicial.isBefore(primeiro) || dataFinal.isAfter(ultimo)) {
+            throw new ValidationException("O período do fluxo de caixa deve estar entre " + primeiro + " e " + ultimo);
+        }
+    }
 
+    /**
+     * Com réplicas, uma leitura feita antes de a alteração chegar à réplica pode guardar no cache a
+     * versão anterior da conta; a remoção é repetida depois do atraso máximo de replicação.
+     */
+    private void removerDoCache(Long id) {
+        contaCache.remover(id);
+        if (monitorReplicas != null) {
+            monitorReplicas.repetirAposReplicacao(() -> contaCache.remover(id));
+        }
+    }
+
+    /**
+     * Nenhuma conta gravada: só é preciso consultar a conta para distinguir um conflito de versão
+     * de uma conta inexistente.
+     */
+    private RuntimeException falhaAlteracao(Long id, List<Long> versoesEsperadas) {
+        if (versoesEsperadas != null && contaRepository.existsById(id)) {
+            return new ContaConflitoException("A conta a pagar " + id + " não está em nenhuma das versões informadas "
+                    + versoesEsperadas + "; obtenha a conta novamente antes de alterá-la");
+        }
+        return new ContaNotFoundException("Nenhuma conta a pagar localizada com o id: " + id);
+    }
 
-}
 
+}
@@ -0,0 +1,69 @@
+package br.com.laurielcio.contabil.service.importacao;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.regex.Pattern;
+
+/**
+ * Chave natural de uma conta importada: SHA-256 de vencimento (yyyy-MM-dd), valor (duas casas),
+ * descrição normalizada (espaços consecutivos reduzidos a um, sem espaços nas pontas, em
+ * maiúsculas) e id externo, separados pelo caractere 0x1F. A migração V12 calcula o mesmo hash em
+ * SQL para as contas já existentes; as duas expressões precisam continuar equivalentes. Por isso a
+ * normalização considera apenas os espaços e as letras ASCII: o {@code \s} e o {@code upper} do
+ * PostgreSQL dependem do LC_CTYPE do banco, enquanto o {@code toUpperCase} do Java converte
+ * qualquer letra Unicode.
+ */
+final class ChaveNaturalConta {
+
+    private static final char SEPARADOR = '\u001F';
+
+    private static final Pattern ESPACOS = Pattern.compile("[ \\t\\n\\x0B\\f\\r]+");
+
+    private static final char[] HEXADECIMAL = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(ChaveNaturalConta::sha256);
+
+    private ChaveNaturalConta() {
+    }
+
+    static byte[] calcular(LocalDate dataVencimento, BigDecimal valor, String descricao, String idExterno) {
+        String chave = dataVencimento.toString() + SEPARADOR + valor.toPlainString() + SEPARADOR
+                + normalizarDescricao(descricao) + SEPARADOR + (idExterno != null ? idExterno : "");
+
+        return SHA256.get().digest(chave.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String normalizarDescricao(String descricao) {
+        String normalizada = ESPACOS.matcher(descricao).replaceAll(" ");
+        int inicio = normalizada.startsWith(" ") ? 1 : 0;
+        int fim = normalizada.length() > inicio && normalizada.endsWith(" ") ? normalizada.length() - 1 : normalizada.length();
+
+        char[] caracteres = normalizada.substring(inicio, fim).toCharArray();
+        for (int i = 0; i < caracteres.length; i++) {
+            if (caracteres[i] >= 'a' && caracteres[i] <= 'z') {
+                caracteres[i] = (char) (caracteres[i] - ('a' - 'A'));
+            }
+        }
+        return new String(caracteres);
+    }
+
+    static String hexadecimal(byte[] bytes) {
+        char[] caracteres = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            caracteres[i * 2] = HEXADECIMAL[(bytes[i] >> 4) & 0xF];
+            caracteres[i * 2 + 1] = HEXADECIMAL[bytes[i] & 0xF];
+        }
+        return new String(caracteres);
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
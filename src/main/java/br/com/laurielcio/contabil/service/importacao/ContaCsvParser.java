@@ -0,0 +1,270 @@
+package br.com.laurielcio.contabil.service.importacao;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+import org.springframework.stereotype.Component;
+
+import br.com.laurielcio.contabil.entity.ContaEntity;
+import br.com.laurielcio.contabil.request.ContaRequest;
+
+/**
+ * Converte uma linha do arquivo CSV (dataVencimento,valor,descricao[,idExterno]) em uma conta a pagar,
+ * já com o hash da chave natural ({@link ChaveNaturalConta}).
+ * Linhas inválidas geram {@link IllegalArgumentException} com o motivo da rejeição.
+ * Os limites seguem as colunas de contas_a_pagar (valor NUMERIC(10, 2), descricao VARCHAR(255)),
+ * para que uma linha aceita aqui nunca derrube o lote inteiro no banco.
+ * <p>
+ * É chamado em paralelo pelos workers da importação, por isso não guarda estado.
+ */
+@Component
+public class ContaCsvParser {
+
+    private static final int MIN_COLUNAS = 3;
+
+    private static final int MAX_COLUNAS = 4;
+
+    private static final int MAX_DIGITOS_INTEIROS_VALOR = 8;
+
+    private static final int MAX_CASAS_DECIMAIS_VALOR = 2;
+
+    private static final int MAX_TAMANHO_DESCRICAO = 255;
+
+    private static final int MAX_TAMANHO_ID_EXTERNO = 100;
+
+    /**
+     * Maior quantidade de bytes UTF-8 que uma descrição de {@link #MAX_TAMANHO_DESCRICAO} caracteres pode ocupar.
+     */
+    private static final int MAX_BYTES_DESCRICAO = MAX_TAMANHO_DESCRICAO * 4;
+
+    public ContaEntity parse(String linha) {
+        String[] data = new String[MAX_COLUNAS];
+        int colunas = CsvTokenizer.dividir(linha, data);
+
+        if (colunas < MIN_COLUNAS || colunas > MAX_COLUNAS) {
+            throw new IllegalArgumentException("Número incorreto de colunas: " + colunas);
+        }
+
+        return criarContaEntity(parseData(data[0].trim()), parseValor(data[1].trim()), parseDescricao(data[2].trim()),
+                colunas == MAX_COLUNAS ? parseIdExterno(data[3].trim()) : null);
+    }
+
+    /**
+     * Converte a linha que ocupa as posições [inicio, fim) do buffer (sem a quebra de linha). Data e
+     * valor são lidos diretamente dos bytes; apenas a descrição é decodificada em String.
+     */
+    public ContaEntity parse(ByteBuffer buffer, int inicio, int fim) {
+        int[] limites = new int[MAX_COLUNAS * 3];
+        int colunas = CsvTokenizer.dividir(buffer, inicio, fim, limites);
+
+        if (colunas < MIN_COLUNAS || colunas > MAX_COLUNAS) {
+            throw new IllegalArgumentException("Número incorreto de colunas: " + colunas);
+        }
+
+        LocalDate dataVencimento = parseData(buffer, limites[0], limites[1]);
+        BigDecimal valor = parseValor(buffer, limites[3], limites[4]);
+        String descricao = parseDescricao(decodificar(buffer, limites[6], limites[7], limites[8] == 1).trim());
+        String idExterno = colunas == MAX_COLUNAS
+                ? parseIdExterno(decodificar(buffer, limites[9], limites[10], limites[11] == 1).trim())
+                : null;
+
+        return criarContaEntity(dataVencimento, valor, descricao, idExterno);
+    }
+
+    private ContaEntity criarContaEntity(LocalDate dataVencimento, BigDecimal valor, String descricao, String idExterno) {
+        ContaRequest request = new ContaRequest();
+        request.setDataVencimento(dataVencimento);
+        request.setValor(valor);
+        request.setDescricao(descricao);
+
+        ContaEntity conta = new ContaEntity(request);
+        conta.setIdExterno(idExterno);
+        conta.setHashNatural(ChaveNaturalConta.calcular(dataVencimento, valor, descricao, idExterno));
+        return conta;
+    }
+
+    /**
+     * Formato yyyy-MM-dd, lido diretamente dos caracteres.
+     */
+    private LocalDate parseData(String valor) {
+        if (valor.length() == 10 && valor.charAt(4) == '-' && valor.charAt(7) == '-') {
+            LocalDate data = criarData(parseDigitos(valor, 0, 4), parseDigitos(valor, 5, 7), parseDigitos(valor, 8, 10));
+            if (data != null) {
+                return data;
+            }
+        }
+
+        throw new IllegalArgumentException("Data de vencimento inválida: " + valor);
+    }
+
+    private LocalDate parseData(ByteBuffer buffer, int inicio, int fim) {
+        inicio = pularEspacos(buffer, inicio, fim);
+        fim = recuarEspacos(buffer, inicio, fim);
+
+        if (fim - inicio == 10 && buffer.get(inicio + 4) == '-' && buffer.get(inicio + 7) == '-') {
+            LocalDate data = criarData(parseDigitos(buffer, inicio, inicio + 4), parseDigitos(buffer, inicio + 5, inicio + 7),
+                    parseDigitos(buffer, inicio + 8, inicio + 10));
+            if (data != null) {
+                return data;
+            }
+        }
+
+        throw new IllegalArgumentException("Data de vencimento inválida: " + decodificar(buffer, inicio, fim, false));
+    }
+
+    private LocalDate criarData(int ano, int mes, int dia) {
+        if (ano < 0 || mes < 0 || dia < 0) {
+            return null;
+        }
+
+        try {
+            return LocalDate.of(ano, mes, dia);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private int parseDigitos(String valor, int inicio, int fim) {
+        int numero = 0;
+        for (int i = inicio; i < fim; i++) {
+            char c = valor.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            numero = numero * 10 + (c - '0');
+        }
+        return numero;
+    }
+
+    private int parseDigitos(ByteBuffer buffer, int inicio, int fim) {
+        int numero = 0;
+        for (int i = inicio; i < fim; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            numero = numero * 10 + (b - '0');
+        }
+        return numero;
+    }
+
+    private BigDecimal parseValor(String valor) {
+        try {
+            return normalizarValor(new BigDecimal(valor));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido: " + valor);
+        }
+    }
+
+    /**
+     * Valores no formato usual ([-]digitos[.digitos]) são montados sem passar por String; os
+     * demais (notação científica, por exemplo) seguem pelo caminho de texto.
+     */
+    private BigDecimal parseValor(ByteBuffer buffer, int inicio, int fim) {
+        inicio = pularEspacos(buffer, inicio, fim);
+        fim = recuarEspacos(buffer, inicio, fim);
+
+        int i = inicio;
+        boolean negativo = i < fim && buffer.get(i) == '-';
+        if (negativo) {
+            i++;
+        }
+
+        long numero = 0;
+        int digitos = 0;
+        int casasDecimais = -1;
+        for (; i < fim; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                if (++digitos > 18) {
+                    break;
+                }
+                numero = numero * 10 + (b - '0');
+                if (casasDecimais >= 0) {
+                    casasDecimais++;
+                }
+            } else if (b == '.' && casasDecimais < 0) {
+                casasDecimais = 0;
+            } else {
+                break;
+            }
+        }
+
+        if (i == fim && digitos > 0 && casasDecimais != 0) {
+            return normalizarValor(BigDecimal.valueOf(negativo ? -numero : numero, Math.max(casasDecimais, 0)));
+        }
+
+        return parseValor(decodificar(buffer, inicio, fim, false));
+    }
+
+    private BigDecimal normalizarValor(BigDecimal numero) {
+        BigDecimal normalizado = numero.stripTrailingZeros();
+        if (normalizado.scale() > MAX_CASAS_DECIMAIS_VALOR
+                || normalizado.precision() - normalizado.scale() > MAX_DIGITOS_INTEIROS_VALOR) {
+            throw new IllegalArgumentException("Valor fora do limite permitido: " + numero.toPlainString());
+        }
+
+        return numero.setScale(MAX_CASAS_DECIMAIS_VALOR);
+    }
+
+    private String parseDescricao(String descricao) {
+        if (descricao.isEmpty()) {
+            throw new IllegalArgumentException("A descrição não pode ser vazia");
+        }
+        if (descricao.length() > MAX_TAMANHO_DESCRICAO) {
+            throw new IllegalArgumentException("Descrição maior que " + MAX_TAMANHO_DESCRICAO + " caracteres");
+        }
+
+        return descricao;
+    }
+
+    /**
+     * O id externo é opcional: coluna ausente ou vazia.
+     */
+    private String parseIdExterno(String idExterno) {
+        if (idExterno.isEmpty()) {
+            return null;
+        }
+        if (idExterno.length() > MAX_TAMANHO_ID_EXTERNO) {
+            throw new IllegalArgumentException("Id externo maior que " + MAX_TAMANHO_ID_EXTERNO + " caracteres");
+        }
+
+        return idExterno;
+    }
+
+    private int pularEspacos(ByteBuffer buffer, int inicio, int fim) {
+        while (inicio < fim && (buffer.get(inicio) & 0xFF) <= ' ') {
+            inicio++;
+        }
+        return inicio;
+    }
+
+    private int recuarEspacos(ByteBuffer buffer, int inicio, int fim) {
+        while (fim > inicio && (buffer.get(fim - 1) & 0xFF) <= ' ') {
+            fim--;
+        }
+        return fim;
+    }
+
+    private String decodificar(ByteBuffer buffer, int inicio, int fim, boolean entreAspas) {
+        if (fim - inicio > MAX_BYTES_DESCRICAO) {
+            throw new IllegalArgumentException("Campo maior que " + MAX_TAMANHO_DESCRICAO + " caracteres");
+        }
+
+        byte[] bytes = new byte[fim - inicio];
+        int tamanho = 0;
+        for (int i = inicio; i < fim; i++) {
+            byte b = buffer.get(i);
+            bytes[tamanho++] = b;
+            if (entreAspas && b == '"') {
+                // aspas duplicadas dentro do campo
+                i++;
+            }
+        }
+
+        return new String(bytes, 0, tamanho, StandardCharsets.UTF_8);
+    }
+}
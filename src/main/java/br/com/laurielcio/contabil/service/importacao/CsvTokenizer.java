@@ -0,0 +1,160 @@
+package br.com.laurielcio.contabil.service.importacao;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Divide uma linha CSV em campos sem expressões regulares e sem copiar a linha. Campos entre
+ * aspas podem conter vírgulas e aspas duplicadas ({@code ""}); quebras de linha dentro de aspas
+ * não são suportadas, pois o arquivo é dividido em blocos por linha.
+ */
+final class CsvTokenizer {
+
+    private static final char SEPARADOR = ',';
+
+    private static final char ASPAS = '"';
+
+    private CsvTokenizer() {
+    }
+
+    /**
+     * Preenche {@code campos} com os campos da linha.
+     *
+     * @return a quantidade de campos da linha, que pode ser maior que {@code campos.length}
+     *         (os excedentes são apenas contados)
+     */
+    static int dividir(String linha, String[] campos) {
+        int tamanho = linha.length();
+        int quantidade = 0;
+        int i = 0;
+
+        while (true) {
+            String campo;
+
+            int inicio = pularEspacos(linha, i, tamanho);
+            if (inicio < tamanho && linha.charAt(inicio) == ASPAS) {
+                StringBuilder escapado = null;
+                int j = inicio + 1;
+
+                while (true) {
+                    int aspas = linha.indexOf(ASPAS, j);
+                    if (aspas < 0) {
+                        throw new IllegalArgumentException("Campo com aspas não fechadas");
+                    }
+                    if (aspas + 1 < tamanho && linha.charAt(aspas + 1) == ASPAS) {
+                        if (escapado == null) {
+                            escapado = new StringBuilder();
+                        }
+                        escapado.append(linha, j, aspas + 1);
+                        j = aspas + 2;
+                        continue;
+                    }
+
+                    campo = escapado == null ? linha.substring(j, aspas) : escapado.append(linha, j, aspas).toString();
+                    i = pularEspacos(linha, aspas + 1, tamanho);
+                    break;
+                }
+
+                if (i < tamanho && linha.charAt(i) != SEPARADOR) {
+                    throw new IllegalArgumentException("Caractere inesperado após campo entre aspas");
+                }
+            } else {
+                int separador = linha.indexOf(SEPARADOR, i);
+                int fim = separador < 0 ? tamanho : separador;
+                campo = linha.substring(i, fim);
+                i = fim;
+            }
+
+            if (quantidade < campos.length) {
+                campos[quantidade] = campo;
+            }
+            quantidade++;
+
+            if (i >= tamanho) {
+                return quantidade;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Versão sobre bytes (arquivo mapeado em memória): em vez de criar Strings, preenche
+     * {@code limites} com o trio (início, fim, entre aspas) de cada campo, em posições absolutas do
+     * buffer. O conteúdo de um campo entre aspas vai de depois da aspa de abertura até antes da de
+     * fechamento, ainda com as aspas duplicadas.
+     *
+     * @return a quantidade de campos da linha, que pode ser maior que {@code limites.length / 3}
+     */
+    static int dividir(ByteBuffer buffer, int inicio, int fim, int[] limites) {
+        int maxCampos = limites.length / 3;
+        int quantidade = 0;
+        int i = inicio;
+
+        while (true) {
+            int inicioCampo;
+            int fimCampo;
+            boolean entreAspas;
+
+            int k = pularEspacos(buffer, i, fim);
+            if (k < fim && buffer.get(k) == ASPAS) {
+                int j = k + 1;
+                while (true) {
+                    while (j < fim && buffer.get(j) != ASPAS) {
+                        j++;
+                    }
+                    if (j >= fim) {
+                        throw new IllegalArgumentException("Campo com aspas não fechadas");
+                    }
+                    if (j + 1 < fim && buffer.get(j + 1) == ASPAS) {
+                        j += 2;
+                        continue;
+                    }
+                    break;
+                }
+
+                inicioCampo = k + 1;
+                fimCampo = j;
+                entreAspas = true;
+                i = pularEspacos(buffer, j + 1, fim);
+
+                if (i < fim && buffer.get(i) != SEPARADOR) {
+                    throw new IllegalArgumentException("Caractere inesperado após campo entre aspas");
+                }
+            } else {
+                int j = i;
+                while (j < fim && buffer.get(j) != SEPARADOR) {
+                    j++;
+                }
+                inicioCampo = i;
+                fimCampo = j;
+                entreAspas = false;
+                i = j;
+            }
+
+            if (quantidade < maxCampos) {
+                limites[quantidade * 3] = inicioCampo;
+                limites[quantidade * 3 + 1] = fimCampo;
+                limites[quantidade * 3 + 2] = entreAspas ? 1 : 0;
+            }
+            quantidade++;
+
+            if (i >= fim) {
+                return quantidade;
+            }
+            i++;
+        }
+    }
+
+    private static int pularEspacos(ByteBuffer buffer, int posicao, int fim) {
+        while (posicao < fim && buffer.get(posicao) == ' ') {
+            posicao++;
+        }
+        return posicao;
+    }
+
+    private static int pularEspacos(String linha, int posicao, int tamanho) {
+        while (posicao < tamanho && linha.charAt(posicao) == ' ') {
+            posicao++;
+        }
+        return posicao;
+    }
+}
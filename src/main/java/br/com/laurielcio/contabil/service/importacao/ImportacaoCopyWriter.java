@@ -0,0 +1,138 @@
+package br.com.laurielcio.contabil.service.importacao;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.laurielcio.contabil.config.ImportacaoProperties;
+import br.com.laurielcio.contabil.entity.ContaEntity;
+import br.com.laurielcio.contabil.exception.ImportacaoContaException;
+import br.com.laurielcio.contabil.repository.ContaEventoSql;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Carga em massa via {@code COPY FROM STDIN}: as contas validadas são enviadas para uma tabela
+ * temporária e depois incorporadas a contas_a_pagar com um único INSERT ... SELECT, tudo na
+ * mesma transação (ou o arquivo inteiro entra, ou nada entra). Contas cuja chave natural já está
+ * gravada são ignoradas pelo ON CONFLICT DO NOTHING. As contas inseridas geram eventos IMPORTADAS,
+ * de {@code contabil.importacao.tamanho-lote} contas cada, na mesma instrução.
+ */
+@Slf4j
+@Component
+public class ImportacaoCopyWriter {
+
+    private static final String CRIAR_STAGING = "CREATE TEMP TABLE contas_a_pagar_staging ("
+            + "data_vencimento DATE, valor NUMERIC(10, 2), descricao VARCHAR(255), id_externo VARCHAR(100), "
+            + "hash_natural BYTEA) ON COMMIT DROP";
+
+    private static final String COPY_STAGING = "COPY contas_a_pagar_staging "
+            + "(data_vencimento, valor, descricao, id_externo, hash_natural) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String MERGE_STAGING = "WITH inseridas AS (INSERT INTO contas_a_pagar "
+            + "(data_vencimento, valor, descricao, situacao, id_externo, hash_natural) "
+            + "SELECT data_vencimento, valor, descricao, 'PENDENTE', id_externo, hash_natural FROM contas_a_pagar_staging "
+            + "ON CONFLICT (hash_natural, data_vencimento) DO NOTHING RETURNING *), "
+            + "eventos AS (%s) "
+            + "SELECT count(*) FROM inseridas";
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ImportacaoProperties properties;
+
+    /**
+     * Abre o COPY e entrega ao {@code produtor} um consumidor de lotes; ao retorno do produtor o
+     * COPY é encerrado e a staging é incorporada a contas_a_pagar.
+     *
+     * @return quantidade de contas inseridas em contas_a_pagar (sem as duplicadas)
+     */
+    @Transactional
+    public long importar(Long importacaoId, Consumer<Consumer<List<ContaEntity>>> produtor) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CRIAR_STAGING);
+
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING);
+            try {
+                StringBuilder buffer = new StringBuilder(TAMANHO_BUFFER + 512);
+
+                produtor.accept(lote -> {
+                    for (ContaEntity conta : lote) {
+                        escreverLinha(buffer, conta);
+                        if (buffer.length() >= TAMANHO_BUFFER) {
+                            enviar(copyIn, buffer);
+                        }
+                    }
+                });
+
+                enviar(copyIn, buffer);
+                long copiadas = copyIn.endCopy();
+                log.info("{} linhas copiadas para a staging", copiadas);
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+
+            return incorporar(connection, importacaoId);
+        } catch (SQLException e) {
+            log.error("Erro ao importar contas via COPY: {}", e.getMessage());
+            throw new ImportacaoContaException("Erro ao importar contas via COPY", e);
+        }
+    }
+
+    private long incorporar(Connection connection, Long importacaoId) throws SQLException {
+        String sql = String.format(MERGE_STAGING, ContaEventoSql.registrarImportadas("inseridas", properties.getTamanhoLote()));
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, importacaoId);
+            try (ResultSet resultado = statement.executeQuery()) {
+                resultado.next();
+                return resultado.getLong(1);
+            }
+        }
+    }
+
+    private void escreverLinha(StringBuilder buffer, ContaEntity conta) {
+        buffer.append(conta.getDataVencimento()).append(',')
+                .append(conta.getValor().toPlainString()).append(',')
+                .append('"').append(conta.getDescricao().replace("\"", "\"\"")).append('"').append(',');
+        // campo vazio sem aspas é NULL no COPY csv
+        if (conta.getIdExterno() != null) {
+            buffer.append('"').append(conta.getIdExterno().replace("\"", "\"\"")).append('"');
+        }
+        buffer.append(",\\x").append(ChaveNaturalConta.hexadecimal(conta.getHashNatural()))
+                .append('\n');
+    }
+
+    private void enviar(CopyIn copyIn, StringBuilder buffer) {
+        if (buffer.length() == 0) {
+            return;
+        }
+
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+        } catch (SQLException e) {
+            throw new ImportacaoContaException("Erro ao enviar linhas para o COPY", e);
+        }
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,236 @@
+package br.com.laurielcio.contabil.service.importacao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import br.com.laurielcio.contabil.config.ImportacaoProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pipeline de leitura do arquivo CSV:
+ * <ol>
+ * <li>uma thread leitora mapeia o arquivo em memória ({@link FileChannel#map}) e, varrendo os bytes
+ * em busca das quebras de linha, divide-o em blocos de {@code contabil.importacao.tamanho-lote} linhas,
+ * sem copiar nem decodificar o conteúdo;</li>
+ * <li>cada bloco é convertido em contas por um worker do ForkJoinPool de importação, lendo os campos
+ * direto do buffer mapeado;</li>
+ * <li>os blocos convertidos são entregues ao {@code destino}, na ordem do arquivo, na thread que chamou
+ * {@link #ler}, através de uma fila limitada ({@code contabil.importacao.lotes-em-memoria}): se a gravação
+ * atrasa, a leitura para.</li>
+ * </ol>
+ * O último lote é sempre entregue, mesmo vazio, para registrar a última linha lida.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImportacaoCsvProcessor {
+
+    /**
+     * Tamanho máximo de cada região mapeada; arquivos maiores são mapeados em partes, sempre
+     * terminando em uma quebra de linha.
+     */
+    private static final long TAMANHO_REGIAO = 256L * 1024 * 1024;
+
+    private static final byte QUEBRA_LINHA = '\n';
+
+    private static final AtomicLong SEQUENCIA_LEITORES = new AtomicLong();
+
+    @Autowired
+    private ContaCsvParser parser;
+
+    @Autowired
+    private ForkJoinPool importacaoParserPool;
+
+    @Autowired
+    private ImportacaoProperties properties;
+
+    /**
+     * @param linhasConfirmadas linhas já gravadas em uma execução anterior, que devem ser puladas
+     */
+    public void ler(Path arquivo, long linhasConfirmadas, Consumer<LoteImportacao> destino) throws IOException {
+        BlockingQueue<CompletableFuture<LoteImportacao>> fila = new ArrayBlockingQueue<>(properties.getLotesEmMemoria());
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            Thread leitor = new Thread(() -> produzir(canal, linhasConfirmadas, fila),
+                    "importacao-leitor-" + SEQUENCIA_LEITORES.incrementAndGet());
+            leitor.setDaemon(true);
+            leitor.start();
+
+            try {
+                LoteImportacao lote;
+                do {
+                    lote = aguardar(fila.take());
+                    destino.accept(lote);
+                } while (!lote.isUltimo());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ImportacaoInterrompidaException();
+            } finally {
+                leitor.interrupt();
+                fila.forEach(futuro -> futuro.cancel(false));
+            }
+        }
+    }
+
+    private void produzir(FileChannel canal, long linhasConfirmadas, BlockingQueue<CompletableFuture<LoteImportacao>> fila) {
+        int tamanhoLote = properties.getTamanhoLote();
+        // a linha 1 é o cabeçalho
+        long linhaAnterior = Math.max(1, linhasConfirmadas);
+
+        try {
+            long tamanhoArquivo = canal.size();
+            long posicao = 0;
+            long numeroLinha = 0;
+
+            while (posicao < tamanhoArquivo) {
+                long tamanhoRegiao = Math.min(TAMANHO_REGIAO, tamanhoArquivo - posicao);
+                boolean fimArquivo = posicao + tamanhoRegiao >= tamanhoArquivo;
+                MappedByteBuffer regiao = canal.map(FileChannel.MapMode.READ_ONLY, posicao, tamanhoRegiao);
+
+                int limite = fimArquivo ? (int) tamanhoRegiao : ultimaQuebraLinha(regiao, (int) tamanhoRegiao) + 1;
+                if (limite == 0) {
+                    throw new IOException("Linha maior que " + TAMANHO_REGIAO + " bytes a partir da posição " + posicao);
+                }
+
+                int inicioBloco = -1;
+                int linhasBloco = 0;
+                int inicioLinha = 0;
+
+                while (inicioLinha < limite) {
+                    int fimLinha = proximaQuebraLinha(regiao, inicioLinha, limite);
+                    numeroLinha++;
+
+                    if (numeroLinha > linhaAnterior) {
+                        if (inicioBloco < 0) {
+                            inicioBloco = inicioLinha;
+                        }
+                        if (++linhasBloco >= tamanhoLote) {
+                            fila.put(converter(regiao, inicioBloco, fimLinha, linhaAnterior, false));
+                            linhaAnterior = numeroLinha;
+                            inicioBloco = -1;
+                            linhasBloco = 0;
+                        }
+                    }
+
+                    inicioLinha = fimLinha + 1;
+                }
+
+                // um bloco nunca atravessa duas regiões
+                if (inicioBloco >= 0) {
+                    fila.put(converter(regiao, inicioBloco, limite, linhaAnterior, false));
+                    linhaAnterior = numeroLinha;
+                }
+
+                posicao += limite;
+            }
+
+            fila.put(converter(null, 0, 0, linhaAnterior, true));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            CompletableFuture<LoteImportacao> falha = new CompletableFuture<>();
+            falha.completeExceptionally(e);
+            try {
+                fila.put(falha);
+            } catch (InterruptedException interrompida) {
+                // a gravação já foi encerrada e não aguarda mais lotes
+                log.debug("Erro na leitura do arquivo CSV após o fim da gravação: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Converte as linhas entre as posições [inicio, fim) da região; a primeira delas é a linha
+     * seguinte a {@code linhaAnterior}.
+     */
+    private CompletableFuture<LoteImportacao> converter(ByteBuffer regiao, int inicio, int fim, long linhaAnterior, boolean ultimo) {
+        return CompletableFuture.supplyAsync(() -> {
+            LoteImportacao lote = new LoteImportacao(properties.getTamanhoLote(), linhaAnterior);
+
+            long numeroLinha = linhaAnterior;
+            int inicioLinha = inicio;
+            while (inicioLinha < fim) {
+                int fimLinha = proximaQuebraLinha(regiao, inicioLinha, fim);
+                numeroLinha++;
+
+                int fimConteudo = fimLinha;
+                if (fimConteudo > inicioLinha && regiao.get(fimConteudo - 1) == '\r') {
+                    fimConteudo--;
+                }
+
+                if (linhaEmBranco(regiao, inicioLinha, fimConteudo)) {
+                    lote.pular(numeroLinha);
+                } else {
+                    try {
+                        lote.adicionar(parser.parse(regiao, inicioLinha, fimConteudo), numeroLinha);
+                    } catch (IllegalArgumentException e) {
+                        lote.rejeitar(numeroLinha, e.getMessage());
+                    }
+                }
+
+                inicioLinha = fimLinha + 1;
+            }
+
+            if (ultimo) {
+                lote.marcarUltimo();
+            }
+            return lote;
+        }, importacaoParserPool);
+    }
+
+    private int proximaQuebraLinha(ByteBuffer buffer, int inicio, int limite) {
+        int i = inicio;
+        while (i < limite && buffer.get(i) != QUEBRA_LINHA) {
+            i++;
+        }
+        return i;
+    }
+
+    private int ultimaQuebraLinha(ByteBuffer buffer, int limite) {
+        int i = limite - 1;
+        while (i >= 0 && buffer.get(i) != QUEBRA_LINHA) {
+            i--;
+        }
+        return i;
+    }
+
+    private boolean linhaEmBranco(ByteBuffer buffer, int inicio, int fim) {
+        for (int i = inicio; i < fim; i++) {
+            byte b = buffer.get(i);
+            if (b != ' ' && b != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private LoteImportacao aguardar(CompletableFuture<LoteImportacao> futuro) throws IOException, InterruptedException {
+        try {
+            return futuro.get();
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException) {
+                throw (IOException) causa;
+            }
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new IllegalStateException(causa);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.laurielcio.contabil.service.importacao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.laurielcio.contabil.config.ImportacaoProperties;
+import br.com.laurielcio.contabil.exception.ImportacaoRecusadaException;
+import br.com.laurielcio.contabil.shard.DiretorioEmpresas;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Importa periodicamente os arquivos .csv deixados no diretório de entrada (com shards, nos
+ * subdiretórios das empresas).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "contabil.importacao.entrada.agendamento-habilitado", havingValue = "true")
+public class ImportacaoDiretorioScheduler {
+
+    @Autowired
+    private ImportacaoJobManager importacaoJobManager;
+
+    @Autowired
+    private ImportacaoProperties properties;
+
+    @Autowired(required = false)
+    private DiretorioEmpresas diretorioEmpresas;
+
+    @Scheduled(fixedDelayString = "${contabil.importacao.entrada.intervalo-ms:60000}")
+    public void importarNovosArquivos() {
+        if (diretorioEmpresas != null) {
+            diretorioEmpresas.executarEmCada(this::importarArquivosDaEmpresa);
+        } else {
+            importarArquivosDaEmpresa();
+        }
+    }
+
+    private void importarArquivosDaEmpresa() {
+        for (String arquivo : importacaoJobManager.listarArquivosEntrada()) {
+            log.info("Importando o arquivo {} do diretório de entrada...", arquivo);
+            try {
+                importacaoJobManager.iniciarDoDiretorio(arquivo, properties.getEntrada().getModo());
+            } catch (ImportacaoRecusadaException e) {
+                log.warn("Fila de importações cheia; o arquivo {} será importado na próxima verificação", arquivo);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.laurielcio.contabil.service.importacao;
+
+/**
+ * A thread da importação foi interrompida (parada da aplicação); a importação permanece pendente
+ * e é retomada no próximo início.
+ */
+class ImportacaoInterrompidaException extends RuntimeException {
+
+    private static final long serialVersionUID = -3264118541906307385L;
+
+    ImportacaoInterrompidaException() {
+        super("Importação interrompida");
+    }
+}
@@ -0,0 +1,214 @@
+package br.com.laurielcio.contabil.service.importacao;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import br.com.laurielcio.contabil.config.ImportacaoProperties;
+import br.com.laurielcio.contabil.entity.ImportacaoEntity;
+import br.com.laurielcio.contabil.entity.ModoImportacaoEnum;
+import br.com.laurielcio.contabil.entity.OrigemImportacaoEnum;
+import br.com.laurielcio.contabil.entity.StatusImportacaoEnum;
+import br.com.laurielcio.contabil.exception.ImportacaoContaException;
+import br.com.laurielcio.contabil.exception.ImportacaoNotFoundException;
+import br.com.laurielcio.contabil.exception.ImportacaoRecusadaException;
+import br.com.laurielcio.contabil.repository.ImportacaoRejeicaoRepository;
+import br.com.laurielcio.contabil.repository.ImportacaoRepository;
+import br.com.laurielcio.contabil.response.ImportacaoResponse;
+import br.com.laurielcio.contabil.shard.DiretorioEmpresas;
+import br.com.laurielcio.contabil.shard.EmpresaContexto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registra as importações, guarda o arquivo recebido em {@code contabil.importacao.diretorio} (ou
+ * usa o arquivo do diretório de entrada, sem cópia) e as submete ao executor de importações (fila limitada). Importações que estavam aguardando ou em
+ * execução quando a aplicação parou são submetidas novamente na inicialização.
+ * <p>
+ * Com shards, cada empresa tem seu subdiretório no diretório de entrada, e as importações pendentes
+ * são retomadas empresa a empresa.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImportacaoJobManager {
+
+    private static final List<StatusImportacaoEnum> STATUS_PENDENTES =
+            Arrays.asList(StatusImportacaoEnum.AGUARDANDO, StatusImportacaoEnum.PROCESSANDO);
+
+    @Autowired
+    private ImportacaoRepository importacaoRepository;
+
+    @Autowired
+    private ImportacaoRejeicaoRepository importacaoRejeicaoRepository;
+
+    @Autowired
+    private ImportacaoJobRunner runner;
+
+    @Autowired
+    private ThreadPoolTaskExecutor importacaoExecutor;
+
+    @Autowired
+    private ImportacaoProperties properties;
+
+    @Autowired(required = false)
+    private DiretorioEmpresas diretorioEmpresas;
+
+    public ImportacaoResponse iniciar(MultipartFile file, ModoImportacaoEnum modo) {
+        Path arquivo = armazenar(file);
+
+        ImportacaoEntity importacao = importacaoRepository.save(
+                new ImportacaoEntity(file.getOriginalFilename(), arquivo.toString(), OrigemImportacaoEnum.UPLOAD, modo));
+
+        try {
+            submeter(importacao.getId());
+        } catch (TaskRejectedException e) {
+            importacaoRepository.finalizar(importacao.getId(), StatusImportacaoEnum.FALHA,
+                    "Fila de importações cheia", LocalDateTime.now());
+            removerArquivo(arquivo);
+            throw new ImportacaoRecusadaException("Fila de importações cheia, tente novamente mais tarde.", e);
+        }
+
+        return new ImportacaoResponse(importacao);
+    }
+
+    /**
+     * Importa um arquivo do diretório de entrada ({@code contabil.importacao.entrada.diretorio}) sem
+     * copiá-lo: o arquivo é lido no próprio local e movido ao final da importação.
+     */
+    public ImportacaoResponse iniciarDoDiretorio(String nomeArquivo, ModoImportacaoEnum modo) {
+        Path arquivo = resolverArquivoEntrada(nomeArquivo);
+
+        if (importacaoRepository.existsByCaminhoArquivoAndStatusIn(arquivo.toString(), STATUS_PENDENTES)) {
+            throw new ImportacaoContaException("O arquivo " + nomeArquivo + " já está sendo importado");
+        }
+
+        ImportacaoEntity importacao = importacaoRepository.save(
+                new ImportacaoEntity(nomeArquivo, arquivo.toString(), OrigemImportacaoEnum.DIRETORIO, modo));
+
+        try {
+            submeter(importacao.getId());
+        } catch (TaskRejectedException e) {
+            importacaoRepository.finalizar(importacao.getId(), StatusImportacaoEnum.FALHA,
+                    "Fila de importações cheia", LocalDateTime.now());
+            throw new ImportacaoRecusadaException("Fila de importações cheia, tente novamente mais tarde.", e);
+        }
+
+        return new ImportacaoResponse(importacao);
+    }
+
+    /**
+     * Lista os arquivos .csv prontos no diretório de entrada que ainda não têm importação pendente.
+     */
+    public List<String> listarArquivosEntrada() {
+        Path diretorio = diretorioEntrada();
+        long limiteModificacao = System.currentTimeMillis() - properties.getEntrada().getTempoEstabilizacaoMs();
+
+        List<String> arquivos = new ArrayList<>();
+        if (EmpresaContexto.atual() != null && !Files.isDirectory(diretorio)) {
+            return arquivos;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(diretorio, "*.csv")) {
+            for (Path arquivo : stream) {
+                if (Files.isRegularFile(arquivo)
+                        && Files.getLastModifiedTime(arquivo).toMillis() < limiteModificacao
+                        && !importacaoRepository.existsByCaminhoArquivoAndStatusIn(arquivo.toString(), STATUS_PENDENTES)) {
+                    arquivos.add(arquivo.getFileName().toString());
+                }
+            }
+        } catch (IOException e) {
+            log.error("Erro ao listar o diretório de entrada {}: {}", diretorio, e.getMessage());
+        }
+        return arquivos;
+    }
+
+    private Path resolverArquivoEntrada(String nomeArquivo) {
+        Path diretorio = diretorioEntrada();
+        Path arquivo = diretorio.resolve(nomeArquivo).normalize();
+
+        if (!arquivo.getParent().equals(diretorio) || !Files.isRegularFile(arquivo)) {
+            throw new ImportacaoContaException("Arquivo não encontrado no diretório de entrada: " + nomeArquivo);
+        }
+        return arquivo;
+    }
+
+    private Path diretorioEntrada() {
+        String diretorio = properties.getEntrada().getDiretorio();
+        if (diretorio == null || diretorio.isEmpty()) {
+            throw new ImportacaoContaException("Diretório de entrada não configurado (contabil.importacao.entrada.diretorio)");
+        }
+        Path caminho = Paths.get(diretorio);
+        if (EmpresaContexto.atual() != null) {
+            caminho = caminho.resolve(EmpresaContexto.atual());
+        }
+        return caminho.toAbsolutePath().normalize();
+    }
+
+    public ImportacaoResponse obter(Long id) {
+        ImportacaoEntity importacao = importacaoRepository.findById(id)
+                .orElseThrow(() -> new ImportacaoNotFoundException("Nenhuma importação localizada com o id: " + id));
+
+        return new ImportacaoResponse(importacao, importacaoRejeicaoRepository.findByImportacaoIdOrderByLinha(id));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void retomarPendentes() {
+        if (diretorioEmpresas != null) {
+            diretorioEmpresas.executarEmCada(this::retomarPendentesDaEmpresa);
+        } else {
+            retomarPendentesDaEmpresa();
+        }
+    }
+
+    private void retomarPendentesDaEmpresa() {
+        for (ImportacaoEntity importacao : importacaoRepository.findByStatusInOrderById(STATUS_PENDENTES)) {
+            log.info("Retomando a importação {} ({})...", importacao.getId(), importacao.getStatus());
+            try {
+                submeter(importacao.getId());
+            } catch (TaskRejectedException e) {
+                log.warn("Fila de importações cheia; a importação {} será retomada no próximo início", importacao.getId());
+            }
+        }
+    }
+
+    private void submeter(Long importacaoId) {
+        importacaoExecutor.execute(() -> runner.executar(importacaoId));
+    }
+
+    private Path armazenar(MultipartFile file) {
+        try {
+            Path diretorio = Paths.get(properties.getDiretorio());
+            Files.createDirectories(diretorio);
+
+            Path arquivo = diretorio.resolve(UUID.randomUUID() + ".csv");
+            file.transferTo(arquivo);
+            return arquivo;
+        } catch (IOException e) {
+            log.error("Erro ao armazenar o arquivo CSV: {}", e.getMessage());
+            throw new ImportacaoContaException("Erro ao armazenar o arquivo CSV", e);
+        }
+    }
+
+    private void removerArquivo(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Não foi possível remover o arquivo {}: {}", arquivo, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package br.com.laurielcio.contabil.service.importacao;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import br.com.laurielcio.contabil.config.ImportacaoProperties;
+import br.com.laurielcio.contabil.entity.ImportacaoEntity;
+import br.com.laurielcio.contabil.entity.ModoImportacaoEnum;
+import br.com.laurielcio.contabil.entity.OrigemImportacaoEnum;
+import br.com.laurielcio.contabil.entity.StatusImportacaoEnum;
+import br.com.laurielcio.contabil.repository.ImportacaoRepository;
+import br.com.laurielcio.contabil.service.cache.ContaCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executa uma importação registrada em importacoes. No modo LOTE o progresso é confirmado a cada
+ * lote, e uma execução interrompida (reinício da aplicação) continua a partir da última linha
+ * confirmada; no modo COPY o arquivo é carregado em uma única transação e reiniciado do começo.
+ * Um arquivo com o mesmo conteúdo (SHA-256) de uma importação já concluída não é lido: a
+ * importação termina como IGNORADA. Arquivos diferentes com linhas já gravadas são importados, e
+ * as linhas repetidas são ignoradas pela chave natural.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImportacaoJobRunner {
+
+    static final String DIRETORIO_PROCESSADOS = "processados";
+
+    static final String DIRETORIO_ERROS = "erros";
+
+    private static final int TAMANHO_BUFFER_HASH = 1024 * 1024;
+
+    @Autowired
+    private ImportacaoRepository importacaoRepository;
+
+    @Autowired
+    private ImportacaoCsvProcessor processor;
+
+    @Autowired
+    private ImportacaoLoteWriter loteWriter;
+
+    @Autowired
+    private ImportacaoCopyWriter copyWriter;
+
+    @Autowired
+    private ImportacaoProperties properties;
+
+    @Autowired
+    private ContaCache contaCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public void executar(Long importacaoId) {
+        Optional<ImportacaoEntity> optionalImportacao = importacaoRepository.findById(importacaoId);
+
+        if (!optionalImportacao.isPresent()) {
+            log.warn("Importação {} não encontrada", importacaoId);
+            return;
+        }
+
+        ImportacaoEntity importacao = optionalImportacao.get();
+        Path arquivo = Paths.get(importacao.getCaminhoArquivo());
+
+        log.info("Iniciando a importação {} ({}) a partir da linha {}...", importacaoId, importacao.getModo(),
+                importacao.getUltimaLinhaConfirmada() + 1);
+
+        importacaoRepository.iniciar(importacaoId, StatusImportacaoEnum.PROCESSANDO, LocalDateTime.now());
+
+        try {
+            byte[] hashArquivo = hashArquivo(arquivo);
+            Long importacaoAnterior = importacaoRepository.findImportacaoIdByHashArquivo(hashArquivo);
+            if (importacaoAnterior != null) {
+                ignorar(importacao, arquivo, importacaoAnterior);
+                return;
+            }
+
+            ProgressoImportacao progresso = new ProgressoImportacao(importacao);
+
+            if (importacao.getModo() == ModoImportacaoEnum.COPY) {
+                importarViaCopy(arquivo, progresso);
+            } else {
+                importarEmLotes(arquivo, progresso);
+            }
+
+            importacaoRepository.finalizar(importacaoId, StatusImportacaoEnum.CONCLUIDA, null, LocalDateTime.now());
+            importacaoRepository.registrarArquivo(hashArquivo, importacaoId, LocalDateTime.now());
+            meterRegistry.counter("contabil.importacao", "status", StatusImportacaoEnum.CONCLUIDA.name()).increment();
+
+            log.info("Importação {} finalizada: {} linhas importadas, {} rejeitadas, {} duplicadas", importacaoId,
+                    progresso.getLinhasImportadas(), progresso.getLinhasRejeitadas(), progresso.getLinhasDuplicadas());
+
+            finalizarArquivo(importacao, arquivo, true);
+        } catch (ImportacaoInterrompidaException e) {
+            log.warn("Importação {} interrompida; será retomada no próximo início da aplicação", importacaoId);
+        } catch (Exception e) {
+            log.error("Erro na importação {}: {}", importacaoId, e.getMessage(), e);
+            importacaoRepository.finalizar(importacaoId, StatusImportacaoEnum.FALHA, mensagemErro(e), LocalDateTime.now());
+            meterRegistry.counter("contabil.importacao", "status", StatusImportacaoEnum.FALHA.name()).increment();
+            finalizarArquivo(importacao, arquivo, false);
+        } finally {
+            // as contas importadas são gravadas sem passar pelo cache
+            contaCache.limpar();
+        }
+    }
+
+    private void importarEmLotes(Path arquivo, ProgressoImportacao progresso) throws IOException {
+        processor.ler(arquivo, progresso.getUltimaLinhaConfirmada(), lote -> {
+            verificarInterrupcao();
+
+            Timer.Sample gravacao = Timer.start(meterRegistry);
+            long inseridas = loteWriter.gravar(lote, progresso);
+            gravacao.stop(meterRegistry.timer("contabil.importacao.lote"));
+
+            long duplicadas = lote.getContas().size() - inseridas;
+            progresso.confirmar(inseridas, lote.getRejeicoes().size(), duplicadas, lote.getUltimaLinha());
+            registrarLinhas(ModoImportacaoEnum.LOTE, inseridas, lote.getRejeicoes().size(), duplicadas);
+        });
+    }
+
+    private void importarViaCopy(Path arquivo, ProgressoImportacao progresso) {
+        int maxRejeicoes = properties.getMaxLinhasRejeitadas();
+        List<LinhaRejeitada> rejeicoes = new ArrayList<>();
+        long[] contagem = new long[3];
+
+        long inseridas = copyWriter.importar(progresso.getImportacaoId(), destino -> {
+            try {
+                processor.ler(arquivo, 0, lote -> {
+                    verificarInterrupcao();
+
+                    destino.accept(lote.getContas());
+                    contagem[0] += lote.getContas().size();
+                    contagem[1] += lote.getRejeicoes().size();
+                    contagem[2] = lote.getUltimaLinha();
+
+                    for (LinhaRejeitada rejeicao : lote.getRejeicoes()) {
+                        if (rejeicoes.size() < maxRejeicoes) {
+                            rejeicoes.add(rejeicao);
+                        }
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        long duplicadas = contagem[0] - inseridas;
+        loteWriter.registrarProgresso(progresso, inseridas, contagem[1], duplicadas, rejeicoes, contagem[2]);
+        progresso.confirmar(inseridas, contagem[1], duplicadas, contagem[2]);
+        registrarLinhas(ModoImportacaoEnum.COPY, inseridas, contagem[1], duplicadas);
+    }
+
+    private void ignorar(ImportacaoEntity importacao, Path arquivo, Long importacaoAnterior) {
+        log.info("Importação {} ignorada: arquivo idêntico ao da importação {}", importacao.getId(), importacaoAnterior);
+
+        importacaoRepository.finalizar(importacao.getId(), StatusImportacaoEnum.IGNORADA,
+                "Arquivo idêntico ao da importação " + importacaoAnterior, LocalDateTime.now());
+        meterRegistry.counter("contabil.importacao", "status", StatusImportacaoEnum.IGNORADA.name()).increment();
+        finalizarArquivo(importacao, arquivo, true);
+    }
+
+    private byte[] hashArquivo(Path arquivo) throws IOException {
+        MessageDigest digest = ChaveNaturalConta.sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_BUFFER_HASH);
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            while (canal.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Linhas gravadas, rejeitadas e duplicadas (contabil.importacao.linhas); a taxa de linhas por
+     * segundo é obtida com rate() sobre o contador.
+     */
+    private void registrarLinhas(ModoImportacaoEnum modo, long importadas, long rejeitadas, long duplicadas) {
+        meterRegistry.counter("contabil.importacao.linhas", "modo", modo.name(), "resultado", "importada").increment(importadas);
+        meterRegistry.counter("contabil.importacao.linhas", "modo", modo.name(), "resultado", "rejeitada").increment(rejeitadas);
+        meterRegistry.counter("contabil.importacao.linhas", "modo", modo.name(), "resultado", "duplicada").increment(duplicadas);
+    }
+
+    private void verificarInterrupcao() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new ImportacaoInterrompidaException();
+        }
+    }
+
+    private String mensagemErro(Exception e) {
+        String mensagem = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        return mensagem.length() > 1000 ? mensagem.substring(0, 1000) : mensagem;
+    }
+
+    /**
+     * Arquivos enviados por upload são removidos; arquivos lidos do diretório de entrada são movidos
+     * para {@code processados} ou {@code erros}, para não serem importados novamente.
+     */
+    private void finalizarArquivo(ImportacaoEntity importacao, Path arquivo, boolean sucesso) {
+        try {
+            if (importacao.getOrigem() == OrigemImportacaoEnum.DIRETORIO) {
+                Path destino = arquivo.resolveSibling(sucesso ? DIRETORIO_PROCESSADOS : DIRETORIO_ERROS);
+                Files.createDirectories(destino);
+                Files.move(arquivo, destino.resolve(importacao.getId() + "-" + arquivo.getFileName()),
+                        StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.deleteIfExists(arquivo);
+            }
+        } catch (IOException e) {
+            log.warn("Não foi possível finalizar o arquivo {}: {}", arquivo, e.getMessage());
+        }
+    }
+}
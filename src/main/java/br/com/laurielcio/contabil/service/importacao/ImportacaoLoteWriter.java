@@ -0,0 +1,129 @@
+package br.com.laurielcio.contabil.service.importacao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.laurielcio.contabil.config.ImportacaoProperties;
+import br.com.laurielcio.contabil.entity.ContaEntity;
+import br.com.laurielcio.contabil.entity.ImportacaoRejeicaoEntity;
+import br.com.laurielcio.contabil.exception.ImportacaoContaException;
+import br.com.laurielcio.contabil.repository.ContaEventoSql;
+import br.com.laurielcio.contabil.repository.ImportacaoRejeicaoRepository;
+import br.com.laurielcio.contabil.repository.ImportacaoRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Grava um lote de contas em uma única transação, junto com o progresso da importação: se o lote
+ * for confirmado, a retomada continua a partir da linha seguinte a ele. O lote inteiro é enviado em
+ * um único INSERT ... SELECT FROM unnest(arrays), e as contas cuja chave natural já está gravada
+ * (reimportação do arquivo, retomada após falha ou linhas repetidas no próprio lote) são ignoradas
+ * pelo ON CONFLICT DO NOTHING, sem consulta prévia. A mesma instrução grava o evento IMPORTADAS
+ * com as contas inseridas.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImportacaoLoteWriter {
+
+    private static final String INSERIR_CONTAS = "WITH inseridas AS (INSERT INTO contas_a_pagar "
+            + "(data_vencimento, valor, descricao, situacao, id_externo, hash_natural) "
+            + "SELECT data_vencimento, valor, descricao, 'PENDENTE', id_externo, decode(hash_natural, 'hex') "
+            + "FROM unnest(CAST(? AS date[]), CAST(? AS numeric[]), CAST(? AS varchar[]), CAST(? AS varchar[]), CAST(? AS text[])) "
+            + "AS t (data_vencimento, valor, descricao, id_externo, hash_natural) "
+            + "ON CONFLICT (hash_natural, data_vencimento) DO NOTHING RETURNING *), "
+            + "eventos AS (%s) "
+            + "SELECT count(*) FROM inseridas";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ImportacaoRepository importacaoRepository;
+
+    @Autowired
+    private ImportacaoRejeicaoRepository importacaoRejeicaoRepository;
+
+    @Autowired
+    private ImportacaoProperties properties;
+
+    /**
+     * @return quantidade de contas inseridas; as demais contas do lote eram duplicadas
+     */
+    @Transactional
+    public long gravar(LoteImportacao lote, ProgressoImportacao progresso) {
+        List<ContaEntity> contas = lote.getContas();
+        long inseridas = contas.isEmpty() ? 0 : inserir(contas, progresso.getImportacaoId());
+
+        registrarProgresso(progresso, inseridas, lote.getRejeicoes().size(), contas.size() - inseridas,
+                lote.getRejeicoes(), lote.getUltimaLinha());
+        return inseridas;
+    }
+
+    private long inserir(List<ContaEntity> contas, Long importacaoId) {
+        int tamanho = contas.size();
+        String[] datasVencimento = new String[tamanho];
+        String[] valores = new String[tamanho];
+        String[] descricoes = new String[tamanho];
+        String[] idsExternos = new String[tamanho];
+        String[] hashes = new String[tamanho];
+
+        for (int i = 0; i < tamanho; i++) {
+            ContaEntity conta = contas.get(i);
+            datasVencimento[i] = conta.getDataVencimento().toString();
+            valores[i] = conta.getValor().toPlainString();
+            descricoes[i] = conta.getDescricao();
+            idsExternos[i] = conta.getIdExterno();
+            hashes[i] = ChaveNaturalConta.hexadecimal(conta.getHashNatural());
+        }
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        String sql = String.format(INSERIR_CONTAS, ContaEventoSql.registrarImportadas("inseridas", properties.getTamanhoLote()));
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setArray(1, connection.createArrayOf("text", datasVencimento));
+            statement.setArray(2, connection.createArrayOf("text", valores));
+            statement.setArray(3, connection.createArrayOf("text", descricoes));
+            statement.setArray(4, connection.createArrayOf("text", idsExternos));
+            statement.setArray(5, connection.createArrayOf("text", hashes));
+            statement.setLong(6, importacaoId);
+            try (ResultSet resultado = statement.executeQuery()) {
+                resultado.next();
+                return resultado.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw new ImportacaoContaException("Erro ao gravar o lote de contas", e);
+        }
+    }
+
+    /**
+     * @param rejeicoes detalhes das linhas rejeitadas; apenas as primeiras
+     *                  {@code contabil.importacao.max-linhas-rejeitadas} da importação são gravadas
+     */
+    @Transactional
+    public void registrarProgresso(ProgressoImportacao progresso, long importadas, long rejeitadas, long duplicadas,
+                                   List<LinhaRejeitada> rejeicoes, long ultimaLinha) {
+        Long importacaoId = progresso.getImportacaoId();
+
+        importacaoRepository.registrarProgresso(importacaoId, importadas + rejeitadas + duplicadas, importadas, rejeitadas,
+                duplicadas, ultimaLinha);
+
+        long restantes = properties.getMaxLinhasRejeitadas() - progresso.getLinhasRejeitadas();
+        List<ImportacaoRejeicaoEntity> detalhes = new ArrayList<>();
+        for (LinhaRejeitada rejeicao : rejeicoes) {
+            if (detalhes.size() >= restantes) {
+                break;
+            }
+            detalhes.add(new ImportacaoRejeicaoEntity(importacaoId, rejeicao.getLinha(), rejeicao.getMotivo()));
+        }
+        importacaoRejeicaoRepository.saveAll(detalhes);
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.laurielcio.contabil.service.importacao;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class LinhaRejeitada {
+
+    private final long linha;
+
+    private final String motivo;
+}
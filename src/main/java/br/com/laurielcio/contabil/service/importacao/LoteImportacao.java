@@ -0,0 +1,50 @@
+package br.com.laurielcio.contabil.service.importacao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import br.com.laurielcio.contabil.entity.ContaEntity;
+import lombok.Getter;
+
+/**
+ * Linhas consecutivas do arquivo, já convertidas: as contas válidas, as rejeitadas e o número da
+ * última linha lida (ponto de retomada depois que o lote for gravado).
+ */
+@Getter
+public class LoteImportacao {
+
+    private final List<ContaEntity> contas;
+
+    private final List<LinhaRejeitada> rejeicoes = new ArrayList<>();
+
+    private long ultimaLinha;
+
+    private boolean ultimo;
+
+    public LoteImportacao(int capacidade, long linhaAnterior) {
+        this.contas = new ArrayList<>(capacidade);
+        this.ultimaLinha = linhaAnterior;
+    }
+
+    public void adicionar(ContaEntity conta, long linha) {
+        contas.add(conta);
+        ultimaLinha = linha;
+    }
+
+    public void rejeitar(long linha, String motivo) {
+        rejeicoes.add(new LinhaRejeitada(linha, motivo));
+        ultimaLinha = linha;
+    }
+
+    public void pular(long linha) {
+        ultimaLinha = linha;
+    }
+
+    public void marcarUltimo() {
+        ultimo = true;
+    }
+
+    public int getQuantidadeLinhas() {
+        return contas.size() + rejeicoes.size();
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.laurielcio.contabil.service.importacao;
+
+import br.com.laurielcio.contabil.entity.ImportacaoEntity;
+import lombok.Getter;
+
+/**
+ * Contadores de uma importação em execução, atualizados somente depois que cada lote é confirmado.
+ */
+@Getter
+public class ProgressoImportacao {
+
+    private final Long importacaoId;
+
+    private long linhasProcessadas;
+
+    private long linhasImportadas;
+
+    private long linhasRejeitadas;
+
+    private long linhasDuplicadas;
+
+    private long ultimaLinhaConfirmada;
+
+    public ProgressoImportacao(ImportacaoEntity importacao) {
+        this.importacaoId = importacao.getId();
+        this.linhasProcessadas = importacao.getLinhasProcessadas();
+        this.linhasImportadas = importacao.getLinhasImportadas();
+        this.linhasRejeitadas = importacao.getLinhasRejeitadas();
+        this.linhasDuplicadas = importacao.getLinhasDuplicadas();
+        this.ultimaLinhaConfirmada = importacao.getUltimaLinhaConfirmada();
+    }
+
+    public void confirmar(long importadas, long rejeitadas, long duplicadas, long ultimaLinha) {
+        this.linhasProcessadas += importadas + rejeitadas + duplicadas;
+        this.linhasImportadas += importadas;
+        this.linhasRejeitadas += rejeitadas;
+        this.linhasDuplicadas += duplicadas;
+        this.ultimaLinhaConfirmada = ultimaLinha;
+    }
+}
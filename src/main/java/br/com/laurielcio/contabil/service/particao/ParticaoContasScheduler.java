@@ -0,0 +1,52 @@
+package br.com.laurielcio.contabil.service.particao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.laurielcio.contabil.repository.ContaRepository;
+import br.com.laurielcio.contabil.shard.DiretorioEmpresas;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Com contas_a_pagar particionada, mantém criadas as partições dos próximos meses e move para a
+ * partição do mês as contas que caíram na partição padrão. Com shards, em cada empresa.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.flyway.placeholders.particionamento", havingValue = "true")
+public class ParticaoContasScheduler {
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired(required = false)
+    private DiretorioEmpresas diretorioEmpresas;
+
+    @Value("${contabil.particionamento.meses-a-frente:3}")
+    private int mesesAFrente;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${contabil.particionamento.cron:0 0 3 * * *}")
+    public void criarParticoes() {
+        if (diretorioEmpresas != null) {
+            diretorioEmpresas.executarEmCada(this::criarParticoesDaEmpresa);
+        } else {
+            criarParticoesDaEmpresa();
+        }
+    }
+
+    private void criarParticoesDaEmpresa() {
+        Integer criadas = contaRepository.criarParticoes(mesesAFrente);
+
+        if (criadas != null && criadas > 0) {
+            log.info("{} partições de contas a pagar criadas", criadas);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.laurielcio.contabil.shard;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import br.com.laurielcio.contabil.exception.EmpresaConflitoException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cadastra empresas em um shard: migra o schema da empresa e só então a registra no catálogo,
+ * para que nenhuma requisição chegue a um schema incompleto.
+ * <p>
+ * Em shards com {@code schema-por-empresa} (padrão), cada empresa fica no schema empresa_&lt;empresa&gt;;
+ * nos demais, o banco é exclusivo de uma empresa, no schema public.
+ */
+@Slf4j
+public class CadastroEmpresas {
+
+    private static final Pattern EMPRESA = Pattern.compile("[A-Za-z0-9_]{1,50}");
+
+    private final DiretorioEmpresas diretorio;
+
+    private final MigracaoShards migracao;
+
+    public CadastroEmpresas(DiretorioEmpresas diretorio, MigracaoShards migracao) {
+        this.diretorio = diretorio;
+        this.migracao = migracao;
+    }
+
+    public LocalizacaoEmpresa cadastrar(String empresa, String shard) {
+        if (diretorio.existe(empresa)) {
+            throw new EmpresaConflitoException("Empresa já cadastrada: " + empresa);
+        }
+
+        LocalizacaoEmpresa localizacao = new LocalizacaoEmpresa(empresa, shard, schema(empresa, shard));
+        verificarDestino(localizacao);
+        migracao.migrar(shard, localizacao.getSchema());
+
+        if (!diretorio.cadastrar(localizacao)) {
+            throw new EmpresaConflitoException("Empresa já cadastrada: " + empresa);
+        }
+        log.info("Empresa {} cadastrada no shard {} (schema {})", empresa, shard, localizacao.getSchema());
+        return localizacao;
+    }
+
+    /**
+     * Migra os schemas de todas as empresas do catálogo; executado na inicialização.
+     */
+    public void migrarTodas() {
+        diretorio.listar().forEach(localizacao -> migracao.migrar(localizacao.getShard(), localizacao.getSchema()));
+    }
+
+    String schema(String empresa, String shard) {
+        if (!EMPRESA.matcher(empresa).matches()) {
+            throw new IllegalArgumentException("Empresa inválida (letras, números e _, até 50 caracteres): " + empresa);
+        }
+        return migracao.configuracao(shard).isSchemaPorEmpresa() ? "empresa_" + empresa.toLowerCase(Locale.ROOT) : "public";
+    }
+
+    /**
+     * O schema de destino não pode estar em uso por outra empresa (nomes que diferem só em
+     * maiúsculas, ou um shard sem schema por empresa já ocupado).
+     */
+    void verificarDestino(LocalizacaoEmpresa destino) {
+        diretorio.listar().stream()
+                .filter(localizacao -> !localizacao.getEmpresa().equals(destino.getEmpresa())
+                        && localizacao.getShard().equals(destino.getShard())
+                        && localizacao.getSchema().equals(destino.getSchema()))
+                .findFirst()
+                .ifPresent(localizacao -> {
+                    throw new EmpresaConflitoException("O schema " + destino.getSchema() + " do shard " + destino.getShard()
+                            + " já é usado pela empresa " + localizacao.getEmpresa());
+                });
+    }
+}
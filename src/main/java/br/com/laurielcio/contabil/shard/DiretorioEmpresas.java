@@ -0,0 +1,109 @@
+package br.com.laurielcio.contabil.shard;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import br.com.laurielcio.contabil.exception.EmpresaNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Catálogo de empresas (tabela empresas do banco de {@code spring.datasource}), mantido em memória
+ * para que o roteamento de cada conexão não consulte o banco. É relido periodicamente
+ * ({@code contabil.shards.intervalo-atualizacao-ms}), o que leva às demais instâncias as empresas
+ * cadastradas e movidas em outra; até lá, escritas de uma empresa movida são recusadas pela origem
+ * (ver {@link MovimentacaoEmpresas}).
+ */
+@Slf4j
+public class DiretorioEmpresas {
+
+    private static final String CONSULTA = "SELECT empresa, shard, schema_nome FROM empresas";
+
+    private static final String CADASTRO = "INSERT INTO empresas (empresa, shard, schema_nome, data_cadastro) "
+            + "VALUES (?, ?, ?, ?) ON CONFLICT (empresa) DO NOTHING";
+
+    private static final String MOVIMENTACAO = "UPDATE empresas SET shard = ?, schema_nome = ?, data_alteracao = ? "
+            + "WHERE empresa = ?";
+
+    private final DataSource catalogo;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Map<String, LocalizacaoEmpresa> empresas = Collections.emptyMap();
+
+    public DiretorioEmpresas(DataSource catalogo) {
+        this.catalogo = catalogo;
+        this.jdbcTemplate = new JdbcTemplate(catalogo);
+    }
+
+    @Scheduled(fixedDelayString = "${contabil.shards.intervalo-atualizacao-ms:5000}")
+    public void atualizar() {
+        Map<String, LocalizacaoEmpresa> lidas = new HashMap<>();
+        jdbcTemplate.query(CONSULTA, rs -> {
+            lidas.put(rs.getString(1), new LocalizacaoEmpresa(rs.getString(1), rs.getString(2), rs.getString(3)));
+        });
+        empresas = Collections.unmodifiableMap(lidas);
+    }
+
+    public boolean existe(String empresa) {
+        return empresas.containsKey(empresa);
+    }
+
+    public LocalizacaoEmpresa localizar(String empresa) {
+        LocalizacaoEmpresa localizacao = empresas.get(empresa);
+        if (localizacao == null) {
+            throw new EmpresaNotFoundException("Empresa não cadastrada: " + empresa);
+        }
+        return localizacao;
+    }
+
+    public List<LocalizacaoEmpresa> listar() {
+        List<LocalizacaoEmpresa> lista = new ArrayList<>(empresas.values());
+        lista.sort(Comparator.comparing(LocalizacaoEmpresa::getEmpresa));
+        return lista;
+    }
+
+    /**
+     * @return {@code false} se a empresa já estava cadastrada
+     */
+    boolean cadastrar(LocalizacaoEmpresa localizacao) {
+        int cadastradas = jdbcTemplate.update(CADASTRO, localizacao.getEmpresa(), localizacao.getShard(),
+                localizacao.getSchema(), Timestamp.valueOf(LocalDateTime.now()));
+        atualizar();
+        return cadastradas > 0;
+    }
+
+    void mover(LocalizacaoEmpresa destino) {
+        jdbcTemplate.update(MOVIMENTACAO, destino.getShard(), destino.getSchema(), Timestamp.valueOf(LocalDateTime.now()),
+                destino.getEmpresa());
+        atualizar();
+    }
+
+    /**
+     * Executa a ação uma vez para cada empresa, com a empresa no {@link EmpresaContexto}. O erro de
+     * uma empresa é registrado e não interrompe as demais.
+     */
+    public void executarEmCada(Runnable acao) {
+        for (LocalizacaoEmpresa localizacao : listar()) {
+            try {
+                EmpresaContexto.executar(localizacao.getEmpresa(), acao);
+            } catch (RuntimeException e) {
+                log.error("Erro ao executar a tarefa da empresa {}: {}", localizacao.getEmpresa(), e.getMessage(), e);
+            }
+        }
+    }
+
+    public DataSource getCatalogo() {
+        return catalogo;
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.laurielcio.contabil.shard;
+
+/**
+ * Empresa da requisição (ou tarefa) em andamento, usada pelo {@link ShardDataSource} para escolher
+ * o shard e o schema. É definida pelo {@link EmpresaFiltro} nas requisições de /contas e propagada
+ * às tarefas dos executores de importação e exportação por {@link #propagar(Runnable)}.
+ * <p>
+ * Sem empresa definida, as conexões vão para o banco de {@code spring.datasource}.
+ */
+public final class EmpresaContexto {
+
+    private static final ThreadLocal<String> EMPRESA = new ThreadLocal<>();
+
+    private EmpresaContexto() {
+    }
+
+    public static String atual() {
+        return EMPRESA.get();
+    }
+
+    public static void executar(String empresa, Runnable acao) {
+        String anterior = EMPRESA.get();
+        definir(empresa);
+        try {
+            acao.run();
+        } finally {
+            definir(anterior);
+        }
+    }
+
+    /**
+     * Decorador de tarefas: a tarefa executa com a empresa de quem a submeteu.
+     */
+    public static Runnable propagar(Runnable tarefa) {
+        String empresa = EMPRESA.get();
+        return empresa == null ? tarefa : () -> executar(empresa, tarefa);
+    }
+
+    /**
+     * Chave de cache de uma conta: os ids se repetem entre empresas de shards diferentes.
+     */
+    public static Object chave(Long id) {
+        String empresa = EMPRESA.get();
+        return empresa == null ? id : empresa + ":" + id;
+    }
+
+    static void definir(String empresa) {
+        if (empresa == null) {
+            EMPRESA.remove();
+        } else {
+            EMPRESA.set(empresa);
+        }
+    }
+}
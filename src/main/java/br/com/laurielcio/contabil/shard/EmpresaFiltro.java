@@ -0,0 +1,52 @@
+package br.com.laurielcio.contabil.shard;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Define a empresa da requisição a partir do cabeçalho {@code contabil.shards.cabecalho}: sem o
+ * cabeçalho, responde 400; com uma empresa fora do catálogo, 404.
+ * <p>
+ * O despacho assíncrono (exportação) não passa pelo filtro: a escrita da resposta recebe a empresa
+ * do decorador do executor de exportação.
+ */
+public class EmpresaFiltro extends OncePerRequestFilter {
+
+    private final String cabecalho;
+
+    private final DiretorioEmpresas diretorio;
+
+    public EmpresaFiltro(String cabecalho, DiretorioEmpresas diretorio) {
+        this.cabecalho = cabecalho;
+        this.diretorio = diretorio;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String empresa = request.getHeader(cabecalho);
+
+        if (empresa == null || empresa.trim().isEmpty()) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Cabeçalho " + cabecalho + " não informado");
+            return;
+        }
+        if (!diretorio.existe(empresa.trim())) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), "Empresa não cadastrada: " + empresa.trim());
+            return;
+        }
+
+        EmpresaContexto.definir(empresa.trim());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            EmpresaContexto.definir(null);
+        }
+    }
+}
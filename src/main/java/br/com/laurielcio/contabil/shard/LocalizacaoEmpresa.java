@@ -0,0 +1,13 @@
+package br.com.laurielcio.contabil.shard;
+
+import lombok.Value;
+
+@Value
+public class LocalizacaoEmpresa {
+
+    String empresa;
+
+    String shard;
+
+    String schema;
+}
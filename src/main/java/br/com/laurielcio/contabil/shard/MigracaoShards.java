@@ -0,0 +1,89 @@
+package br.com.laurielcio.contabil.shard;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+
+import br.com.laurielcio.contabil.config.ShardsProperties;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Migrações com os shards habilitados: o catálogo (db/catalogo) no banco de {@code spring.datasource}
+ * e as migrações das contas (db/migration) em cada schema de empresa, com os mesmos placeholders
+ * de {@code spring.flyway.placeholders}. Cada schema tem seu próprio flyway_schema_history.
+ */
+@Slf4j
+public class MigracaoShards {
+
+    private final Map<String, ShardsProperties.Shard> shards;
+
+    private final Map<String, String> placeholders;
+
+    private final boolean validarMigracoes;
+
+    public MigracaoShards(Map<String, ShardsProperties.Shard> shards, Map<String, String> placeholders, boolean validarMigracoes) {
+        this.shards = shards;
+        this.placeholders = placeholders;
+        this.validarMigracoes = validarMigracoes;
+    }
+
+    /**
+     * O banco do catálogo pode já ter as tabelas de contas de antes dos shards, com seu próprio
+     * histórico do Flyway; por isso o catálogo usa outra tabela de histórico.
+     */
+    public void migrarCatalogo(DataSource catalogo) {
+        Flyway.configure()
+                .dataSource(catalogo)
+                .locations("classpath:db/catalogo")
+                .table("flyway_catalogo_history")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+
+    public void migrar(String shard, String schema) {
+        ShardsProperties.Shard configuracao = configuracao(shard);
+        ShardDataSource.identificador(schema);
+
+        log.info("Migrando o schema {} do shard {}...", schema, shard);
+        criarExtensoes(configuracao);
+
+        Flyway.configure()
+                .dataSource(configuracao.getUrl(), configuracao.getUsername(), configuracao.getPassword())
+                .schemas(schema)
+                .locations("classpath:db/migration")
+                .placeholders(placeholders)
+                .validateOnMigrate(validarMigracoes)
+                .load()
+                .migrate();
+    }
+
+    /**
+     * Extensões existem uma vez por banco; criadas em public, ficam visíveis a todos os schemas
+     * (senão o CREATE EXTENSION da V7 as criaria no schema da primeira empresa migrada).
+     */
+    private void criarExtensoes(ShardsProperties.Shard configuracao) {
+        try (Connection connection = DriverManager.getConnection(configuracao.getUrl(), configuracao.getUsername(),
+                configuracao.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm SCHEMA public");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Erro ao criar as extensões do shard: " + e.getMessage(), e);
+        }
+    }
+
+    ShardsProperties.Shard configuracao(String shard) {
+        ShardsProperties.Shard configuracao = shards.get(shard);
+        if (configuracao == null) {
+            throw new IllegalArgumentException("Shard não configurado: " + shard);
+        }
+        return configuracao;
+    }
+}
@@ -0,0 +1,637 @@
+package br.com.laurielcio.contabil.shard;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyOut;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.laurielcio.contabil.config.ShardsProperties;
+import br.com.laurielcio.contabil.entity.EtapaMovimentacaoEnum;
+import br.com.laurielcio.contabil.entity.StatusMovimentacaoEnum;
+import br.com.laurielcio.contabil.exception.EmpresaConflitoException;
+import br.com.laurielcio.contabil.exception.EmpresaNotFoundException;
+import br.com.laurielcio.contabil.response.MovimentacaoEmpresaResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Move uma empresa para outro shard sem interromper as leituras, e as escritas só pelo tempo da
+ * troca:
+ * <ol>
+ * <li>o schema de destino é recriado e migrado, e gatilhos na origem passam a registrar em
+ * movimentacao_alteracoes a chave de cada linha alterada (V13);</li>
+ * <li>as tabelas são copiadas por COPY binário, a partir de um snapshot da origem;</li>
+ * <li>as linhas registradas são relidas da origem e reaplicadas no destino, em passagens, até
+ * restarem no máximo {@code contabil.shards.movimentacao.max-alteracoes-troca};</li>
+ * <li>na troca, um gatilho de bloqueio é criado na origem (a criação espera as escritas em
+ * andamento, limitada por {@code tempo-bloqueio-ms}), as últimas alterações e as sequências são
+ * levadas ao destino e o catálogo passa a apontar para ele.</li>
+ * </ol>
+ * O gatilho de bloqueio continua na origem: instâncias que ainda não releram o catálogo recebem
+ * erro (503) em vez de gravar no shard antigo. As leituras dessas instâncias, porém, continuam indo
+ * para a origem, que não recebe mais alterações, até a próxima releitura do catálogo (no máximo
+ * {@code contabil.shards.intervalo-atualizacao-ms} depois da troca): nesse intervalo elas podem não
+ * refletir o que já foi gravado no destino. Os dados da origem são mantidos, para remoção manual.
+ * <p>
+ * Uma empresa tem no máximo uma movimentação em andamento (advisory lock no catálogo); uma
+ * movimentação interrompida pode ser refeita do início.
+ */
+@Slf4j
+public class MovimentacaoEmpresas {
+
+    /**
+     * Tabelas das empresas, na ordem das chaves estrangeiras. As tabelas referenciadas por outras são
+     * atualizadas com upsert; contas_a_pagar (chave primária com data_vencimento, quando particionada)
+     * tem as linhas substituídas.
+     */
+    private static final List<TabelaEmpresa> TABELAS = Arrays.asList(
+            new TabelaEmpresa("contas_a_pagar", "id", false),
+            new TabelaEmpresa("importacoes", "id", true),
+            new TabelaEmpresa("importacoes_rejeicoes", "id", true),
+            new TabelaEmpresa("importacoes_arquivos", "hash_arquivo", true),
+            new TabelaEmpresa("contas_eventos", "id", true));
+
+    private static final String ERRO_TEMPO_BLOQUEIO = "55P03";
+
+    private static final String CONSULTA_COLUNAS = "SELECT column_name FROM information_schema.columns "
+            + "WHERE table_schema = current_schema() AND table_name = ? AND is_generated = 'NEVER' ORDER BY ordinal_position";
+
+    private static final String CONSULTA_MOVIMENTACAO = "SELECT id, empresa, shard_origem, shard_destino, status, etapa, "
+            + "linhas_copiadas, alteracoes_aplicadas, mensagem_erro, data_inicio, data_fim FROM movimentacoes_empresas WHERE id = ?";
+
+    private final DiretorioEmpresas diretorio;
+
+    private final CadastroEmpresas cadastro;
+
+    private final MigracaoShards migracao;
+
+    private final ShardDataSource shards;
+
+    private final ShardsProperties.Movimentacao configuracao;
+
+    private final JdbcTemplate catalogo;
+
+    public MovimentacaoEmpresas(DiretorioEmpresas diretorio, CadastroEmpresas cadastro, MigracaoShards migracao,
+                                ShardDataSource shards, ShardsProperties.Movimentacao configuracao) {
+        this.diretorio = diretorio;
+        this.cadastro = cadastro;
+        this.migracao = migracao;
+        this.shards = shards;
+        this.configuracao = configuracao;
+        this.catalogo = new JdbcTemplate(diretorio.getCatalogo());
+    }
+
+    /**
+     * Valida e inicia a movimentação, que segue em uma thread própria; o andamento é consultado em
+     * {@link #obter(Long)}.
+     */
+    public MovimentacaoEmpresaResponse iniciar(String empresa, String shardDestino) {
+        LocalizacaoEmpresa origem = diretorio.localizar(empresa);
+        if (origem.getShard().equals(shardDestino)) {
+            throw new EmpresaConflitoException("A empresa " + empresa + " já está no shard " + shardDestino);
+        }
+        LocalizacaoEmpresa destino = new LocalizacaoEmpresa(empresa, shardDestino, cadastro.schema(empresa, shardDestino));
+        cadastro.verificarDestino(destino);
+        if (migracao.configuracao(origem.getShard()).getUrl().equals(migracao.configuracao(shardDestino).getUrl())
+                && origem.getSchema().equals(destino.getSchema())) {
+            throw new EmpresaConflitoException("Os shards " + origem.getShard() + " e " + shardDestino + " usam o mesmo banco");
+        }
+
+        Connection trava = travar(empresa);
+        boolean iniciada = false;
+        try {
+            LocalDateTime agora = LocalDateTime.now();
+            // só há movimentação em andamento aqui se a instância que a executava parou
+            catalogo.update("UPDATE movimentacoes_empresas SET status = ?, mensagem_erro = ?, data_fim = ? "
+                            + "WHERE empresa = ? AND status = ?", StatusMovimentacaoEnum.FALHA.name(), "Movimentação interrompida",
+                    Timestamp.valueOf(agora), empresa, StatusMovimentacaoEnum.EM_ANDAMENTO.name());
+            Long id = catalogo.queryForObject("INSERT INTO movimentacoes_empresas (empresa, shard_origem, shard_destino, status, "
+                            + "etapa, data_inicio) VALUES (?, ?, ?, ?, ?, ?) RETURNING id", Long.class, empresa, origem.getShard(),
+                    shardDestino, StatusMovimentacaoEnum.EM_ANDAMENTO.name(), EtapaMovimentacaoEnum.PREPARACAO.name(),
+                    Timestamp.valueOf(agora));
+            MovimentacaoEmpresaResponse response = obter(id);
+
+            Thread thread = new Thread(() -> {
+                try {
+                    executar(new Progresso(id), origem, destino);
+                } finally {
+                    liberar(trava, empresa);
+                }
+            }, "movimentacao-" + empresa);
+            thread.start();
+            iniciada = true;
+
+            return response;
+        } finally {
+            if (!iniciada) {
+                liberar(trava, empresa);
+            }
+        }
+    }
+
+    public MovimentacaoEmpresaResponse obter(Long id) {
+        try {
+            return catalogo.queryForObject(CONSULTA_MOVIMENTACAO, (rs, linha) -> new MovimentacaoEmpresaResponse(
+                    rs.getLong("id"), rs.getString("empresa"), rs.getString("shard_origem"), rs.getString("shard_destino"),
+                    StatusMovimentacaoEnum.valueOf(rs.getString("status")), EtapaMovimentacaoEnum.valueOf(rs.getString("etapa")),
+                    rs.getLong("linhas_copiadas"), rs.getLong("alteracoes_aplicadas"), rs.getString("mensagem_erro"),
+                    rs.getTimestamp("data_inicio").toLocalDateTime(),
+                    rs.getTimestamp("data_fim") == null ? null : rs.getTimestamp("data_fim").toLocalDateTime()), id);
+        } catch (EmptyResultDataAccessException e) {
+            throw new EmpresaNotFoundException("Nenhuma movimentação localizada com o id: " + id);
+        }
+    }
+
+    private void executar(Progresso progresso, LocalizacaoEmpresa origem, LocalizacaoEmpresa destino) {
+        log.info("Movendo a empresa {} do shard {} para o shard {}...", origem.getEmpresa(), origem.getShard(), destino.getShard());
+
+        try {
+            preparar(origem, destino);
+
+            registrarEtapa(progresso, EtapaMovimentacaoEnum.COPIA);
+            copiar(origem, destino, progresso);
+
+            registrarEtapa(progresso, EtapaMovimentacaoEnum.ALTERACOES);
+            aplicarAlteracoes(origem, destino, progresso);
+
+            registrarEtapa(progresso, EtapaMovimentacaoEnum.TROCA);
+            trocar(origem, destino, progresso);
+
+            finalizar(progresso, StatusMovimentacaoEnum.CONCLUIDA, null);
+            log.info("Empresa {} movida para o shard {} ({} linhas copiadas, {} alterações reaplicadas)", origem.getEmpresa(),
+                    destino.getShard(), progresso.linhasCopiadas, progresso.alteracoesAplicadas);
+        } catch (SQLException | RuntimeException e) {
+            log.error("Erro ao mover a empresa {} para o shard {}: {}", origem.getEmpresa(), destino.getShard(), e.getMessage(), e);
+            finalizar(progresso, StatusMovimentacaoEnum.FALHA, e.getMessage());
+        } finally {
+            removerRegistroAlteracoes(origem);
+        }
+    }
+
+    /**
+     * Recria o destino vazio e instala, na origem, os gatilhos de registro de alterações. Gatilhos
+     * de uma tentativa anterior (inclusive o de bloqueio) são removidos antes.
+     */
+    private void preparar(LocalizacaoEmpresa origem, LocalizacaoEmpresa destino) throws SQLException {
+        boolean schemaExclusivo = !"public".equals(destino.getSchema());
+
+        if (schemaExclusivo) {
+            try (Connection connection = shards.conexao(destino.getShard(), "public");
+                 Statement statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA IF EXISTS " + ShardDataSource.identificador(destino.getSchema()) + " CASCADE");
+            }
+        }
+        migracao.migrar(destino.getShard(), destino.getSchema());
+        if (!schemaExclusivo) {
+            // shard exclusivo, ainda sem empresa no catálogo: restos de uma tentativa anterior
+            executar(destino, "TRUNCATE " + TABELAS.stream().map(TabelaEmpresa::getNome).collect(Collectors.joining(", ")));
+        }
+
+        try (Connection connection = conexao(origem);
+             Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            for (TabelaEmpresa tabela : TABELAS) {
+                statement.execute("DROP TRIGGER IF EXISTS movimentacao_bloquear ON " + tabela.getNome());
+                statement.execute("DROP TRIGGER IF EXISTS movimentacao_registrar ON " + tabela.getNome());
+            }
+            statement.execute("TRUNCATE movimentacao_alteracoes");
+            for (TabelaEmpresa tabela : TABELAS) {
+                statement.execute("CREATE TRIGGER movimentacao_registrar AFTER INSERT OR UPDATE OR DELETE ON " + tabela.getNome()
+                        + " FOR EACH ROW EXECUTE FUNCTION movimentacao_registrar('" + tabela.getNome() + "', '" + tabela.getChave() + "')");
+            }
+            connection.commit();
+        }
+    }
+
+    /**
+     * Copia todas as tabelas de um mesmo snapshot da origem, tomado depois da instalação dos
+     * gatilhos: o que mudar depois dele está registrado em movimentacao_alteracoes.
+     */
+    private void copiar(LocalizacaoEmpresa origem, LocalizacaoEmpresa destino, Progresso progresso) throws SQLException {
+        try (Connection leitura = conexao(origem);
+             Connection escrita = conexao(destino)) {
+            leitura.setAutoCommit(false);
+            leitura.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            leitura.setReadOnly(true);
+            escrita.setAutoCommit(false);
+
+            for (TabelaEmpresa tabela : TABELAS) {
+                String colunas = String.join(", ", colunas(leitura, tabela));
+                long linhas = bombear(leitura, "COPY (SELECT " + colunas + " FROM " + tabela.getNome() + ") TO STDOUT (FORMAT binary)",
+                        escrita, "COPY " + tabela.getNome() + " (" + colunas + ") FROM STDIN (FORMAT binary)");
+                progresso.linhasCopiadas += linhas;
+                log.info("Empresa {}: {} linhas de {} copiadas", origem.getEmpresa(), linhas, tabela.getNome());
+            }
+
+            escrita.commit();
+            leitura.commit();
+        }
+        registrarEtapa(progresso, EtapaMovimentacaoEnum.COPIA);
+    }
+
+    /**
+     * Reaplica as alterações registradas até que as pendentes caibam na troca; cada passagem
+     * processa as que estavam pendentes no seu início.
+     */
+    private void aplicarAlteracoes(LocalizacaoEmpresa origem, LocalizacaoEmpresa destino, Progresso progresso) throws SQLException {
+        try (Connection leitura = conexao(origem);
+             Connection escrita = conexao(destino)) {
+            prepararConexoes(leitura, escrita);
+
+            for (int passagem = 1; passagem <= configuracao.getMaxPassagens(); passagem++) {
+                long pendentes = contarPendentes(leitura);
+                log.info("Empresa {}: {} alterações pendentes (passagem {})", origem.getEmpresa(), pendentes, passagem);
+                if (pendentes <= configuracao.getMaxAlteracoesTroca()) {
+                    return;
+                }
+
+                long aplicadas = 0;
+                int lote;
+                while (aplicadas < pendentes && (lote = aplicarLote(leitura, escrita, progresso)) > 0) {
+                    aplicadas += lote;
+                }
+                registrarEtapa(progresso, EtapaMovimentacaoEnum.ALTERACOES);
+            }
+        }
+    }
+
+    /**
+     * Bloqueia as escritas na origem, leva ao destino as últimas alterações e as sequências e troca
+     * o shard da empresa no catálogo. O bloqueio só é confirmado depois que o destino está completo;
+     * se o tempo de espera pelo bloqueio se esgota, as alterações acumuladas são reaplicadas e a
+     * troca é tentada de novo.
+     */
+    private void trocar(LocalizacaoEmpresa origem, LocalizacaoEmpresa destino, Progresso progresso) throws SQLException {
+        try (Connection leitura = conexao(origem);
+             Connection escrita = conexao(destino)) {
+            prepararConexoes(leitura, escrita);
+
+            for (int tentativa = 1; ; tentativa++) {
+                try (Connection bloqueio = conexao(origem);
+                     Statement statement = bloqueio.createStatement()) {
+                    bloqueio.setAutoCommit(false);
+                    try {
+                        statement.execute("SET LOCAL lock_timeout = '" + configuracao.getTempoBloqueioMs() + "ms'");
+                        for (TabelaEmpresa tabela : TABELAS) {
+                            statement.execute("CREATE TRIGGER movimentacao_bloquear BEFORE INSERT OR UPDATE OR DELETE OR TRUNCATE ON "
+                                    + tabela.getNome() + " FOR EACH STATEMENT EXECUTE FUNCTION movimentacao_bloquear()");
+                        }
+                    } catch (SQLException e) {
+                        bloqueio.rollback();
+                        if (!ERRO_TEMPO_BLOQUEIO.equals(e.getSQLState()) || tentativa >= configuracao.getTentativasTroca()) {
+                            throw e;
+                        }
+                        log.warn("Empresa {}: tempo de espera pelo bloqueio das escritas esgotado (tentativa {})",
+                                origem.getEmpresa(), tentativa);
+                        while (aplicarLote(leitura, escrita, progresso) > 0) {
+                            // reaplica o que foi gravado durante a espera
+                        }
+                        continue;
+                    }
+
+                    try {
+                        while (aplicarLote(leitura, escrita, progresso) > 0) {
+                            // escritas bloqueadas: as alterações pendentes só diminuem
+                        }
+                        copiarSequencias(leitura, escrita);
+                        bloqueio.commit();
+                    } catch (SQLException | RuntimeException e) {
+                        bloqueio.rollback();
+                        throw e;
+                    }
+                }
+
+                diretorio.mover(destino);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reaplica no destino as linhas de até {@code tamanho-lote} alterações registradas, lidas da
+     * origem em um mesmo snapshot: linhas removidas na origem são removidas (dependentes antes), as
+     * demais inseridas ou atualizadas (referenciadas antes). As alterações processadas só saem do
+     * registro depois da confirmação no destino.
+     *
+     * @return quantidade de alterações processadas
+     */
+    int aplicarLote(Connection leitura, Connection escrita, Progresso progresso) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        Map<TabelaEmpresa, Set<String>> chaves = new LinkedHashMap<>();
+        TABELAS.forEach(tabela -> chaves.put(tabela, new LinkedHashSet<>()));
+
+        try (PreparedStatement ps = leitura.prepareStatement("SELECT id, tabela, chave FROM movimentacao_alteracoes ORDER BY id LIMIT ?")) {
+            ps.setInt(1, configuracao.getTamanhoLote());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                    chaves.get(tabela(rs.getString(2))).add(rs.getString(3));
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            leitura.commit();
+            return 0;
+        }
+
+        chaves.values().removeIf(Set::isEmpty);
+        Map<TabelaEmpresa, List<String>> colunas = new LinkedHashMap<>();
+        for (Map.Entry<TabelaEmpresa, Set<String>> entrada : chaves.entrySet()) {
+            TabelaEmpresa tabela = entrada.getKey();
+            colunas.put(tabela, colunas(leitura, tabela));
+            String lista = String.join(", ", colunas.get(tabela));
+
+            executar(escrita, "CREATE TEMPORARY TABLE " + tabela.getTemporaria() + " (LIKE " + tabela.getNome() + ") ON COMMIT DROP");
+            bombear(leitura, "COPY (SELECT " + lista + " FROM " + tabela.getNome() + " WHERE " + tabela.getChave() + " = ANY ("
+                            + tabela.lista(entrada.getValue()) + ")) TO STDOUT (FORMAT binary)",
+                    escrita, "COPY " + tabela.getTemporaria() + " (" + lista + ") FROM STDIN (FORMAT binary)");
+        }
+        leitura.commit();
+
+        List<TabelaEmpresa> alteradas = new ArrayList<>(chaves.keySet());
+        for (int i = alteradas.size() - 1; i >= 0; i--) {
+            TabelaEmpresa tabela = alteradas.get(i);
+            String remocao = "DELETE FROM " + tabela.getNome() + " WHERE " + tabela.getChave() + " = ANY ("
+                    + tabela.lista(chaves.get(tabela)) + ")";
+            if (tabela.isUpsert()) {
+                remocao += " AND " + tabela.getChave() + " NOT IN (SELECT " + tabela.getChave() + " FROM " + tabela.getTemporaria() + ")";
+            }
+            executar(escrita, remocao);
+        }
+        for (TabelaEmpresa tabela : alteradas) {
+            String lista = String.join(", ", colunas.get(tabela));
+            String insercao = "INSERT INTO " + tabela.getNome() + " (" + lista + ") SELECT " + lista + " FROM " + tabela.getTemporaria();
+            if (tabela.isUpsert()) {
+                insercao += " ON CONFLICT (" + tabela.getChave() + ") DO UPDATE SET " + colunas.get(tabela).stream()
+                        .filter(coluna -> !coluna.equals(tabela.getChave()))
+                        .map(coluna -> coluna + " = EXCLUDED." + coluna)
+                        .collect(Collectors.joining(", "));
+            }
+            executar(escrita, insercao);
+        }
+        escrita.commit();
+
+        try (PreparedStatement ps = leitura.prepareStatement("DELETE FROM movimentacao_alteracoes WHERE id = ANY (?)")) {
+            ps.setArray(1, leitura.createArrayOf("bigint", ids.toArray()));
+            ps.executeUpdate();
+        }
+        leitura.commit();
+
+        progresso.alteracoesAplicadas += ids.size();
+        return ids.size();
+    }
+
+    private void copiarSequencias(Connection leitura, Connection escrita) throws SQLException {
+        for (TabelaEmpresa tabela : TABELAS) {
+            String sequencia;
+            try (PreparedStatement ps = leitura.prepareStatement("SELECT pg_get_serial_sequence(?, ?)")) {
+                ps.setString(1, tabela.getNome());
+                ps.setString(2, tabela.getChave());
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    sequencia = rs.getString(1);
+                }
+            }
+            if (sequencia == null) {
+                continue;
+            }
+
+            try (Statement statement = leitura.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT last_value, is_called FROM " + sequencia);
+                 PreparedStatement ps = escrita.prepareStatement("SELECT setval(pg_get_serial_sequence(?, ?), ?, ?)")) {
+                rs.next();
+                ps.setString(1, tabela.getNome());
+                ps.setString(2, tabela.getChave());
+                ps.setLong(3, rs.getLong(1));
+                ps.setBoolean(4, rs.getBoolean(2));
+                ps.executeQuery().close();
+            }
+        }
+        leitura.commit();
+        escrita.commit();
+    }
+
+    /**
+     * Transfere o resultado de um COPY TO da origem para um COPY FROM do destino, em blocos, sem
+     * decodificar as linhas.
+     */
+    private long bombear(Connection origem, String copiaSaida, Connection destino, String copiaEntrada) throws SQLException {
+        CopyOut saida = origem.unwrap(PGConnection.class).getCopyAPI().copyOut(copiaSaida);
+        CopyIn entrada = null;
+        try {
+            entrada = destino.unwrap(PGConnection.class).getCopyAPI().copyIn(copiaEntrada);
+            byte[] dados;
+            while ((dados = saida.readFromCopy()) != null) {
+                entrada.writeToCopy(dados, 0, dados.length);
+            }
+            return entrada.endCopy();
+        } finally {
+            if (saida.isActive()) {
+                saida.cancelCopy();
+            }
+            if (entrada != null && entrada.isActive()) {
+                entrada.cancelCopy();
+            }
+        }
+    }
+
+    private List<String> colunas(Connection connection, TabelaEmpresa tabela) throws SQLException {
+        List<String> colunas = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(CONSULTA_COLUNAS)) {
+            ps.setString(1, tabela.getNome());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    colunas.add(rs.getString(1));
+                }
+            }
+        }
+        return colunas;
+    }
+
+    private long contarPendentes(Connection leitura) throws SQLException {
+        try (Statement statement = leitura.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT count(*) FROM movimentacao_alteracoes")) {
+            rs.next();
+            long pendentes = rs.getLong(1);
+            leitura.commit();
+            return pendentes;
+        }
+    }
+
+    private void prepararConexoes(Connection leitura, Connection escrita) throws SQLException {
+        leitura.setAutoCommit(false);
+        leitura.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        escrita.setAutoCommit(false);
+    }
+
+    private void executar(LocalizacaoEmpresa localizacao, String sql) throws SQLException {
+        try (Connection connection = conexao(localizacao)) {
+            executar(connection, sql);
+        }
+    }
+
+    private void executar(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * Remove da origem os gatilhos de registro e o registro de alterações; o gatilho de bloqueio,
+     * se criado, permanece.
+     */
+    private void removerRegistroAlteracoes(LocalizacaoEmpresa origem) {
+        try (Connection connection = conexao(origem);
+             Statement statement = connection.createStatement()) {
+            for (TabelaEmpresa tabela : TABELAS) {
+                statement.execute("DROP TRIGGER IF EXISTS movimentacao_registrar ON " + tabela.getNome());
+            }
+            statement.execute("TRUNCATE movimentacao_alteracoes");
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Não foi possível remover os gatilhos de movimentação da empresa {}: {}", origem.getEmpresa(), e.getMessage());
+        }
+    }
+
+    private Connection conexao(LocalizacaoEmpresa localizacao) throws SQLException {
+        return shards.conexao(localizacao.getShard(), localizacao.getSchema());
+    }
+
+    private Connection travar(String empresa) {
+        try {
+            Connection connection = diretorio.getCatalogo().getConnection();
+            try (PreparedStatement ps = connection.prepareStatement("SELECT pg_try_advisory_lock(hashtext(?))")) {
+                ps.setString(1, "movimentacao:" + empresa);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    if (rs.getBoolean(1)) {
+                        return connection;
+                    }
+                }
+            }
+            connection.close();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Erro ao registrar a movimentação da empresa " + empresa + ": " + e.getMessage(), e);
+        }
+        throw new EmpresaConflitoException("Já existe uma movimentação em andamento para a empresa " + empresa);
+    }
+
+    private void liberar(Connection trava, String empresa) {
+        try (Connection connection = trava;
+             PreparedStatement ps = connection.prepareStatement("SELECT pg_advisory_unlock(hashtext(?))")) {
+            ps.setString(1, "movimentacao:" + empresa);
+            ps.executeQuery().close();
+        } catch (SQLException e) {
+            log.warn("Erro ao liberar a movimentação da empresa {}: {}", empresa, e.getMessage());
+        }
+    }
+
+    private void registrarEtapa(Progresso progresso, EtapaMovimentacaoEnum etapa) {
+        catalogo.update("UPDATE movimentacoes_empresas SET etapa = ?, linhas_copiadas = ?, alteracoes_aplicadas = ? WHERE id = ?",
+                etapa.name(), progresso.linhasCopiadas, progresso.alteracoesAplicadas, progresso.id);
+    }
+
+    private void finalizar(Progresso progresso, StatusMovimentacaoEnum status, String mensagemErro) {
+        try {
+            catalogo.update("UPDATE movimentacoes_empresas SET status = ?, linhas_copiadas = ?, alteracoes_aplicadas = ?, "
+                            + "mensagem_erro = ?, data_fim = ? WHERE id = ?", status.name(), progresso.linhasCopiadas,
+                    progresso.alteracoesAplicadas, mensagemErro == null ? null : mensagemErro.substring(0, Math.min(1000, mensagemErro.length())),
+                    Timestamp.valueOf(LocalDateTime.now()), progresso.id);
+        } catch (RuntimeException e) {
+            log.error("Erro ao registrar o fim da movimentação {}: {}", progresso.id, e.getMessage());
+        }
+    }
+
+    private static TabelaEmpresa tabela(String nome) {
+        return TABELAS.stream()
+                .filter(tabela -> tabela.getNome().equals(nome))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Tabela desconhecida no registro de alterações: " + nome));
+    }
+
+    static class Progresso {
+
+        private final Long id;
+
+        private long linhasCopiadas;
+
+        private long alteracoesAplicadas;
+
+        Progresso(Long id) {
+            this.id = id;
+        }
+    }
+
+    static class TabelaEmpresa {
+
+        private static final Pattern CHAVE_NUMERICA = Pattern.compile("-?[0-9]{1,19}");
+
+        private static final Pattern CHAVE_BINARIA = Pattern.compile("\\\\x[0-9a-f]*");
+
+        private final String nome;
+
+        private final String chave;
+
+        private final boolean upsert;
+
+        TabelaEmpresa(String nome, String chave, boolean upsert) {
+            this.nome = nome;
+            this.chave = chave;
+            this.upsert = upsert;
+        }
+
+        String getNome() {
+            return nome;
+        }
+
+        String getChave() {
+            return chave;
+        }
+
+        boolean isUpsert() {
+            return upsert;
+        }
+
+        String getTemporaria() {
+            return "movimentacao_" + nome;
+        }
+
+        /**
+         * Chaves como literal de array, para uso dentro do COPY (que não aceita parâmetros). As
+         * chaves vêm do registro de alterações (bigint ou bytea em texto) e são validadas antes.
+         */
+        String lista(Collection<String> chaves) {
+            StringBuilder lista = new StringBuilder("ARRAY[");
+            for (String chave : chaves) {
+                if (lista.length() > "ARRAY[".length()) {
+                    lista.append(',');
+                }
+                if (CHAVE_NUMERICA.matcher(chave).matches()) {
+                    lista.append(chave);
+                } else if (CHAVE_BINARIA.matcher(chave).matches()) {
+                    lista.append('\'').append(chave).append("'::bytea");
+                } else {
+                    throw new IllegalStateException("Chave inválida no registro de alterações de " + nome + ": " + chave);
+                }
+            }
+            return lista.append(']').toString();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package br.com.laurielcio.contabil.shard;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * Entrega as conexões do shard da empresa em {@link EmpresaContexto}, já com o search_path no
+ * schema dela (e public, onde ficam as extensões); sem empresa, as do banco de
+ * {@code spring.datasource} (catálogo). Assim JPA, consultas nativas e JDBC direto (importação)
+ * chegam ao banco da empresa sem conhecer os shards.
+ * <p>
+ * O schema aplicado é lembrado por conexão física, e o SET só é executado quando o pool entrega
+ * uma conexão usada antes por outra empresa. A conexão chega aqui em autocommit (padrão dos pools
+ * de shard), então o SET não é desfeito pelo rollback da transação seguinte.
+ * <p>
+ * Deve ser usado atrás de um {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * como o {@link br.com.laurielcio.contabil.replica.RoteamentoDataSource}.
+ */
+public class ShardDataSource extends AbstractDataSource {
+
+    /**
+     * SQLState do gatilho de bloqueio instalado na origem ao final de uma movimentação (V13).
+     */
+    private static final String ERRO_EMPRESA_MOVIDA = "CT001";
+
+    private static final Pattern SCHEMA = Pattern.compile("[a-z0-9_]+");
+
+    private final DataSource padrao;
+
+    private final Map<String, DataSource> shards;
+
+    private final DiretorioEmpresas diretorio;
+
+    private final Map<PGConnection, String> schemas = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public ShardDataSource(DataSource padrao, Map<String, DataSource> shards, DiretorioEmpresas diretorio) {
+        this.padrao = padrao;
+        this.shards = shards;
+        this.diretorio = diretorio;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String empresa = EmpresaContexto.atual();
+        if (empresa == null) {
+            return padrao.getConnection();
+        }
+
+        LocalizacaoEmpresa localizacao = diretorio.localizar(empresa);
+        return conexao(localizacao.getShard(), localizacao.getSchema());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return padrao.getConnection(username, password);
+    }
+
+    /**
+     * Conexão de um shard e schema quaisquer, independente do {@link EmpresaContexto}.
+     */
+    public Connection conexao(String shard, String schema) throws SQLException {
+        DataSource dataSource = shards.get(shard);
+        if (dataSource == null) {
+            throw new SQLException("Shard não configurado: " + shard);
+        }
+
+        Connection connection = dataSource.getConnection();
+        try {
+            aplicarSchema(connection, schema);
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    private void aplicarSchema(Connection connection, String schema) throws SQLException {
+        PGConnection fisica = connection.unwrap(PGConnection.class);
+        if (schema.equals(schemas.get(fisica))) {
+            return;
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET search_path TO " + identificador(schema) + ", public");
+        }
+        schemas.put(fisica, schema);
+    }
+
+    static String identificador(String schema) {
+        if (!SCHEMA.matcher(schema).matches()) {
+            throw new IllegalArgumentException("Nome de schema inválido: " + schema);
+        }
+        return "\"" + schema + "\"";
+    }
+
+    /**
+     * Indica se o erro veio de uma escrita recusada pela origem de uma empresa já movida, o que
+     * ocorre enquanto esta instância ainda não releu o catálogo.
+     */
+    public static boolean empresaMovida(Throwable erro) {
+        for (Throwable causa = erro; causa != null; causa = causa.getCause()) {
+            if (causa instanceof SQLException && ERRO_EMPRESA_MOVIDA.equals(((SQLException) causa).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
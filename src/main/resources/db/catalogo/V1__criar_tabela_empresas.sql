@@ -0,0 +1,24 @@
+-- Catálogo de empresas (banco de spring.datasource): em qual shard e schema está cada empresa.
+CREATE TABLE empresas (
+                          empresa VARCHAR(50) PRIMARY KEY,
+                          shard VARCHAR(50) NOT NULL,
+                          schema_nome VARCHAR(63) NOT NULL,
+                          data_cadastro TIMESTAMP NOT NULL,
+                          data_alteracao TIMESTAMP
+);
+
+CREATE TABLE movimentacoes_empresas (
+                                        id BIGSERIAL PRIMARY KEY,
+                                        empresa VARCHAR(50) NOT NULL REFERENCES empresas (empresa),
+                                        shard_origem VARCHAR(50) NOT NULL,
+                                        shard_destino VARCHAR(50) NOT NULL,
+                                        status VARCHAR(20) NOT NULL,
+                                        etapa VARCHAR(20) NOT NULL,
+                                        linhas_copiadas BIGINT NOT NULL DEFAULT 0,
+                                        alteracoes_aplicadas BIGINT NOT NULL DEFAULT 0,
+                                        mensagem_erro VARCHAR(1000),
+                                        data_inicio TIMESTAMP NOT NULL,
+                                        data_fim TIMESTAMP
+);
+
+CREATE INDEX idx_movimentacoes_empresas_empresa ON movimentacoes_empresas (empresa, status);
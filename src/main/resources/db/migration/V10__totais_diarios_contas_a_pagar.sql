@@ -0,0 +1,131 @@
+-- Totais de contas_a_pagar por dia de vencimento e situação, mantidos pelos gatilhos abaixo a
+-- cada comando (um comando com várias linhas, como os lotes da importação, gera uma única
+-- atualização por dia e situação).
+CREATE TABLE contas_a_pagar_totais_diarios (
+                                data_vencimento DATE NOT NULL,
+                                situacao VARCHAR(50) NOT NULL,
+                                quantidade BIGINT NOT NULL,
+                                valor_total NUMERIC(18, 2) NOT NULL,
+                                PRIMARY KEY (data_vencimento, situacao)
+);
+
+CREATE OR REPLACE FUNCTION contas_a_pagar_totais_aplicar() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO contas_a_pagar_totais_diarios AS t (data_vencimento, situacao, quantidade, valor_total)
+        SELECT data_vencimento, situacao, count(*), sum(valor)
+        FROM novas
+        WHERE data_vencimento IS NOT NULL
+        GROUP BY data_vencimento, situacao
+        ON CONFLICT (data_vencimento, situacao) DO UPDATE
+        SET quantidade = t.quantidade + EXCLUDED.quantidade, valor_total = t.valor_total + EXCLUDED.valor_total;
+    ELSIF TG_OP = 'UPDATE' THEN
+        INSERT INTO contas_a_pagar_totais_diarios AS t (data_vencimento, situacao, quantidade, valor_total)
+        SELECT data_vencimento, situacao, sum(quantidade), sum(valor)
+        FROM (SELECT data_vencimento, situacao, 1 AS quantidade, valor FROM novas
+              UNION ALL
+              SELECT data_vencimento, situacao, -1, -valor FROM antigas) d
+        WHERE data_vencimento IS NOT NULL
+        GROUP BY data_vencimento, situacao
+        HAVING sum(quantidade) <> 0 OR sum(valor) <> 0
+        ON CONFLICT (data_vencimento, situacao) DO UPDATE
+        SET quantidade = t.quantidade + EXCLUDED.quantidade, valor_total = t.valor_total + EXCLUDED.valor_total;
+    ELSE
+        INSERT INTO contas_a_pagar_totais_diarios AS t (data_vencimento, situacao, quantidade, valor_total)
+        SELECT data_vencimento, situacao, -count(*), -sum(valor)
+        FROM antigas
+        WHERE data_vencimento IS NOT NULL
+        GROUP BY data_vencimento, situacao
+        ON CONFLICT (data_vencimento, situacao) DO UPDATE
+        SET quantidade = t.quantidade + EXCLUDED.quantidade, valor_total = t.valor_total + EXCLUDED.valor_total;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER contas_a_pagar_totais_inserir
+AFTER INSERT ON contas_a_pagar
+REFERENCING NEW TABLE AS novas
+FOR EACH STATEMENT EXECUTE FUNCTION contas_a_pagar_totais_aplicar();
+
+CREATE TRIGGER contas_a_pagar_totais_atualizar
+AFTER UPDATE ON contas_a_pagar
+REFERENCING OLD TABLE AS antigas NEW TABLE AS novas
+FOR EACH STATEMENT EXECUTE FUNCTION contas_a_pagar_totais_aplicar();
+
+CREATE TRIGGER contas_a_pagar_totais_remover
+AFTER DELETE ON contas_a_pagar
+REFERENCING OLD TABLE AS antigas
+FOR EACH STATEMENT EXECUTE FUNCTION contas_a_pagar_totais_aplicar();
+
+-- Recalcula os totais a partir de contas_a_pagar, no intervalo informado ou em toda a tabela.
+-- Bloqueia gravações em contas_a_pagar até o fim da transação.
+CREATE OR REPLACE FUNCTION contas_a_pagar_totais_reconstruir(p_inicio date DEFAULT NULL, p_fim date DEFAULT NULL)
+RETURNS integer AS $$
+DECLARE
+    v_linhas integer;
+BEGIN
+    LOCK TABLE contas_a_pagar IN SHARE MODE;
+
+    DELETE FROM contas_a_pagar_totais_diarios
+    WHERE (p_inicio IS NULL OR data_vencimento >= p_inicio)
+      AND (p_fim IS NULL OR data_vencimento <= p_fim);
+
+    INSERT INTO contas_a_pagar_totais_diarios (data_vencimento, situacao, quantidade, valor_total)
+    SELECT data_vencimento, situacao, count(*), sum(valor)
+    FROM contas_a_pagar
+    WHERE data_vencimento IS NOT NULL
+      AND (p_inicio IS NULL OR data_vencimento >= p_inicio)
+      AND (p_fim IS NULL OR data_vencimento <= p_fim)
+    GROUP BY data_vencimento, situacao;
+
+    GET DIAGNOSTICS v_linhas = ROW_COUNT;
+    RETURN v_linhas;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT contas_a_pagar_totais_reconstruir();
+
+-- Redefine a função de V9: as linhas movidas da partição padrão são removidas com ela
+-- desanexada (sem passar pelos gatilhos de contas_a_pagar) e reinseridas pela tabela
+-- particionada (contadas pelo gatilho de inserção), então são descontadas dos totais antes.
+CREATE OR REPLACE FUNCTION contas_a_pagar_criar_particao(p_mes date) RETURNS boolean AS $$
+DECLARE
+    v_inicio date := date_trunc('month', p_mes)::date;
+    v_fim date := (date_trunc('month', p_mes) + interval '1 month')::date;
+    v_nome text := 'contas_a_pagar_p' || to_char(p_mes, 'YYYYMM');
+    v_colunas text := contas_a_pagar_colunas();
+    v_pendentes boolean;
+BEGIN
+    IF to_regclass(v_nome) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+
+    SELECT EXISTS (SELECT 1 FROM contas_a_pagar_padrao WHERE data_vencimento >= v_inicio AND data_vencimento < v_fim)
+    INTO v_pendentes;
+
+    IF v_pendentes THEN
+        ALTER TABLE contas_a_pagar DETACH PARTITION contas_a_pagar_padrao;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF contas_a_pagar FOR VALUES FROM (%L) TO (%L)', v_nome, v_inicio, v_fim);
+
+    IF v_pendentes THEN
+        INSERT INTO contas_a_pagar_totais_diarios AS t (data_vencimento, situacao, quantidade, valor_total)
+        SELECT data_vencimento, situacao, -count(*), -sum(valor)
+        FROM contas_a_pagar_padrao
+        WHERE data_vencimento >= v_inicio AND data_vencimento < v_fim
+        GROUP BY data_vencimento, situacao
+        ON CONFLICT (data_vencimento, situacao) DO UPDATE
+        SET quantidade = t.quantidade + EXCLUDED.quantidade, valor_total = t.valor_total + EXCLUDED.valor_total;
+
+        EXECUTE format('WITH movidas AS (DELETE FROM contas_a_pagar_padrao WHERE data_vencimento >= %L AND data_vencimento < %L RETURNING %s) '
+                       'INSERT INTO contas_a_pagar (%s) SELECT %s FROM movidas',
+                       v_inicio, v_fim, v_colunas, v_colunas, v_colunas);
+        ALTER TABLE contas_a_pagar ATTACH PARTITION contas_a_pagar_padrao DEFAULT;
+    END IF;
+
+    RETURN true;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,3 @@
+-- Versão da conta para controle de concorrência otimista: toda alteração incrementa a versão, e
+-- as alterações condicionais (If-Match) só são aplicadas se a versão não mudou desde a leitura.
+ALTER TABLE contas_a_pagar ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,40 @@
+-- Chave natural das contas importadas: hash_natural é o SHA-256 de vencimento, valor, descrição
+-- normalizada e id_externo (opcional), calculado na importação. O índice único inclui
+-- data_vencimento (exigência dos índices únicos da tabela particionada) e permite que a
+-- importação ignore as linhas já gravadas com INSERT ... ON CONFLICT DO NOTHING. Contas
+-- cadastradas pela API depois desta migração não têm hash e nunca são consideradas duplicadas.
+ALTER TABLE contas_a_pagar
+ADD COLUMN id_externo VARCHAR(100),
+ADD COLUMN hash_natural BYTEA;
+
+-- As contas existentes (importadas ou cadastradas pela API) recebem o hash calculado pela mesma
+-- expressão de ChaveNaturalConta, para que a reimportação de arquivos antigos também seja
+-- reconhecida; entre duplicatas já gravadas, apenas a de menor id recebe o hash (as demais
+-- permanecem, sem chave natural). A normalização da descrição usa só espaços e letras ASCII
+-- (translate em vez de upper, classe explícita em vez de \s), que não dependem do LC_CTYPE.
+UPDATE contas_a_pagar c
+SET hash_natural = h.hash_natural
+FROM (SELECT id, data_vencimento, hash_natural,
+             row_number() OVER (PARTITION BY hash_natural, data_vencimento ORDER BY id) AS ordem
+      FROM (SELECT id, data_vencimento,
+                   sha256(convert_to(to_char(data_vencimento, 'YYYY-MM-DD') || chr(31) || valor::text || chr(31)
+                                     || translate(btrim(regexp_replace(descricao, '[ \t\n\v\f\r]+', ' ', 'g')),
+                                                  'abcdefghijklmnopqrstuvwxyz', 'ABCDEFGHIJKLMNOPQRSTUVWXYZ') || chr(31)
+                                     || coalesce(id_externo, ''), 'UTF8')) AS hash_natural
+            FROM contas_a_pagar
+            WHERE data_vencimento IS NOT NULL) calculados) h
+WHERE c.id = h.id
+  AND c.data_vencimento = h.data_vencimento
+  AND h.ordem = 1;
+
+CREATE UNIQUE INDEX idx_contas_a_pagar_hash_natural ON contas_a_pagar (hash_natural, data_vencimento);
+
+-- Arquivos já importados, pelo SHA-256 do conteúdo: um arquivo idêntico é ignorado sem ser lido.
+CREATE TABLE importacoes_arquivos (
+                                      hash_arquivo BYTEA PRIMARY KEY,
+                                      importacao_id BIGINT NOT NULL REFERENCES importacoes (id),
+                                      data_registro TIMESTAMP NOT NULL
+);
+
+ALTER TABLE importacoes
+ADD COLUMN linhas_duplicadas BIGINT NOT NULL DEFAULT 0;
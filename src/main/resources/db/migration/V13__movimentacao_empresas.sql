@@ -0,0 +1,34 @@
+-- As contas passam a receber o id direto da sequência (IDENTITY no Hibernate), como já ocorre nas
+-- inserções da importação: com as empresas divididas em shards, um bloco de ids reservado em
+-- memória pelo Hibernate seria usado por empresas de bancos diferentes.
+ALTER SEQUENCE contas_a_pagar_id_seq INCREMENT BY 1;
+
+-- Com o otimizador pooled-lo, o valor da sequência é o início do último bloco reservado, e ids
+-- desse bloco já podem estar gravados: a sequência avança até o maior id (sem voltar, para não
+-- reaproveitar ids de contas removidas).
+SELECT setval('contas_a_pagar_id_seq',
+              GREATEST((SELECT max(id) FROM contas_a_pagar), (SELECT last_value FROM contas_a_pagar_id_seq)));
+
+-- Movimentação de uma empresa entre shards. Durante a cópia, gatilhos (criados pela aplicação)
+-- registram aqui a chave de cada linha alterada na origem, para que a alteração seja reaplicada no
+-- destino. Na troca, o gatilho de bloqueio impede novas escritas na origem.
+CREATE TABLE movimentacao_alteracoes (
+                                         id BIGSERIAL PRIMARY KEY,
+                                         tabela VARCHAR(63) NOT NULL,
+                                         chave TEXT NOT NULL
+);
+
+-- TG_ARGV: nome da tabela (em tabelas particionadas, TG_TABLE_NAME é o da partição) e coluna chave.
+CREATE OR REPLACE FUNCTION movimentacao_registrar() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO movimentacao_alteracoes (tabela, chave)
+    VALUES (TG_ARGV[0], CASE WHEN TG_OP = 'DELETE' THEN to_jsonb(OLD) ELSE to_jsonb(NEW) END ->> TG_ARGV[1]);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION movimentacao_bloquear() RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION 'Empresa movida para outro shard' USING ERRCODE = 'CT001';
+END;
+$$ LANGUAGE plpgsql;
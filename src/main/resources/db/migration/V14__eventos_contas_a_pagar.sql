@@ -0,0 +1,19 @@
+-- Eventos de alteração das contas (outbox): cada cadastro, atualização, alteração de situação e lote
+-- importado grava aqui o evento na mesma transação da alteração. O id segue a ordem de inserção,
+-- não a de confirmação, então não serve como posição do feed: um evento de id menor pode ser
+-- confirmado depois de um maior já lido. A posição é atribuída na publicação, em ordem crescente e
+-- por um publicador de cada vez, apenas a eventos já confirmados; até lá o evento está pendente.
+CREATE TABLE contas_eventos (
+                                id BIGSERIAL PRIMARY KEY,
+                                tipo VARCHAR(30) NOT NULL,
+                                conta_id BIGINT,
+                                importacao_id BIGINT,
+                                dados JSONB NOT NULL,
+                                data_evento TIMESTAMP NOT NULL,
+                                posicao BIGINT,
+                                data_publicacao TIMESTAMP
+);
+
+CREATE UNIQUE INDEX idx_contas_eventos_posicao ON contas_eventos (posicao);
+
+CREATE INDEX idx_contas_eventos_pendentes ON contas_eventos (id) WHERE posicao IS NULL;
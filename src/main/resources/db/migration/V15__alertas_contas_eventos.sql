@@ -0,0 +1,4 @@
+-- Alertas de vencimento (eventos VENCENDO e VENCIDA): antes de gravar o alerta de uma conta, é
+-- verificado se ela já o recebeu para o mesmo vencimento, o que evita alertas repetidos entre
+-- instâncias e após reinícios.
+CREATE INDEX idx_contas_eventos_alertas ON contas_eventos (conta_id, tipo) WHERE tipo IN ('VENCENDO', 'VENCIDA');
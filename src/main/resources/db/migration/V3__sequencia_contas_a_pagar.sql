@@ -0,0 +1,4 @@
+ALTER TABLE contas_a_pagar
+ALTER COLUMN id TYPE BIGINT;
+
+ALTER SEQUENCE contas_a_pagar_id_seq AS BIGINT INCREMENT BY 50;
@@ -0,0 +1,26 @@
+CREATE TABLE importacoes (
+                             id BIGSERIAL PRIMARY KEY,
+                             nome_arquivo VARCHAR(255),
+                             caminho_arquivo VARCHAR(1024) NOT NULL,
+                             modo VARCHAR(20) NOT NULL,
+                             status VARCHAR(20) NOT NULL,
+                             linhas_processadas BIGINT NOT NULL DEFAULT 0,
+                             linhas_importadas BIGINT NOT NULL DEFAULT 0,
+                             linhas_rejeitadas BIGINT NOT NULL DEFAULT 0,
+                             ultima_linha_confirmada BIGINT NOT NULL DEFAULT 0,
+                             mensagem_erro VARCHAR(1000),
+                             data_criacao TIMESTAMP NOT NULL,
+                             data_inicio TIMESTAMP,
+                             data_fim TIMESTAMP
+);
+
+CREATE INDEX idx_importacoes_status ON importacoes (status);
+
+CREATE TABLE importacoes_rejeicoes (
+                                       id BIGSERIAL PRIMARY KEY,
+                                       importacao_id BIGINT NOT NULL REFERENCES importacoes (id),
+                                       linha BIGINT NOT NULL,
+                                       motivo VARCHAR(500) NOT NULL
+);
+
+CREATE INDEX idx_importacoes_rejeicoes_importacao ON importacoes_rejeicoes (importacao_id, linha);
@@ -0,0 +1,4 @@
+ALTER TABLE importacoes
+ADD COLUMN origem VARCHAR(20) NOT NULL DEFAULT 'UPLOAD';
+
+CREATE INDEX idx_importacoes_caminho_arquivo ON importacoes (caminho_arquivo);
@@ -0,0 +1 @@
+CREATE INDEX idx_contas_a_pagar_vencimento_id ON contas_a_pagar (data_vencimento, id);
@@ -0,0 +1,11 @@
+-- Busca parcial (descricao LIKE '%x%' ignorando maiúsculas): o índice de trigramas sobre
+-- upper(descricao) atende a expressão gerada pelas consultas ContainingIgnoreCase.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_contas_a_pagar_descricao_trgm ON contas_a_pagar USING gin (upper(descricao) gin_trgm_ops);
+
+-- Busca por texto (modoBusca=TEXTO): palavras normalizadas em português, com ranking.
+ALTER TABLE contas_a_pagar
+ADD COLUMN descricao_busca tsvector GENERATED ALWAYS AS (to_tsvector('portuguese', descricao)) STORED;
+
+CREATE INDEX idx_contas_a_pagar_descricao_busca ON contas_a_pagar USING gin (descricao_busca);
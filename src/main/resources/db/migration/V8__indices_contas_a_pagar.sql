@@ -0,0 +1,9 @@
+-- O índice de (data_vencimento, id) passa a cobrir valor e situacao, para que a soma por
+-- período e os totais por situação sejam lidos apenas do índice.
+CREATE INDEX idx_contas_a_pagar_vencimento_id_cobertura ON contas_a_pagar (data_vencimento, id) INCLUDE (valor, situacao);
+DROP INDEX idx_contas_a_pagar_vencimento_id;
+ALTER INDEX idx_contas_a_pagar_vencimento_id_cobertura RENAME TO idx_contas_a_pagar_vencimento_id;
+
+CREATE INDEX idx_contas_a_pagar_situacao_vencimento ON contas_a_pagar (situacao, data_vencimento);
+
+CREATE INDEX idx_contas_a_pagar_data_pagamento ON contas_a_pagar (data_pagamento) WHERE data_pagamento IS NOT NULL;
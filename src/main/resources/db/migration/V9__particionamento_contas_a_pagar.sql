@@ -0,0 +1,123 @@
+-- Particionamento mensal opcional de contas_a_pagar por data_vencimento, habilitado com
+-- spring.flyway.placeholders.particionamento=true antes da execução desta migração.
+--
+-- Cada mês fica em contas_a_pagar_pAAAAMM; datas sem partição (e vencimentos nulos, que
+-- precisam ser preenchidos antes da conversão) caem em contas_a_pagar_padrao até que a
+-- partição do mês seja criada, quando são movidas para ela.
+
+-- Colunas gravadas de contas_a_pagar (sem as geradas), para copiar linhas entre tabelas.
+CREATE OR REPLACE FUNCTION contas_a_pagar_colunas() RETURNS text AS $$
+    SELECT string_agg(quote_ident(column_name), ', ' ORDER BY ordinal_position)
+    FROM information_schema.columns
+    WHERE table_schema = current_schema()
+      AND table_name = 'contas_a_pagar'
+      AND is_generated = 'NEVER';
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION contas_a_pagar_particionada() RETURNS boolean AS $$
+    SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('contas_a_pagar'));
+$$ LANGUAGE sql STABLE;
+
+-- Cria a partição do mês de p_mes. Se a partição padrão tiver linhas desse mês, ela é
+-- desanexada enquanto as linhas são movidas para a nova partição.
+CREATE OR REPLACE FUNCTION contas_a_pagar_criar_particao(p_mes date) RETURNS boolean AS $$
+DECLARE
+    v_inicio date := date_trunc('month', p_mes)::date;
+    v_fim date := (date_trunc('month', p_mes) + interval '1 month')::date;
+    v_nome text := 'contas_a_pagar_p' || to_char(p_mes, 'YYYYMM');
+    v_colunas text := contas_a_pagar_colunas();
+    v_pendentes boolean;
+BEGIN
+    IF to_regclass(v_nome) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+
+    SELECT EXISTS (SELECT 1 FROM contas_a_pagar_padrao WHERE data_vencimento >= v_inicio AND data_vencimento < v_fim)
+    INTO v_pendentes;
+
+    IF v_pendentes THEN
+        ALTER TABLE contas_a_pagar DETACH PARTITION contas_a_pagar_padrao;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF contas_a_pagar FOR VALUES FROM (%L) TO (%L)', v_nome, v_inicio, v_fim);
+
+    IF v_pendentes THEN
+        EXECUTE format('WITH movidas AS (DELETE FROM contas_a_pagar_padrao WHERE data_vencimento >= %L AND data_vencimento < %L RETURNING %s) '
+                       'INSERT INTO contas_a_pagar (%s) SELECT %s FROM movidas',
+                       v_inicio, v_fim, v_colunas, v_colunas, v_colunas);
+        ALTER TABLE contas_a_pagar ATTACH PARTITION contas_a_pagar_padrao DEFAULT;
+    END IF;
+
+    RETURN true;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Garante as partições do mês atual até p_meses à frente e as dos meses que estão na partição
+-- padrão. Sem particionamento, não faz nada.
+CREATE OR REPLACE FUNCTION contas_a_pagar_criar_particoes(p_meses integer) RETURNS integer AS $$
+DECLARE
+    v_mes date;
+    v_criadas integer := 0;
+BEGIN
+    IF NOT contas_a_pagar_particionada() THEN
+        RETURN 0;
+    END IF;
+
+    FOR v_mes IN
+        SELECT generate_series(date_trunc('month', current_date),
+                               date_trunc('month', current_date) + make_interval(months => p_meses),
+                               interval '1 month')::date
+        UNION
+        SELECT DISTINCT date_trunc('month', data_vencimento)::date FROM contas_a_pagar_padrao
+        ORDER BY 1
+    LOOP
+        IF contas_a_pagar_criar_particao(v_mes) THEN
+            v_criadas := v_criadas + 1;
+        END IF;
+    END LOOP;
+
+    RETURN v_criadas;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Converte contas_a_pagar em tabela particionada. A chave primária passa a incluir
+-- data_vencimento (exigência do particionamento para índices únicos).
+CREATE OR REPLACE FUNCTION contas_a_pagar_particionar() RETURNS void AS $$
+DECLARE
+    v_colunas text := contas_a_pagar_colunas();
+    v_mes date;
+BEGIN
+    IF contas_a_pagar_particionada() THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE contas_a_pagar ALTER COLUMN data_vencimento SET NOT NULL;
+    ALTER SEQUENCE contas_a_pagar_id_seq OWNED BY NONE;
+    ALTER TABLE contas_a_pagar RENAME TO contas_a_pagar_legado;
+
+    CREATE TABLE contas_a_pagar (LIKE contas_a_pagar_legado INCLUDING DEFAULTS INCLUDING GENERATED)
+    PARTITION BY RANGE (data_vencimento);
+    CREATE TABLE contas_a_pagar_padrao PARTITION OF contas_a_pagar DEFAULT;
+
+    FOR v_mes IN SELECT DISTINCT date_trunc('month', data_vencimento)::date FROM contas_a_pagar_legado LOOP
+        PERFORM contas_a_pagar_criar_particao(v_mes);
+    END LOOP;
+
+    EXECUTE format('INSERT INTO contas_a_pagar (%s) SELECT %s FROM contas_a_pagar_legado', v_colunas, v_colunas);
+
+    DROP TABLE contas_a_pagar_legado;
+    ALTER SEQUENCE contas_a_pagar_id_seq OWNED BY contas_a_pagar.id;
+
+    -- índices criados depois da carga, nas partições
+    ALTER TABLE contas_a_pagar ADD PRIMARY KEY (id, data_vencimento);
+    CREATE INDEX idx_contas_a_pagar_vencimento_id ON contas_a_pagar (data_vencimento, id) INCLUDE (valor, situacao);
+    CREATE INDEX idx_contas_a_pagar_situacao_vencimento ON contas_a_pagar (situacao, data_vencimento);
+    CREATE INDEX idx_contas_a_pagar_data_pagamento ON contas_a_pagar (data_pagamento) WHERE data_pagamento IS NOT NULL;
+    CREATE INDEX idx_contas_a_pagar_descricao_trgm ON contas_a_pagar USING gin (upper(descricao) gin_trgm_ops);
+    CREATE INDEX idx_contas_a_pagar_descricao_busca ON contas_a_pagar USING gin (descricao_busca);
+
+    PERFORM contas_a_pagar_criar_particoes(12);
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT contas_a_pagar_particionar() WHERE '${particionamento}' = 'true';
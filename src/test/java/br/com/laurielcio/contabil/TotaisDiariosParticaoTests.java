@@ -0,0 +1,87 @@
+package br.com.laurielcio.contabil;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Totais diários (V10) com particionamento (V9), em um schema próprio migrado com
+ * particionamento=true: as contas que saem da partição padrão para a partição do mês criada
+ * depois não podem ser contadas duas vezes.
+ */
+@SpringBootTest
+class TotaisDiariosParticaoTests {
+
+    private static final String SCHEMA = "teste_totais_particao";
+
+    private static final String TOTAIS = "SELECT data_vencimento, situacao, quantidade, valor_total "
+            + "FROM contas_a_pagar_totais_diarios WHERE quantidade <> 0 ORDER BY data_vencimento, situacao";
+
+    private static final String RECALCULADOS = "SELECT data_vencimento, situacao, count(*) AS quantidade, sum(valor) AS valor_total "
+            + "FROM contas_a_pagar GROUP BY data_vencimento, situacao ORDER BY data_vencimento, situacao";
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void migrar() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA, username, password);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm SCHEMA public");
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(SCHEMA)
+                .locations("classpath:db/migration")
+                .placeholders(Collections.singletonMap("particionamento", "true"))
+                .load()
+                .migrate();
+    }
+
+    @AfterEach
+    void removerSchema() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @Test
+    void contasMovidasDaParticaoPadraoSaoContadasUmaVez() {
+        // muito além dos meses criados na conversão: caem na partição padrão
+        jdbcTemplate.update("INSERT INTO contas_a_pagar (data_vencimento, valor, descricao, situacao) VALUES "
+                + "('2099-01-10', 10.00, 'Aluguel', 'PENDENTE'), "
+                + "('2099-01-10', 5.50, 'Energia', 'PENDENTE'), "
+                + "('2099-01-20', 7.25, 'Internet', 'PAGA'), "
+                + "('2099-02-05', 3.00, 'Água', 'PENDENTE')");
+
+        Boolean criada = jdbcTemplate.queryForObject("SELECT contas_a_pagar_criar_particao('2099-01-01')", Boolean.class);
+
+        assertEquals(Boolean.TRUE, criada);
+        assertEquals(Integer.valueOf(3), jdbcTemplate.queryForObject("SELECT count(*) FROM contas_a_pagar_p209901", Integer.class));
+        assertEquals(Integer.valueOf(1), jdbcTemplate.queryForObject("SELECT count(*) FROM contas_a_pagar_padrao", Integer.class));
+
+        List<Map<String, Object>> totais = jdbcTemplate.queryForList(TOTAIS);
+        assertEquals(jdbcTemplate.queryForList(RECALCULADOS), totais);
+        assertEquals(2L, ((Number) totais.get(0).get("quantidade")).longValue());
+    }
+}
@@ -1,30 +1,55 @@
 package br.com.laurielcio.contabil.controller;
 
+import br.com.laurielcio.contabil.config.LinksProperties;
+import br.com.laurielcio.contabil.entity.AgrupamentoFluxoCaixaEnum;
 import br.com.laurielcio.contabil.entity.ContaEntity;
+import br.com.laurielcio.contabil.entity.ContaEventoEntity;
+import br.com.laurielcio.contabil.entity.FormatoExportacaoEnum;
+import br.com.laurielcio.contabil.entity.ImportacaoEntity;
+import br.com.laurielcio.contabil.entity.ModoBuscaEnum;
+import br.com.laurielcio.contabil.entity.ModoImportacaoEnum;
+import br.com.laurielcio.contabil.entity.ResultadoAlteracaoEnum;
+import br.com.laurielcio.contabil.entity.OrigemImportacaoEnum;
 import br.com.laurielcio.contabil.entity.SituacaoEnum;
+import br.com.laurielcio.contabil.entity.StatusImportacaoEnum;
+import br.com.laurielcio.contabil.entity.TipoEventoContaEnum;
 import br.com.laurielcio.contabil.request.ContaAtualizaRequest;
 import br.com.laurielcio.contabil.request.ContaRequest;
+import br.com.laurielcio.contabil.request.ContaSituacaoLoteRequest;
+import br.com.laurielcio.contabil.response.ContaCursorResponse;
+import br.com.laurielcio.contabil.response.ContaEventoResponse;
+import br.com.laurielcio.contabil.response.ContaEventosResponse;
 import br.com.laurielcio.contabil.response.ContaResponse;
+import br.com.laurielcio.contabil.response.ContaSituacaoLoteResponse;
+import br.com.laurielcio.contabil.response.FluxoCaixaPeriodoResponse;
+import br.com.laurielcio.contabil.response.FluxoCaixaResponse;
+import br.com.laurielcio.contabil.response.ImportacaoResponse;
 import br.com.laurielcio.contabil.service.ContaService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertTrue;
@@ -32,6 +57,7 @@ import static org.junit.Assert.fail;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ContaControllerTest {
@@ -40,6 +66,8 @@ public class ContaControllerTest {
     private ContaController contaController;
     @Mock
     private ContaService contaService;
+    @Spy
+    private ContaLinkBuilder contaLinkBuilder = new ContaLinkBuilder(new LinksProperties());
 
     @BeforeEach
     public void setUp() {
@@ -51,12 +79,13 @@ public class ContaControllerTest {
         criarConta.setDataPagamento(LocalDate.now().plusDays(20));
         criarConta.setDescricao("Teste");
         criarConta.setSituacao(SituacaoEnum.PENDENTE);
+        criarConta.setVersao(3L);
 
         ContaResponse response = new ContaResponse(criarConta);
 
         when(contaService.cadastrarConta(any(ContaRequest.class))).thenReturn(response);
-        when(contaService.atualizarConta(anyLong(), any(ContaAtualizaRequest.class))).thenReturn(response);
-        when(contaService.alterarSituacaoConta(anyLong(), any(SituacaoEnum.class))).thenReturn(response);
+        when(contaService.atualizarConta(anyLong(), any(ContaAtualizaRequest.class), any())).thenReturn(response);
+        when(contaService.alterarSituacaoConta(anyLong(), any(SituacaoEnum.class), any())).thenReturn(response);
         when(contaService.obterContaPorId(anyLong())).thenReturn(response);
         when(contaService.obterValorTotalPagoPorPeriodo(any(LocalDate.class), any(LocalDate.class))).thenReturn(new BigDecimal(250));
     }
@@ -69,13 +98,23 @@ public class ContaControllerTest {
 
     @Test
     public void testAtualizarConta() {
-        ResponseEntity<ContaResponse> response = contaController.atualizarConta(1L, new ContaAtualizaRequest());
+        ResponseEntity<ContaResponse> response = contaController.atualizarConta(1L, new ContaAtualizaRequest(), null);
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    public void testAtualizarContaComIfMatch() {
+        ContaAtualizaRequest request = new ContaAtualizaRequest();
+
+        contaController.atualizarConta(1L, request, "\"2\"");
+
+        verify(contaService).atualizarConta(1L, request, Collections.singletonList(2L));
     }
 
     @Test
     public void testAlterarSituacaoConta() {
-        ResponseEntity<ContaResponse> response = contaController.alterarSituacaoConta(1L, SituacaoEnum.PENDENTE);
+        ResponseEntity<ContaResponse> response = contaController.alterarSituacaoConta(1L, SituacaoEnum.PENDENTE, null);
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
@@ -89,18 +128,75 @@ public class ContaControllerTest {
         ContaEntity contaEntity = new ContaEntity();
 
         Page<ContaResponse> contasResponse = new PageImpl<>(Collections.singletonList(new ContaResponse(contaEntity)));
-        when(contaService.obterListaContas(eq(dataVencimento), eq(descricao), any(Pageable.class))).thenReturn(contasResponse);
+        when(contaService.obterListaContas(eq(dataVencimento), eq(descricao), eq(ModoBuscaEnum.PARCIAL), any(Pageable.class))).thenReturn(contasResponse);
 
-        ResponseEntity<Page<ContaResponse>> responseEntity = contaController.obterListaContas(dataVencimento, descricao, page, size);
+        ResponseEntity<Page<ContaResponse>> responseEntity = contaController.obterListaContas(dataVencimento, descricao, ModoBuscaEnum.PARCIAL, page, size);
 
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
         assertEquals(contasResponse, responseEntity.getBody());
     }
 
+    @Test
+    public void testObterListaContasPorCursor() {
+        ContaEntity contaEntity = new ContaEntity();
+        contaEntity.setId(1L);
+
+        ContaCursorResponse contasResponse = new ContaCursorResponse(
+                new SliceImpl<>(Collections.singletonList(new ContaResponse(contaEntity)), PageRequest.of(0, 1), true), "cursor");
+        when(contaService.obterListaContasPorCursor(isNull(), isNull(), isNull(), eq(1))).thenReturn(contasResponse);
+
+        ResponseEntity<ContaCursorResponse> responseEntity = contaController.obterListaContasPorCursor(null, null, null, 1);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals("cursor", responseEntity.getBody().getNextCursor());
+        assertTrue(responseEntity.getBody().getLink("next").isPresent());
+    }
+
+    @Test
+    public void testAlterarSituacaoContas() {
+        ContaSituacaoLoteRequest request = new ContaSituacaoLoteRequest();
+        request.setSituacao(SituacaoEnum.PAGA);
+        request.setIds(Arrays.asList(1L, 2L));
+
+        ContaSituacaoLoteResponse lote = new ContaSituacaoLoteResponse(SituacaoEnum.PAGA);
+        lote.registrar(1L, ResultadoAlteracaoEnum.ALTERADA);
+        lote.registrar(2L, ResultadoAlteracaoEnum.NAO_ENCONTRADA);
+        when(contaService.alterarSituacaoContas(request)).thenReturn(lote);
+
+        ResponseEntity<ContaSituacaoLoteResponse> response = contaController.alterarSituacaoContas(request);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getAlteradas());
+        assertEquals(1, response.getBody().getNaoEncontradas());
+        assertEquals(ResultadoAlteracaoEnum.NAO_ENCONTRADA, response.getBody().getResultados().get(2L));
+    }
+
+    @Test
+    public void testExportarContas() throws Exception {
+        when(contaService.exportarContas(eq(FormatoExportacaoEnum.CSV), isNull(), isNull(), any())).thenReturn(0L);
+
+        ResponseEntity<StreamingResponseBody> response = contaController.exportarContas(FormatoExportacaoEnum.CSV, null, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.parseMediaType("text/csv;charset=UTF-8"), response.getHeaders().getContentType());
+
+        response.getBody().writeTo(new ByteArrayOutputStream());
+        verify(contaService).exportarContas(eq(FormatoExportacaoEnum.CSV), isNull(), isNull(), any());
+    }
+
     @Test
     public void testObterContaPorId() {
-        ResponseEntity<ContaResponse> response = contaController.obterContaPorId(anyLong());
+        ResponseEntity<ContaResponse> response = contaController.obterContaPorId(anyLong(), null);
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        assertTrue(response.getBody().getRequiredLink("self").getHref().endsWith("/contas/1"));
+    }
+
+    @Test
+    public void testObterContaPorIdNaoModificada() {
+        ResponseEntity<ContaResponse> response = contaController.obterContaPorId(1L, "\"3\"");
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(null, response.getBody());
     }
 
     @Test
@@ -113,39 +209,88 @@ public class ContaControllerTest {
     }
 
     @Test
-    public void testImportarContasViaCSV() {
-        MultipartFile file = null;
-
-        ContaEntity conta = new ContaEntity();
-        conta.setId(1L);
-        conta.setDataVencimento(LocalDate.now());
-        conta.setDataPagamento(LocalDate.now().plusDays(20));
-        conta.setDescricao("Teste");
-        conta.setSituacao(SituacaoEnum.PENDENTE);
+    public void testReconstruirTotaisDiarios() {
+        when(contaService.reconstruirTotaisDiarios(isNull(), isNull())).thenReturn(30);
 
-        ContaResponse response = new ContaResponse(conta);
+        ResponseEntity<Map<String, Object>> response = contaController.reconstruirTotaisDiarios(null, null);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(30, response.getBody().get("totaisReconstruidos"));
+    }
 
-        List<ContaResponse> list = new ArrayList<>();
+    @Test
+    public void testImportarContasViaCSV() {
+        MultipartFile file = null;
 
-        list.add(response);
+        ImportacaoEntity importacao = new ImportacaoEntity("contas.csv", "/tmp/contas.csv", OrigemImportacaoEnum.UPLOAD, ModoImportacaoEnum.LOTE);
+        importacao.setId(1L);
 
         try {
-            when(contaService.importarContasViaCSV(eq(file))).thenReturn(list);
-
-            ResponseEntity<?> responseEntity = contaController.importarContasViaCSV(file);
+            when(contaService.importarContasViaCSV(eq(file), eq(ModoImportacaoEnum.LOTE))).thenReturn(new ImportacaoResponse(importacao));
 
-            assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+            ResponseEntity<ImportacaoResponse> responseEntity = contaController.importarContasViaCSV(file, ModoImportacaoEnum.LOTE);
 
-            if (!list.isEmpty()) {
-                assertTrue(responseEntity.getBody() instanceof List);
-                List<ContaResponse> responseBody = (List<ContaResponse>) responseEntity.getBody();
-                assertEquals(list.size(), responseBody.size());
-            } else {
-                assertEquals("Nenhuma conta foi importada.", responseEntity.getBody());
-            }
+            assertEquals(HttpStatus.ACCEPTED, responseEntity.getStatusCode());
+            assertEquals(1L, responseEntity.getBody().getId());
+            assertEquals(StatusImportacaoEnum.AGUARDANDO, responseEntity.getBody().getStatus());
         } catch (Exception e) {
             fail("Exceção lançada durante o teste: " + e.getMessage());
         }
     }
 
+    @Test
+    public void testObterImportacao() {
+        ImportacaoEntity importacao = new ImportacaoEntity("contas.csv", "/tmp/contas.csv", OrigemImportacaoEnum.UPLOAD, ModoImportacaoEnum.LOTE);
+        importacao.setId(1L);
+        importacao.setStatus(StatusImportacaoEnum.CONCLUIDA);
+        importacao.setLinhasProcessadas(20);
+        importacao.setLinhasImportadas(19);
+        importacao.setLinhasRejeitadas(1);
+
+        when(contaService.obterImportacao(anyLong())).thenReturn(new ImportacaoResponse(importacao));
+
+        ResponseEntity<ImportacaoResponse> response = contaController.obterImportacao(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(StatusImportacaoEnum.CONCLUIDA, response.getBody().getStatus());
+        assertEquals(1, response.getBody().getLinhasRejeitadas());
+    }
+
+    @Test
+    public void testObterEventos() {
+        ContaEventoEntity evento = new ContaEventoEntity();
+        evento.setId(10L);
+        evento.setPosicao(6L);
+        evento.setTipo(TipoEventoContaEnum.CADASTRADA);
+        evento.setContaId(1L);
+        evento.setDados("{\"id\": 1}");
+
+        DeferredResult<ContaEventosResponse> eventos = new DeferredResult<>();
+        eventos.setResult(new ContaEventosResponse(Collections.singletonList(new ContaEventoResponse(evento)), 6L));
+        when(contaService.obterEventos(5L, 100, 0L)).thenReturn(eventos);
+
+        DeferredResult<ContaEventosResponse> response = contaController.obterEventos(5L, 100, 0L);
+
+        ContaEventosResponse resultado = (ContaEventosResponse) response.getResult();
+        assertEquals(6L, resultado.getProximo());
+        assertEquals(TipoEventoContaEnum.CADASTRADA, resultado.getEventos().get(0).getTipo());
+    }
+
+    @Test
+    public void testObterFluxoCaixa() {
+        LocalDate dataInicial = LocalDate.of(2026, 10, 1);
+        LocalDate dataFinal = LocalDate.of(2026, 10, 31);
+        FluxoCaixaPeriodoResponse total = new FluxoCaixaPeriodoResponse(dataInicial, dataFinal, 3, new BigDecimal("300.00"));
+        FluxoCaixaResponse fluxo = new FluxoCaixaResponse(dataInicial, dataFinal, AgrupamentoFluxoCaixaEnum.MES,
+                new FluxoCaixaPeriodoResponse(null, dataInicial.minusDays(1), 1, new BigDecimal("50.00")),
+                Collections.singletonList(total), total, 42L);
+        when(contaService.obterFluxoCaixa(dataInicial, dataFinal, AgrupamentoFluxoCaixaEnum.MES)).thenReturn(fluxo);
+
+        ResponseEntity<FluxoCaixaResponse> response = contaController.obterFluxoCaixa(dataInicial, dataFinal,
+                AgrupamentoFluxoCaixaEnum.MES);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(new BigDecimal("300.00"), response.getBody().getTotal().getValor());
+        assertEquals(42L, response.getBody().getPosicao());
+    }
+
 }
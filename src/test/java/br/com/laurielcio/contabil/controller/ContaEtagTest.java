@@ -0,0 +1,34 @@
+package br.com.laurielcio.contabil.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ContaEtagTest {
+
+    @Test
+    public void testVersoesEsperadasSemIfMatchOuComAsterisco() {
+        assertNull(ContaEtag.versoesEsperadas(null));
+        assertNull(ContaEtag.versoesEsperadas(" "));
+        assertNull(ContaEtag.versoesEsperadas("*"));
+        assertNull(ContaEtag.versoesEsperadas("\"3\", *"));
+    }
+
+    @Test
+    public void testVersoesEsperadasComListaDeEtags() {
+        assertEquals(Collections.singletonList(3L), ContaEtag.versoesEsperadas("\"3\""));
+        assertEquals(Arrays.asList(3L, 4L), ContaEtag.versoesEsperadas("\"3\", \"4\""));
+        assertEquals(Arrays.asList(3L, 4L), ContaEtag.versoesEsperadas("\"3\",W/\"4\""));
+    }
+
+    @Test
+    public void testVersoesEsperadasIgnoraEtagsQueNaoSaoVersoes() {
+        assertEquals(Collections.singletonList(5L), ContaEtag.versoesEsperadas("\"abc\", \"5\""));
+        assertTrue(ContaEtag.versoesEsperadas("\"abc\"").isEmpty());
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.laurielcio.contabil.replica;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MonitorReplicasTest {
+
+    private DataSource replica;
+
+    private ResultSet resultado;
+
+    private MeterRegistry meterRegistry;
+
+    private MonitorReplicas monitor;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        replica = mock(DataSource.class);
+        Connection conexao = mock(Connection.class);
+        Statement comando = mock(Statement.class);
+        resultado = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(conexao);
+        when(conexao.createStatement()).thenReturn(comando);
+        when(comando.executeQuery(anyString())).thenReturn(resultado);
+
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new MonitorReplicas(Collections.singletonMap("replica1", replica), 1000, null, meterRegistry);
+    }
+
+    @Test
+    public void testAtrasoNuloDeixaReplicaIndisponivel() throws SQLException {
+        when(resultado.getLong(1)).thenReturn(200L, 0L);
+        when(resultado.wasNull()).thenReturn(false, true);
+
+        monitor.verificar();
+        assertSame(replica, monitor.selecionar());
+        assertEquals(200.0, meterRegistry.get("contabil.replica.atraso").gauge().value());
+
+        // sem WAL receiver em streaming a consulta devolve NULL, lido como 0 pelo getLong
+        monitor.verificar();
+        assertNull(monitor.selecionar());
+        assertEquals(-1.0, meterRegistry.get("contabil.replica.atraso").gauge().value());
+        assertEquals(0.0, meterRegistry.get("contabil.replica.disponivel").gauge().value());
+    }
+
+    @Test
+    public void testAtrasoAcimaDoMaximoOuFalhaDeixaReplicaIndisponivel() throws SQLException {
+        when(resultado.getLong(1)).thenReturn(1001L);
+
+        monitor.verificar();
+        assertNull(monitor.selecionar());
+
+        when(replica.getConnection()).thenThrow(new SQLException("conexão recusada"));
+        monitor.verificar();
+        assertNull(monitor.selecionar());
+        assertEquals(-1.0, meterRegistry.get("contabil.replica.atraso").gauge().value());
+    }
+}
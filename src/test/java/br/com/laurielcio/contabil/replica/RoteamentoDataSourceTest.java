@@ -0,0 +1,142 @@
+package br.com.laurielcio.contabil.replica;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RoteamentoDataSourceTest {
+
+    private final LeituraReplicaAspect aspect = new LeituraReplicaAspect();
+
+    private DataSource primario;
+
+    private Connection conexaoPrimario;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        primario = mock(DataSource.class);
+        conexaoPrimario = mock(Connection.class);
+        when(primario.getConnection()).thenReturn(conexaoPrimario);
+    }
+
+    @AfterEach
+    public void limparTransacao() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void testEscritaUsaPrimario() throws Exception {
+        DataSource replica = replica(true);
+        RoteamentoDataSource roteamento = roteamento(replica);
+
+        assertSame(conexaoPrimario, roteamento.getConnection());
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        assertSame(conexaoPrimario, lerNaReplica(roteamento::getConnection));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(replica.getConnection(), lerNaReplica(roteamento::getConnection));
+    }
+
+    @Test
+    public void testLeituraSemReplicaDisponivelUsaPrimario() throws Exception {
+        RoteamentoDataSource roteamento = roteamento(replica(false));
+
+        assertSame(conexaoPrimario, lerNaReplica(roteamento::getConnection));
+    }
+
+    @Test
+    public void testFalhaAoObterConexaoDaReplicaUsaPrimario() throws Exception {
+        DataSource replica = replica(true);
+        MonitorReplicas monitor = monitor(replica);
+        RoteamentoDataSource roteamento = new RoteamentoDataSource(primario, monitor);
+        when(replica.getConnection()).thenThrow(new SQLException("conexão recusada"));
+
+        assertSame(conexaoPrimario, lerNaReplica(() -> {
+            roteamento.getConnection();
+            return roteamento.getConnection();
+        }));
+
+        // uma tentativa na réplica, que sai do rodízio até a próxima verificação
+        verify(replica, times(2)).getConnection();
+        assertNull(monitor.selecionar());
+    }
+
+    @Test
+    public void testLeiturasAninhadasUsamAMesmaReplica() throws Exception {
+        DataSource primeira = replica(true);
+        DataSource segunda = replica(true);
+        RoteamentoDataSource roteamento = roteamento(primeira, segunda);
+
+        assertSame(primeira.getConnection(), lerNaReplica(() -> {
+            roteamento.getConnection();
+            return lerNaReplica(roteamento::getConnection);
+        }));
+        assertSame(segunda.getConnection(), lerNaReplica(roteamento::getConnection));
+    }
+
+    /**
+     * Executa a leitura como um método {@link LeituraReplica}, pelo aspecto.
+     */
+    private Connection lerNaReplica(Callable<Connection> leitura) throws Exception {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        try {
+            when(joinPoint.proceed()).thenAnswer(invocacao -> leitura.call());
+            return (Connection) aspect.rotear(joinPoint);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private RoteamentoDataSource roteamento(DataSource... replicas) {
+        return new RoteamentoDataSource(primario, monitor(replicas));
+    }
+
+    private MonitorReplicas monitor(DataSource... replicas) {
+        Map<String, DataSource> porNome = new LinkedHashMap<>();
+        for (DataSource replica : replicas) {
+            porNome.put("replica" + (porNome.size() + 1), replica);
+        }
+        MonitorReplicas monitor = new MonitorReplicas(porNome, 1000, null, new SimpleMeterRegistry());
+        monitor.verificar();
+        return monitor;
+    }
+
+    /**
+     * Réplica em dia ou, sem {@code recebendoWal}, com atraso nulo (WAL receiver fora de streaming).
+     */
+    private DataSource replica(boolean recebendoWal) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection conexao = mock(Connection.class);
+        Statement comando = mock(Statement.class);
+        ResultSet resultado = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(conexao);
+        when(conexao.createStatement()).thenReturn(comando);
+        when(comando.executeQuery(anyString())).thenReturn(resultado);
+        when(resultado.wasNull()).thenReturn(!recebendoWal);
+        return dataSource;
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.laurielcio.contabil.repository;
+
+import br.com.laurielcio.contabil.request.ContaCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Slice;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ContaRepositoryImplTest {
+
+    @InjectMocks
+    private ContaRepositoryImpl contaRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private Query query;
+
+    private final ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(entityManager.createNativeQuery(sql.capture())).thenReturn(query);
+    }
+
+    @Test
+    public void testFindAposCursorComVencimentoIncluiContasSemVencimento() {
+        when(query.getResultList()).thenReturn(Arrays.asList(
+                linha(5L, LocalDate.of(2026, 10, 20)),
+                linha(2L, null),
+                linha(9L, null)));
+
+        Slice<ContaProjecao> contas = contaRepository.findAposCursor(null, null,
+                new ContaCursor(LocalDate.of(2026, 10, 18), 4L), 2);
+
+        assertTrue(sql.getValue().contains("(c.data_vencimento, c.id) > (:cursorDataVencimento, :cursorId)"));
+        assertTrue(sql.getValue().contains(" UNION ALL "));
+        assertTrue(sql.getValue().contains("c.data_vencimento IS NULL"));
+        verify(query).setParameter("cursorDataVencimento", LocalDate.of(2026, 10, 18));
+        verify(query).setParameter("cursorId", 4L);
+        verify(query).setParameter("limite", 3);
+
+        assertEquals(2, contas.getContent().size());
+        assertTrue(contas.hasNext());
+        assertNull(contas.getContent().get(1).getDataVencimento());
+    }
+
+    @Test
+    public void testFindAposCursorSemVencimentoBuscaApenasPorId() {
+        when(query.getResultList()).thenReturn(Collections.singletonList(linha(12L, null)));
+
+        Slice<ContaProjecao> contas = contaRepository.findAposCursor(null, null, new ContaCursor(null, 9L), 2);
+
+        assertTrue(sql.getValue().contains("c.data_vencimento IS NULL AND c.id > :cursorId"));
+        assertFalse(sql.getValue().contains("UNION ALL"));
+        verify(query, never()).setParameter(eq("cursorDataVencimento"), any());
+        verify(query).setParameter("cursorId", 9L);
+
+        assertEquals(12L, contas.getContent().get(0).getId());
+        assertFalse(contas.hasNext());
+    }
+
+    private Object[] linha(Long id, LocalDate dataVencimento) {
+        return new Object[] {id, dataVencimento != null ? Date.valueOf(dataVencimento) : null, null, new BigDecimal("10.00"),
+                "Conta " + id, "PENDENTE", 0L};
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.laurielcio.contabil.request;
+
+import br.com.laurielcio.contabil.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ContaCursorTest {
+
+    @Test
+    public void testCodificarEDecodificarComVencimento() {
+        ContaCursor cursor = ContaCursor.decodificar(new ContaCursor(LocalDate.of(2026, 10, 18), 42L).codificar());
+
+        assertEquals(LocalDate.of(2026, 10, 18), cursor.getDataVencimento());
+        assertEquals(42L, cursor.getId());
+    }
+
+    @Test
+    public void testCodificarEDecodificarSemVencimento() {
+        ContaCursor cursor = ContaCursor.decodificar(new ContaCursor(null, 7L).codificar());
+
+        assertNull(cursor.getDataVencimento());
+        assertEquals(7L, cursor.getId());
+    }
+
+    @Test
+    public void testCursorInvalido() {
+        assertThrows(ValidationException.class, () -> ContaCursor.decodificar("nao-e-um-cursor"));
+        assertThrows(ValidationException.class, () -> ContaCursor.decodificar(""));
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.laurielcio.contabil.service.alerta;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RodaDeTempoTest {
+
+    @Test
+    public void testPrazoAlcancadoNoTempoCerto() {
+        RodaDeTempo<String> roda = new RodaDeTempo<>(1000);
+        roda.agendar("proximo", 1001);
+        roda.agendar("nivel1", 1000 + 64 * 3 + 5);
+        roda.agendar("nivel2", 1000 + 64 * 64 * 2 + 7);
+
+        assertTrue(roda.avancar(1000).isEmpty());
+        assertEquals(Collections.singletonList("proximo"), valores(roda.avancar(1001)));
+        assertTrue(roda.avancar(1000 + 64 * 3 + 4).isEmpty());
+        assertEquals(Collections.singletonList("nivel1"), valores(roda.avancar(1000 + 64 * 3 + 5)));
+        assertTrue(roda.avancar(1000 + 64 * 64 * 2 + 6).isEmpty());
+        assertEquals(Collections.singletonList("nivel2"), valores(roda.avancar(1000 + 64 * 64 * 2 + 7)));
+        assertEquals(0, roda.getTamanho());
+    }
+
+    @Test
+    public void testPrazoPassadoEntregueNoProximoAvanco() {
+        RodaDeTempo<String> roda = new RodaDeTempo<>(500);
+        roda.agendar("atrasado", 498);
+        roda.agendar("agora", 500);
+
+        assertEquals(2, roda.avancar(500).size());
+    }
+
+    @Test
+    public void testCancelarEReagendar() {
+        RodaDeTempo<String> roda = new RodaDeTempo<>(0);
+        RodaDeTempo.Entrada<String> cancelada = roda.agendar("cancelada", 10);
+        RodaDeTempo.Entrada<String> reagendada = roda.agendar("reagendada", 10);
+
+        roda.cancelar(cancelada);
+        roda.reagendar(reagendada, 300);
+
+        assertFalse(cancelada.isAgendada());
+        assertTrue(roda.avancar(299).isEmpty());
+        assertEquals(Collections.singletonList("reagendada"), valores(roda.avancar(300)));
+    }
+
+    @Test
+    public void testPrazoAlemDoAlcance() {
+        RodaDeTempo<String> roda = new RodaDeTempo<>(0);
+
+        assertThrows(IllegalArgumentException.class, () -> roda.agendar("distante", RodaDeTempo.ALCANCE));
+    }
+
+    @Test
+    public void testCadaEntradaAlcancadaUmaVezNoSeuPrazo() {
+        Random random = new Random(42);
+        long inicio = 19000;
+        RodaDeTempo<Long> roda = new RodaDeTempo<>(inicio);
+        Map<Long, Long> prazos = new HashMap<>();
+
+        for (long i = 0; i < 20000; i++) {
+            long prazo = inicio + random.nextInt(70000);
+            prazos.put(i, prazo);
+            roda.agendar(i, prazo);
+        }
+
+        List<Long> alcancadas = new ArrayList<>();
+        for (long tempo = inicio + 1; tempo <= inicio + 70000; tempo += 1 + random.nextInt(3)) {
+            for (RodaDeTempo.Entrada<Long> entrada : roda.avancar(tempo)) {
+                assertTrue(prazos.get(entrada.getValor()) <= tempo);
+                assertTrue(prazos.get(entrada.getValor()) > tempo - 3);
+                alcancadas.add(entrada.getValor());
+            }
+        }
+        alcancadas.addAll(valores(roda.avancar(inicio + 70000)));
+
+        assertEquals(prazos.size(), alcancadas.size());
+        assertEquals(prazos.size(), alcancadas.stream().distinct().count());
+    }
+
+    private <T> List<T> valores(List<RodaDeTempo.Entrada<T>> entradas) {
+        return entradas.stream().map(RodaDeTempo.Entrada::getValor).collect(Collectors.toList());
+    }
+}
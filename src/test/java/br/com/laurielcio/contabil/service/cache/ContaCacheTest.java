@@ -0,0 +1,190 @@
+package br.com.laurielcio.contabil.service.cache;
+
+import br.com.laurielcio.contabil.entity.ContaEntity;
+import br.com.laurielcio.contabil.entity.ImportacaoEntity;
+import br.com.laurielcio.contabil.entity.ModoImportacaoEnum;
+import br.com.laurielcio.contabil.entity.OrigemImportacaoEnum;
+import br.com.laurielcio.contabil.entity.SituacaoEnum;
+import br.com.laurielcio.contabil.exception.ContaNotFoundException;
+import br.com.laurielcio.contabil.repository.ContaEventoRepository;
+import br.com.laurielcio.contabil.repository.ContaRepository;
+import br.com.laurielcio.contabil.repository.ImportacaoRepository;
+import br.com.laurielcio.contabil.request.ContaAtualizaRequest;
+import br.com.laurielcio.contabil.request.ContaRequest;
+import br.com.laurielcio.contabil.service.importacao.ImportacaoJobRunner;
+import br.com.laurielcio.contabil.service.impl.ContaServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cache de contas com o proxy do Spring e o Caffeine (que, como o Redis, aceita nulos por padrão),
+ * pelas operações do serviço e da importação que precisam tirar as contas dele.
+ */
+@SpringJUnitConfig(ContaCacheTest.Configuracao.class)
+public class ContaCacheTest {
+
+    private static final Long ID = 7L;
+
+    @Autowired
+    private ContaCache contaCache;
+    @Autowired
+    private ContaRepository contaRepository;
+
+    private ContaServiceImpl contaService;
+
+    @Configuration
+    @EnableCaching
+    static class Configuracao {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(ContaCache.CACHE_CONTAS);
+        }
+
+        @Bean
+        ContaRepository contaRepository() {
+            return mock(ContaRepository.class);
+        }
+
+        @Bean
+        ContaCache contaCache() {
+            return new ContaCache();
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        contaCache.limpar();
+        reset(contaRepository);
+
+        contaService = new ContaServiceImpl();
+        ReflectionTestUtils.setField(contaService, "contaRepository", contaRepository);
+        ReflectionTestUtils.setField(contaService, "contaEventoRepository", mock(ContaEventoRepository.class));
+        ReflectionTestUtils.setField(contaService, "contaCache", contaCache);
+    }
+
+    @Test
+    public void testContaInexistenteNaoFicaNoCacheAposCadastro() {
+        when(contaRepository.findById(ID)).thenReturn(Optional.empty());
+        assertThrows(ContaNotFoundException.class, () -> contaService.obterContaPorId(ID));
+
+        doAnswer(invocacao -> {
+            invocacao.<ContaEntity>getArgument(0).setId(ID);
+            return invocacao.getArgument(0);
+        }).when(contaRepository).save(any(ContaEntity.class));
+        contaService.cadastrarConta(contaRequest());
+        when(contaRepository.findById(ID)).thenReturn(Optional.of(conta(0L)));
+
+        assertEquals(ID, contaService.obterContaPorId(ID).getId());
+        assertEquals(ID, contaService.obterContaPorId(ID).getId());
+        verify(contaRepository, times(2)).findById(ID);
+    }
+
+    @Test
+    public void testAtualizarContaRemoveDoCache() {
+        when(contaRepository.findById(ID)).thenReturn(Optional.of(conta(0L)));
+        contaService.obterContaPorId(ID);
+
+        when(contaRepository.atualizarConta(any(ContaEntity.class), isNull())).thenReturn(Optional.of(conta(1L)));
+        when(contaRepository.findById(ID)).thenReturn(Optional.of(conta(1L)));
+        contaService.atualizarConta(ID, contaAtualizaRequest(), null);
+
+        assertEquals(1L, contaService.obterContaPorId(ID).getVersao());
+        verify(contaRepository, times(2)).findById(ID);
+    }
+
+    @Test
+    public void testAlterarSituacaoContaRemoveDoCache() {
+        when(contaRepository.findById(ID)).thenReturn(Optional.of(conta(0L)));
+        contaService.obterContaPorId(ID);
+
+        when(contaRepository.alterarSituacaoConta(eq(ID), eq(SituacaoEnum.PAGA), any(), isNull())).thenReturn(Optional.of(conta(1L)));
+        when(contaRepository.findById(ID)).thenReturn(Optional.of(conta(1L)));
+        contaService.alterarSituacaoConta(ID, SituacaoEnum.PAGA, null);
+
+        assertEquals(1L, contaService.obterContaPorId(ID).getVersao());
+        verify(contaRepository, times(2)).findById(ID);
+    }
+
+    @Test
+    public void testImportacaoLimpaOCache(@TempDir Path diretorio) throws Exception {
+        when(contaRepository.findById(ID)).thenReturn(Optional.of(conta(0L)));
+        contaService.obterContaPorId(ID);
+
+        Path arquivo = Files.write(diretorio.resolve("contas.csv"), "2024-06-10,100,Mercado\n".getBytes());
+        ImportacaoEntity importacao = new ImportacaoEntity("contas.csv", arquivo.toString(), OrigemImportacaoEnum.UPLOAD,
+                ModoImportacaoEnum.LOTE);
+        importacao.setId(3L);
+        importacao.setUltimaLinhaConfirmada(0L);
+        ImportacaoRepository importacaoRepository = mock(ImportacaoRepository.class);
+        when(importacaoRepository.findById(3L)).thenReturn(Optional.of(importacao));
+        // arquivo já importado: a importação é ignorada, e o cache é limpo do mesmo jeito
+        when(importacaoRepository.findImportacaoIdByHashArquivo(any())).thenReturn(1L);
+
+        ImportacaoJobRunner runner = new ImportacaoJobRunner();
+        ReflectionTestUtils.setField(runner, "importacaoRepository", importacaoRepository);
+        ReflectionTestUtils.setField(runner, "contaCache", contaCache);
+        ReflectionTestUtils.setField(runner, "meterRegistry", new SimpleMeterRegistry());
+        runner.executar(3L);
+
+        contaService.obterContaPorId(ID);
+        verify(contaRepository, times(2)).findById(ID);
+        verify(importacaoRepository).finalizar(eq(3L), any(), any(), any());
+    }
+
+    private ContaRequest contaRequest() {
+        ContaRequest request = new ContaRequest();
+        request.setDataVencimento(LocalDate.of(2026, 10, 20));
+        request.setValor(new BigDecimal("10.00"));
+        request.setDescricao("Aluguel");
+        return request;
+    }
+
+    private ContaAtualizaRequest contaAtualizaRequest() {
+        ContaAtualizaRequest request = new ContaAtualizaRequest();
+        request.setDataVencimento(LocalDate.of(2026, 10, 20));
+        request.setValor(new BigDecimal("12.00"));
+        request.setDescricao("Aluguel");
+        request.setSituacao(SituacaoEnum.PENDENTE);
+        return request;
+    }
+
+    private ContaEntity conta(long versao) {
+        ContaEntity conta = new ContaEntity();
+        conta.setId(ID);
+        conta.setDataVencimento(LocalDate.of(2026, 10, 20));
+        conta.setValor(new BigDecimal("10.00"));
+        conta.setDescricao("Aluguel");
+        conta.setSituacao(SituacaoEnum.PENDENTE);
+        conta.setVersao(versao);
+        return conta;
+    }
+}
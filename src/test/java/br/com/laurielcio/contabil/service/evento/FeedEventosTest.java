@@ -0,0 +1,116 @@
+package br.com.laurielcio.contabil.service.evento;
+
+import br.com.laurielcio.contabil.entity.ContaEventoEntity;
+import br.com.laurielcio.contabil.entity.TipoEventoContaEnum;
+import br.com.laurielcio.contabil.repository.ContaEventoRepository;
+import br.com.laurielcio.contabil.response.ContaEventosResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import javax.servlet.AsyncEvent;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FeedEventosTest {
+
+    @InjectMocks
+    private FeedEventos feedEventos;
+    @Mock
+    private ContaEventoRepository contaEventoRepository;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(contaEventoRepository.findPublicadosApos(anyLong(), anyInt())).thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    public void testRespondeNaHoraComEventosPublicados() {
+        when(contaEventoRepository.findPublicadosApos(5L, 10)).thenReturn(Arrays.asList(evento(6L), evento(7L)));
+
+        DeferredResult<ContaEventosResponse> resultado = feedEventos.consultar(5L, 10, 1000);
+
+        ContaEventosResponse response = (ContaEventosResponse) resultado.getResult();
+        assertEquals(2, response.getEventos().size());
+        assertEquals(7L, response.getProximo());
+
+        // a consulta respondida não fica em espera
+        feedEventos.notificar(null);
+        verify(contaEventoRepository, never()).findUltimaPosicao();
+    }
+
+    @Test
+    public void testSemEsperaRespondeNaHoraSemEventos() {
+        DeferredResult<ContaEventosResponse> resultado = feedEventos.consultar(7L, 10, 0);
+
+        ContaEventosResponse response = (ContaEventosResponse) resultado.getResult();
+        assertTrue(response.getEventos().isEmpty());
+        assertEquals(7L, response.getProximo());
+    }
+
+    @Test
+    public void testRespondeNaProximaPublicacao() {
+        DeferredResult<ContaEventosResponse> aguardando = feedEventos.consultar(5L, 10, 1000);
+        DeferredResult<ContaEventosResponse> adiante = feedEventos.consultar(6L, 10, 1000);
+        assertFalse(aguardando.hasResult());
+
+        when(contaEventoRepository.findPublicadosApos(5L, 10)).thenReturn(Collections.singletonList(evento(6L)));
+        when(contaEventoRepository.findUltimaPosicao()).thenReturn(6L);
+        feedEventos.notificar(null);
+
+        ContaEventosResponse response = (ContaEventosResponse) aguardando.getResult();
+        assertEquals(1, response.getEventos().size());
+        assertEquals(6L, response.getProximo());
+        // quem já recebeu a posição publicada continua aguardando
+        assertFalse(adiante.hasResult());
+    }
+
+    @Test
+    public void testRespondeSemEventosAoFimDaEspera() throws Exception {
+        DeferredResult<ContaEventosResponse> resultado = feedEventos.consultar(5L, 10, 1000);
+
+        // o tempo de espera é tratado pelo processamento assíncrono do Spring MVC
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        StandardServletAsyncWebRequest asyncWebRequest = new StandardServletAsyncWebRequest(request, new MockHttpServletResponse());
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(asyncWebRequest);
+        asyncManager.startDeferredResultProcessing(resultado);
+        asyncWebRequest.onTimeout(new AsyncEvent(request.getAsyncContext()));
+        asyncWebRequest.onComplete(new AsyncEvent(request.getAsyncContext()));
+
+        ContaEventosResponse response = (ContaEventosResponse) asyncManager.getConcurrentResult();
+        assertTrue(response.getEventos().isEmpty());
+        assertEquals(5L, response.getProximo());
+
+        feedEventos.notificar(null);
+        verify(contaEventoRepository, never()).findUltimaPosicao();
+    }
+
+    private ContaEventoEntity evento(Long posicao) {
+        ContaEventoEntity evento = new ContaEventoEntity();
+        evento.setId(posicao + 100);
+        evento.setPosicao(posicao);
+        evento.setTipo(TipoEventoContaEnum.CADASTRADA);
+        evento.setDados("{}");
+        return evento;
+    }
+}
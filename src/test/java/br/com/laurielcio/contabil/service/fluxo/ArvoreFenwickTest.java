@@ -0,0 +1,61 @@
+package br.com.laurielcio.contabil.service.fluxo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ArvoreFenwickTest {
+
+    @Test
+    public void testSomaDeIntervalos() {
+        ArvoreFenwick arvore = new ArvoreFenwick(10);
+        arvore.adicionar(0, 100);
+        arvore.adicionar(3, 250);
+        arvore.adicionar(9, 75);
+        arvore.adicionar(3, -50);
+
+        assertEquals(0, arvore.somar(0));
+        assertEquals(100, arvore.somar(1));
+        assertEquals(300, arvore.somar(4));
+        assertEquals(375, arvore.somar(10));
+        assertEquals(200, arvore.somar(1, 4));
+        assertEquals(0, arvore.somar(4, 9));
+        assertEquals(0, arvore.somar(5, 5));
+    }
+
+    @Test
+    public void testConfereComSomaSimples() {
+        int tamanho = 500;
+        ArvoreFenwick arvore = new ArvoreFenwick(tamanho);
+        long[] valores = new long[tamanho];
+        Random random = new Random(7);
+
+        for (int i = 0; i < 20000; i++) {
+            int posicao = random.nextInt(tamanho);
+            long valor = random.nextInt(2000001) - 1000000;
+            arvore.adicionar(posicao, valor);
+            valores[posicao] += valor;
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            int inicio = random.nextInt(tamanho + 1);
+            int fim = inicio + random.nextInt(tamanho + 1 - inicio);
+            long esperado = 0;
+            for (int posicao = inicio; posicao < fim; posicao++) {
+                esperado += valores[posicao];
+            }
+            assertEquals(esperado, arvore.somar(inicio, fim));
+        }
+    }
+
+    @Test
+    public void testPosicaoForaDaArvore() {
+        ArvoreFenwick arvore = new ArvoreFenwick(10);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> arvore.adicionar(10, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> arvore.somar(11));
+    }
+}
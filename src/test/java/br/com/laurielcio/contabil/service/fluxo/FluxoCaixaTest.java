@@ -0,0 +1,162 @@
+package br.com.laurielcio.contabil.service.fluxo;
+
+import br.com.laurielcio.contabil.config.FluxoCaixaProperties;
+import br.com.laurielcio.contabil.entity.AgrupamentoFluxoCaixaEnum;
+import br.com.laurielcio.contabil.entity.ContaEventoEntity;
+import br.com.laurielcio.contabil.entity.TipoEventoContaEnum;
+import br.com.laurielcio.contabil.repository.ContaEventoRepository;
+import br.com.laurielcio.contabil.repository.ContaRepository;
+import br.com.laurielcio.contabil.response.FluxoCaixaPeriodoResponse;
+import br.com.laurielcio.contabil.response.FluxoCaixaResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FluxoCaixaTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2026, 10, 18);
+
+    private static final LocalDate FIM_DO_MES = LocalDate.of(2026, 10, 31);
+
+    @InjectMocks
+    private FluxoCaixa fluxoCaixa;
+    @Mock
+    private CargaFluxoCaixa cargaFluxoCaixa;
+    @Mock
+    private ContaRepository contaRepository;
+    @Mock
+    private ContaEventoRepository contaEventoRepository;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        FluxoCaixaProperties properties = new FluxoCaixaProperties();
+        properties.setDiasPassados(10);
+        properties.setDiasFuturos(30);
+        properties.setTamanhoLote(10);
+        ReflectionTestUtils.setField(fluxoCaixa, "properties", properties);
+        ReflectionTestUtils.setField(fluxoCaixa, "objectMapper", new ObjectMapper());
+        when(contaEventoRepository.findPublicadosApos(anyLong(), anyInt())).thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    public void testEventosAtualizamTotaisEVencido() {
+        carga(0L, Collections.emptyList());
+        when(contaEventoRepository.findPublicadosApos(eq(0L), anyInt())).thenReturn(Arrays.asList(
+                evento(101L, 1L, TipoEventoContaEnum.CADASTRADA, conta("2026-10-20", "100.00", "PENDENTE")),
+                evento(102L, 2L, TipoEventoContaEnum.IMPORTADAS, "{\"importacaoId\":3,\"contas\":["
+                        + conta("2026-10-21", "50.00", "PENDENTE") + ","
+                        + conta("2026-10-15", "30.00", "PENDENTE") + ","
+                        + conta("2026-09-01", "20.00", "PENDENTE") + ","
+                        + conta("2026-10-22", "99.00", "PAGA") + "]}"),
+                evento(103L, 3L, TipoEventoContaEnum.ATUALIZADA,
+                        alterada(conta("2026-10-25", "120.00", "PENDENTE"), conta("2026-10-20", "100.00", "PENDENTE"))),
+                evento(104L, 4L, TipoEventoContaEnum.SITUACAO_ALTERADA,
+                        alterada(conta("2026-10-21", "50.00", "PAGA"), conta("2026-10-21", "50.00", "PENDENTE"))),
+                evento(105L, 5L, TipoEventoContaEnum.VENCIDA, "{}")));
+
+        fluxoCaixa.sincronizar(HOJE);
+        FluxoCaixaResponse response = fluxoCaixa.consultar(HOJE, FIM_DO_MES, AgrupamentoFluxoCaixaEnum.DIA, HOJE);
+
+        // a conta atualizada sai de 20/10 e entra em 25/10; a paga sai de 21/10
+        assertTotal(0, "0.00", periodo(response, LocalDate.of(2026, 10, 20)));
+        assertTotal(0, "0.00", periodo(response, LocalDate.of(2026, 10, 21)));
+        assertTotal(1, "120.00", periodo(response, LocalDate.of(2026, 10, 25)));
+        assertTotal(1, "120.00", response.getTotal());
+        // a vencida em 15/10 (na janela) e a de 01/09 (no acumulado anterior à janela)
+        assertTotal(2, "50.00", response.getVencido());
+        assertEquals(5L, response.getPosicao());
+        verify(cargaFluxoCaixa).carregar(HOJE.minusDays(10), 72);
+    }
+
+    @Test
+    public void testIgnoraEventosPendentesNaCarga() {
+        FluxoCaixaEmpresa carregado = carga(0L, Collections.singletonList(101L));
+        carregado.adicionar(LocalDate.of(2026, 10, 20), 1, 10000);
+        when(contaEventoRepository.findPublicadosApos(eq(0L), anyInt())).thenReturn(Arrays.asList(
+                evento(101L, 1L, TipoEventoContaEnum.CADASTRADA, conta("2026-10-20", "100.00", "PENDENTE")),
+                evento(102L, 2L, TipoEventoContaEnum.CADASTRADA, conta("2026-10-20", "40.00", "PENDENTE"))));
+
+        fluxoCaixa.sincronizar(HOJE);
+        FluxoCaixaResponse response = fluxoCaixa.consultar(HOJE, FIM_DO_MES, AgrupamentoFluxoCaixaEnum.MES, HOJE);
+
+        assertTotal(2, "140.00", response.getTotal());
+        assertEquals(2L, response.getPosicao());
+        // o evento ignorado é aceito de novo se voltar a aparecer
+        assertTrue(carregado.aceitar(101L));
+    }
+
+    @Test
+    public void testRecarregaAlteracaoSemEstadoAnterior() {
+        carga(0L, Collections.emptyList());
+        FluxoCaixaEmpresa recarregado = new FluxoCaixaEmpresa(HOJE.minusDays(10), 72, 1L, Collections.emptyList());
+        recarregado.adicionar(LocalDate.of(2026, 10, 25), 1, 12000);
+        when(cargaFluxoCaixa.carregar(any(), anyInt())).thenReturn(new FluxoCaixaEmpresa(HOJE.minusDays(10), 72, 0L,
+                Collections.emptyList()), recarregado);
+        when(contaEventoRepository.findPublicadosApos(eq(0L), anyInt())).thenReturn(Collections.singletonList(
+                evento(101L, 1L, TipoEventoContaEnum.ATUALIZADA, conta("2026-10-25", "120.00", "PENDENTE"))));
+
+        fluxoCaixa.sincronizar(HOJE);
+        FluxoCaixaResponse response = fluxoCaixa.consultar(HOJE, FIM_DO_MES, AgrupamentoFluxoCaixaEnum.MES, HOJE);
+
+        assertTotal(1, "120.00", response.getTotal());
+        assertEquals(1L, response.getPosicao());
+        verify(cargaFluxoCaixa, times(2)).carregar(any(), anyInt());
+    }
+
+    /**
+     * Carga vazia da janela de {@code HOJE} (10 dias passados, 30 futuros e a margem de 31), com a
+     * posição e os eventos pendentes informados.
+     */
+    private FluxoCaixaEmpresa carga(long ultimaPosicao, List<Long> eventosPendentes) {
+        FluxoCaixaEmpresa carregado = new FluxoCaixaEmpresa(HOJE.minusDays(10), 72, ultimaPosicao, eventosPendentes);
+        when(cargaFluxoCaixa.carregar(any(), anyInt())).thenReturn(carregado);
+        return carregado;
+    }
+
+    private ContaEventoEntity evento(Long id, Long posicao, TipoEventoContaEnum tipo, String dados) {
+        ContaEventoEntity evento = new ContaEventoEntity();
+        evento.setId(id);
+        evento.setPosicao(posicao);
+        evento.setTipo(tipo);
+        evento.setDados(dados);
+        return evento;
+    }
+
+    private String conta(String dataVencimento, String valor, String situacao) {
+        return "{\"dataVencimento\":\"" + dataVencimento + "\",\"valor\":" + valor + ",\"situacao\":\"" + situacao + "\"}";
+    }
+
+    private String alterada(String conta, String anterior) {
+        return conta.substring(0, conta.length() - 1) + ",\"anterior\":" + anterior + "}";
+    }
+
+    private FluxoCaixaPeriodoResponse periodo(FluxoCaixaResponse response, LocalDate dia) {
+        return response.getPeriodos().stream().filter(periodo -> periodo.getDataInicial().equals(dia)).findFirst().get();
+    }
+
+    private void assertTotal(long quantidade, String valor, FluxoCaixaPeriodoResponse periodo) {
+        assertEquals(quantidade, periodo.getQuantidade());
+        assertEquals(new BigDecimal(valor), periodo.getValor());
+    }
+}
@@ -0,0 +1,107 @@
+package br.com.laurielcio.contabil.service.impl;
+
+import br.com.laurielcio.contabil.config.EventosProperties;
+import br.com.laurielcio.contabil.entity.ResultadoAlteracaoEnum;
+import br.com.laurielcio.contabil.entity.SituacaoEnum;
+import br.com.laurielcio.contabil.exception.ValidationException;
+import br.com.laurielcio.contabil.repository.ContaRepository;
+import br.com.laurielcio.contabil.request.ContaSituacaoLoteRequest;
+import br.com.laurielcio.contabil.response.ContaSituacaoLoteResponse;
+import br.com.laurielcio.contabil.service.cache.ContaCache;
+import br.com.laurielcio.contabil.service.evento.FeedEventos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ContaServiceImplTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2026, 10, 1);
+    private static final LocalDate FIM = LocalDate.of(2026, 10, 31);
+
+    @InjectMocks
+    private ContaServiceImpl contaService;
+    @Mock
+    private ContaRepository contaRepository;
+    @Mock
+    private ContaCache contaCache;
+    @Mock
+    private FeedEventos feedEventos;
+    @Spy
+    private EventosProperties eventosProperties = new EventosProperties();
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        ReflectionTestUtils.setField(contaService, "tamanhoLoteAlteracaoSituacao", 3);
+    }
+
+    @Test
+    public void testAlterarSituacaoPorPeriodoContinuaAposBlocoComContasNaoAlteradas() {
+        when(contaRepository.alterarSituacaoPorPeriodo(eq(INICIO), eq(FIM), isNull(), eq(SituacaoEnum.PAGA), any(), anyLong(), anyInt()))
+                .thenReturn(Collections.emptyMap());
+        when(contaRepository.alterarSituacaoPorPeriodo(eq(INICIO), eq(FIM), isNull(), eq(SituacaoEnum.PAGA), any(), eq(0L), eq(3)))
+                .thenReturn(encontradas(1L, true, 2L, false, 4L, true));
+        when(contaRepository.alterarSituacaoPorPeriodo(eq(INICIO), eq(FIM), isNull(), eq(SituacaoEnum.PAGA), any(), eq(4L), eq(3)))
+                .thenReturn(encontradas(7L, true));
+
+        ContaSituacaoLoteResponse response = contaService.alterarSituacaoContas(request());
+
+        assertEquals(3, response.getAlteradas());
+        assertEquals(1, response.getInalteradas());
+        assertEquals(ResultadoAlteracaoEnum.INALTERADA, response.getResultados().get(2L));
+        assertEquals(ResultadoAlteracaoEnum.ALTERADA, response.getResultados().get(7L));
+        verify(contaCache).limpar();
+    }
+
+    @Test
+    public void testObterEventosValidaParametros() {
+        eventosProperties.setTamanhoLote(50);
+        eventosProperties.setEsperaMaximaMs(1000);
+
+        assertThrows(ValidationException.class, () -> contaService.obterEventos(-1, 10, 0));
+        assertThrows(ValidationException.class, () -> contaService.obterEventos(0, 0, 0));
+        assertThrows(ValidationException.class, () -> contaService.obterEventos(0, 51, 0));
+        assertThrows(ValidationException.class, () -> contaService.obterEventos(0, 10, -1));
+        assertThrows(ValidationException.class, () -> contaService.obterEventos(0, 10, 1001));
+        verify(feedEventos, never()).consultar(anyLong(), anyInt(), anyLong());
+
+        contaService.obterEventos(0, 50, 1000);
+        verify(feedEventos).consultar(0, 50, 1000);
+    }
+
+    private ContaSituacaoLoteRequest request() {
+        ContaSituacaoLoteRequest request = new ContaSituacaoLoteRequest();
+        request.setSituacao(SituacaoEnum.PAGA);
+        request.setDataInicial(INICIO);
+        request.setDataFinal(FIM);
+        return request;
+    }
+
+    private Map<Long, Boolean> encontradas(Object... idsEResultados) {
+        Map<Long, Boolean> encontradas = new LinkedHashMap<>();
+        for (int i = 0; i < idsEResultados.length; i += 2) {
+            encontradas.put((Long) idsEResultados[i], (Boolean) idsEResultados[i + 1]);
+        }
+        return encontradas;
+    }
+}
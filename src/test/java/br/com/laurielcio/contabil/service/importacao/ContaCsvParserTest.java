@@ -0,0 +1,109 @@
+package br.com.laurielcio.contabil.service.importacao;
+
+import br.com.laurielcio.contabil.entity.ContaEntity;
+import br.com.laurielcio.contabil.entity.SituacaoEnum;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ContaCsvParserTest {
+
+    private final ContaCsvParser parser = new ContaCsvParser();
+
+    @Test
+    public void testParseLinhaSimples() {
+        ContaEntity conta = parser.parse("2024-06-10,100,Mercado");
+
+        assertEquals(LocalDate.of(2024, 6, 10), conta.getDataVencimento());
+        assertEquals(new BigDecimal("100.00"), conta.getValor());
+        assertEquals("Mercado", conta.getDescricao());
+        assertEquals(SituacaoEnum.PENDENTE, conta.getSituacao());
+    }
+
+    @Test
+    public void testParseDescricaoEntreAspasComVirgula() {
+        ContaEntity conta = parser.parse("2024-06-10,100.5,\"Aluguel, condomínio e \"\"extras\"\"\"");
+
+        assertEquals(new BigDecimal("100.50"), conta.getValor());
+        assertEquals("Aluguel, condomínio e \"extras\"", conta.getDescricao());
+    }
+
+    @Test
+    public void testParseIdExterno() {
+        ContaEntity conta = parser.parse("2024-06-10,100,Mercado,\"ERP-123\"");
+
+        assertEquals("ERP-123", conta.getIdExterno());
+        assertNull(parser.parse("2024-06-10,100,Mercado,").getIdExterno());
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("2024-06-10,100,Mercado,ERP-123,extra"));
+    }
+
+    @Test
+    public void testHashNaturalNormalizaDescricao() {
+        byte[] hash = parser.parse("2024-06-10,100,Conta  de luz").getHashNatural();
+
+        assertEquals(32, hash.length);
+        assertArrayEquals(hash, parser.parse("2024-06-10,100.00,\" conta de LUZ \"").getHashNatural());
+        assertFalse(Arrays.equals(hash, parser.parse("2024-06-10,100,Conta de luz,ERP-1").getHashNatural()));
+        assertFalse(Arrays.equals(hash, parser.parse("2024-06-11,100,Conta de luz").getHashNatural()));
+
+        ByteBuffer buffer = ByteBuffer.wrap("2024-06-10,100,Conta de luz".getBytes(StandardCharsets.UTF_8));
+        assertArrayEquals(hash, parser.parse(buffer, 0, buffer.capacity()).getHashNatural());
+    }
+
+    @Test
+    public void testNormalizarDescricaoApenasAscii() {
+        assertEquals("CONTA DE LUZ", ChaveNaturalConta.normalizarDescricao("\t conta\r\n de  luz \f"));
+        assertEquals("", ChaveNaturalConta.normalizarDescricao(" "));
+        // letras e espaços fora do ASCII não são normalizados (como na V12, em qualquer LC_CTYPE)
+        assertEquals("MANUTENçãO", ChaveNaturalConta.normalizarDescricao("manutenção"));
+        assertEquals("A\u00A0B", ChaveNaturalConta.normalizarDescricao("a\u00A0b"));
+        assertEquals("\u0001A", ChaveNaturalConta.normalizarDescricao("\u0001a "));
+    }
+
+    @Test
+    public void testDividirCamposVazios() {
+        String[] campos = new String[3];
+
+        assertEquals(3, CsvTokenizer.dividir("a,,c", campos));
+        assertEquals("", campos[1]);
+        assertEquals(4, CsvTokenizer.dividir("a,b,c,", campos));
+    }
+
+    @Test
+    public void testRejeitaLinhaInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("2024-06-10,100"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("2024-02-30,100,Mercado"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("2024-06-10,abc,Mercado"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("2024-06-10,100.123,Mercado"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("2024-06-10,100,\"Mercado"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("2024-06-10,100,"));
+    }
+
+    @Test
+    public void testParseBytes() {
+        ByteBuffer buffer = ByteBuffer.wrap("2024-06-12, 200.5 ,\"Farmácia, \"\"24h\"\"\"\r".getBytes(StandardCharsets.UTF_8));
+
+        ContaEntity conta = parser.parse(buffer, 0, buffer.capacity() - 1);
+
+        assertEquals(LocalDate.of(2024, 6, 12), conta.getDataVencimento());
+        assertEquals(new BigDecimal("200.50"), conta.getValor());
+        assertEquals("Farmácia, \"24h\"", conta.getDescricao());
+    }
+
+    @Test
+    public void testParseBytesRejeitaLinhaInvalida() {
+        ByteBuffer buffer = ByteBuffer.wrap("2024-13-01,10,Luz".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> parser.parse(buffer, 0, buffer.capacity()));
+    }
+}
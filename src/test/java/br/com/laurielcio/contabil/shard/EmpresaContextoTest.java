@@ -0,0 +1,50 @@
+package br.com.laurielcio.contabil.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class EmpresaContextoTest {
+
+    @Test
+    public void testPropagarLevaAEmpresaParaAThreadDaTarefa() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AtomicReference<Runnable> tarefa = new AtomicReference<>();
+            AtomicReference<String> empresaNaTarefa = new AtomicReference<>();
+            EmpresaContexto.executar("acme", () ->
+                    tarefa.set(EmpresaContexto.propagar(() -> empresaNaTarefa.set(EmpresaContexto.atual()))));
+
+            executor.submit(tarefa.get()).get();
+
+            assertEquals("acme", empresaNaTarefa.get());
+            assertNull(executor.submit(EmpresaContexto::atual).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testPropagarSemEmpresaMantemATarefa() {
+        Runnable tarefa = () -> { };
+
+        assertEquals(tarefa, EmpresaContexto.propagar(tarefa));
+    }
+
+    @Test
+    public void testExecutarRestauraEmpresaAnterior() {
+        EmpresaContexto.executar("acme", () -> {
+            EmpresaContexto.executar("outra", () -> assertEquals("outra", EmpresaContexto.atual()));
+            assertEquals("acme", EmpresaContexto.atual());
+            assertEquals("acme:1", EmpresaContexto.chave(1L));
+        });
+
+        assertNull(EmpresaContexto.atual());
+        assertEquals(1L, EmpresaContexto.chave(1L));
+    }
+}
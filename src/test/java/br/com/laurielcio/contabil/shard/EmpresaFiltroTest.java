@@ -0,0 +1,71 @@
+package br.com.laurielcio.contabil.shard;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+public class EmpresaFiltroTest {
+
+    private static final String CABECALHO = "X-Empresa";
+
+    private EmpresaFiltro filtro;
+    @Mock
+    private DiretorioEmpresas diretorio;
+
+    private final List<String> empresasNaCadeia = new ArrayList<>();
+
+    private final FilterChain cadeia = (request, response) -> empresasNaCadeia.add(EmpresaContexto.atual());
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        filtro = new EmpresaFiltro(CABECALHO, diretorio);
+        when(diretorio.existe("acme")).thenReturn(true);
+    }
+
+    @Test
+    public void testSemCabecalhoRetorna400() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filtro.doFilter(new MockHttpServletRequest("GET", "/contas/1"), response, cadeia);
+
+        assertEquals(400, response.getStatus());
+        assertEquals(0, empresasNaCadeia.size());
+    }
+
+    @Test
+    public void testEmpresaForaDoCatalogoRetorna404() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/contas/1");
+        request.addHeader(CABECALHO, "outra");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filtro.doFilter(request, response, cadeia);
+
+        assertEquals(404, response.getStatus());
+        assertEquals(0, empresasNaCadeia.size());
+    }
+
+    @Test
+    public void testDefineEmpresaDuranteARequisicao() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/contas/1");
+        request.addHeader(CABECALHO, " acme ");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filtro.doFilter(request, response, cadeia);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("acme", empresasNaCadeia.get(0));
+        assertNull(EmpresaContexto.atual());
+    }
+}
@@ -0,0 +1,146 @@
+package br.com.laurielcio.contabil.shard;
+
+import br.com.laurielcio.contabil.config.ShardsProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.copy.CopyOut;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MovimentacaoEmpresasTest {
+
+    private MovimentacaoEmpresas movimentacao;
+    @Mock
+    private DiretorioEmpresas diretorio;
+    @Mock
+    private Connection leitura;
+    @Mock
+    private Connection escrita;
+    @Mock
+    private Statement comando;
+
+    private final MovimentacaoEmpresas.TabelaEmpresa contas = new MovimentacaoEmpresas.TabelaEmpresa("contas_a_pagar", "id", false);
+
+    private final MovimentacaoEmpresas.TabelaEmpresa arquivos =
+            new MovimentacaoEmpresas.TabelaEmpresa("importacoes_arquivos", "hash_arquivo", true);
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        MockitoAnnotations.initMocks(this);
+        when(diretorio.getCatalogo()).thenReturn(mock(DataSource.class));
+        movimentacao = new MovimentacaoEmpresas(diretorio, null, null, null, new ShardsProperties.Movimentacao());
+        when(escrita.createStatement()).thenReturn(comando);
+    }
+
+    @Test
+    public void testListaChavesNumericasEBinarias() {
+        assertEquals("ARRAY[1,-2,9223372036854775807]", contas.lista(Arrays.asList("1", "-2", "9223372036854775807")));
+        assertEquals("ARRAY['\\x00ff'::bytea]", arquivos.lista(Collections.singletonList("\\x00ff")));
+        assertEquals("ARRAY[]", contas.lista(Collections.emptyList()));
+    }
+
+    @Test
+    public void testListaRejeitaChavesInvalidas() {
+        assertThrows(IllegalStateException.class, () -> contas.lista(Collections.singletonList("1); DROP TABLE contas_a_pagar; --")));
+        assertThrows(IllegalStateException.class, () -> contas.lista(Collections.singletonList("12345678901234567890")));
+        assertThrows(IllegalStateException.class, () -> arquivos.lista(Collections.singletonList("\\x00'::bytea]; --")));
+        assertThrows(IllegalStateException.class, () -> arquivos.lista(Collections.singletonList("\\x00FF")));
+    }
+
+    @Test
+    public void testAplicarLoteRemoveDependentesAntesEInsereReferenciadasAntes() throws SQLException {
+        PreparedStatement alteracoes = consulta(new Object[] {1L, "importacoes_rejeicoes", "30"},
+                new Object[] {2L, "contas_a_pagar", "10"}, new Object[] {3L, "importacoes", "20"});
+        PreparedStatement colunas = consulta(new Object[] {"id"}, new Object[] {"descricao"});
+        PreparedStatement remocaoRegistro = mock(PreparedStatement.class);
+        when(leitura.prepareStatement(startsWith("SELECT id, tabela, chave"))).thenReturn(alteracoes);
+        when(leitura.prepareStatement(startsWith("SELECT column_name"))).thenReturn(colunas);
+        when(leitura.prepareStatement(startsWith("DELETE FROM movimentacao_alteracoes"))).thenReturn(remocaoRegistro);
+        copiaSemLinhas();
+
+        int processadas = movimentacao.aplicarLote(leitura, escrita, new MovimentacaoEmpresas.Progresso(1L));
+
+        assertEquals(3, processadas);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(comando, atLeastOnce()).execute(sql.capture());
+        List<String> escritas = sql.getAllValues().stream()
+                .filter(instrucao -> !instrucao.startsWith("CREATE TEMPORARY TABLE"))
+                .map(instrucao -> String.join(" ", Arrays.asList(instrucao.split(" ")).subList(0, 3)))
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList(
+                "DELETE FROM importacoes_rejeicoes",
+                "DELETE FROM importacoes",
+                "DELETE FROM contas_a_pagar",
+                "INSERT INTO contas_a_pagar",
+                "INSERT INTO importacoes",
+                "INSERT INTO importacoes_rejeicoes"), escritas);
+        verify(escrita).commit();
+        verify(remocaoRegistro).executeUpdate();
+    }
+
+    @Test
+    public void testAplicarLoteSemAlteracoes() throws SQLException {
+        PreparedStatement alteracoes = consulta();
+        when(leitura.prepareStatement(anyString())).thenReturn(alteracoes);
+
+        assertEquals(0, movimentacao.aplicarLote(leitura, escrita, new MovimentacaoEmpresas.Progresso(1L)));
+        verify(leitura).commit();
+    }
+
+    private void copiaSemLinhas() throws SQLException {
+        CopyManager copiaLeitura = mock(CopyManager.class);
+        CopyManager copiaEscrita = mock(CopyManager.class);
+        PGConnection pgLeitura = mock(PGConnection.class);
+        PGConnection pgEscrita = mock(PGConnection.class);
+        when(leitura.unwrap(PGConnection.class)).thenReturn(pgLeitura);
+        when(escrita.unwrap(PGConnection.class)).thenReturn(pgEscrita);
+        when(pgLeitura.getCopyAPI()).thenReturn(copiaLeitura);
+        when(pgEscrita.getCopyAPI()).thenReturn(copiaEscrita);
+        when(copiaLeitura.copyOut(anyString())).thenReturn(mock(CopyOut.class));
+        when(copiaEscrita.copyIn(anyString())).thenReturn(mock(CopyIn.class));
+    }
+
+    /**
+     * Consulta que devolve as linhas informadas a cada execução.
+     */
+    private PreparedStatement consulta(Object[]... linhas) throws SQLException {
+        PreparedStatement consulta = mock(PreparedStatement.class);
+        when(consulta.executeQuery()).thenAnswer(invocacao -> resultado(linhas));
+        return consulta;
+    }
+
+    private ResultSet resultado(Object[]... linhas) throws SQLException {
+        AtomicInteger atual = new AtomicInteger(-1);
+        ResultSet resultado = mock(ResultSet.class);
+        when(resultado.next()).thenAnswer(invocacao -> atual.incrementAndGet() < linhas.length);
+        when(resultado.getLong(anyInt())).thenAnswer(invocacao -> linhas[atual.get()][(int) invocacao.getArgument(0) - 1]);
+        when(resultado.getString(anyInt())).thenAnswer(invocacao -> linhas[atual.get()][(int) invocacao.getArgument(0) - 1]);
+        return resultado;
+    }
+}